@@ -66,7 +66,9 @@ public class SecurityConfig {
                     "/swagger-ui/**",
                     "/swagger-ui.html",
                     "/webjars/**",
-                    "/doc.html"
+                    "/doc.html",
+                    // WebSocket握手放行，认证在STOMP CONNECT帧中完成
+                    "/ws/**"
                 ).permitAll()
                 // 其他接口需要认证
                 .anyRequest().authenticated()
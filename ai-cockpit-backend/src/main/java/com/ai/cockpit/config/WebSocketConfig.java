@@ -0,0 +1,85 @@
+package com.ai.cockpit.config;
+
+import com.ai.cockpit.util.JwtUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+/**
+ * WebSocket配置类
+ * <p>
+ * 驾驶舱通过STOMP订阅/topic下的监控推送，握手请求放行，认证在STOMP CONNECT帧中通过Authorization头完成。
+ * 未携带认证用户的会话只能发送CONNECT与DISCONNECT帧，SUBSCRIBE、SEND等帧一律拒绝。
+ */
+@Slf4j
+@Configuration
+@EnableWebSocketMessageBroker
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final JwtUtil jwtUtil;
+    private final UserDetailsService userDetailsService;
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws").setAllowedOriginPatterns("*");
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/topic");
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                if (accessor == null || accessor.getCommand() == null) {
+                    return message;
+                }
+                StompCommand command = accessor.getCommand();
+                if (StompCommand.CONNECT.equals(command) || StompCommand.STOMP.equals(command)) {
+                    accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+                } else if (accessor.getUser() == null && !StompCommand.DISCONNECT.equals(command)) {
+                    // 未完成认证的会话不允许订阅或发送
+                    throw new MessagingException("未认证的会话");
+                }
+                return message;
+            }
+        });
+    }
+
+    /**
+     * 校验CONNECT帧携带的JWT，失败时拒绝连接
+     */
+    private UsernamePasswordAuthenticationToken authenticate(String bearerToken) {
+        if (bearerToken == null || !bearerToken.startsWith("Bearer ")) {
+            throw new MessagingException("缺少认证信息");
+        }
+        String token = bearerToken.substring(7);
+        if (!jwtUtil.validateToken(token)) {
+            throw new MessagingException("认证信息无效");
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(jwtUtil.getUsernameFromToken(token));
+        log.debug("WebSocket认证成功，用户: {}", userDetails.getUsername());
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+}
@@ -1,18 +1,26 @@
 package com.ai.cockpit.controller;
 
+import com.ai.cockpit.dto.request.DatasetDedupRequest;
 import com.ai.cockpit.dto.request.DatasetRequest;
+import com.ai.cockpit.dto.request.DatasetSplitRequest;
+import com.ai.cockpit.dto.request.DatasetUploadRequest;
 import com.ai.cockpit.dto.response.DatasetResponse;
 import com.ai.cockpit.service.DatasetService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.channels.Channels;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 数据集控制器
@@ -179,4 +187,118 @@ public class DatasetController {
         long count = datasetService.countByStatus(status);
         return ResponseEntity.ok(count);
     }
-}
\ No newline at end of file
+    
+    @Operation(summary = "开始分片上传数据集文件", description = "返回uploadId、分片大小与分片数")
+    @PostMapping("/{id}/uploads")
+    public ResponseEntity<Map<String, Object>> initiateUpload(
+            @Parameter(description = "数据集ID") @PathVariable Long id,
+            @Validated @RequestBody DatasetUploadRequest request) {
+        return ResponseEntity.ok(datasetService.initiateUpload(id, request));
+    }
+    
+    @Operation(summary = "上传数据集文件分片", description = "请求体为分片原始字节，分片可并行上传、可重复上传")
+    @PutMapping(value = "/{id}/uploads/{uploadId}/parts/{partNumber}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, Object>> uploadPart(
+            @Parameter(description = "数据集ID") @PathVariable Long id,
+            @Parameter(description = "上传ID") @PathVariable String uploadId,
+            @Parameter(description = "分片序号，从1开始") @PathVariable Integer partNumber,
+            @Parameter(description = "分片SHA-256（十六进制），用于校验") @RequestHeader(value = "X-Checksum-SHA256", required = false) String sha256,
+            HttpServletRequest request) throws IOException {
+        Map<String, Object> result = datasetService.uploadPart(id, uploadId, partNumber, request.getContentLengthLong(),
+                sha256, Channels.newChannel(request.getInputStream()));
+        return ResponseEntity.ok(result);
+    }
+    
+    @Operation(summary = "查询分片上传进度", description = "返回已上传的分片序号，用于断点续传")
+    @GetMapping("/{id}/uploads/{uploadId}")
+    public ResponseEntity<Map<String, Object>> getUpload(
+            @Parameter(description = "数据集ID") @PathVariable Long id,
+            @Parameter(description = "上传ID") @PathVariable String uploadId) {
+        return ResponseEntity.ok(datasetService.getUpload(id, uploadId));
+    }
+    
+    @Operation(summary = "完成分片上传")
+    @PostMapping("/{id}/uploads/{uploadId}/complete")
+    public ResponseEntity<DatasetResponse> completeUpload(
+            @Parameter(description = "数据集ID") @PathVariable Long id,
+            @Parameter(description = "上传ID") @PathVariable String uploadId) {
+        return ResponseEntity.ok(datasetService.completeUpload(id, uploadId));
+    }
+    
+    @Operation(summary = "取消分片上传")
+    @DeleteMapping("/{id}/uploads/{uploadId}")
+    public ResponseEntity<Void> abortUpload(
+            @Parameter(description = "数据集ID") @PathVariable Long id,
+            @Parameter(description = "上传ID") @PathVariable String uploadId) {
+        datasetService.abortUpload(id, uploadId);
+        return ResponseEntity.ok().build();
+    }
+    
+    @Operation(summary = "分析数据集", description = "服务端扫描数据集文件，计算各列统计与质量评分并写回数据集")
+    @PostMapping("/{id}/profile")
+    public ResponseEntity<Map<String, Object>> profileDataset(
+            @Parameter(description = "数据集ID") @PathVariable Long id) {
+        return ResponseEntity.ok(datasetService.profileDataset(id));
+    }
+    
+    @Operation(summary = "查询数据集分析进度")
+    @GetMapping("/{id}/profile")
+    public ResponseEntity<Map<String, Object>> getProfileStatus(
+            @Parameter(description = "数据集ID") @PathVariable Long id) {
+        return ResponseEntity.ok(datasetService.getProfileStatus(id));
+    }
+    
+    @Operation(summary = "按行预览数据集", description = "行号从0开始，CSV/TSV不含表头行，表头单独返回")
+    @GetMapping("/{id}/rows")
+    public ResponseEntity<Map<String, Object>> previewRows(
+            @Parameter(description = "数据集ID") @PathVariable Long id,
+            @Parameter(description = "起始行号") @RequestParam(defaultValue = "0") Long from,
+            @Parameter(description = "读取行数") @RequestParam(defaultValue = "50") Integer count) {
+        return ResponseEntity.ok(datasetService.previewRows(id, from, count));
+    }
+    
+    @Operation(summary = "切分数据集", description = "按行键的带种子哈希确定性地切分为训练/验证/测试集，输出分片文件或行位图")
+    @PostMapping("/{id}/split")
+    public ResponseEntity<Map<String, Object>> splitDataset(
+            @Parameter(description = "数据集ID") @PathVariable Long id,
+            @Validated @RequestBody DatasetSplitRequest request) {
+        return ResponseEntity.ok(datasetService.splitDataset(id, request));
+    }
+    
+    @Operation(summary = "查询数据集切分进度或结果")
+    @GetMapping("/{id}/split")
+    public ResponseEntity<Map<String, Object>> getSplit(
+            @Parameter(description = "数据集ID") @PathVariable Long id) {
+        return ResponseEntity.ok(datasetService.getSplit(id));
+    }
+    
+    @Operation(summary = "建立数据集去重索引", description = "计算每行的原文哈希与MinHash/LSH分带键，加入跨数据集的去重索引")
+    @PostMapping("/{id}/dedup/index")
+    public ResponseEntity<Map<String, Object>> indexDuplicates(
+            @Parameter(description = "数据集ID") @PathVariable Long id,
+            @Parameter(description = "参与比较的列名或JSON Lines顶层键，为空时比较整行") @RequestParam(required = false) String textColumn) {
+        return ResponseEntity.ok(datasetService.indexDuplicates(id, textColumn));
+    }
+    
+    @Operation(summary = "查询数据集重复情况", description = "数据集内部及与其他已建立索引的数据集之间的完全重复与近似重复比例")
+    @GetMapping("/{id}/dedup/report")
+    public ResponseEntity<Map<String, Object>> getDuplicateReport(
+            @Parameter(description = "数据集ID") @PathVariable Long id) {
+        return ResponseEntity.ok(datasetService.getDuplicateReport(id));
+    }
+    
+    @Operation(summary = "数据集去重", description = "删除内部重复行及与参照数据集重复的行，生成新的数据集")
+    @PostMapping("/{id}/dedup")
+    public ResponseEntity<Map<String, Object>> deduplicateDataset(
+            @Parameter(description = "数据集ID") @PathVariable Long id,
+            @Validated @RequestBody DatasetDedupRequest request) {
+        return ResponseEntity.ok(datasetService.deduplicateDataset(id, request));
+    }
+    
+    @Operation(summary = "查询数据集去重任务进度")
+    @GetMapping("/{id}/dedup")
+    public ResponseEntity<Map<String, Object>> getDedupJob(
+            @Parameter(description = "数据集ID") @PathVariable Long id) {
+        return ResponseEntity.ok(datasetService.getDedupJob(id));
+    }
+}
@@ -0,0 +1,50 @@
+package com.ai.cockpit.controller;
+
+import com.ai.cockpit.service.MonitorIngestService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 监控指标接入控制器
+ */
+@Tag(name = "监控指标接入", description = "监控指标批量接入相关接口")
+@RestController
+@RequestMapping("/api/v1/resource-monitors/ingest")
+@RequiredArgsConstructor
+public class MonitorIngestController {
+
+    private final MonitorIngestService monitorIngestService;
+
+    @Operation(summary = "批量接入监控指标（行协议或二进制格式）")
+    @PostMapping(consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<Map<String, Object>> ingest(HttpServletRequest request) throws IOException {
+        boolean binary = request.getContentType() != null
+                && request.getContentType().startsWith(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        MonitorIngestService.IngestResult result = binary
+                ? monitorIngestService.ingestBinary(request.getInputStream())
+                : monitorIngestService.ingestLines(request.getInputStream());
+        if (!result.accepted()) {
+            long retryAfterSeconds = Math.max(1, (result.retryAfterMillis() + 999) / 1000);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(Map.of("accepted", 0, "retryAfterMillis", result.retryAfterMillis()));
+        }
+        return ResponseEntity.accepted().body(Map.of("accepted", result.samples()));
+    }
+
+    @Operation(summary = "获取监控指标接入状态")
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(monitorIngestService.getStatus());
+    }
+}
@@ -0,0 +1,31 @@
+package com.ai.cockpit.controller;
+
+import com.ai.cockpit.service.MonitorExpositionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * 监控指标导出控制器
+ */
+@Tag(name = "监控指标导出", description = "Prometheus/OpenMetrics指标抓取接口")
+@RestController
+@RequestMapping("/api/v1/resource-monitors/metrics")
+@RequiredArgsConstructor
+public class MonitorMetricsController {
+
+    private final MonitorExpositionService monitorExpositionService;
+
+    @Operation(summary = "以OpenMetrics文本格式导出全部监控项指标")
+    @GetMapping
+    public void scrape(HttpServletResponse response) throws IOException {
+        response.setContentType(MonitorExpositionService.CONTENT_TYPE);
+        monitorExpositionService.scrape(response.getOutputStream());
+    }
+}
@@ -1,7 +1,9 @@
 package com.ai.cockpit.controller;
 
 import com.ai.cockpit.dto.request.ResourceMonitorRequest;
+import com.ai.cockpit.dto.response.CursorPageResult;
 import com.ai.cockpit.dto.response.ResourceMonitorResponse;
+import com.ai.cockpit.dto.response.ResourceMonitorSummaryResponse;
 import com.ai.cockpit.service.ResourceMonitorService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -80,7 +82,7 @@ public class ResourceMonitorController {
     
     @Operation(summary = "条件查询资源监控")
     @GetMapping("/search")
-    public ResponseEntity<Page<ResourceMonitorResponse>> search(
+    public ResponseEntity<Page<ResourceMonitorSummaryResponse>> search(
             @RequestParam(required = false) String monitorType,
             @RequestParam(required = false) String targetType,
             @RequestParam(required = false) Long targetId,
@@ -96,11 +98,31 @@ public class ResourceMonitorController {
         Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
         
-        Page<ResourceMonitorResponse> response = resourceMonitorService.search(
+        Page<ResourceMonitorSummaryResponse> response = resourceMonitorService.search(
                 monitorType, targetType, targetId, status, isEnabled, startTime, endTime, pageable);
         return ResponseEntity.ok(response);
     }
     
+    @Operation(summary = "条件查询资源监控（游标分页）")
+    @GetMapping("/search/cursor")
+    public ResponseEntity<CursorPageResult<ResourceMonitorSummaryResponse>> searchByCursor(
+            @RequestParam(required = false) String monitorType,
+            @RequestParam(required = false) String targetType,
+            @RequestParam(required = false) Long targetId,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) Boolean isEnabled,
+            @RequestParam(required = false) LocalDateTime startTime,
+            @RequestParam(required = false) LocalDateTime endTime,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "monitorTimestamp") String sort,
+            @RequestParam(defaultValue = "desc") String direction) {
+        
+        CursorPageResult<ResourceMonitorSummaryResponse> response = resourceMonitorService.searchByCursor(
+                monitorType, targetType, targetId, status, isEnabled, startTime, endTime, cursor, size, sort, direction);
+        return ResponseEntity.ok(response);
+    }
+    
     @Operation(summary = "批量创建资源监控")
     @PostMapping("/batch")
     public ResponseEntity<Void> batchCreate(
@@ -137,6 +159,12 @@ public class ResourceMonitorController {
         return ResponseEntity.ok().build();
     }
     
+    @Operation(summary = "获取监控检查调度状态")
+    @GetMapping("/check-scheduler/status")
+    public ResponseEntity<Map<String, Object>> getCheckSchedulerStatus() {
+        return ResponseEntity.ok(resourceMonitorService.getCheckSchedulerStatus());
+    }
+    
     @Operation(summary = "获取监控统计信息")
     @GetMapping("/statistics")
     public ResponseEntity<Map<String, Object>> getMonitorStatistics() {
@@ -146,8 +174,8 @@ public class ResourceMonitorController {
     
     @Operation(summary = "获取监控状态分布")
     @GetMapping("/status-distribution")
-    public ResponseEntity<Map<String, Map<Integer, Long>>> getStatusDistribution() {
-        Map<String, Map<Integer, Long>> distribution = resourceMonitorService.getStatusDistribution();
+    public ResponseEntity<Map<String, Map<String, Map<Integer, Long>>>> getStatusDistribution() {
+        Map<String, Map<String, Map<Integer, Long>>> distribution = resourceMonitorService.getStatusDistribution();
         return ResponseEntity.ok(distribution);
     }
     
@@ -157,13 +185,23 @@ public class ResourceMonitorController {
             @RequestParam String monitorType,
             @RequestParam String targetType,
             @RequestParam LocalDateTime startTime,
-            @RequestParam LocalDateTime endTime) {
+            @RequestParam LocalDateTime endTime,
+            @RequestParam(defaultValue = "60") Integer points) {
         
         List<Map<String, Object>> trendData = resourceMonitorService.getMonitorTrend(
-                monitorType, targetType, startTime, endTime);
+                monitorType, targetType, startTime, endTime, points);
         return ResponseEntity.ok(trendData);
     }
     
+    @Operation(summary = "获取监控可用性与响应时间分位数")
+    @GetMapping("/{id}/sla")
+    public ResponseEntity<Map<String, Object>> getSla(
+            @PathVariable Long id,
+            @RequestParam LocalDateTime startTime,
+            @RequestParam LocalDateTime endTime) {
+        return ResponseEntity.ok(resourceMonitorService.getSla(id, startTime, endTime));
+    }
+    
     @Operation(summary = "获取告警列表")
     @GetMapping("/alerts")
     public ResponseEntity<List<ResourceMonitorResponse>> getAlerts() {
@@ -185,8 +223,14 @@ public class ResourceMonitorController {
     
     @Operation(summary = "清理过期监控数据")
     @DeleteMapping("/cleanup")
-    public ResponseEntity<Void> cleanupExpiredData(@RequestParam LocalDateTime beforeTime) {
-        resourceMonitorService.cleanupExpiredData(beforeTime);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Map<String, Object>> cleanupExpiredData(@RequestParam LocalDateTime beforeTime) {
+        Map<String, Object> status = resourceMonitorService.cleanupExpiredData(beforeTime);
+        return ResponseEntity.accepted().body(status);
+    }
+    
+    @Operation(summary = "获取过期监控数据清理状态")
+    @GetMapping("/cleanup/status")
+    public ResponseEntity<Map<String, Object>> getCleanupStatus() {
+        return ResponseEntity.ok(resourceMonitorService.getCleanupStatus());
     }
 }
\ No newline at end of file
@@ -1,17 +1,29 @@
 package com.ai.cockpit.controller;
 
+import com.ai.cockpit.dto.request.TrainingMetricPointRequest;
+import com.ai.cockpit.dto.request.TrainingTaskBatchStatusRequest;
 import com.ai.cockpit.dto.request.TrainingTaskRequest;
 import com.ai.cockpit.dto.response.TrainingTaskResponse;
 import com.ai.cockpit.service.TrainingTaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 训练任务控制器
@@ -107,6 +119,7 @@ public class TrainingTaskController {
     
     @Operation(summary = "启动训练任务")
     @PostMapping("/{id}/start")
+    @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> startTask(
             @Parameter(description = "任务ID") @PathVariable Long id) {
         trainingTaskService.startTask(id);
@@ -115,6 +128,7 @@ public class TrainingTaskController {
     
     @Operation(summary = "停止训练任务")
     @PostMapping("/{id}/stop")
+    @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> stopTask(
             @Parameter(description = "任务ID") @PathVariable Long id) {
         trainingTaskService.stopTask(id);
@@ -123,12 +137,127 @@ public class TrainingTaskController {
     
     @Operation(summary = "取消训练任务")
     @PostMapping("/{id}/cancel")
+    @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> cancelTask(
             @Parameter(description = "任务ID") @PathVariable Long id) {
         trainingTaskService.cancelTask(id);
         return ResponseEntity.ok().build();
     }
     
+    @Operation(summary = "订阅训练任务实时进度")
+    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTask(
+            @Parameter(description = "任务ID") @PathVariable Long id) {
+        return ResponseEntity.ok(trainingTaskService.streamTask(id));
+    }
+    
+    @Operation(summary = "订阅当前用户全部训练任务实时进度")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamUserTasks(
+            @Parameter(hidden = true) @RequestAttribute Long userId) {
+        return ResponseEntity.ok(trainingTaskService.streamUserTasks(userId));
+    }
+    
+    @Operation(summary = "按行号读取训练日志")
+    @GetMapping("/{id}/logs/lines")
+    public ResponseEntity<Map<String, Object>> getLogLines(
+            @Parameter(description = "任务ID") @PathVariable Long id,
+            @Parameter(description = "起始行号，从0开始") @RequestParam(required = false) Long fromLine,
+            @Parameter(description = "行数") @RequestParam(required = false) Integer count) {
+        return ResponseEntity.ok(trainingTaskService.getLogLines(id, fromLine, count));
+    }
+    
+    @Operation(summary = "读取训练日志末尾若干行")
+    @GetMapping("/{id}/logs/tail")
+    public ResponseEntity<Map<String, Object>> getLogTail(
+            @Parameter(description = "任务ID") @PathVariable Long id,
+            @Parameter(description = "行数") @RequestParam(required = false) Integer lines) {
+        return ResponseEntity.ok(trainingTaskService.getLogTail(id, lines));
+    }
+    
+    @Operation(summary = "按字节范围读取训练日志")
+    @GetMapping("/{id}/logs/bytes")
+    public ResponseEntity<Map<String, Object>> getLogBytes(
+            @Parameter(description = "任务ID") @PathVariable Long id,
+            @Parameter(description = "起始字节偏移") @RequestParam(required = false) Long offset,
+            @Parameter(description = "字节数") @RequestParam(required = false) Integer length) {
+        return ResponseEntity.ok(trainingTaskService.getLogBytes(id, offset, length));
+    }
+    
+    @Operation(summary = "跟随训练日志")
+    @GetMapping(value = "/{id}/logs/follow", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> followLog(
+            @Parameter(description = "任务ID") @PathVariable Long id,
+            @Parameter(description = "起始字节偏移，为空时从末尾开始") @RequestParam(required = false) Long fromOffset,
+            @Parameter(description = "开始跟随前先推送的末尾行数") @RequestParam(required = false) Integer tailLines) {
+        return ResponseEntity.ok(trainingTaskService.followLog(id, fromOffset, tailLines));
+    }
+    
+    @Operation(summary = "获取训练执行器状态")
+    @GetMapping("/executor/status")
+    public ResponseEntity<Map<String, Object>> getExecutorStatus() {
+        return ResponseEntity.ok(trainingTaskService.getExecutorStatus());
+    }
+    
+    @Operation(summary = "获取训练队列预测")
+    @GetMapping("/executor/forecast")
+    public ResponseEntity<Map<String, Object>> forecastQueue() {
+        return ResponseEntity.ok(trainingTaskService.forecastQueue());
+    }
+    
+    @Operation(summary = "获取预计完成时间")
+    @GetMapping("/{id}/eta")
+    public ResponseEntity<Map<String, Object>> getEta(
+            @Parameter(description = "任务ID") @PathVariable Long id) {
+        return ResponseEntity.ok(trainingTaskService.getEta(id));
+    }
+    
+    @Operation(summary = "导入检查点")
+    @PostMapping("/{id}/artifacts")
+    public ResponseEntity<Map<String, Object>> importCheckpoint(
+            @Parameter(description = "任务ID") @PathVariable Long id,
+            @Parameter(description = "检查点名称") @RequestParam String name,
+            @Parameter(description = "导入目录下的相对路径（文件或目录）") @RequestParam String path) {
+        return ResponseEntity.ok(trainingTaskService.importCheckpoint(id, name, path));
+    }
+    
+    @Operation(summary = "获取检查点列表")
+    @GetMapping("/{id}/artifacts")
+    public ResponseEntity<List<Map<String, Object>>> listCheckpoints(
+            @Parameter(description = "任务ID") @PathVariable Long id) {
+        return ResponseEntity.ok(trainingTaskService.listCheckpoints(id));
+    }
+    
+    @Operation(summary = "获取检查点清单")
+    @GetMapping("/{id}/artifacts/{name}")
+    public ResponseEntity<Map<String, Object>> getCheckpoint(
+            @Parameter(description = "任务ID") @PathVariable Long id,
+            @Parameter(description = "检查点名称") @PathVariable String name) {
+        return ResponseEntity.ok(trainingTaskService.getCheckpoint(id, name));
+    }
+    
+    @Operation(summary = "下载检查点文件")
+    @GetMapping("/{id}/artifacts/{name}/download")
+    public void downloadCheckpointFile(
+            @Parameter(description = "任务ID") @PathVariable Long id,
+            @Parameter(description = "检查点名称") @PathVariable String name,
+            @Parameter(description = "文件路径，检查点只有一个文件时可省略") @RequestParam(required = false) String file,
+            HttpServletResponse response) throws IOException {
+        long size = trainingTaskService.getCheckpointFileSize(id, name, file);
+        String fileName = file == null || file.isBlank() ? name : file.substring(file.lastIndexOf('/') + 1);
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(size);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(fileName, StandardCharsets.UTF_8).build().toString());
+        trainingTaskService.writeCheckpointFile(id, name, file, Channels.newChannel(response.getOutputStream()));
+    }
+    
+    @Operation(summary = "获取训练产物存储统计")
+    @GetMapping("/artifacts/stats")
+    public ResponseEntity<Map<String, Object>> getArtifactStats() {
+        return ResponseEntity.ok(trainingTaskService.getArtifactStats());
+    }
+    
     @Operation(summary = "更新训练进度")
     @PutMapping("/{id}/progress")
     public ResponseEntity<Void> updateProgress(
@@ -148,8 +277,36 @@ public class TrainingTaskController {
         return ResponseEntity.ok().build();
     }
     
+    @Operation(summary = "追加训练指标点")
+    @PostMapping("/{id}/metrics/points")
+    public ResponseEntity<Void> appendMetricPoints(
+            @Parameter(description = "任务ID") @PathVariable Long id,
+            @RequestBody List<TrainingMetricPointRequest> points) {
+        trainingTaskService.appendMetricPoints(id, points);
+        return ResponseEntity.ok().build();
+    }
+    
+    @Operation(summary = "获取训练指标名称")
+    @GetMapping("/{id}/metrics/names")
+    public ResponseEntity<List<String>> getMetricNames(
+            @Parameter(description = "任务ID") @PathVariable Long id) {
+        return ResponseEntity.ok(trainingTaskService.getMetricNames(id));
+    }
+    
+    @Operation(summary = "获取训练指标曲线")
+    @GetMapping("/{id}/metrics/curve")
+    public ResponseEntity<Map<String, Object>> getMetricCurve(
+            @Parameter(description = "任务ID") @PathVariable Long id,
+            @Parameter(description = "指标名称") @RequestParam String name,
+            @Parameter(description = "起始步数") @RequestParam(required = false) Long fromStep,
+            @Parameter(description = "结束步数") @RequestParam(required = false) Long toStep,
+            @Parameter(description = "像素宽度") @RequestParam(required = false) Integer width) {
+        return ResponseEntity.ok(trainingTaskService.getMetricCurve(id, name, fromStep, toStep, width));
+    }
+    
     @Operation(summary = "更新训练状态")
     @PutMapping("/{id}/status")
+    @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> updateStatus(
             @Parameter(description = "任务ID") @PathVariable Long id,
             @RequestParam Integer status) {
@@ -157,6 +314,14 @@ public class TrainingTaskController {
         return ResponseEntity.ok().build();
     }
     
+    @Operation(summary = "批量更新训练状态")
+    @PostMapping("/batch/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> batchUpdateStatus(
+            @Validated @RequestBody TrainingTaskBatchStatusRequest request) {
+        return ResponseEntity.ok(trainingTaskService.batchUpdateStatus(request));
+    }
+    
     @Operation(summary = "记录训练错误")
     @PostMapping("/{id}/error")
     public ResponseEntity<Void> recordError(
@@ -0,0 +1,26 @@
+package com.ai.cockpit.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 数据集去重请求DTO
+ */
+@Data
+@Schema(description = "数据集去重")
+public class DatasetDedupRequest {
+
+    @Schema(description = "去重后生成的数据集名称，为空时为“原名称-dedup”")
+    private String name;
+
+    @Schema(description = "参照数据集ID，与这些数据集重复的行会被删除（如从训练数据中去掉与测试集重复的行）")
+    private List<Long> referenceDatasetIds;
+
+    @Schema(description = "是否删除数据集内部的重复行（保留首次出现的行），默认是")
+    private Boolean removeInternal;
+
+    @Schema(description = "是否按近似重复删除，否时只删除完全相同的行，默认是")
+    private Boolean nearDuplicates;
+}
@@ -28,7 +28,7 @@ public class DatasetRequest {
     @Schema(description = "数据格式：json、csv、parquet、image等")
     private String format;
     
-    @Schema(description = "数据集文件路径")
+    @Schema(description = "数据集文件路径（只读，由分片上传完成时写入，请求中的值被忽略）")
     private String filePath;
     
     @Schema(description = "数据集大小（字节）")
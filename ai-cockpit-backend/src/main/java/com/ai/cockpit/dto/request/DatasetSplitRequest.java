@@ -0,0 +1,38 @@
+package com.ai.cockpit.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Pattern;
+import java.math.BigDecimal;
+
+/**
+ * 数据集切分请求DTO
+ */
+@Data
+@Schema(description = "数据集切分")
+public class DatasetSplitRequest {
+    
+    @Pattern(regexp = "(?i)files|bitmap", message = "输出方式只能是files或bitmap")
+    @Schema(description = "输出方式：files-分片文件，bitmap-行位图（默认）")
+    private String mode;
+    
+    @Schema(description = "哈希种子，相同种子与比例的切分结果相同")
+    private Long seed;
+    
+    @Schema(description = "键列（CSV/TSV列名或JSON Lines顶层键），为空时以整行为键")
+    private String keyColumn;
+    
+    @DecimalMin(value = "0", message = "训练集比例不能为负数")
+    @Schema(description = "训练集比例，为空时使用数据集设置")
+    private BigDecimal trainRatio;
+    
+    @DecimalMin(value = "0", message = "验证集比例不能为负数")
+    @Schema(description = "验证集比例，为空时使用数据集设置")
+    private BigDecimal validationRatio;
+    
+    @DecimalMin(value = "0", message = "测试集比例不能为负数")
+    @Schema(description = "测试集比例，为空时使用数据集设置")
+    private BigDecimal testRatio;
+}
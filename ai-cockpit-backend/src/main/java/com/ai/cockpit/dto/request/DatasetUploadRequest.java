@@ -0,0 +1,28 @@
+package com.ai.cockpit.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * 数据集分片上传请求DTO
+ */
+@Data
+@Schema(description = "数据集分片上传")
+public class DatasetUploadRequest {
+    
+    @NotBlank(message = "文件名不能为空")
+    @Schema(description = "文件名", required = true)
+    private String fileName;
+    
+    @NotNull(message = "文件大小不能为空")
+    @Positive(message = "文件大小必须大于0")
+    @Schema(description = "文件大小（字节）", required = true)
+    private Long fileSize;
+    
+    @Schema(description = "分片大小（字节），为空时使用默认值")
+    private Long partSize;
+}
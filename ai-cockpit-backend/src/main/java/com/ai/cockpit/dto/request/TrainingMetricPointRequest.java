@@ -0,0 +1,30 @@
+package com.ai.cockpit.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * 训练指标点请求DTO
+ */
+@Data
+@Schema(description = "训练指标点")
+public class TrainingMetricPointRequest {
+    
+    @NotNull(message = "训练步数不能为空")
+    @Schema(description = "训练步数", required = true)
+    private Long step;
+    
+    @Schema(description = "当前epoch")
+    private Integer epoch;
+    
+    @NotBlank(message = "指标名称不能为空")
+    @Schema(description = "指标名称，如loss、accuracy", required = true)
+    private String name;
+    
+    @NotNull(message = "指标值不能为空")
+    @Schema(description = "指标值", required = true)
+    private Double value;
+}
@@ -0,0 +1,27 @@
+package com.ai.cockpit.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * 训练任务批量状态变更请求DTO
+ */
+@Data
+@Schema(description = "训练任务批量状态变更")
+public class TrainingTaskBatchStatusRequest {
+    
+    @NotEmpty(message = "任务ID不能为空")
+    @Schema(description = "任务ID列表", required = true)
+    private List<Long> ids;
+    
+    @NotNull(message = "目标状态不能为空")
+    @Schema(description = "目标状态：1-运行中，2-已完成，3-失败，4-已取消，5-排队中", required = true)
+    private Integer status;
+    
+    @Schema(description = "错误信息，目标状态为失败时写入")
+    private String errorMessage;
+}
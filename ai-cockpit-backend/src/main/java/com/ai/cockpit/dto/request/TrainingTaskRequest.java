@@ -34,7 +34,7 @@ public class TrainingTaskRequest {
     @Schema(description = "数据集名称")
     private String datasetName;
     
-    @Schema(description = "训练配置JSON")
+    @Schema(description = "训练配置JSON，可通过commandTemplate选择服务端配置的训练命令模板")
     private String trainingConfig;
     
     @Schema(description = "训练参数JSON")
@@ -46,4 +46,7 @@ public class TrainingTaskRequest {
     
     @Schema(description = "GPU使用情况")
     private String gpuUsage;
+    
+    @Schema(description = "调度优先级，数值越大越先执行，默认0")
+    private Integer priority;
 }
\ No newline at end of file
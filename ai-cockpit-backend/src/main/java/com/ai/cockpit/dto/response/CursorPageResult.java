@@ -0,0 +1,40 @@
+package com.ai.cockpit.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标分页响应结果
+ */
+@Data
+@NoArgsConstructor
+public class CursorPageResult<T> {
+
+    /** 数据列表 */
+    private List<T> items;
+
+    /** 每页大小 */
+    private Integer size;
+
+    /** 下一页游标，没有下一页时为null */
+    private String nextCursor;
+
+    /** 是否有下一页 */
+    private Boolean hasNext;
+
+    public CursorPageResult(List<T> items, Integer size, String nextCursor) {
+        this.items = items;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+
+    /**
+     * 创建游标分页结果
+     */
+    public static <T> CursorPageResult<T> of(List<T> items, Integer size, String nextCursor) {
+        return new CursorPageResult<>(items, size, nextCursor);
+    }
+}
@@ -34,6 +34,9 @@ public class DatasetResponse {
     @Schema(description = "数据集大小（字节）")
     private Long fileSize;
     
+    @Schema(description = "文件校验和")
+    private String fileChecksum;
+    
     @Schema(description = "数据条数")
     private Long dataCount;
     
@@ -0,0 +1,115 @@
+package com.ai.cockpit.dto.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 资源监控摘要响应DTO
+ * <p>
+ * 列表查询直接投影的字段子集，不包含监控数据、标签及各类配置等TEXT列。
+ */
+@Data
+@NoArgsConstructor
+public class ResourceMonitorSummaryResponse {
+
+    private Long id;
+
+    /** 监控类型 */
+    private String monitorType;
+
+    /** 监控目标类型 */
+    private String targetType;
+
+    /** 监控目标ID */
+    private Long targetId;
+
+    /** 监控目标名称 */
+    private String targetName;
+
+    /** 监控指标值 */
+    private BigDecimal metricValue;
+
+    /** 监控指标单位 */
+    private String metricUnit;
+
+    /** 监控阈值（警告） */
+    private BigDecimal warningThreshold;
+
+    /** 监控阈值（严重） */
+    private BigDecimal criticalThreshold;
+
+    /** 监控状态：0-正常，1-警告，2-严重，3-未知 */
+    private Integer status;
+
+    /** 监控状态描述 */
+    private String statusDesc;
+
+    /** 监控时间戳 */
+    private LocalDateTime monitorTimestamp;
+
+    /** 是否启用 */
+    private Boolean isEnabled;
+
+    /** 监控间隔（秒） */
+    private Integer monitorInterval;
+
+    /** 最后检查时间 */
+    private LocalDateTime lastCheckTime;
+
+    /** 可用性百分比 */
+    private BigDecimal availabilityPercentage;
+
+    /** 平均响应时间（毫秒） */
+    private BigDecimal avgResponseTime;
+
+    /** 创建时间 */
+    private LocalDateTime createdTime;
+
+    /** 更新时间 */
+    private LocalDateTime updatedTime;
+
+    /**
+     * JPQL构造表达式使用，参数顺序与字段声明一致（不含statusDesc）
+     */
+    public ResourceMonitorSummaryResponse(Long id, String monitorType, String targetType, Long targetId,
+                                          String targetName, BigDecimal metricValue, String metricUnit,
+                                          BigDecimal warningThreshold, BigDecimal criticalThreshold, Integer status,
+                                          LocalDateTime monitorTimestamp, Boolean isEnabled, Integer monitorInterval,
+                                          LocalDateTime lastCheckTime, BigDecimal availabilityPercentage,
+                                          BigDecimal avgResponseTime, LocalDateTime createdTime, LocalDateTime updatedTime) {
+        this.id = id;
+        this.monitorType = monitorType;
+        this.targetType = targetType;
+        this.targetId = targetId;
+        this.targetName = targetName;
+        this.metricValue = metricValue;
+        this.metricUnit = metricUnit;
+        this.warningThreshold = warningThreshold;
+        this.criticalThreshold = criticalThreshold;
+        this.status = status;
+        this.statusDesc = statusDesc(status);
+        this.monitorTimestamp = monitorTimestamp;
+        this.isEnabled = isEnabled;
+        this.monitorInterval = monitorInterval;
+        this.lastCheckTime = lastCheckTime;
+        this.availabilityPercentage = availabilityPercentage;
+        this.avgResponseTime = avgResponseTime;
+        this.createdTime = createdTime;
+        this.updatedTime = updatedTime;
+    }
+
+    private static String statusDesc(Integer status) {
+        if (status == null) {
+            return null;
+        }
+        return switch (status) {
+            case 0 -> "正常";
+            case 1 -> "警告";
+            case 2 -> "严重";
+            default -> "未知";
+        };
+    }
+}
@@ -39,9 +39,18 @@ public class TrainingTaskResponse {
     @Schema(description = "训练参数JSON")
     private String hyperparameters;
     
-    @Schema(description = "训练状态：0-等待中，1-运行中，2-已完成，3-失败，4-已取消")
+    @Schema(description = "训练状态：0-等待中，1-运行中，2-已完成，3-失败，4-已取消，5-排队中")
     private Integer status;
     
+    @Schema(description = "调度优先级")
+    private Integer priority;
+    
+    @Schema(description = "进入执行队列的时间")
+    private LocalDateTime queuedTime;
+    
+    @Schema(description = "排队时长（秒）")
+    private Long queueWait;
+    
     @Schema(description = "进度百分比")
     private Integer progress;
     
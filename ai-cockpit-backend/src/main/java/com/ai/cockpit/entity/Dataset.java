@@ -42,6 +42,9 @@ public class Dataset {
     /** 数据集大小（字节） */
     private Long fileSize;
     
+    /** 文件校验和：单个分片为sha256:{十六进制}，多个分片为各分片SHA-256按序拼接后的SHA-256，格式sha256-parts:{十六进制}-{分片数} */
+    private String fileChecksum;
+    
     /** 数据条数 */
     private Long dataCount;
     
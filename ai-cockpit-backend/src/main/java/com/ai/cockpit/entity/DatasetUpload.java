@@ -0,0 +1,66 @@
+package com.ai.cockpit.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 数据集分片上传会话实体类
+ * <p>
+ * 文件按固定分片大小切分，第n个分片（从1开始）对应偏移(n-1)*partSize；已上传的分片记录在dataset_upload_part表，
+ * 连接中断后客户端查询已上传分片继续上传。
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Entity
+@Table(name = "dataset_upload", indexes = {
+    @Index(name = "idx_dataset_upload_dataset", columnList = "dataset_id"),
+    @Index(name = "idx_dataset_upload_expire", columnList = "status, expire_time")
+})
+public class DatasetUpload {
+    
+    /** 上传ID */
+    @Id
+    @TableId(value = "upload_id", type = IdType.INPUT)
+    @Column(name = "upload_id", length = 36)
+    private String uploadId;
+    
+    /** 数据集ID */
+    @Column(name = "dataset_id", nullable = false)
+    private Long datasetId;
+    
+    /** 文件名 */
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+    
+    /** 文件大小（字节） */
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+    
+    /** 分片大小（字节） */
+    @Column(name = "part_size", nullable = false)
+    private Long partSize;
+    
+    /** 分片数 */
+    @Column(name = "part_count", nullable = false)
+    private Integer partCount;
+    
+    /** 存储后端：local、minio */
+    @Column(name = "backend", nullable = false, length = 16)
+    private String backend;
+    
+    /** 状态：0-上传中，1-合并中，2-已完成，3-已取消 */
+    @Column(name = "status", nullable = false)
+    private Integer status;
+    
+    /** 创建时间 */
+    @Column(name = "create_time", nullable = false)
+    private LocalDateTime createTime;
+    
+    /** 过期时间，过期未完成的上传被清理 */
+    @Column(name = "expire_time", nullable = false)
+    private LocalDateTime expireTime;
+}
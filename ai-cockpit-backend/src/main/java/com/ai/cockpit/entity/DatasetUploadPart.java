@@ -0,0 +1,45 @@
+package com.ai.cockpit.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 数据集上传分片实体类
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Entity
+@Table(name = "dataset_upload_part", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_upload_part", columnNames = {"upload_id", "part_number"})
+})
+public class DatasetUploadPart {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+    
+    /** 上传ID */
+    @Column(name = "upload_id", nullable = false, length = 36)
+    private String uploadId;
+    
+    /** 分片序号，从1开始 */
+    @Column(name = "part_number", nullable = false)
+    private Integer partNumber;
+    
+    /** 分片大小（字节） */
+    @Column(name = "size", nullable = false)
+    private Long size;
+    
+    /** 分片内容的SHA-256（十六进制） */
+    @Column(name = "sha256", nullable = false, length = 64)
+    private String sha256;
+    
+    /** 上传完成时间 */
+    @Column(name = "upload_time", nullable = false)
+    private LocalDateTime uploadTime;
+}
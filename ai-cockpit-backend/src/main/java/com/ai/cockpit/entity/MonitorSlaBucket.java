@@ -0,0 +1,54 @@
+package com.ai.cockpit.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 监控可用性桶实体类
+ * <p>
+ * 每个节点对每个监控项每个时间桶写一行，payload为分钟级检查/失败位图与延迟草图的序列化结果。
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@Entity
+@Table(name = "monitor_sla_bucket", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_monitor_node_bucket", columnNames = {"monitor_id", "node_id", "bucket_start", "bucket_minutes"})
+}, indexes = {
+    @Index(name = "idx_bucket_start", columnList = "bucket_start")
+})
+public class MonitorSlaBucket {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+    
+    /** 监控项ID */
+    @Column(name = "monitor_id", nullable = false)
+    private Long monitorId;
+    
+    /** 写入节点标识 */
+    @Column(name = "node_id", nullable = false, length = 64)
+    private String nodeId;
+    
+    /** 桶起始时间（Unix纪元分钟数） */
+    @Column(name = "bucket_start", nullable = false)
+    private Long bucketStart;
+    
+    /** 桶长度（分钟） */
+    @Column(name = "bucket_minutes", nullable = false)
+    private Integer bucketMinutes;
+    
+    /** 序列化的位图与延迟草图 */
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private byte[] payload;
+    
+    /** 更新时间 */
+    @Column(name = "updated_time", nullable = false)
+    private LocalDateTime updatedTime;
+}
@@ -18,7 +18,9 @@ import java.time.LocalDateTime;
     @Index(name = "idx_monitor_target", columnList = "targetId,targetType"),
     @Index(name = "idx_monitor_status", columnList = "status"),
     @Index(name = "idx_monitor_timestamp", columnList = "monitorTimestamp"),
-    @Index(name = "idx_monitor_created_time", columnList = "createdTime")
+    @Index(name = "idx_monitor_created_time", columnList = "createdTime"),
+    @Index(name = "idx_monitor_type_target_timestamp", columnList = "monitorType,targetType,monitorTimestamp"),
+    @Index(name = "idx_monitor_status_timestamp", columnList = "status,monitorTimestamp")
 })
 public class ResourceMonitor {
     
@@ -3,6 +3,7 @@ package com.ai.cockpit.entity;
 import com.baomidou.mybatisplus.annotation.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.DynamicUpdate;
 
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
@@ -13,7 +14,10 @@ import java.time.LocalDateTime;
 @Data
 @EqualsAndHashCode(callSuper = false)
 @Entity
-@Table(name = "training_task")
+@DynamicUpdate
+@Table(name = "training_task", indexes = {
+    @Index(name = "idx_training_task_status_priority", columnList = "status, priority")
+})
 public class TrainingTask {
     
     @Id
@@ -51,9 +55,27 @@ public class TrainingTask {
     @Column(columnDefinition = "TEXT")
     private String hyperparameters;
     
-    /** 训练状态：0-等待中，1-运行中，2-已完成，3-失败，4-已取消 */
+    /** 训练状态：0-等待中，1-运行中，2-已完成，3-失败，4-已取消，5-排队中，见{@link TrainingTaskStatus} */
     private Integer status;
     
+    /** 乐观锁版本，状态迁移与实体保存时递增，进度写回不递增 */
+    @jakarta.persistence.Version
+    @Column(nullable = false)
+    private Long version;
+    
+    /** 调度优先级，数值越大越先执行 */
+    private Integer priority;
+    
+    /** 进入执行队列的时间 */
+    private LocalDateTime queuedTime;
+    
+    /** 排队时长（秒） */
+    private Long queueWait;
+    
+    /** 启动训练进程的节点标识 */
+    @Column(length = 64)
+    private String executorNode;
+    
     /** 进度百分比 */
     private Integer progress;
     
@@ -0,0 +1,86 @@
+package com.ai.cockpit.entity;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 训练任务状态
+ * <p>
+ * 数据库中保存code；允许的迁移：等待中 -> 排队中/运行中/已取消，排队中 -> 运行中/失败/已取消，
+ * 运行中 -> 已完成/失败/已取消；已完成、失败、已取消为终态。
+ */
+public enum TrainingTaskStatus {
+
+    /** 等待中 */
+    PENDING(0, "等待中"),
+    /** 运行中 */
+    RUNNING(1, "运行中"),
+    /** 已完成 */
+    COMPLETED(2, "已完成"),
+    /** 失败（含手动停止） */
+    FAILED(3, "失败"),
+    /** 已取消 */
+    CANCELLED(4, "已取消"),
+    /** 排队中 */
+    QUEUED(5, "排队中");
+
+    private final int code;
+
+    private final String description;
+
+    TrainingTaskStatus(int code, String description) {
+        this.code = code;
+        this.description = description;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * 是否为终态
+     */
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+
+    /**
+     * 是否允许迁移到目标状态
+     */
+    public boolean canTransitionTo(TrainingTaskStatus target) {
+        return switch (this) {
+            case PENDING -> target == QUEUED || target == RUNNING || target == CANCELLED;
+            case QUEUED -> target == RUNNING || target == FAILED || target == CANCELLED;
+            case RUNNING -> target == COMPLETED || target == FAILED || target == CANCELLED;
+            case COMPLETED, FAILED, CANCELLED -> false;
+        };
+    }
+
+    /**
+     * 可以迁移到目标状态的全部来源状态
+     */
+    public static Set<TrainingTaskStatus> sourcesOf(TrainingTaskStatus target) {
+        Set<TrainingTaskStatus> sources = EnumSet.noneOf(TrainingTaskStatus.class);
+        for (TrainingTaskStatus status : values()) {
+            if (status.canTransitionTo(target)) {
+                sources.add(status);
+            }
+        }
+        return sources;
+    }
+
+    public static TrainingTaskStatus of(Integer code) {
+        if (code != null) {
+            for (TrainingTaskStatus status : values()) {
+                if (status.code == code) {
+                    return status;
+                }
+            }
+        }
+        throw new IllegalArgumentException("未知的训练任务状态: " + code);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ai.cockpit.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 监控告警状态变更事件
+ * <p>
+ * 监控项状态（0-正常，1-警告，2-严重，3-未知）发生迁移时发布，每次迁移只发布一次。
+ */
+@Getter
+public class MonitorAlertEvent extends ApplicationEvent {
+
+    /** 监控项ID */
+    private final long monitorId;
+
+    /** 时序序列ID */
+    private final int seriesId;
+
+    /** 变更前状态 */
+    private final int previousStatus;
+
+    /** 变更后状态 */
+    private final int status;
+
+    /** 触发方式 */
+    private final Trigger trigger;
+
+    /** 触发时参与判断的值（阈值规则为样本值或窗口平均值，变化率规则为变化率，异常检测为偏离的标准差倍数），无值时为NaN */
+    private final double value;
+
+    /** 触发样本的时间戳（毫秒） */
+    private final long sampleTimestamp;
+
+    public MonitorAlertEvent(Object source, long monitorId, int seriesId, int previousStatus, int status,
+                             Trigger trigger, double value, long timestamp) {
+        super(source);
+        this.monitorId = monitorId;
+        this.seriesId = seriesId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.trigger = trigger;
+        this.value = value;
+        this.sampleTimestamp = timestamp;
+    }
+
+    /**
+     * 是否为告警恢复
+     */
+    public boolean isRecovery() {
+        return status < previousStatus;
+    }
+
+    /**
+     * 触发方式
+     */
+    public enum Trigger {
+        /** 样本值越过阈值 */
+        THRESHOLD,
+        /** 窗口平均值越过阈值 */
+        WINDOW_AVERAGE,
+        /** 变化率越过阈值 */
+        RATE_OF_CHANGE,
+        /** 主动探测失败 */
+        PROBE_FAILURE,
+        /** 超时未收到数据 */
+        NO_DATA,
+        /** 样本偏离EWMA/季节基线（值为偏离的标准差倍数） */
+        ANOMALY
+    }
+}
@@ -0,0 +1,35 @@
+package com.ai.cockpit.event;
+
+import com.ai.cockpit.entity.ResourceMonitor;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 资源监控项变更事件
+ * <p>
+ * 在监控项创建、更新、删除后发布，监听方应在事务提交后处理。
+ */
+@Getter
+public class ResourceMonitorChangedEvent extends ApplicationEvent {
+
+    /** 变更类型 */
+    private final ChangeType changeType;
+
+    /** 变更后的监控项（删除时为删除前的监控项） */
+    private final ResourceMonitor monitor;
+
+    public ResourceMonitorChangedEvent(Object source, ChangeType changeType, ResourceMonitor monitor) {
+        super(source);
+        this.changeType = changeType;
+        this.monitor = monitor;
+    }
+
+    /**
+     * 变更类型
+     */
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
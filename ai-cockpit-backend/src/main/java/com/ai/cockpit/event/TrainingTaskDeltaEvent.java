@@ -0,0 +1,58 @@
+package com.ai.cockpit.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 训练任务增量事件
+ * <p>
+ * 训练进度、epoch、指标或状态变化时发布，只携带发生变化的字段，未变化的字段为null。
+ */
+@Getter
+public class TrainingTaskDeltaEvent extends ApplicationEvent {
+
+    /** 任务ID */
+    private final Long taskId;
+
+    /** 创建者ID，只有状态事件携带，用于把新任务加入创建者的订阅 */
+    private final Long creatorId;
+
+    /** 进度百分比 */
+    private final Integer progress;
+
+    /** 当前epoch */
+    private final Integer currentEpoch;
+
+    /** 指标快照 */
+    private final String metrics;
+
+    /** 任务状态 */
+    private final Integer status;
+
+    /** 变化时间（毫秒） */
+    private final long updatedAt;
+
+    public TrainingTaskDeltaEvent(Object source, Long taskId, Long creatorId, Integer progress, Integer currentEpoch,
+                                  String metrics, Integer status) {
+        super(source);
+        this.taskId = taskId;
+        this.creatorId = creatorId;
+        this.progress = progress;
+        this.currentEpoch = currentEpoch;
+        this.metrics = metrics;
+        this.status = status;
+        this.updatedAt = System.currentTimeMillis();
+    }
+
+    public static TrainingTaskDeltaEvent progress(Object source, Long taskId, Integer progress, Integer currentEpoch) {
+        return new TrainingTaskDeltaEvent(source, taskId, null, progress, currentEpoch, null, null);
+    }
+
+    public static TrainingTaskDeltaEvent metrics(Object source, Long taskId, String metrics) {
+        return new TrainingTaskDeltaEvent(source, taskId, null, null, null, metrics, null);
+    }
+
+    public static TrainingTaskDeltaEvent status(Object source, Long taskId, Long creatorId, Integer status) {
+        return new TrainingTaskDeltaEvent(source, taskId, creatorId, null, null, null, status);
+    }
+}
@@ -2,6 +2,7 @@ package com.ai.cockpit.exception;
 
 import com.ai.cockpit.dto.response.ApiResult;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -35,6 +36,16 @@ public class GlobalExceptionHandler {
         return ApiResult.error(e.getCode(), e.getMessage());
     }
 
+    /**
+     * 处理乐观锁冲突（数据已被并发修改）
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiResult<Object> handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        log.warn("乐观锁冲突: {}", e.getMessage());
+        return ApiResult.error(409, "数据已被修改，请刷新后重试");
+    }
+
     /**
      * 处理参数校验异常
      */
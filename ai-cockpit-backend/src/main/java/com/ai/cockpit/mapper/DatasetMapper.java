@@ -23,6 +23,8 @@ public interface DatasetMapper {
      */
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "status", ignore = true)
+    @Mapping(target = "filePath", ignore = true)
+    @Mapping(target = "fileChecksum", ignore = true)
     @Mapping(target = "creatorId", ignore = true)
     @Mapping(target = "creatorName", ignore = true)
     @Mapping(target = "createTime", ignore = true)
@@ -39,6 +41,8 @@ public interface DatasetMapper {
      */
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "status", ignore = true)
+    @Mapping(target = "filePath", ignore = true)
+    @Mapping(target = "fileChecksum", ignore = true)
     @Mapping(target = "creatorId", ignore = true)
     @Mapping(target = "creatorName", ignore = true)
     @Mapping(target = "createTime", ignore = true)
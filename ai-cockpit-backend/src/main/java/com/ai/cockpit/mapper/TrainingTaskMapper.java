@@ -23,6 +23,7 @@ public interface TrainingTaskMapper {
      */
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "status", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "progress", ignore = true)
     @Mapping(target = "currentEpoch", ignore = true)
     @Mapping(target = "metrics", ignore = true)
@@ -34,6 +35,9 @@ public interface TrainingTaskMapper {
     @Mapping(target = "duration", ignore = true)
     @Mapping(target = "memoryUsage", ignore = true)
     @Mapping(target = "errorMessage", ignore = true)
+    @Mapping(target = "queuedTime", ignore = true)
+    @Mapping(target = "queueWait", ignore = true)
+    @Mapping(target = "executorNode", ignore = true)
     @Mapping(target = "creatorId", ignore = true)
     @Mapping(target = "creatorName", ignore = true)
     @Mapping(target = "createTime", ignore = true)
@@ -50,6 +54,7 @@ public interface TrainingTaskMapper {
      */
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "status", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "progress", ignore = true)
     @Mapping(target = "currentEpoch", ignore = true)
     @Mapping(target = "metrics", ignore = true)
@@ -61,6 +66,9 @@ public interface TrainingTaskMapper {
     @Mapping(target = "duration", ignore = true)
     @Mapping(target = "memoryUsage", ignore = true)
     @Mapping(target = "errorMessage", ignore = true)
+    @Mapping(target = "queuedTime", ignore = true)
+    @Mapping(target = "queueWait", ignore = true)
+    @Mapping(target = "executorNode", ignore = true)
     @Mapping(target = "creatorId", ignore = true)
     @Mapping(target = "creatorName", ignore = true)
     @Mapping(target = "createTime", ignore = true)
@@ -17,7 +17,8 @@ import java.util.Optional;
  * 资源监控数据访问接口
  */
 @Repository
-public interface ResourceMonitorRepository extends JpaRepository<ResourceMonitor, Long>, JpaSpecificationExecutor<ResourceMonitor> {
+public interface ResourceMonitorRepository extends JpaRepository<ResourceMonitor, Long>, JpaSpecificationExecutor<ResourceMonitor>,
+        ResourceMonitorRepositoryCustom {
     
     /**
      * 根据监控类型和目标类型查找
@@ -43,7 +44,12 @@ public interface ResourceMonitorRepository extends JpaRepository<ResourceMonitor
      * 根据是否启用查找
      */
     List<ResourceMonitor> findByIsEnabled(Boolean isEnabled);
-    
+
+    /**
+     * 根据是否启用分页查找
+     */
+    Page<ResourceMonitor> findByIsEnabled(Boolean isEnabled, Pageable pageable);
+
     /**
      * 根据是否启用统计数量
      */
@@ -98,6 +104,12 @@ public interface ResourceMonitorRepository extends JpaRepository<ResourceMonitor
     @Query("SELECT rm.targetType, rm.status, COUNT(rm) FROM ResourceMonitor rm GROUP BY rm.targetType, rm.status")
     List<Object[]> countByTargetTypeAndStatusGroup();
     
+    /**
+     * 查询全部监控项的统计字段（ID、监控类型、目标类型、状态、是否启用）
+     */
+    @Query("SELECT rm.id, rm.monitorType, rm.targetType, rm.status, rm.isEnabled FROM ResourceMonitor rm")
+    List<Object[]> findAllStatisticCells();
+    
     /**
      * 查找指定时间范围内的监控数据
      */
@@ -0,0 +1,22 @@
+package com.ai.cockpit.repository;
+
+import com.ai.cockpit.dto.response.ResourceMonitorSummaryResponse;
+import com.ai.cockpit.entity.ResourceMonitor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * 资源监控自定义查询接口
+ */
+public interface ResourceMonitorRepositoryCustom {
+
+    /**
+     * 按条件查询监控摘要，只投影摘要字段
+     *
+     * @param offset 跳过的记录数，键集分页时为0
+     * @param limit  最多返回的记录数
+     */
+    List<ResourceMonitorSummaryResponse> findSummaries(Specification<ResourceMonitor> spec, Sort sort, long offset, int limit);
+}
@@ -0,0 +1,50 @@
+package com.ai.cockpit.repository;
+
+import com.ai.cockpit.dto.response.ResourceMonitorSummaryResponse;
+import com.ai.cockpit.entity.ResourceMonitor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+/**
+ * 资源监控自定义查询实现
+ */
+public class ResourceMonitorRepositoryCustomImpl implements ResourceMonitorRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ResourceMonitorSummaryResponse> findSummaries(Specification<ResourceMonitor> spec, Sort sort,
+                                                             long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ResourceMonitorSummaryResponse> query = cb.createQuery(ResourceMonitorSummaryResponse.class);
+        Root<ResourceMonitor> root = query.from(ResourceMonitor.class);
+        query.select(cb.construct(ResourceMonitorSummaryResponse.class,
+                root.get("id"), root.get("monitorType"), root.get("targetType"), root.get("targetId"),
+                root.get("targetName"), root.get("metricValue"), root.get("metricUnit"),
+                root.get("warningThreshold"), root.get("criticalThreshold"), root.get("status"),
+                root.get("monitorTimestamp"), root.get("isEnabled"), root.get("monitorInterval"),
+                root.get("lastCheckTime"), root.get("availabilityPercentage"), root.get("avgResponseTime"),
+                root.get("createdTime"), root.get("updatedTime")));
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,91 @@
+package com.ai.cockpit.repository;
+
+import com.ai.cockpit.entity.ResourceMonitor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * 资源监控查询条件
+ * <p>
+ * 每个条件在参数为空时返回null，可直接用Specification.where/and组合；
+ * 等值条件（监控类型、目标类型、状态）与排序列组合后可命中实体上的复合索引。
+ */
+public final class ResourceMonitorSpecifications {
+
+    private ResourceMonitorSpecifications() {
+    }
+
+    /**
+     * 组合全部筛选条件
+     */
+    public static Specification<ResourceMonitor> filter(String monitorType, String targetType, Long targetId,
+                                                        Integer status, Boolean isEnabled,
+                                                        LocalDateTime startTime, LocalDateTime endTime) {
+        return Specification.where(monitorType(monitorType))
+                .and(targetType(targetType))
+                .and(targetId(targetId))
+                .and(status(status))
+                .and(isEnabled(isEnabled))
+                .and(monitorTimestampFrom(startTime))
+                .and(monitorTimestampTo(endTime));
+    }
+
+    public static Specification<ResourceMonitor> monitorType(String monitorType) {
+        return isBlank(monitorType) ? null : (root, query, cb) -> cb.equal(root.get("monitorType"), monitorType);
+    }
+
+    public static Specification<ResourceMonitor> targetType(String targetType) {
+        return isBlank(targetType) ? null : (root, query, cb) -> cb.equal(root.get("targetType"), targetType);
+    }
+
+    public static Specification<ResourceMonitor> targetId(Long targetId) {
+        return targetId == null ? null : (root, query, cb) -> cb.equal(root.get("targetId"), targetId);
+    }
+
+    public static Specification<ResourceMonitor> status(Integer status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<ResourceMonitor> isEnabled(Boolean isEnabled) {
+        return isEnabled == null ? null : (root, query, cb) -> cb.equal(root.get("isEnabled"), isEnabled);
+    }
+
+    /**
+     * 监控时间戳下界（含）
+     */
+    public static Specification<ResourceMonitor> monitorTimestampFrom(LocalDateTime startTime) {
+        return startTime == null ? null
+                : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("monitorTimestamp"), startTime);
+    }
+
+    /**
+     * 监控时间戳上界（不含）
+     */
+    public static Specification<ResourceMonitor> monitorTimestampTo(LocalDateTime endTime) {
+        return endTime == null ? null
+                : (root, query, cb) -> cb.lessThan(root.get("monitorTimestamp"), endTime);
+    }
+
+    /**
+     * 键集分页条件：位于游标(排序列值, id)之后的记录
+     */
+    public static <T extends Comparable<? super T>> Specification<ResourceMonitor> after(
+            String property, Sort.Direction direction, T value, Long id) {
+        if ("id".equals(property)) {
+            return (root, query, cb) -> direction.isAscending()
+                    ? cb.greaterThan(root.get("id"), id)
+                    : cb.lessThan(root.get("id"), id);
+        }
+        return (root, query, cb) -> direction.isAscending()
+                ? cb.or(cb.greaterThan(root.<T>get(property), value),
+                        cb.and(cb.equal(root.get(property), value), cb.greaterThan(root.get("id"), id)))
+                : cb.or(cb.lessThan(root.<T>get(property), value),
+                        cb.and(cb.equal(root.get(property), value), cb.lessThan(root.get("id"), id)));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,78 @@
+package com.ai.cockpit.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * 训练产物对象存储后端接口
+ * <p>
+ * 对象以不可变的键保存（内容寻址的块与清单），同一个键重复写入的内容相同，实现无需处理覆盖冲突。
+ * 由training.artifact.backend选择：local-本地文件系统，minio-MinIO/S3兼容存储。
+ */
+public interface ArtifactStorageBackend {
+
+    /**
+     * 后端名称
+     */
+    String getName();
+
+    /**
+     * 对象是否存在
+     */
+    boolean exists(String key) throws IOException;
+
+    /**
+     * 把对象的最后修改时间刷新为当前时间，复用已有的块时调用，使其他节点的清理在保留期内不会删除它
+     *
+     * @return 对象不存在时返回false
+     */
+    boolean touch(String key) throws IOException;
+
+    /**
+     * 写入文件中的一段作为对象
+     */
+    void put(String key, FileChannel source, long position, long length) throws IOException;
+
+    /**
+     * 写入小对象（如清单）
+     */
+    void put(String key, byte[] content) throws IOException;
+
+    /**
+     * 读取整个对象，对象不存在时抛出NoSuchFileException
+     */
+    byte[] get(String key) throws IOException;
+
+    /**
+     * 把对象内容写入目标通道，本地后端写入文件时不经过用户态缓冲
+     *
+     * @return 写入的字节数
+     */
+    long transferTo(String key, WritableByteChannel target) throws IOException;
+
+    /**
+     * 以流的方式读取对象，对象不存在时抛出NoSuchFileException
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * 删除对象，不存在时忽略
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * 列出前缀下的对象
+     */
+    List<StoredObject> list(String prefix) throws IOException;
+
+    /**
+     * 对象信息
+     *
+     * @param lastModified 最后修改时间（毫秒）
+     */
+    record StoredObject(String key, long size, long lastModified) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.ai.cockpit.service;
+
+import com.ai.cockpit.dto.request.DatasetDedupRequest;
+
+import java.util.Map;
+
+/**
+ * 数据集去重服务接口
+ * <p>
+ * 为数据集文件的每一行计算原文哈希与MinHash/LSH分带键，建立跨数据集的去重索引，
+ * 统计数据集内部及与其他数据集之间的完全重复与近似重复比例，并可生成去重后的新数据集。
+ */
+public interface DatasetDedupService {
+
+    /**
+     * 提交建立索引任务，同一数据集同时只有一个去重任务
+     *
+     * @param textColumn 参与比较的列名或JSON Lines顶层键，为空时比较整行
+     */
+    Map<String, Object> startIndex(Long datasetId, String textColumn);
+
+    /**
+     * 数据集的重复情况：内部重复行数与比例，以及与其他已建立索引的数据集之间的重复比例
+     */
+    Map<String, Object> getReport(Long datasetId);
+
+    /**
+     * 提交去重任务，按索引过滤数据集文件，生成新的数据集
+     */
+    Map<String, Object> startDeduplicate(Long datasetId, DatasetDedupRequest request);
+
+    /**
+     * 查询去重任务（建立索引或生成数据集）的进度与结果
+     */
+    Map<String, Object> getJob(Long datasetId);
+}
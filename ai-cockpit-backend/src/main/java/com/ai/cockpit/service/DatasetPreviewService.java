@@ -0,0 +1,16 @@
+package com.ai.cockpit.service;
+
+import java.util.Map;
+
+/**
+ * 数据集预览服务接口
+ * <p>
+ * 按行号随机读取数据集文件（CSV/TSV/JSON Lines等按行存储的文本文件），行号从0开始，CSV/TSV不含表头行。
+ */
+public interface DatasetPreviewService {
+
+    /**
+     * 读取从fromRow开始的至多count行
+     */
+    Map<String, Object> readRows(Long datasetId, long fromRow, int count);
+}
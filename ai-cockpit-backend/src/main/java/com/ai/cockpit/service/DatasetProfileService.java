@@ -0,0 +1,22 @@
+package com.ai.cockpit.service;
+
+import java.util.Map;
+
+/**
+ * 数据集统计分析服务接口
+ * <p>
+ * 在服务端单遍扫描数据集文件，计算行数、各列类型、缺失率、不同值个数、数值分布与质量评分，
+ * 写回数据集的statistics、dataCount、dimensions与qualityScore。
+ */
+public interface DatasetProfileService {
+
+    /**
+     * 提交分析任务，同一数据集同时只有一个任务
+     */
+    Map<String, Object> startProfile(Long datasetId);
+
+    /**
+     * 查询分析进度，没有进行中的任务时返回最近一次任务的结果
+     */
+    Map<String, Object> getProfileStatus(Long datasetId);
+}
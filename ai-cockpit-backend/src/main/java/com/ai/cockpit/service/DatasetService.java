@@ -1,10 +1,15 @@
 package com.ai.cockpit.service;
 
+import com.ai.cockpit.dto.request.DatasetDedupRequest;
 import com.ai.cockpit.dto.request.DatasetRequest;
+import com.ai.cockpit.dto.request.DatasetSplitRequest;
+import com.ai.cockpit.dto.request.DatasetUploadRequest;
 import com.ai.cockpit.dto.response.DatasetResponse;
 
 import java.math.BigDecimal;
+import java.nio.channels.ReadableByteChannel;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 数据集服务接口
@@ -105,4 +110,75 @@ public interface DatasetService {
      * 统计不同状态数据集数量
      */
     long countByStatus(Integer status);
-}
\ No newline at end of file
+
+    /**
+     * 开始分片上传数据集文件
+     */
+    Map<String, Object> initiateUpload(Long id, DatasetUploadRequest request);
+    
+    /**
+     * 上传数据集文件分片
+     */
+    Map<String, Object> uploadPart(Long id, String uploadId, int partNumber, long contentLength,
+                                   String sha256, ReadableByteChannel body);
+    
+    /**
+     * 查询分片上传进度
+     */
+    Map<String, Object> getUpload(Long id, String uploadId);
+    
+    /**
+     * 完成分片上传，回填数据集文件信息
+     */
+    DatasetResponse completeUpload(Long id, String uploadId);
+    
+    /**
+     * 取消分片上传
+     */
+    void abortUpload(Long id, String uploadId);
+    
+    /**
+     * 提交数据集统计分析
+     */
+    Map<String, Object> profileDataset(Long id);
+    
+    /**
+     * 查询数据集统计分析进度
+     */
+    Map<String, Object> getProfileStatus(Long id);
+    
+    /**
+     * 按行号读取数据集文件内容
+     */
+    Map<String, Object> previewRows(Long id, long fromRow, int count);
+    
+    /**
+     * 提交数据集训练/验证/测试切分
+     */
+    Map<String, Object> splitDataset(Long id, DatasetSplitRequest request);
+    
+    /**
+     * 查询数据集切分进度或结果
+     */
+    Map<String, Object> getSplit(Long id);
+    
+    /**
+     * 提交建立数据集去重索引
+     */
+    Map<String, Object> indexDuplicates(Long id, String textColumn);
+    
+    /**
+     * 查询数据集的重复情况
+     */
+    Map<String, Object> getDuplicateReport(Long id);
+    
+    /**
+     * 提交数据集去重，生成去重后的新数据集
+     */
+    Map<String, Object> deduplicateDataset(Long id, DatasetDedupRequest request);
+    
+    /**
+     * 查询数据集去重任务进度
+     */
+    Map<String, Object> getDedupJob(Long id);
+}
@@ -0,0 +1,23 @@
+package com.ai.cockpit.service;
+
+import com.ai.cockpit.dto.request.DatasetSplitRequest;
+
+import java.util.Map;
+
+/**
+ * 数据集切分服务接口
+ * <p>
+ * 按数据集的训练/验证/测试比例，以行键的带种子哈希确定每行的归属，输出分片文件或行位图。
+ */
+public interface DatasetSplitService {
+
+    /**
+     * 提交切分任务，同一数据集同时只有一个任务
+     */
+    Map<String, Object> startSplit(Long datasetId, DatasetSplitRequest request);
+
+    /**
+     * 查询切分进度；没有任务记录时返回已有的切分结果清单
+     */
+    Map<String, Object> getSplit(Long datasetId);
+}
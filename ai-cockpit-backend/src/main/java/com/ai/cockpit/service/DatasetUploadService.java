@@ -0,0 +1,44 @@
+package com.ai.cockpit.service;
+
+import com.ai.cockpit.dto.request.DatasetUploadRequest;
+
+import java.nio.channels.ReadableByteChannel;
+import java.util.Map;
+
+/**
+ * 数据集分片上传服务接口
+ * <p>
+ * 协议：开始上传得到uploadId与分片大小；各分片（序号从1开始）以请求体原样上传，可并行、可重传；
+ * 连接中断后查询已上传分片继续；全部分片上传后完成上传，在存储端合并并回填数据集的文件路径、大小与校验和。
+ */
+public interface DatasetUploadService {
+
+    /**
+     * 开始上传
+     */
+    Map<String, Object> initiate(Long datasetId, DatasetUploadRequest request);
+
+    /**
+     * 上传分片
+     *
+     * @param contentLength 请求体长度，必须等于该分片的长度
+     * @param expectedSha256 客户端计算的分片SHA-256（十六进制），为空时不校验
+     */
+    Map<String, Object> uploadPart(Long datasetId, String uploadId, int partNumber, long contentLength,
+                                   String expectedSha256, ReadableByteChannel body);
+
+    /**
+     * 查询上传进度与已上传分片
+     */
+    Map<String, Object> getUpload(Long datasetId, String uploadId);
+
+    /**
+     * 完成上传，返回文件位置、大小与校验和
+     */
+    Map<String, Object> complete(Long datasetId, String uploadId);
+
+    /**
+     * 取消上传
+     */
+    void abort(Long datasetId, String uploadId);
+}
@@ -0,0 +1,45 @@
+package com.ai.cockpit.service;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+
+/**
+ * 数据集分片上传存储接口
+ * <p>
+ * 分片可以乱序、并行写入，完成时在存储端合并，服务端不再读取已写入的数据。
+ * 由dataset.upload.backend选择：local-本地文件系统，minio-MinIO/S3兼容存储。
+ */
+public interface DatasetUploadStorage {
+
+    /**
+     * 后端名称
+     */
+    String getName();
+
+    /**
+     * 开始上传，准备暂存空间
+     */
+    void initiate(String uploadId, long fileSize) throws IOException;
+
+    /**
+     * 从通道读取length字节写入分片，读取的数据同时更新digest
+     *
+     * @param offset 分片在文件中的偏移
+     */
+    void writePart(String uploadId, int partNumber, long offset, long length, ReadableByteChannel source,
+                   MessageDigest digest) throws IOException;
+
+    /**
+     * 合并全部分片为最终文件
+     *
+     * @param key 最终文件在存储中的相对路径
+     * @return 最终文件位置（本地路径或对象地址）
+     */
+    String complete(String uploadId, int partCount, String key) throws IOException;
+
+    /**
+     * 放弃上传，清理暂存数据
+     */
+    void abort(String uploadId) throws IOException;
+}
@@ -0,0 +1,29 @@
+package com.ai.cockpit.service;
+
+import java.util.List;
+
+/**
+ * 监控告警评估器接口
+ * <p>
+ * 每个样本到达时增量评估一次，按监控项的阈值与告警配置（连续N次、变化率、窗口平均、恢复回差、EWMA/季节基线异常检测）
+ * 维护状态机，状态迁移以MonitorAlertEvent事件发布。
+ */
+public interface MonitorAlertEvaluator {
+
+    /**
+     * 主动探测失败或数据超时
+     *
+     * @param status 2-探测失败（按连续次数规则升级），3-数据超时（立即置为未知）
+     */
+    void onCheckFailure(int seriesId, long timestamp, int status);
+
+    /**
+     * 获取监控项当前状态，未纳入评估时返回null
+     */
+    Integer currentStatus(Long monitorId);
+
+    /**
+     * 当前处于警告或严重状态的监控项ID
+     */
+    List<Long> alertingMonitorIds();
+}
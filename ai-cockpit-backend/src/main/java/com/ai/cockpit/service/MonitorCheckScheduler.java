@@ -0,0 +1,41 @@
+package com.ai.cockpit.service;
+
+import com.ai.cockpit.entity.ResourceMonitor;
+
+import java.util.Map;
+
+/**
+ * 监控检查调度器接口
+ * <p>
+ * 按每个监控项的检查间隔在时间轮上调度检查，并通过一致性哈希在多个后端节点间分摊检查负载，
+ * 每个节点只执行归属于自己的监控项。
+ */
+public interface MonitorCheckScheduler {
+
+    /**
+     * 加入或刷新监控项的调度（禁用的监控项会被移除）
+     */
+    void schedule(ResourceMonitor monitor);
+
+    /**
+     * 取消监控项的调度
+     */
+    void cancel(Long monitorId);
+
+    /**
+     * 立即对本节点负责的全部监控项发起一次检查
+     *
+     * @return 发起检查的监控项数量
+     */
+    int triggerAll();
+
+    /**
+     * 判断监控项是否由本节点负责检查
+     */
+    boolean isOwner(Long monitorId);
+
+    /**
+     * 获取调度器运行状态
+     */
+    Map<String, Object> getStatus();
+}
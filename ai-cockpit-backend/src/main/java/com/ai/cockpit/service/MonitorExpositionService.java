@@ -0,0 +1,20 @@
+package com.ai.cockpit.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 监控指标导出服务接口
+ * <p>
+ * 以OpenMetrics文本格式导出全部监控项的当前值、状态、可用性、响应时间及检查/告警计数，供Prometheus抓取。
+ */
+public interface MonitorExpositionService {
+
+    /** OpenMetrics文本格式的Content-Type */
+    String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    /**
+     * 将全部监控项指标写入输出流
+     */
+    void scrape(OutputStream out) throws IOException;
+}
@@ -0,0 +1,39 @@
+package com.ai.cockpit.service;
+
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * 监控指标批量接入服务接口
+ * <p>
+ * 支持两种载荷格式：
+ * <ul>
+ *     <li>行协议（text/plain）：每行 {@code 监控类型,目标类型,目标ID 数值 [毫秒时间戳]}，#开头为注释</li>
+ *     <li>二进制（application/octet-stream）：魔数0x4D534231后接若干分组，每组为
+ *     u16序列标识长度、UTF-8序列标识（监控类型,目标类型,目标ID）、u32样本数、样本数×（i64毫秒时间戳、f64数值），大端序</li>
+ * </ul>
+ * 样本先进入有界环形缓冲区，由后台线程批量写入时序存储并回写监控项的最新指标值。
+ */
+public interface MonitorIngestService {
+
+    /**
+     * 接入行协议载荷
+     */
+    IngestResult ingestLines(InputStream body);
+
+    /**
+     * 接入二进制载荷
+     */
+    IngestResult ingestBinary(InputStream body);
+
+    /**
+     * 获取接入状态
+     */
+    Map<String, Object> getStatus();
+
+    /**
+     * 接入结果，accepted为false表示缓冲区已满，客户端应在retryAfterMillis后重试
+     */
+    record IngestResult(boolean accepted, int samples, long retryAfterMillis) {
+    }
+}
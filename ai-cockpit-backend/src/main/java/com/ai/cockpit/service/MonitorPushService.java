@@ -0,0 +1,34 @@
+package com.ai.cockpit.service;
+
+/**
+ * 监控实时推送服务接口
+ * <p>
+ * 通过STOMP向驾驶舱推送监控变化，主题：
+ * <ul>
+ *     <li>/topic/monitor/deltas：窗口内各序列的最新样本（按序列合并）</li>
+ *     <li>/topic/monitor/alerts：窗口内的告警状态迁移</li>
+ *     <li>/topic/monitor/statistics：统计计数变化后的最新快照</li>
+ * </ul>
+ * 每条消息只序列化一次，由消息代理原样分发给全部订阅者。
+ */
+public interface MonitorPushService {
+
+    /** 序列增量主题 */
+    String DELTA_TOPIC = "/topic/monitor/deltas";
+
+    /** 告警迁移主题 */
+    String ALERT_TOPIC = "/topic/monitor/alerts";
+
+    /** 统计快照主题 */
+    String STATISTICS_TOPIC = "/topic/monitor/statistics";
+
+    /**
+     * 序列化一次后立即推送到指定主题
+     */
+    void publish(String destination, Object payload);
+
+    /**
+     * 当前是否有已连接的客户端
+     */
+    boolean hasSubscribers();
+}
@@ -0,0 +1,29 @@
+package com.ai.cockpit.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 监控数据保留服务接口
+ * <p>
+ * 按monitor_timestamp清理过期监控数据，两种模式：
+ * <ul>
+ *     <li>delete：沿(monitor_timestamp, id)索引按键集分块执行DELETE ... LIMIT，块间限流，进度检查点写入Redis，重启后续跑</li>
+ *     <li>partition：表按monitor_timestamp范围分区时，直接删除整体早于截止时间的分区，剩余部分再分块删除</li>
+ * </ul>
+ */
+public interface MonitorRetentionService {
+
+    /**
+     * 异步启动清理任务，同一时间只允许一个任务
+     *
+     * @param beforeTime 清理monitor_timestamp早于该时间的数据
+     * @return 任务状态
+     */
+    Map<String, Object> purge(LocalDateTime beforeTime);
+
+    /**
+     * 获取当前（或最近一次）清理任务状态
+     */
+    Map<String, Object> getStatus();
+}
@@ -0,0 +1,26 @@
+package com.ai.cockpit.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 监控可用性与响应时间服务接口
+ * <p>
+ * 每个监控项按小时分桶保存一个延迟草图与分钟级可用性位图（检查过的分钟、失败的分钟），
+ * 任意时间窗口的分位数与可用性通过合并桶得到，不扫描原始样本。
+ * 桶定期序列化写入monitor_sla_bucket表，每个节点写自己的行，查询时合并所有节点的桶。
+ */
+public interface MonitorSlaService {
+
+    /**
+     * 记录一次主动探测结果
+     *
+     * @param latencyMillis 响应时间（毫秒），探测失败时为NaN
+     */
+    void recordCheck(long monitorId, long timestamp, boolean up, double latencyMillis);
+
+    /**
+     * 获取时间窗口内的可用性与响应时间分位数（p50/p90/p99）
+     */
+    Map<String, Object> getSla(Long monitorId, LocalDateTime startTime, LocalDateTime endTime);
+}
@@ -0,0 +1,22 @@
+package com.ai.cockpit.service;
+
+import java.util.Map;
+
+/**
+ * 监控统计服务接口
+ * <p>
+ * 按（监控类型, 目标类型, 状态）在内存中增量维护计数，监控项增删改与告警状态迁移时更新，
+ * 启动时从数据库加载并定期对账；统计接口直接读取计数快照，不再逐次执行COUNT查询。
+ */
+public interface MonitorStatisticsService {
+
+    /**
+     * 获取监控统计（总数、启用数、各状态数量及按监控类型/目标类型的分组明细）
+     */
+    Map<String, Object> getStatistics();
+
+    /**
+     * 获取状态分布：分组维度（monitorType/targetType） -> 分组值 -> 状态 -> 数量
+     */
+    Map<String, Map<String, Map<Integer, Long>>> getStatusDistribution();
+}
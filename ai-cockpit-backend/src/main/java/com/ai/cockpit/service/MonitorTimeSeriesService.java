@@ -0,0 +1,104 @@
+package com.ai.cockpit.service;
+
+import com.ai.cockpit.util.TimeSeriesChunk;
+
+/**
+ * 监控时序存储服务接口
+ * <p>
+ * 每个监控序列由（监控类型，目标类型，目标ID）唯一确定，注册后分配一个稠密的整型序列ID，
+ * 样本以压缩块的形式追加写入内存并定期刷写到磁盘段文件。
+ */
+public interface MonitorTimeSeriesService {
+
+    /**
+     * 注册或获取序列ID
+     */
+    int seriesId(String monitorType, String targetType, long targetId);
+
+    /**
+     * 获取序列键
+     */
+    SeriesKey seriesKey(int seriesId);
+
+    /**
+     * 当前已注册的序列数量
+     */
+    int seriesCount();
+
+    /**
+     * 查找指定监控类型和目标类型下的全部序列ID
+     */
+    int[] findSeries(String monitorType, String targetType);
+
+    /**
+     * 追加样本（时间戳为毫秒），乱序样本将被丢弃并返回false
+     */
+    boolean append(int seriesId, long timestamp, double value);
+
+    /**
+     * 按序列键追加样本
+     */
+    default boolean append(String monitorType, String targetType, long targetId, long timestamp, double value) {
+        return append(seriesId(monitorType, targetType, targetId), timestamp, value);
+    }
+
+    /**
+     * 注册样本监听器，每个成功写入的样本回调一次（在写入线程上执行）
+     */
+    void addSampleListener(SampleListener listener);
+
+    /**
+     * 序列最后一个样本的时间戳，无样本时返回Long.MIN_VALUE
+     */
+    long lastTimestamp(int seriesId);
+
+    /**
+     * 顺序扫描序列在[start, end]区间内的原始样本
+     */
+    void scan(int seriesId, long start, long end, TimeSeriesChunk.SampleVisitor visitor);
+
+    /**
+     * 将多个序列在[start, end]区间内的数据聚合为约points个等宽时间桶，
+     * 优先选择满足点数要求的最粗降采样级别，必要时回退到原始样本
+     */
+    BucketAggregate trend(int[] seriesIds, long start, long end, int points);
+
+    /**
+     * 将已封存的块刷写到磁盘段文件
+     */
+    void flush();
+
+    /**
+     * 清理指定时间之前的样本
+     */
+    void purgeBefore(long timestamp);
+
+    /**
+     * 样本监听器
+     */
+    @FunctionalInterface
+    interface SampleListener {
+        void onSample(int seriesId, long timestamp, double value);
+    }
+
+    /**
+     * 序列键
+     */
+    record SeriesKey(String monitorType, String targetType, long targetId) {
+    }
+
+    /**
+     * 时间桶聚合结果，resolution为所用降采样级别的分辨率（毫秒），0表示原始样本
+     */
+    record BucketAggregate(long start, long bucketWidth, long resolution,
+                           double[] min, double[] max, double[] sum, long[] count, double[] p95) {
+
+        public int size() {
+            return count.length;
+        }
+
+        public long bucketStart(int bucket) {
+            return start + bucket * bucketWidth;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.ai.cockpit.service;
 
 import com.ai.cockpit.dto.request.ResourceMonitorRequest;
+import com.ai.cockpit.dto.response.CursorPageResult;
 import com.ai.cockpit.dto.response.ResourceMonitorResponse;
+import com.ai.cockpit.dto.response.ResourceMonitorSummaryResponse;
 import com.ai.cockpit.entity.ResourceMonitor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -41,11 +43,21 @@ public interface ResourceMonitorService {
     Page<ResourceMonitorResponse> getPage(Pageable pageable);
     
     /**
-     * 根据条件查询资源监控
+     * 根据条件查询资源监控（偏移分页，返回摘要字段）
      */
-    Page<ResourceMonitorResponse> search(String monitorType, String targetType, Long targetId, 
-                                        Integer status, Boolean isEnabled, LocalDateTime startTime, 
-                                        LocalDateTime endTime, Pageable pageable);
+    Page<ResourceMonitorSummaryResponse> search(String monitorType, String targetType, Long targetId, 
+                                               Integer status, Boolean isEnabled, LocalDateTime startTime, 
+                                               LocalDateTime endTime, Pageable pageable);
+    
+    /**
+     * 根据条件查询资源监控（键集游标分页，适用于深分页）
+     *
+     * @param cursor 上一页返回的游标，首页为空
+     */
+    CursorPageResult<ResourceMonitorSummaryResponse> searchByCursor(String monitorType, String targetType, Long targetId,
+                                                                   Integer status, Boolean isEnabled,
+                                                                   LocalDateTime startTime, LocalDateTime endTime,
+                                                                   String cursor, int size, String sort, String direction);
     
     /**
      * 批量创建资源监控数据
@@ -67,21 +79,31 @@ public interface ResourceMonitorService {
      */
     void executeMonitorCheck();
     
+    /**
+     * 获取监控检查调度状态
+     */
+    Map<String, Object> getCheckSchedulerStatus();
+    
     /**
      * 获取监控统计信息
      */
     Map<String, Object> getMonitorStatistics();
     
     /**
-     * 获取监控状态分布
+     * 获取监控状态分布（按监控类型与目标类型分组）
      */
-    Map<String, Map<Integer, Long>> getStatusDistribution();
+    Map<String, Map<String, Map<Integer, Long>>> getStatusDistribution();
     
     /**
      * 获取监控趋势数据
      */
     List<Map<String, Object>> getMonitorTrend(String monitorType, String targetType, 
-                                             LocalDateTime startTime, LocalDateTime endTime);
+                                             LocalDateTime startTime, LocalDateTime endTime, Integer points);
+    
+    /**
+     * 获取监控项在时间窗口内的可用性与响应时间分位数
+     */
+    Map<String, Object> getSla(Long id, LocalDateTime startTime, LocalDateTime endTime);
     
     /**
      * 获取告警列表
@@ -94,7 +116,12 @@ public interface ResourceMonitorService {
     void handleAlert(Long id, String action, String remark, Long handlerId);
     
     /**
-     * 清理过期监控数据
+     * 清理过期监控数据（异步分块执行，返回任务状态）
+     */
+    Map<String, Object> cleanupExpiredData(LocalDateTime beforeTime);
+    
+    /**
+     * 获取过期监控数据清理任务状态
      */
-    void cleanupExpiredData(LocalDateTime beforeTime);
+    Map<String, Object> getCleanupStatus();
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.ai.cockpit.service;
+
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 训练产物（检查点）存储服务接口
+ * <p>
+ * 检查点文件按内容分块，块以SHA-256寻址保存在存储后端，已存在的块不再写入；
+ * 相邻检查点、增量（LoRA）检查点之间相同的内容只保存一份。每个检查点保存一份清单记录文件与块的对应关系，
+ * 不再被任何清单引用的块由定期清理回收。
+ */
+public interface TrainingArtifactService {
+
+    /**
+     * 导入检查点（单个文件或目录）
+     *
+     * @return 清单摘要：文件数、逻辑字节数、新写入字节数、块数等
+     */
+    Map<String, Object> storeCheckpoint(Long taskId, String name, Path source);
+
+    /**
+     * 异步导入检查点，训练进程上报检查点时使用
+     */
+    void storeCheckpointAsync(Long taskId, String name, Path source);
+
+    /**
+     * 从导入目录（training.artifact.import-dir）下的相对路径导入检查点
+     */
+    Map<String, Object> importCheckpoint(Long taskId, String name, String relativePath);
+
+    /**
+     * 任务的检查点列表
+     */
+    List<Map<String, Object>> listCheckpoints(Long taskId);
+
+    /**
+     * 检查点清单（文件列表）
+     */
+    Map<String, Object> getCheckpoint(Long taskId, String name);
+
+    /**
+     * 检查点中单个文件的大小，file为空且检查点只有一个文件时取该文件
+     */
+    long getFileSize(Long taskId, String name, String file);
+
+    /**
+     * 按块顺序把检查点中的文件写入目标通道
+     */
+    void writeFile(Long taskId, String name, String file, WritableByteChannel target);
+
+    /**
+     * 删除任务的全部检查点清单，块由清理回收
+     */
+    void deleteTask(Long taskId);
+
+    /**
+     * 清理不再被引用的块
+     *
+     * @return 删除的块数
+     */
+    int collectGarbage();
+
+    /**
+     * 存储统计
+     */
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,23 @@
+package com.ai.cockpit.service;
+
+import java.util.Map;
+
+/**
+ * 训练预计完成时间与队列预测服务接口
+ * <p>
+ * 运行中的任务按最近的进度上报做稳健回归（Theil–Sen）估计推进速度，持续写回estimatedEndTime；
+ * 上报不足时按同类任务的历史时长（任务类型、数据量×epoch数）估计。
+ * 队列预测按执行器并发上限模拟排队任务依次占用空闲名额，给出每个任务的预计开始/结束时间与排空时间。
+ */
+public interface TrainingEtaService {
+
+    /**
+     * 任务的预计完成时间及依据
+     */
+    Map<String, Object> getEta(Long taskId);
+
+    /**
+     * 运行中与排队中任务的预计时间与队列排空时间
+     */
+    Map<String, Object> forecastQueue();
+}
@@ -0,0 +1,38 @@
+package com.ai.cockpit.service;
+
+import com.ai.cockpit.entity.TrainingTask;
+import com.ai.cockpit.entity.TrainingTaskStatus;
+
+import java.util.Map;
+
+/**
+ * 本地训练作业执行器接口
+ * <p>
+ * 启动的任务以排队中（5）状态保存在数据库中，数据库即持久化队列；执行器在内存中维护其镜像，
+ * 按创建者公平分配并发名额、同一创建者内按优先级与入队时间调度，以本地子进程运行训练命令。
+ */
+public interface TrainingJobExecutor {
+
+    /**
+     * 是否启用本地执行
+     */
+    boolean isEnabled();
+
+    /**
+     * 任务入队，在当前事务提交后生效；队列已满时抛出异常
+     */
+    void enqueue(TrainingTask task);
+
+    /**
+     * 从队列移除任务，或终止正在运行的训练进程
+     *
+     * @param status 终止后任务的最终状态（失败/停止或已取消），由调用方写入
+     * @return 任务是否在队列中或正在运行
+     */
+    boolean cancel(Long taskId, TrainingTaskStatus status);
+
+    /**
+     * 获取执行器状态（排队数、运行数、平均排队与运行时长等）
+     */
+    Map<String, Object> getStatus();
+}
@@ -0,0 +1,35 @@
+package com.ai.cockpit.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * 训练日志读取服务接口
+ * <p>
+ * 日志文件通过内存映射读取：按行号读取使用稀疏行偏移索引定位（每个文件只在首次访问时完整扫描一次，之后只扫描新增部分），
+ * 读取末尾若干行从文件末尾向前扫描，与文件大小无关；跟随模式通过SSE推送新增的行。行号从0开始。
+ */
+public interface TrainingLogService {
+
+    /**
+     * 从fromLine行开始读取至多count行
+     */
+    Map<String, Object> readLines(Long taskId, Path logPath, long fromLine, int count);
+
+    /**
+     * 读取末尾至多lines行
+     */
+    Map<String, Object> tail(Long taskId, Path logPath, int lines);
+
+    /**
+     * 读取字节范围
+     */
+    Map<String, Object> readBytes(Long taskId, Path logPath, long offset, int length);
+
+    /**
+     * 跟随日志，从fromOffset开始推送新增的完整行；fromOffset为空时先推送末尾tailLines行
+     */
+    SseEmitter follow(Long taskId, Path logPath, Long fromOffset, int tailLines);
+}
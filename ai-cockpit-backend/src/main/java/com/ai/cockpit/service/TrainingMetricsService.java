@@ -0,0 +1,44 @@
+package com.ai.cockpit.service;
+
+import com.ai.cockpit.dto.request.TrainingMetricPointRequest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 训练指标时序服务接口
+ * <p>
+ * 按任务、指标名称保存(step, epoch, value)曲线，列式存放在原始类型数组中并追加写入本地日志文件。
+ * 曲线查询按请求的像素宽度用LTTB降采样，百万级步数的曲线一次请求即可绘制。
+ */
+public interface TrainingMetricsService {
+
+    /**
+     * 追加指标点；同一指标的步数回退（如从检查点恢复训练）时丢弃该步数及之后的旧点
+     */
+    void append(Long taskId, List<TrainingMetricPointRequest> points);
+
+    /**
+     * 从指标快照JSON中提取数值字段追加为指标点，step/epoch字段作为步数与epoch，缺少step时沿用上一步加一
+     */
+    void appendSnapshot(Long taskId, String metrics);
+
+    /**
+     * 获取任务的指标名称
+     */
+    List<String> getNames(Long taskId);
+
+    /**
+     * 获取指标曲线
+     *
+     * @param fromStep 起始步数（含），为空表示从头开始
+     * @param toStep   结束步数（含），为空表示到最新
+     * @param width    像素宽度，曲线点数超过该值时降采样
+     */
+    Map<String, Object> getCurve(Long taskId, String name, Long fromStep, Long toStep, Integer width);
+
+    /**
+     * 删除任务的全部指标
+     */
+    void delete(Long taskId);
+}
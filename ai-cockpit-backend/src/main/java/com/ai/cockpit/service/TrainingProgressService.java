@@ -0,0 +1,37 @@
+package com.ai.cockpit.service;
+
+import com.ai.cockpit.entity.TrainingTask;
+
+/**
+ * 训练进度写回缓冲服务接口
+ * <p>
+ * 训练过程上报的进度、epoch与指标先写入内存，同一任务只保留最新值，由后台定期批量写回数据库。
+ * 读取任务时用内存中的最新值覆盖数据库值；任务状态变更前先写回并移出缓冲。
+ */
+public interface TrainingProgressService {
+
+    /**
+     * 更新训练进度（只有运行中的任务可以更新）
+     */
+    void updateProgress(Long id, Integer progress, Integer currentEpoch);
+
+    /**
+     * 更新训练指标
+     */
+    void updateMetrics(Long id, String metrics);
+
+    /**
+     * 用缓冲中的最新值覆盖任务实体
+     */
+    void overlay(TrainingTask task);
+
+    /**
+     * 立即写回任务的缓冲值并移出缓冲，任务状态变更或删除前调用
+     */
+    void evict(Long id);
+
+    /**
+     * 写回所有有变化的任务
+     */
+    void flush();
+}
@@ -0,0 +1,29 @@
+package com.ai.cockpit.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+
+/**
+ * 训练任务实时推送服务接口（Server-Sent Events）
+ * <p>
+ * 连接建立时先推送一次快照（snapshot事件），之后只推送进度、epoch、指标与状态的增量（delta事件）。
+ * 增量按连接、按任务合并，每个连接有最小推送间隔，且同一时刻最多一次写入在途，慢消费者只会看到更稀疏的更新而不会积压队列。
+ */
+public interface TrainingStreamService {
+
+    /**
+     * 订阅单个任务
+     */
+    SseEmitter subscribeTask(Long taskId, Object snapshot);
+
+    /**
+     * 订阅用户的全部任务，之后该用户新建的任务自动加入
+     */
+    SseEmitter subscribeUser(Long userId, Collection<Long> taskIds, Object snapshot);
+
+    /**
+     * 当前连接数
+     */
+    int getConnectionCount();
+}
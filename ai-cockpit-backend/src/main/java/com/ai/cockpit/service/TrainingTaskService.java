@@ -1,9 +1,14 @@
 package com.ai.cockpit.service;
 
+import com.ai.cockpit.dto.request.TrainingMetricPointRequest;
+import com.ai.cockpit.dto.request.TrainingTaskBatchStatusRequest;
 import com.ai.cockpit.dto.request.TrainingTaskRequest;
 import com.ai.cockpit.dto.response.TrainingTaskResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 训练任务服务接口
@@ -75,6 +80,81 @@ public interface TrainingTaskService {
      */
     void cancelTask(Long id);
     
+    /**
+     * 订阅单个训练任务的实时进度（SSE）
+     */
+    SseEmitter streamTask(Long id);
+    
+    /**
+     * 订阅用户全部训练任务的实时进度（SSE）
+     */
+    SseEmitter streamUserTasks(Long userId);
+    
+    /**
+     * 按行号读取训练日志（行号从0开始）
+     */
+    Map<String, Object> getLogLines(Long id, Long fromLine, Integer count);
+    
+    /**
+     * 读取训练日志末尾若干行
+     */
+    Map<String, Object> getLogTail(Long id, Integer lines);
+    
+    /**
+     * 按字节范围读取训练日志
+     */
+    Map<String, Object> getLogBytes(Long id, Long offset, Integer length);
+    
+    /**
+     * 跟随训练日志（SSE）
+     */
+    SseEmitter followLog(Long id, Long fromOffset, Integer tailLines);
+    
+    /**
+     * 获取本地训练执行器状态
+     */
+    Map<String, Object> getExecutorStatus();
+    
+    /**
+     * 获取任务的预计完成时间
+     */
+    Map<String, Object> getEta(Long id);
+    
+    /**
+     * 获取训练队列预测
+     */
+    Map<String, Object> forecastQueue();
+    
+    /**
+     * 从导入目录导入检查点
+     */
+    Map<String, Object> importCheckpoint(Long id, String name, String path);
+    
+    /**
+     * 获取任务的检查点列表
+     */
+    List<Map<String, Object>> listCheckpoints(Long id);
+    
+    /**
+     * 获取检查点清单
+     */
+    Map<String, Object> getCheckpoint(Long id, String name);
+    
+    /**
+     * 获取检查点文件大小
+     */
+    long getCheckpointFileSize(Long id, String name, String file);
+    
+    /**
+     * 把检查点文件写入目标通道
+     */
+    void writeCheckpointFile(Long id, String name, String file, WritableByteChannel target);
+    
+    /**
+     * 获取训练产物存储统计
+     */
+    Map<String, Object> getArtifactStats();
+    
     /**
      * 更新训练进度
      */
@@ -85,11 +165,33 @@ public interface TrainingTaskService {
      */
     void updateMetrics(Long id, String metrics);
     
+    /**
+     * 追加训练指标点
+     */
+    void appendMetricPoints(Long id, List<TrainingMetricPointRequest> points);
+    
+    /**
+     * 获取训练指标名称
+     */
+    List<String> getMetricNames(Long id);
+    
+    /**
+     * 获取训练指标曲线（按像素宽度降采样）
+     */
+    Map<String, Object> getMetricCurve(Long id, String name, Long fromStep, Long toStep, Integer width);
+    
     /**
      * 更新训练状态
      */
     void updateStatus(Long id, Integer status);
     
+    /**
+     * 批量变更训练状态，只迁移当前状态允许变更到目标状态的任务
+     *
+     * @return 请求数、迁移数与迁移的任务ID
+     */
+    Map<String, Object> batchUpdateStatus(TrainingTaskBatchStatusRequest request);
+    
     /**
      * 记录训练错误
      */
@@ -0,0 +1,94 @@
+package com.ai.cockpit.service;
+
+import com.ai.cockpit.entity.TrainingTaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 训练任务状态机接口
+ * <p>
+ * 状态迁移以比较并交换的方式执行：UPDATE ... WHERE id = ? AND status IN (来源状态)，同时递增version，
+ * 不需要先读取实体；并发的迁移中只有一个成功。迁移成功后发布状态增量事件。
+ */
+public interface TrainingTaskStateMachine {
+
+    /**
+     * 迁移单个任务
+     *
+     * @return 任务当时处于来源状态之一并已迁移时返回true
+     */
+    boolean transition(Long id, Set<TrainingTaskStatus> from, TrainingTaskStatus to, Changes changes);
+
+    /**
+     * 用一条语句批量迁移处于来源状态的任务
+     *
+     * @return 实际迁移的任务ID
+     */
+    List<Long> transitionAll(Collection<Long> ids, Set<TrainingTaskStatus> from, TrainingTaskStatus to, Changes changes);
+
+    /**
+     * 迁移时一并写入的列
+     */
+    final class Changes {
+
+        private final Map<String, Object> columns = new LinkedHashMap<>();
+
+        public static Changes none() {
+            return new Changes();
+        }
+
+        public Changes startTime(LocalDateTime startTime) {
+            columns.put("start_time", startTime);
+            return this;
+        }
+
+        public Changes endTime(LocalDateTime endTime) {
+            columns.put("end_time", endTime);
+            return this;
+        }
+
+        public Changes queuedTime(LocalDateTime queuedTime) {
+            columns.put("queued_time", queuedTime);
+            return this;
+        }
+
+        public Changes queueWait(Long queueWait) {
+            columns.put("queue_wait", queueWait);
+            return this;
+        }
+
+        public Changes duration(Long duration) {
+            columns.put("duration", duration);
+            return this;
+        }
+
+        public Changes progress(Integer progress) {
+            columns.put("progress", progress);
+            return this;
+        }
+
+        public Changes logPath(String logPath) {
+            columns.put("log_path", logPath);
+            return this;
+        }
+
+        public Changes executorNode(String executorNode) {
+            columns.put("executor_node", executorNode);
+            return this;
+        }
+
+        public Changes errorMessage(String errorMessage) {
+            columns.put("error_message", errorMessage);
+            return this;
+        }
+
+        public Map<String, Object> columns() {
+            return columns;
+        }
+    }
+}
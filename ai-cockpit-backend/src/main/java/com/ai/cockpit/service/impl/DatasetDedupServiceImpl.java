@@ -0,0 +1,708 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.dto.request.DatasetDedupRequest;
+import com.ai.cockpit.entity.Dataset;
+import com.ai.cockpit.exception.BusinessException;
+import com.ai.cockpit.repository.DatasetRepository;
+import com.ai.cockpit.service.DatasetDedupService;
+import com.ai.cockpit.util.ContentDefinedChunker;
+import com.ai.cockpit.util.DatasetFileResolver;
+import com.ai.cockpit.util.DatasetProfiler;
+import com.ai.cockpit.util.MinHashIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 数据集去重服务实现类
+ * <p>
+ * 每个数据集的索引（见MinHashIndex）保存为index-dir/{数据集ID}.mhidx，使用时按需加载，
+ * 内存中的索引总大小不超过cache-bytes，超出时淘汰最久未使用的索引，统计重复情况时逐个加载其他数据集的索引比较。
+ * 分带数、每带桶数、片段长度或种子与当前配置不同的索引文件不加载，需要重新建立。
+ * 索引记录建立时的文件指纹（校验和或修改时间，加文件大小），文件被替换后报告中标记为过期，生成去重数据集前必须重建。
+ * 去重生成的新数据集文件写到upload本地存储目录下的{新数据集ID}/，校验和格式与上传一致。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DatasetDedupServiceImpl implements DatasetDedupService {
+
+    private static final int SEGMENT_FILE_MAGIC = 0x4D484958;
+
+    private static final String SEGMENT_SUFFIX = ".mhidx";
+
+    private final DatasetRepository datasetRepository;
+    private final DatasetFileResolver datasetFileResolver;
+
+    @Value("${dataset.dedup.index-dir:data/dataset-dedup}")
+    private String indexDir;
+
+    @Value("${dataset.dedup.bands:9}")
+    private int bands;
+
+    @Value("${dataset.dedup.rows-per-band:13}")
+    private int rowsPerBand;
+
+    @Value("${dataset.dedup.shingle-size:5}")
+    private int shingleSize;
+
+    @Value("${dataset.dedup.seed:42}")
+    private long seed;
+
+    /** 扫描线程数，0表示CPU核数 */
+    @Value("${dataset.dedup.threads:0}")
+    private int threads;
+
+    @Value("${dataset.dedup.max-concurrent:1}")
+    private int maxConcurrent;
+
+    @Value("${dataset.dedup.max-queued:16}")
+    private int maxQueued;
+
+    @Value("${dataset.dedup.block-size:4194304}")
+    private int blockSize;
+
+    @Value("${dataset.dedup.max-line-bytes:67108864}")
+    private int maxLineBytes;
+
+    /** 内存中缓存的索引总字节数上限 */
+    @Value("${dataset.dedup.cache-bytes:536870912}")
+    private long cacheBytes;
+
+    private final ConcurrentHashMap<Long, Job> jobs = new ConcurrentHashMap<>();
+
+    /** 按访问顺序排列的已加载索引，由自身加锁保护 */
+    private final LinkedHashMap<Long, Segment> segments = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** 已加载索引的总字节数，由segments加锁保护 */
+    private long cachedBytes;
+
+    private MinHashIndex.Params params;
+
+    private ThreadPoolExecutor runner;
+
+    private ExecutorService scanners;
+
+    @PostConstruct
+    public void init() {
+        threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        params = new MinHashIndex.Params(bands, rowsPerBand, shingleSize, seed);
+        runner = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxQueued), daemon("dataset-dedup-"));
+        scanners = Executors.newFixedThreadPool(threads, daemon("dataset-dedup-scan-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        scanners.shutdownNow();
+    }
+
+    @Override
+    public Map<String, Object> startIndex(Long datasetId, String textColumn) {
+        Dataset dataset = datasetRepository.findById(datasetId)
+                .orElseThrow(() -> new BusinessException("数据集不存在"));
+        Path file = datasetFileResolver.resolve(dataset);
+        DatasetProfiler.Format format = resolveFormat(dataset, file);
+        String column = textColumn == null || textColumn.isBlank() ? null : textColumn.trim();
+        if (column != null && format == null) {
+            throw new BusinessException("普通文本数据集不能指定比较列");
+        }
+        Job job = new Job(datasetId, "INDEX", fileSize(file));
+        submit(job, () -> runIndex(job, dataset, file, format, column));
+        log.info("提交数据集去重索引，数据集ID：{}，比较列：{}", datasetId, column);
+        return job.toMap();
+    }
+
+    @Override
+    public Map<String, Object> getReport(Long datasetId) {
+        Dataset dataset = datasetRepository.findById(datasetId)
+                .orElseThrow(() -> new BusinessException("数据集不存在"));
+        Segment segment = segment(datasetId);
+        MinHashIndex index = segment.index();
+        int entries = index.entries();
+
+        List<Long> indexed = indexedDatasetIds();
+        List<Long> others = indexed.stream().filter(id -> !id.equals(datasetId)).toList();
+        Map<Long, Dataset> datasets = datasetRepository.findAllById(others)
+                .stream().collect(Collectors.toMap(Dataset::getId, Function.identity()));
+        List<Callable<Map<String, Object>>> tasks = new ArrayList<>();
+        for (Long otherId : others) {
+            Dataset otherDataset = datasets.get(otherId);
+            if (otherDataset == null) {
+                removeSegment(otherId);
+                continue;
+            }
+            tasks.add(() -> {
+                Segment other = loadSegment(otherId);
+                if (other == null) {
+                    return null;
+                }
+                BitSet near = new BitSet(index.rows());
+                index.markNearMatches(other.index(), near);
+                long exactRows = index.exactMatches(other.index());
+                if (exactRows == 0 && near.isEmpty()) {
+                    return null;
+                }
+                Map<String, Object> overlap = new LinkedHashMap<>();
+                overlap.put("datasetId", other.datasetId());
+                overlap.put("datasetName", otherDataset.getName());
+                overlap.put("rows", other.index().entries());
+                overlap.put("exactRows", exactRows);
+                overlap.put("exactRatio", ratio(exactRows, entries));
+                overlap.put("nearRows", near.cardinality());
+                overlap.put("nearRatio", ratio(near.cardinality(), entries));
+                overlap.put("stale", isStale(otherDataset, other));
+                return overlap;
+            });
+        }
+        List<Map<String, Object>> overlaps = new ArrayList<>();
+        try {
+            for (Future<Map<String, Object>> future : scanners.invokeAll(tasks)) {
+                Map<String, Object> overlap = future.get();
+                if (overlap != null) {
+                    overlaps.add(overlap);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("统计重复情况已取消");
+        } catch (ExecutionException e) {
+            log.error("统计数据集重复情况失败，数据集ID：{}", datasetId, e.getCause());
+            throw new BusinessException("统计重复情况失败");
+        }
+        overlaps.sort(Comparator.comparingDouble((Map<String, Object> overlap) -> (Double) overlap.get("nearRatio"))
+                .reversed());
+
+        BitSet internalNear = new BitSet(index.rows());
+        index.markInternalNearDuplicates(internalNear);
+        long internalExact = index.exactDuplicates();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("datasetId", datasetId);
+        report.put("indexTime", segment.indexTime());
+        report.put("stale", isStale(dataset, segment));
+        report.put("textColumn", index.textColumn());
+        report.put("rows", entries);
+        report.put("threshold", Math.round(params.threshold() * 1000) / 1000.0);
+        report.put("internalExactRows", internalExact);
+        report.put("internalExactRatio", ratio(internalExact, entries));
+        report.put("internalNearRows", internalNear.cardinality());
+        report.put("internalNearRatio", ratio(internalNear.cardinality(), entries));
+        report.put("indexedDatasets", indexed.size());
+        report.put("overlaps", overlaps);
+        return report;
+    }
+
+    @Override
+    public Map<String, Object> startDeduplicate(Long datasetId, DatasetDedupRequest request) {
+        Dataset dataset = datasetRepository.findById(datasetId)
+                .orElseThrow(() -> new BusinessException("数据集不存在"));
+        Path file = datasetFileResolver.resolve(dataset);
+        Segment segment = segment(datasetId);
+        if (isStale(dataset, segment)) {
+            throw new BusinessException("数据集文件已变化，请重新建立去重索引");
+        }
+        List<MinHashIndex> references = new ArrayList<>();
+        if (request.getReferenceDatasetIds() != null) {
+            for (Long referenceId : request.getReferenceDatasetIds().stream().distinct().toList()) {
+                if (referenceId == null || referenceId.equals(datasetId)) {
+                    continue;
+                }
+                Segment reference = loadSegment(referenceId);
+                if (reference == null) {
+                    throw new BusinessException("参照数据集未建立去重索引：" + referenceId);
+                }
+                references.add(reference.index());
+            }
+        }
+        boolean removeInternal = !Boolean.FALSE.equals(request.getRemoveInternal());
+        boolean near = !Boolean.FALSE.equals(request.getNearDuplicates());
+        if (!removeInternal && references.isEmpty()) {
+            throw new BusinessException("未指定参照数据集且不去除内部重复，没有需要删除的行");
+        }
+        String name = request.getName() == null || request.getName().isBlank()
+                ? dataset.getName() + "-dedup" : request.getName().trim();
+        if (datasetRepository.existsByName(name)) {
+            throw new BusinessException("数据集名称已存在");
+        }
+
+        Job job = new Job(datasetId, "DEDUPLICATE", fileSize(file));
+        submit(job, () -> runDeduplicate(job, dataset, file, segment.index(), references, near, removeInternal, name));
+        log.info("提交数据集去重，数据集ID：{}，参照数据集：{}，近似重复：{}，去除内部重复：{}", datasetId,
+                request.getReferenceDatasetIds(), near, removeInternal);
+        return job.toMap();
+    }
+
+    @Override
+    public Map<String, Object> getJob(Long datasetId) {
+        Job job = jobs.get(datasetId);
+        if (job == null) {
+            throw new BusinessException("数据集没有去重任务");
+        }
+        return job.toMap();
+    }
+
+    private void submit(Job job, Runnable task) {
+        if (jobs.compute(job.datasetId, (id, current) -> current == null || current.finished ? job : current) != job) {
+            throw new BusinessException("数据集正在进行去重任务");
+        }
+        try {
+            runner.execute(() -> {
+                job.startTime = LocalDateTime.now();
+                try {
+                    task.run();
+                } finally {
+                    job.finishTime = LocalDateTime.now();
+                    job.finished = true;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.datasetId, job);
+            throw new BusinessException("去重任务过多，请稍后再试");
+        }
+    }
+
+    private void runIndex(Job job, Dataset dataset, Path file, DatasetProfiler.Format format, String column) {
+        long started = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            String fingerprint = fingerprint(dataset, file);
+            MinHashIndex index = MinHashIndex.build(channel, format, column, params, scanners, threads,
+                    blockSize, maxLineBytes, job.scannedBytes);
+            Segment segment = new Segment(dataset.getId(), fingerprint, LocalDateTime.now(), index);
+            saveSegment(segment);
+            cacheSegment(segment);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("rows", index.entries());
+            result.put("textColumn", column);
+            result.put("elapsedMs", System.currentTimeMillis() - started);
+            job.result = result;
+            job.state = "COMPLETED";
+            log.info("数据集去重索引建立完成，数据集ID：{}，{}行，耗时{}毫秒", dataset.getId(), index.entries(),
+                    System.currentTimeMillis() - started);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(job, "建立索引已取消");
+        } catch (IllegalArgumentException e) {
+            fail(job, e.getMessage());
+        } catch (IOException e) {
+            log.warn("数据集去重索引建立失败，数据集ID：{}，原因：{}", dataset.getId(), e.getMessage());
+            fail(job, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("数据集去重索引建立失败，数据集ID：{}", dataset.getId(), e);
+            fail(job, "建立索引失败");
+        }
+    }
+
+    private void runDeduplicate(Job job, Dataset dataset, Path file, MinHashIndex index, List<MinHashIndex> references,
+                                boolean near, boolean removeInternal, String name) {
+        long started = System.currentTimeMillis();
+        Path root = datasetFileResolver.getRoot();
+        String fileName = file.getFileName().toString();
+        Path temp = root.resolve(".dedup-" + UUID.randomUUID() + ".tmp");
+        Long derivedId = null;
+        try {
+            Files.createDirectories(root);
+            MessageDigest digest = ContentDefinedChunker.sha256();
+            long kept;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                 OutputStream out = new BufferedOutputStream(new DigestOutputStream(Files.newOutputStream(temp), digest),
+                         1 << 20)) {
+                kept = index.deduplicate(channel, out, references, near, removeInternal, blockSize, maxLineBytes,
+                        job.scannedBytes);
+            }
+
+            Dataset derived = new Dataset();
+            derived.setName(name);
+            derived.setDescription("由数据集“" + dataset.getName() + "”去重生成");
+            derived.setType(dataset.getType());
+            derived.setFormat(dataset.getFormat());
+            derived.setFileSize(Files.size(temp));
+            derived.setFileChecksum("sha256:" + HexFormat.of().formatHex(digest.digest()));
+            derived.setDataCount(kept);
+            derived.setDimensions(dataset.getDimensions());
+            derived.setSource("derived");
+            derived.setLicense(dataset.getLicense());
+            derived.setStatus(2);
+            derived.setIsPublic(false);
+            derived.setCreatorId(dataset.getCreatorId());
+            derived.setCreatorName(dataset.getCreatorName());
+            derived.setTags(dataset.getTags());
+            derived.setAnnotationProgress(BigDecimal.ZERO);
+            derived.setTrainRatio(dataset.getTrainRatio());
+            derived.setValidationRatio(dataset.getValidationRatio());
+            derived.setTestRatio(dataset.getTestRatio());
+            derived.setCreateTime(LocalDateTime.now());
+            derived.setUpdateTime(LocalDateTime.now());
+            derived = datasetRepository.save(derived);
+            derivedId = derived.getId();
+
+            Path target = root.resolve(String.valueOf(derivedId)).resolve(fileName);
+            Files.createDirectories(target.getParent());
+            move(temp, target);
+            derived.setFilePath(target.toString());
+            datasetRepository.save(derived);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("derivedDatasetId", derivedId);
+            result.put("name", name);
+            result.put("rows", index.entries());
+            result.put("keptRows", kept);
+            result.put("removedRows", index.entries() - kept);
+            result.put("filePath", target.toString());
+            result.put("elapsedMs", System.currentTimeMillis() - started);
+            job.result = result;
+            job.state = "COMPLETED";
+            log.info("数据集去重完成，数据集ID：{}，新数据集ID：{}，保留{}行，删除{}行", dataset.getId(), derivedId, kept,
+                    index.entries() - kept);
+        } catch (IOException e) {
+            log.warn("数据集去重失败，数据集ID：{}，原因：{}", dataset.getId(), e.getMessage());
+            fail(job, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("数据集去重失败，数据集ID：{}", dataset.getId(), e);
+            fail(job, "去重失败");
+        } finally {
+            if (!"COMPLETED".equals(job.state)) {
+                try {
+                    Files.deleteIfExists(temp);
+                    if (derivedId != null) {
+                        datasetRepository.deleteById(derivedId);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.warn("清理去重结果失败，数据集ID：{}，原因：{}", dataset.getId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void fail(Job job, String message) {
+        job.state = "FAILED";
+        job.errorMessage = message;
+    }
+
+    private Segment segment(Long datasetId) {
+        Segment segment = loadSegment(datasetId);
+        if (segment == null) {
+            throw new BusinessException("数据集尚未建立去重索引");
+        }
+        return segment;
+    }
+
+    /**
+     * 取已加载的索引，未加载时从索引文件读取；没有有效索引时返回null
+     */
+    private Segment loadSegment(Long datasetId) {
+        synchronized (segments) {
+            Segment segment = segments.get(datasetId);
+            if (segment != null) {
+                return segment;
+            }
+        }
+        Path file = Paths.get(indexDir).resolve(datasetId + SEGMENT_SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Segment segment = readSegment(file);
+        if (segment == null || !segment.datasetId().equals(datasetId)) {
+            return null;
+        }
+        synchronized (segments) {
+            // 其他线程已加载或重建了同一索引时使用已缓存的实例
+            Segment cached = segments.get(datasetId);
+            return cached != null ? cached : cacheSegment(segment);
+        }
+    }
+
+    /**
+     * 放入缓存并按总字节数淘汰最久未使用的索引，刚放入的索引不淘汰
+     */
+    private Segment cacheSegment(Segment segment) {
+        synchronized (segments) {
+            Segment previous = segments.put(segment.datasetId(), segment);
+            if (previous != null) {
+                cachedBytes -= previous.index().sizeInBytes();
+            }
+            cachedBytes += segment.index().sizeInBytes();
+            Iterator<Map.Entry<Long, Segment>> eldest = segments.entrySet().iterator();
+            while (cachedBytes > cacheBytes && segments.size() > 1) {
+                Map.Entry<Long, Segment> entry = eldest.next();
+                if (entry.getKey().equals(segment.datasetId())) {
+                    continue;
+                }
+                cachedBytes -= entry.getValue().index().sizeInBytes();
+                eldest.remove();
+            }
+            return segment;
+        }
+    }
+
+    /**
+     * 索引目录中已建立索引的数据集ID
+     */
+    private List<Long> indexedDatasetIds() {
+        List<Long> ids = new ArrayList<>();
+        Path dir = Paths.get(indexDir);
+        if (!Files.isDirectory(dir)) {
+            return ids;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    ids.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    log.warn("忽略无法识别的去重索引文件：{}", file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("读取去重索引目录失败：{}，原因：{}", dir, e.getMessage());
+        }
+        return ids;
+    }
+
+    private Segment readSegment(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(4 + 8 + 8 + 2);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // 读满文件头
+            }
+            header.flip();
+            if (header.remaining() < header.capacity() || header.getInt() != SEGMENT_FILE_MAGIC) {
+                log.warn("去重索引文件无效：{}", file);
+                return null;
+            }
+            long datasetId = header.getLong();
+            LocalDateTime indexTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(header.getLong()), ZoneId.systemDefault());
+            ByteBuffer fingerprint = ByteBuffer.allocate(header.getShort() & 0xFFFF);
+            while (fingerprint.hasRemaining() && channel.read(fingerprint) >= 0) {
+                // 读满指纹
+            }
+            MinHashIndex index = MinHashIndex.readFrom(channel);
+            if (!index.params().equals(params)) {
+                log.warn("去重索引参数与当前配置不同，需要重新建立：{}", file);
+                return null;
+            }
+            return new Segment(datasetId, new String(fingerprint.array(), StandardCharsets.UTF_8), indexTime, index);
+        } catch (IOException | RuntimeException e) {
+            log.warn("读取去重索引失败：{}，原因：{}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 先写临时文件再原子改名
+     */
+    private void saveSegment(Segment segment) throws IOException {
+        Path dir = Paths.get(indexDir);
+        Files.createDirectories(dir);
+        Path target = dir.resolve(segment.datasetId() + SEGMENT_SUFFIX);
+        Path temp = dir.resolve(segment.datasetId() + SEGMENT_SUFFIX + ".tmp");
+        byte[] fingerprint = segment.fingerprint().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(4 + 8 + 8 + 2 + fingerprint.length);
+        header.putInt(SEGMENT_FILE_MAGIC);
+        header.putLong(segment.datasetId());
+        header.putLong(segment.indexTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        header.putShort((short) fingerprint.length);
+        header.put(fingerprint);
+        header.flip();
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                segment.index().writeTo(channel);
+                channel.force(true);
+            }
+            move(temp, target);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    private void removeSegment(Long datasetId) {
+        synchronized (segments) {
+            Segment removed = segments.remove(datasetId);
+            if (removed != null) {
+                cachedBytes -= removed.index().sizeInBytes();
+            }
+        }
+        try {
+            Files.deleteIfExists(Paths.get(indexDir).resolve(datasetId + SEGMENT_SUFFIX));
+        } catch (IOException e) {
+            log.warn("删除去重索引失败，数据集ID：{}，原因：{}", datasetId, e.getMessage());
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private boolean isStale(Dataset dataset, Segment segment) {
+        try {
+            return !segment.fingerprint().equals(fingerprint(dataset, datasetFileResolver.resolve(dataset)));
+        } catch (BusinessException | IOException e) {
+            return true;
+        }
+    }
+
+    private static String fingerprint(Dataset dataset, Path file) throws IOException {
+        String checksum = dataset.getFileChecksum();
+        String identity = checksum != null && !checksum.isBlank()
+                ? checksum
+                : "mtime:" + Files.getLastModifiedTime(file).toMillis();
+        return identity + "/" + Files.size(file);
+    }
+
+    private static double ratio(long part, long total) {
+        return total == 0 ? 0.0 : Math.round(10000.0 * part / total) / 10000.0;
+    }
+
+    private static long fileSize(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new BusinessException("读取数据集文件失败");
+        }
+    }
+
+    /**
+     * 按数据集格式确定解析方式，未填写时按扩展名判断；普通文本按整行比较
+     */
+    private static DatasetProfiler.Format resolveFormat(Dataset dataset, Path file) {
+        String format = dataset.getFormat();
+        if (format == null || format.isBlank()) {
+            String name = file.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            format = dot < 0 ? "" : name.substring(dot + 1);
+        }
+        return switch (format.trim().toLowerCase(Locale.ROOT)) {
+            case "csv" -> DatasetProfiler.Format.CSV;
+            case "tsv" -> DatasetProfiler.Format.TSV;
+            case "json", "jsonl", "ndjson" -> DatasetProfiler.Format.JSONL;
+            case "txt", "text" -> null;
+            default -> throw new BusinessException("不支持去重的数据格式：" + format);
+        };
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 已加载的索引
+     */
+    private record Segment(Long datasetId, String fingerprint, LocalDateTime indexTime, MinHashIndex index) {
+    }
+
+    /**
+     * 去重任务：INDEX-建立索引，DEDUPLICATE-生成去重数据集
+     */
+    private static class Job {
+
+        private final Long datasetId;
+
+        private final String type;
+
+        private final long totalBytes;
+
+        private final LongAdder scannedBytes = new LongAdder();
+
+        private final LocalDateTime submitTime = LocalDateTime.now();
+
+        private volatile LocalDateTime startTime;
+
+        private volatile LocalDateTime finishTime;
+
+        private volatile String state = "QUEUED";
+
+        private volatile boolean finished;
+
+        private volatile String errorMessage;
+
+        private volatile Map<String, Object> result;
+
+        Job(Long datasetId, String type, long totalBytes) {
+            this.datasetId = datasetId;
+            this.type = type;
+            this.totalBytes = totalBytes;
+        }
+
+        Map<String, Object> toMap() {
+            long scanned = Math.min(scannedBytes.sum(), totalBytes);
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("datasetId", datasetId);
+            map.put("type", type);
+            map.put("state", startTime == null || finished ? state : "RUNNING");
+            map.put("totalBytes", totalBytes);
+            map.put("scannedBytes", scanned);
+            map.put("progress", totalBytes == 0 ? (finished ? 100.0 : 0.0) : Math.round(10000.0 * scanned / totalBytes) / 100.0);
+            map.put("submitTime", submitTime);
+            map.put("startTime", startTime);
+            map.put("finishTime", finishTime);
+            if (finished) {
+                map.put("errorMessage", errorMessage);
+                map.put("result", result);
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.entity.Dataset;
+import com.ai.cockpit.exception.BusinessException;
+import com.ai.cockpit.repository.DatasetRepository;
+import com.ai.cockpit.service.DatasetPreviewService;
+import com.ai.cockpit.util.DatasetFileResolver;
+import com.ai.cockpit.util.LineOffsetIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 数据集预览服务实现类
+ * <p>
+ * 首次读取某个文件时扫描一遍建立稀疏行偏移索引（每index-stride行一个偏移），保存为同目录下的隐藏文件.{文件名}.rowidx，
+ * 之后按行号定位最近的检查点，再通过内存映射只读取目标行附近的数据。
+ * 内存中的索引按数据集ID与文件校验和（无校验和时用文件大小与修改时间）LRU缓存，文件被替换后指纹变化，自动重建。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DatasetPreviewServiceImpl implements DatasetPreviewService {
+
+    private static final int INDEX_FILE_MAGIC = 0x524F5749;
+
+    /** 可以按行预览的格式，未填写格式时也按文本处理 */
+    private static final Set<String> LINE_FORMATS = Set.of("csv", "tsv", "json", "jsonl", "ndjson", "txt", "text");
+
+    private final DatasetRepository datasetRepository;
+    private final DatasetFileResolver datasetFileResolver;
+
+    @Value("${dataset.preview.index-stride:1024}")
+    private int indexStride;
+
+    /** 缓存的行偏移索引数 */
+    @Value("${dataset.preview.max-indexes:64}")
+    private int maxIndexes;
+
+    @Value("${dataset.preview.max-rows:1000}")
+    private int maxRows;
+
+    @Value("${dataset.preview.max-bytes:4194304}")
+    private int maxBytes;
+
+    private final Map<String, Slot> indexes = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Override
+    public Map<String, Object> readRows(Long datasetId, long fromRow, int count) {
+        if (fromRow < 0) {
+            throw new BusinessException("起始行号不能为负数");
+        }
+        if (count <= 0) {
+            throw new BusinessException("行数必须大于0");
+        }
+        Dataset dataset = datasetRepository.findById(datasetId)
+                .orElseThrow(() -> new BusinessException("数据集不存在"));
+        Path file = datasetFileResolver.resolve(dataset);
+        String format = dataset.getFormat() == null ? "" : dataset.getFormat().trim().toLowerCase(Locale.ROOT);
+        if (!format.isEmpty() && !LINE_FORMATS.contains(format)) {
+            throw new BusinessException("该数据格式不支持按行预览：" + format);
+        }
+        int headerLines = "csv".equals(format) || "tsv".equals(format) ? 1 : 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Slot slot = slot(dataset, file, channel);
+            long totalRows;
+            long offset;
+            synchronized (slot) {
+                LineOffsetIndex index = slot.index;
+                totalRows = Math.max(0, index.lines() + (index.indexedBytes() < size ? 1 : 0) - headerLines);
+                offset = index.lineStart(channel, fromRow + headerLines);
+            }
+            LineOffsetIndex.Chunk chunk = fromRow >= totalRows
+                    ? new LineOffsetIndex.Chunk(List.of(), offset, offset)
+                    : LineOffsetIndex.readLines(channel, offset, Math.min(count, maxRows), maxBytes, true);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("datasetId", datasetId);
+            if (headerLines > 0) {
+                List<String> header = LineOffsetIndex.readLines(channel, 0, 1, maxBytes, true).lines();
+                result.put("header", header.isEmpty() ? null : stripBom(header.get(0)));
+            }
+            result.put("rows", chunk.lines());
+            result.put("fromRow", fromRow);
+            result.put("nextRow", fromRow + chunk.lines().size());
+            result.put("totalRows", totalRows);
+            result.put("startOffset", chunk.startOffset());
+            result.put("endOffset", chunk.endOffset());
+            return result;
+        } catch (IOException e) {
+            log.error("读取数据集文件失败，数据集ID：{}", datasetId, e);
+            throw new BusinessException("读取数据集文件失败");
+        }
+    }
+
+    /**
+     * 获取文件的行偏移索引：先查内存缓存，再尝试加载同目录的索引文件，都没有时扫描建立
+     */
+    private Slot slot(Dataset dataset, Path file, FileChannel channel) throws IOException {
+        String fingerprint = fingerprint(dataset, file, channel);
+        String key = dataset.getId() + ":" + fingerprint;
+        Slot slot;
+        synchronized (indexes) {
+            slot = indexes.computeIfAbsent(key, k -> new Slot());
+            while (indexes.size() > maxIndexes) {
+                indexes.remove(indexes.keySet().iterator().next());
+            }
+        }
+        synchronized (slot) {
+            if (slot.index == null) {
+                Path indexFile = indexFile(file);
+                slot.index = load(indexFile, fingerprint, channel.size());
+                if (slot.index == null) {
+                    long started = System.currentTimeMillis();
+                    LineOffsetIndex index = new LineOffsetIndex(indexStride);
+                    index.extend(channel);
+                    slot.index = index;
+                    save(indexFile, fingerprint, index);
+                    log.info("建立数据集行偏移索引，数据集ID：{}，{}行，耗时{}毫秒", dataset.getId(), index.lines(),
+                            System.currentTimeMillis() - started);
+                }
+            }
+        }
+        return slot;
+    }
+
+    private LineOffsetIndex load(Path indexFile, String fingerprint, long size) {
+        if (!Files.isRegularFile(indexFile)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(indexFile); DataInputStream data = new DataInputStream(in)) {
+            if (data.readInt() != INDEX_FILE_MAGIC || !fingerprint.equals(data.readUTF())) {
+                return null;
+            }
+            LineOffsetIndex index = LineOffsetIndex.fromBytes(ByteBuffer.wrap(data.readAllBytes()));
+            return index.indexedBytes() <= size ? index : null;
+        } catch (IOException | RuntimeException e) {
+            log.warn("行偏移索引文件无效，将重新建立：{}，原因：{}", indexFile, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 先写临时文件再原子改名；目录不可写时只保留内存中的索引
+     */
+    private void save(Path indexFile, String fingerprint, LineOffsetIndex index) {
+        Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp); DataOutputStream data = new DataOutputStream(out)) {
+                data.writeInt(INDEX_FILE_MAGIC);
+                data.writeUTF(fingerprint);
+                data.write(index.toBytes());
+            }
+            try {
+                Files.move(temp, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.warn("保存行偏移索引失败：{}，原因：{}", indexFile, e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // 临时文件留待下次覆盖
+            }
+        }
+    }
+
+    private static String fingerprint(Dataset dataset, Path file, FileChannel channel) throws IOException {
+        String checksum = dataset.getFileChecksum();
+        String identity = checksum != null && !checksum.isBlank()
+                ? checksum
+                : "mtime:" + Files.getLastModifiedTime(file).toMillis();
+        return identity + "/" + channel.size();
+    }
+
+    private static Path indexFile(Path file) {
+        return file.resolveSibling("." + file.getFileName() + ".rowidx");
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    /**
+     * 缓存项，索引在首次使用时于锁内建立或加载
+     */
+    private static class Slot {
+
+        private LineOffsetIndex index;
+    }
+}
@@ -0,0 +1,345 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.entity.Dataset;
+import com.ai.cockpit.exception.BusinessException;
+import com.ai.cockpit.repository.DatasetRepository;
+import com.ai.cockpit.service.DatasetProfileService;
+import com.ai.cockpit.util.DatasetFileResolver;
+import com.ai.cockpit.util.DatasetProfiler;
+import com.ai.cockpit.util.KllSketch;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 数据集统计分析服务实现类
+ * <p>
+ * 分析任务在独立线程池中排队执行，每个任务把文件拆成多段交给扫描线程池并行处理（见DatasetProfiler），
+ * 内存占用与文件大小无关。分析期间数据集状态为处理中，完成后写回统计结果；失败时恢复原状态。
+ * 只支持本地存储的CSV/TSV/JSON Lines文件。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DatasetProfileServiceImpl implements DatasetProfileService {
+
+    private static final int STATUS_PROCESSING = 1;
+    private static final int STATUS_PROCESSED = 2;
+
+    private static final double[] QUANTILES = {0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99};
+
+    private final DatasetRepository datasetRepository;
+    private final DatasetFileResolver datasetFileResolver;
+    private final ObjectMapper objectMapper;
+
+    /** 扫描线程数，0表示CPU核数 */
+    @Value("${dataset.profile.threads:0}")
+    private int threads;
+
+    @Value("${dataset.profile.max-concurrent:1}")
+    private int maxConcurrent;
+
+    @Value("${dataset.profile.max-queued:16}")
+    private int maxQueued;
+
+    /** HyperLogLog精度，寄存器数为2^precision */
+    @Value("${dataset.profile.hll-precision:12}")
+    private int hllPrecision;
+
+    @Value("${dataset.profile.kll-k:200}")
+    private int kllK;
+
+    @Value("${dataset.profile.max-columns:500}")
+    private int maxColumns;
+
+    @Value("${dataset.profile.block-size:4194304}")
+    private int blockSize;
+
+    @Value("${dataset.profile.max-line-bytes:67108864}")
+    private int maxLineBytes;
+
+    private final ConcurrentHashMap<Long, Job> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor runner;
+
+    private ExecutorService scanners;
+
+    @PostConstruct
+    public void init() {
+        int scanThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        threads = scanThreads;
+        runner = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxQueued), daemon("dataset-profile-"));
+        scanners = Executors.newFixedThreadPool(scanThreads, daemon("dataset-profile-scan-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        scanners.shutdownNow();
+    }
+
+    @Override
+    public Map<String, Object> startProfile(Long datasetId) {
+        Dataset dataset = datasetRepository.findById(datasetId)
+                .orElseThrow(() -> new BusinessException("数据集不存在"));
+        Path file = datasetFileResolver.resolve(dataset);
+        DatasetProfiler.Format format = resolveFormat(dataset, file);
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new BusinessException("读取数据集文件失败");
+        }
+
+        Job job = new Job(datasetId, format, size, dataset.getStatus());
+        if (jobs.compute(datasetId, (id, current) -> current == null || current.finished ? job : current) != job) {
+            throw new BusinessException("数据集正在分析");
+        }
+        updateStatus(datasetId, STATUS_PROCESSING);
+        try {
+            runner.execute(() -> run(job, file));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(datasetId, job);
+            updateStatus(datasetId, dataset.getStatus());
+            throw new BusinessException("分析任务过多，请稍后再试");
+        }
+        log.info("提交数据集分析，数据集ID：{}，文件：{}，{}字节", datasetId, file, size);
+        return job.toMap();
+    }
+
+    @Override
+    public Map<String, Object> getProfileStatus(Long datasetId) {
+        Job job = jobs.get(datasetId);
+        if (job == null) {
+            throw new BusinessException("数据集没有分析任务");
+        }
+        return job.toMap();
+    }
+
+    private void run(Job job, Path file) {
+        job.startTime = LocalDateTime.now();
+        long started = System.currentTimeMillis();
+        DatasetProfiler profiler = new DatasetProfiler(job.format, hllPrecision, kllK, maxColumns, blockSize, maxLineBytes);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            DatasetProfiler.Result result = profiler.profile(channel, scanners, threads, job.scannedBytes);
+            long elapsed = System.currentTimeMillis() - started;
+            save(job, result, elapsed);
+            job.rows = result.rows();
+            job.qualityScore = round(result.qualityScore());
+            job.state = "COMPLETED";
+            log.info("数据集分析完成，数据集ID：{}，{}行，{}列，{}字节，耗时{}毫秒", job.datasetId, result.rows(),
+                    result.columns().size(), result.bytes(), elapsed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(job, "分析已取消");
+        } catch (IOException e) {
+            log.warn("数据集分析失败，数据集ID：{}，原因：{}", job.datasetId, e.getMessage());
+            fail(job, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("数据集分析失败，数据集ID：{}", job.datasetId, e);
+            fail(job, "分析失败");
+        } finally {
+            job.finishTime = LocalDateTime.now();
+            job.finished = true;
+        }
+    }
+
+    private void fail(Job job, String message) {
+        job.state = "FAILED";
+        job.errorMessage = message;
+        if (job.previousStatus != null) {
+            updateStatus(job.datasetId, job.previousStatus);
+        }
+    }
+
+    private void save(Job job, DatasetProfiler.Result result, long elapsed) throws JsonProcessingException {
+        String statistics = objectMapper.writeValueAsString(statistics(result, elapsed));
+        Dataset dataset = datasetRepository.findById(job.datasetId)
+                .orElseThrow(() -> new BusinessException("数据集不存在"));
+        dataset.setStatistics(statistics);
+        dataset.setDataCount(result.rows() - result.malformedRows());
+        dataset.setDimensions(String.valueOf(result.columns().size()));
+        dataset.setQualityScore(BigDecimal.valueOf(result.qualityScore()).setScale(2, RoundingMode.HALF_UP));
+        // 已标注、已发布的数据集重新分析后保持原状态
+        Integer status = job.previousStatus;
+        dataset.setStatus(status == null || status < STATUS_PROCESSED ? STATUS_PROCESSED : status);
+        dataset.setUpdateTime(LocalDateTime.now());
+        datasetRepository.save(dataset);
+    }
+
+    private Map<String, Object> statistics(DatasetProfiler.Result result, long elapsed) {
+        long validRows = result.rows() - result.malformedRows();
+        List<Map<String, Object>> columns = new ArrayList<>();
+        for (DatasetProfiler.ColumnProfile column : result.columns()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            String type = column.inferredType();
+            item.put("name", column.name());
+            item.put("type", type);
+            item.put("nonNull", column.nonNull());
+            item.put("nullRatio", validRows == 0 ? 0 : round((double) column.nulls(validRows) / validRows));
+            item.put("distinct", column.distinct());
+            Map<String, Object> typeCounts = new LinkedHashMap<>();
+            for (DatasetProfiler.ValueType valueType : DatasetProfiler.ValueType.values()) {
+                typeCounts.put(valueType.name().toLowerCase(Locale.ROOT), column.typeCount(valueType));
+            }
+            item.put("typeCounts", typeCounts);
+            KllSketch sketch = column.quantiles();
+            if (sketch.count() > 0) {
+                item.put("min", sketch.min());
+                item.put("max", sketch.max());
+                item.put("mean", round(column.mean()));
+                double[] values = sketch.quantiles(QUANTILES);
+                Map<String, Object> quantiles = new LinkedHashMap<>();
+                for (int i = 0; i < QUANTILES.length; i++) {
+                    quantiles.put("p" + Math.round(QUANTILES[i] * 100), values[i]);
+                }
+                item.put("quantiles", quantiles);
+            }
+            item.put("minLength", column.minLength());
+            item.put("maxLength", column.maxLength());
+            item.put("meanLength", round(column.meanLength()));
+            columns.add(item);
+        }
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("format", result.format().name().toLowerCase(Locale.ROOT));
+        statistics.put("bytes", result.bytes());
+        statistics.put("rows", result.rows());
+        statistics.put("malformedRows", result.malformedRows());
+        statistics.put("columnCount", columns.size());
+        statistics.put("truncatedColumns", result.truncatedColumns());
+        statistics.put("qualityScore", round(result.qualityScore()));
+        statistics.put("columns", columns);
+        statistics.put("profiledAt", LocalDateTime.now().toString());
+        statistics.put("elapsedMs", elapsed);
+        return statistics;
+    }
+
+    private void updateStatus(Long datasetId, Integer status) {
+        datasetRepository.findById(datasetId).ifPresent(dataset -> {
+            dataset.setStatus(status);
+            dataset.setUpdateTime(LocalDateTime.now());
+            datasetRepository.save(dataset);
+        });
+    }
+
+    /**
+     * 按数据集格式确定解析方式，未填写时按扩展名判断；json按每行一个对象处理
+     */
+    private static DatasetProfiler.Format resolveFormat(Dataset dataset, Path file) {
+        String format = dataset.getFormat();
+        if (format == null || format.isBlank()) {
+            String name = file.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            format = dot < 0 ? "" : name.substring(dot + 1);
+        }
+        return switch (format.trim().toLowerCase(Locale.ROOT)) {
+            case "csv" -> DatasetProfiler.Format.CSV;
+            case "tsv" -> DatasetProfiler.Format.TSV;
+            case "json", "jsonl", "ndjson" -> DatasetProfiler.Format.JSONL;
+            default -> throw new BusinessException("不支持分析的数据格式：" + format);
+        };
+    }
+
+    private static double round(double value) {
+        return Double.isFinite(value) ? Math.round(value * 10000) / 10000.0 : 0;
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 分析任务
+     */
+    private static class Job {
+
+        private final Long datasetId;
+
+        private final DatasetProfiler.Format format;
+
+        private final long totalBytes;
+
+        private final Integer previousStatus;
+
+        private final LongAdder scannedBytes = new LongAdder();
+
+        private final LocalDateTime submitTime = LocalDateTime.now();
+
+        private volatile LocalDateTime startTime;
+
+        private volatile LocalDateTime finishTime;
+
+        private volatile String state = "QUEUED";
+
+        private volatile boolean finished;
+
+        private volatile String errorMessage;
+
+        private volatile long rows;
+
+        private volatile double qualityScore;
+
+        Job(Long datasetId, DatasetProfiler.Format format, long totalBytes, Integer previousStatus) {
+            this.datasetId = datasetId;
+            this.format = format;
+            this.totalBytes = totalBytes;
+            this.previousStatus = previousStatus;
+        }
+
+        Map<String, Object> toMap() {
+            long scanned = Math.min(scannedBytes.sum(), totalBytes);
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("datasetId", datasetId);
+            map.put("state", startTime == null || finished ? state : "RUNNING");
+            map.put("format", format.name().toLowerCase(Locale.ROOT));
+            map.put("totalBytes", totalBytes);
+            map.put("scannedBytes", scanned);
+            map.put("progress", totalBytes == 0 ? (finished ? 100.0 : 0.0) : round(100.0 * scanned / totalBytes));
+            map.put("submitTime", submitTime);
+            map.put("startTime", startTime);
+            map.put("finishTime", finishTime);
+            if (finished) {
+                map.put("rows", rows);
+                map.put("qualityScore", qualityScore);
+                map.put("errorMessage", errorMessage);
+            }
+            return map;
+        }
+    }
+}
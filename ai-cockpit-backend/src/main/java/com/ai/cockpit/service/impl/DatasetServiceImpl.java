@@ -1,20 +1,30 @@
 package com.ai.cockpit.service.impl;
 
+import com.ai.cockpit.dto.request.DatasetDedupRequest;
 import com.ai.cockpit.dto.request.DatasetRequest;
+import com.ai.cockpit.dto.request.DatasetSplitRequest;
+import com.ai.cockpit.dto.request.DatasetUploadRequest;
 import com.ai.cockpit.dto.response.DatasetResponse;
 import com.ai.cockpit.entity.Dataset;
 import com.ai.cockpit.exception.BusinessException;
 import com.ai.cockpit.mapper.DatasetMapper;
 import com.ai.cockpit.repository.DatasetRepository;
+import com.ai.cockpit.service.DatasetDedupService;
+import com.ai.cockpit.service.DatasetPreviewService;
+import com.ai.cockpit.service.DatasetProfileService;
 import com.ai.cockpit.service.DatasetService;
+import com.ai.cockpit.service.DatasetSplitService;
+import com.ai.cockpit.service.DatasetUploadService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.channels.ReadableByteChannel;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 数据集服务实现类
@@ -26,6 +36,11 @@ public class DatasetServiceImpl implements DatasetService {
     
     private final DatasetRepository datasetRepository;
     private final DatasetMapper datasetMapper;
+    private final DatasetUploadService datasetUploadService;
+    private final DatasetProfileService datasetProfileService;
+    private final DatasetPreviewService datasetPreviewService;
+    private final DatasetSplitService datasetSplitService;
+    private final DatasetDedupService datasetDedupService;
     
     @Override
     @Transactional
@@ -217,4 +232,76 @@ public class DatasetServiceImpl implements DatasetService {
                 .filter(dataset -> dataset.getStatus().equals(status))
                 .count();
     }
-}
\ No newline at end of file
+    
+    @Override
+    public Map<String, Object> initiateUpload(Long id, DatasetUploadRequest request) {
+        return datasetUploadService.initiate(id, request);
+    }
+    
+    @Override
+    public Map<String, Object> uploadPart(Long id, String uploadId, int partNumber, long contentLength,
+                                          String sha256, ReadableByteChannel body) {
+        return datasetUploadService.uploadPart(id, uploadId, partNumber, contentLength, sha256, body);
+    }
+    
+    @Override
+    public Map<String, Object> getUpload(Long id, String uploadId) {
+        return datasetUploadService.getUpload(id, uploadId);
+    }
+    
+    @Override
+    public DatasetResponse completeUpload(Long id, String uploadId) {
+        datasetUploadService.complete(id, uploadId);
+        return findById(id);
+    }
+    
+    @Override
+    public void abortUpload(Long id, String uploadId) {
+        datasetUploadService.abort(id, uploadId);
+    }
+    
+    @Override
+    public Map<String, Object> profileDataset(Long id) {
+        return datasetProfileService.startProfile(id);
+    }
+    
+    @Override
+    public Map<String, Object> getProfileStatus(Long id) {
+        return datasetProfileService.getProfileStatus(id);
+    }
+    
+    @Override
+    public Map<String, Object> previewRows(Long id, long fromRow, int count) {
+        return datasetPreviewService.readRows(id, fromRow, count);
+    }
+    
+    @Override
+    public Map<String, Object> splitDataset(Long id, DatasetSplitRequest request) {
+        return datasetSplitService.startSplit(id, request);
+    }
+    
+    @Override
+    public Map<String, Object> getSplit(Long id) {
+        return datasetSplitService.getSplit(id);
+    }
+    
+    @Override
+    public Map<String, Object> indexDuplicates(Long id, String textColumn) {
+        return datasetDedupService.startIndex(id, textColumn);
+    }
+    
+    @Override
+    public Map<String, Object> getDuplicateReport(Long id) {
+        return datasetDedupService.getReport(id);
+    }
+    
+    @Override
+    public Map<String, Object> deduplicateDataset(Long id, DatasetDedupRequest request) {
+        return datasetDedupService.startDeduplicate(id, request);
+    }
+    
+    @Override
+    public Map<String, Object> getDedupJob(Long id) {
+        return datasetDedupService.getJob(id);
+    }
+}
@@ -0,0 +1,363 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.dto.request.DatasetSplitRequest;
+import com.ai.cockpit.entity.Dataset;
+import com.ai.cockpit.exception.BusinessException;
+import com.ai.cockpit.repository.DatasetRepository;
+import com.ai.cockpit.service.DatasetSplitService;
+import com.ai.cockpit.util.DatasetFileResolver;
+import com.ai.cockpit.util.DatasetProfiler;
+import com.ai.cockpit.util.DatasetSplitter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 数据集切分服务实现类
+ * <p>
+ * 切分结果写到{output-dir}/{数据集ID}/{files|bitmap}/，先写入临时目录，完成后替换上一次的结果，
+ * 目录下的manifest.json记录种子、键列、比例、各集合行数、结果文件与源文件校验和。
+ * 比例未在请求中指定时取数据集的trainRatio/validationRatio/testRatio，都未设置时按8:1:1。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DatasetSplitServiceImpl implements DatasetSplitService {
+
+    private static final String MANIFEST = "manifest.json";
+
+    private static final double[] DEFAULT_RATIOS = {0.8, 0.1, 0.1};
+
+    private final DatasetRepository datasetRepository;
+    private final DatasetFileResolver datasetFileResolver;
+    private final ObjectMapper objectMapper;
+
+    @Value("${dataset.split.output-dir:data/dataset-splits}")
+    private String outputDir;
+
+    @Value("${dataset.split.default-seed:42}")
+    private long defaultSeed;
+
+    /** 扫描线程数，0表示CPU核数 */
+    @Value("${dataset.split.threads:0}")
+    private int threads;
+
+    @Value("${dataset.split.max-concurrent:1}")
+    private int maxConcurrent;
+
+    @Value("${dataset.split.max-queued:16}")
+    private int maxQueued;
+
+    @Value("${dataset.split.block-size:4194304}")
+    private int blockSize;
+
+    @Value("${dataset.split.max-line-bytes:67108864}")
+    private int maxLineBytes;
+
+    private final ConcurrentHashMap<Long, Job> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor runner;
+
+    private ExecutorService scanners;
+
+    @PostConstruct
+    public void init() {
+        threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        runner = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxQueued), daemon("dataset-split-"));
+        scanners = Executors.newFixedThreadPool(threads, daemon("dataset-split-scan-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        scanners.shutdownNow();
+    }
+
+    @Override
+    public Map<String, Object> startSplit(Long datasetId, DatasetSplitRequest request) {
+        Dataset dataset = datasetRepository.findById(datasetId)
+                .orElseThrow(() -> new BusinessException("数据集不存在"));
+        Path file = datasetFileResolver.resolve(dataset);
+        DatasetProfiler.Format format = resolveFormat(dataset, file);
+        DatasetSplitter.Mode mode = request.getMode() == null
+                ? DatasetSplitter.Mode.BITMAP
+                : DatasetSplitter.Mode.valueOf(request.getMode().trim().toUpperCase(Locale.ROOT));
+        long seed = request.getSeed() == null ? defaultSeed : request.getSeed();
+        double[] ratios = ratios(dataset, request);
+        DatasetSplitter splitter;
+        try {
+            splitter = new DatasetSplitter(format, request.getKeyColumn(), seed, ratios, blockSize, maxLineBytes);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(e.getMessage());
+        }
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new BusinessException("读取数据集文件失败");
+        }
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("datasetId", datasetId);
+        settings.put("mode", mode.name().toLowerCase(Locale.ROOT));
+        settings.put("seed", seed);
+        settings.put("keyColumn", request.getKeyColumn());
+        settings.put("ratios", Map.of("train", ratios[0], "validation", ratios[1], "test", ratios[2]));
+        settings.put("sourceFile", file.toString());
+        settings.put("sourceSize", size);
+        settings.put("sourceChecksum", dataset.getFileChecksum());
+
+        Job job = new Job(datasetId, size, settings);
+        if (jobs.compute(datasetId, (id, current) -> current == null || current.finished ? job : current) != job) {
+            throw new BusinessException("数据集正在切分");
+        }
+        try {
+            runner.execute(() -> run(job, splitter, file, mode));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(datasetId, job);
+            throw new BusinessException("切分任务过多，请稍后再试");
+        }
+        log.info("提交数据集切分，数据集ID：{}，方式：{}，种子：{}，比例：{}/{}/{}", datasetId, mode, seed,
+                ratios[0], ratios[1], ratios[2]);
+        return job.toMap();
+    }
+
+    @Override
+    public Map<String, Object> getSplit(Long datasetId) {
+        Job job = jobs.get(datasetId);
+        if (job != null) {
+            return job.toMap();
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (DatasetSplitter.Mode mode : DatasetSplitter.Mode.values()) {
+            Path manifest = targetDir(datasetId, mode).resolve(MANIFEST);
+            if (Files.isRegularFile(manifest)) {
+                try {
+                    result.put(mode.name().toLowerCase(Locale.ROOT), objectMapper.readValue(manifest.toFile(), Map.class));
+                } catch (IOException e) {
+                    log.warn("读取切分清单失败：{}，原因：{}", manifest, e.getMessage());
+                }
+            }
+        }
+        if (result.isEmpty()) {
+            throw new BusinessException("数据集没有切分结果");
+        }
+        return result;
+    }
+
+    private void run(Job job, DatasetSplitter splitter, Path file, DatasetSplitter.Mode mode) {
+        job.startTime = LocalDateTime.now();
+        long started = System.currentTimeMillis();
+        Path target = targetDir(job.datasetId, mode);
+        Path temp = target.resolveSibling("." + target.getFileName() + "-" + UUID.randomUUID());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            String name = file.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            DatasetSplitter.Result result = splitter.split(channel, temp, mode, dot < 0 ? "" : name.substring(dot),
+                    scanners, threads, job.scannedBytes);
+
+            Map<String, Object> manifest = new LinkedHashMap<>(job.settings);
+            manifest.put("rows", result.rows());
+            Map<String, Object> counts = new LinkedHashMap<>();
+            for (int s = 0; s < DatasetSplitter.SPLITS.length; s++) {
+                counts.put(DatasetSplitter.SPLITS[s], result.counts()[s]);
+            }
+            manifest.put("counts", counts);
+            manifest.put("files", result.files());
+            if (mode == DatasetSplitter.Mode.BITMAP) {
+                manifest.put("bitmapHeaderBytes", DatasetSplitter.BITMAP_HEADER_BYTES);
+            }
+            manifest.put("createTime", LocalDateTime.now().toString());
+            manifest.put("elapsedMs", System.currentTimeMillis() - started);
+            objectMapper.writeValue(temp.resolve(MANIFEST).toFile(), manifest);
+
+            deleteRecursively(target);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            manifest.put("outputDir", target.toString());
+            job.manifest = manifest;
+            job.state = "COMPLETED";
+            log.info("数据集切分完成，数据集ID：{}，{}行，训练/验证/测试：{}/{}/{}，耗时{}毫秒", job.datasetId, result.rows(),
+                    result.counts()[0], result.counts()[1], result.counts()[2], System.currentTimeMillis() - started);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(job, "切分已取消", temp);
+        } catch (IOException e) {
+            log.warn("数据集切分失败，数据集ID：{}，原因：{}", job.datasetId, e.getMessage());
+            fail(job, e.getMessage(), temp);
+        } catch (RuntimeException e) {
+            log.error("数据集切分失败，数据集ID：{}", job.datasetId, e);
+            fail(job, "切分失败", temp);
+        } finally {
+            job.finishTime = LocalDateTime.now();
+            job.finished = true;
+        }
+    }
+
+    private void fail(Job job, String message, Path temp) {
+        job.state = "FAILED";
+        job.errorMessage = message;
+        try {
+            deleteRecursively(temp);
+        } catch (IOException e) {
+            log.warn("清理切分临时目录失败：{}", temp);
+        }
+    }
+
+    private Path targetDir(Long datasetId, DatasetSplitter.Mode mode) {
+        return Paths.get(outputDir).toAbsolutePath().normalize()
+                .resolve(String.valueOf(datasetId)).resolve(mode.name().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 切分比例：请求中的比例优先，其次数据集设置，都为空时按8:1:1
+     */
+    private static double[] ratios(Dataset dataset, DatasetSplitRequest request) {
+        BigDecimal[] values = request.getTrainRatio() != null || request.getValidationRatio() != null
+                || request.getTestRatio() != null
+                ? new BigDecimal[]{request.getTrainRatio(), request.getValidationRatio(), request.getTestRatio()}
+                : new BigDecimal[]{dataset.getTrainRatio(), dataset.getValidationRatio(), dataset.getTestRatio()};
+        if (values[0] == null && values[1] == null && values[2] == null) {
+            return DEFAULT_RATIOS.clone();
+        }
+        double[] ratios = new double[3];
+        double total = 0;
+        for (int i = 0; i < 3; i++) {
+            ratios[i] = values[i] == null ? 0 : values[i].doubleValue();
+            if (ratios[i] < 0) {
+                throw new BusinessException("切分比例不能为负数");
+            }
+            total += ratios[i];
+        }
+        if (total <= 0) {
+            throw new BusinessException("切分比例之和必须大于0");
+        }
+        for (int i = 0; i < 3; i++) {
+            ratios[i] /= total;
+        }
+        return ratios;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * 按数据集格式确定解析方式，未填写时按扩展名判断；普通文本按整行为键
+     */
+    private static DatasetProfiler.Format resolveFormat(Dataset dataset, Path file) {
+        String format = dataset.getFormat();
+        if (format == null || format.isBlank()) {
+            String name = file.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            format = dot < 0 ? "" : name.substring(dot + 1);
+        }
+        return switch (format.trim().toLowerCase(Locale.ROOT)) {
+            case "csv" -> DatasetProfiler.Format.CSV;
+            case "tsv" -> DatasetProfiler.Format.TSV;
+            case "json", "jsonl", "ndjson" -> DatasetProfiler.Format.JSONL;
+            case "txt", "text" -> null;
+            default -> throw new BusinessException("不支持切分的数据格式：" + format);
+        };
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 切分任务
+     */
+    private static class Job {
+
+        private final Long datasetId;
+
+        private final long totalBytes;
+
+        private final Map<String, Object> settings;
+
+        private final LongAdder scannedBytes = new LongAdder();
+
+        private final LocalDateTime submitTime = LocalDateTime.now();
+
+        private volatile LocalDateTime startTime;
+
+        private volatile LocalDateTime finishTime;
+
+        private volatile String state = "QUEUED";
+
+        private volatile boolean finished;
+
+        private volatile String errorMessage;
+
+        private volatile Map<String, Object> manifest;
+
+        Job(Long datasetId, long totalBytes, Map<String, Object> settings) {
+            this.datasetId = datasetId;
+            this.totalBytes = totalBytes;
+            this.settings = settings;
+        }
+
+        Map<String, Object> toMap() {
+            long scanned = Math.min(scannedBytes.sum(), totalBytes);
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("datasetId", datasetId);
+            map.put("state", startTime == null || finished ? state : "RUNNING");
+            map.put("totalBytes", totalBytes);
+            map.put("scannedBytes", scanned);
+            map.put("progress", totalBytes == 0 ? (finished ? 100.0 : 0.0) : Math.round(10000.0 * scanned / totalBytes) / 100.0);
+            map.put("submitTime", submitTime);
+            map.put("startTime", startTime);
+            map.put("finishTime", finishTime);
+            if (finished) {
+                map.put("errorMessage", errorMessage);
+                map.put("manifest", manifest);
+            } else {
+                map.put("settings", settings);
+            }
+            return map;
+        }
+    }
+}
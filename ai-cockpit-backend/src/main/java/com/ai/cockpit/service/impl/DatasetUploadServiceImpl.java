@@ -0,0 +1,357 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.dto.request.DatasetUploadRequest;
+import com.ai.cockpit.exception.BusinessException;
+import com.ai.cockpit.repository.DatasetRepository;
+import com.ai.cockpit.service.DatasetUploadService;
+import com.ai.cockpit.service.DatasetUploadStorage;
+import com.ai.cockpit.util.ContentDefinedChunker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 数据集分片上传服务实现类
+ * <p>
+ * 会话与已上传分片保存在dataset_upload/dataset_upload_part表，服务重启后可继续上传。
+ * 分片请求体以通道方式边读边写入存储，同时计算分片SHA-256，不经过multipart解析与临时文件。
+ * 文件校验和不重新读取文件：单个分片时即为文件的SHA-256（sha256:{十六进制}），
+ * 多个分片时为各分片SHA-256按序拼接后的SHA-256（sha256-parts:{十六进制}-{分片数}），客户端可按同样方式计算核对。
+ * 分片写入前先删除该分片的记录，只有数据完整写入且校验通过后才重新登记，暂存数据被覆盖的分片不会参与合并。
+ * 完成与取消先把状态从上传中改为合并中/已取消，并等待本节点正在写入的分片结束。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DatasetUploadServiceImpl implements DatasetUploadService {
+
+    private static final int STATUS_UPLOADING = 0;
+    private static final int STATUS_COMPLETING = 1;
+    private static final int STATUS_COMPLETED = 2;
+    private static final int STATUS_ABORTED = 3;
+
+    private static final String INSERT_UPLOAD_SQL = "INSERT INTO dataset_upload (upload_id, dataset_id, file_name, file_size, "
+            + "part_size, part_count, backend, status, create_time, expire_time) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_UPLOAD_SQL = "SELECT upload_id, dataset_id, file_name, file_size, part_size, part_count, "
+            + "backend, status, expire_time FROM dataset_upload WHERE upload_id = ?";
+
+    private static final String STATUS_SQL = "UPDATE dataset_upload SET status = ? WHERE upload_id = ? AND status = ?";
+
+    private static final String UPSERT_PART_SQL = "INSERT INTO dataset_upload_part (upload_id, part_number, size, sha256, upload_time) "
+            + "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE size = VALUES(size), sha256 = VALUES(sha256), upload_time = VALUES(upload_time)";
+
+    private static final String SELECT_PARTS_SQL = "SELECT part_number, size, sha256 FROM dataset_upload_part "
+            + "WHERE upload_id = ? ORDER BY part_number";
+
+    private static final String DELETE_PART_SQL = "DELETE FROM dataset_upload_part WHERE upload_id = ? AND part_number = ?";
+
+    private static final String DELETE_PARTS_SQL = "DELETE FROM dataset_upload_part WHERE upload_id = ?";
+
+    private static final String EXPIRED_SQL = "SELECT upload_id FROM dataset_upload WHERE status = 0 AND expire_time < ?";
+
+    private static final String DATASET_FILE_SQL = "UPDATE dataset SET file_path = ?, file_size = ?, file_checksum = ?, "
+            + "update_time = ? WHERE id = ?";
+
+    private final DatasetUploadStorage storage;
+    private final DatasetRepository datasetRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${dataset.upload.part-size:16777216}")
+    private long defaultPartSize;
+
+    /** 服务端合并要求的最小分片（最后一个分片除外） */
+    @Value("${dataset.upload.min-part-size:5242880}")
+    private long minPartSize;
+
+    @Value("${dataset.upload.max-part-size:268435456}")
+    private long maxPartSize;
+
+    @Value("${dataset.upload.max-parts:10000}")
+    private int maxParts;
+
+    @Value("${dataset.upload.max-file-size:1099511627776}")
+    private long maxFileSize;
+
+    /** 会话有效期（小时） */
+    @Value("${dataset.upload.expire-hours:24}")
+    private long expireHours;
+
+    private final ConcurrentHashMap<String, ReentrantReadWriteLock> locks = new ConcurrentHashMap<>();
+
+    @Override
+    public Map<String, Object> initiate(Long datasetId, DatasetUploadRequest request) {
+        if (!datasetRepository.existsById(datasetId)) {
+            throw new BusinessException("数据集不存在");
+        }
+        String fileName = checkFileName(request.getFileName());
+        long fileSize = request.getFileSize();
+        if (fileSize > maxFileSize) {
+            throw new BusinessException("文件大小超过上限" + maxFileSize + "字节");
+        }
+        long partSize = request.getPartSize() == null ? defaultPartSize : request.getPartSize();
+        partSize = Math.max(Math.max(partSize, minPartSize), (fileSize + maxParts - 1) / maxParts);
+        if (partSize > maxPartSize) {
+            throw new BusinessException("分片大小超过上限" + maxPartSize + "字节");
+        }
+        int partCount = (int) ((fileSize + partSize - 1) / partSize);
+
+        String uploadId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expireTime = now.plusHours(expireHours);
+        try {
+            storage.initiate(uploadId, fileSize);
+        } catch (IOException e) {
+            log.error("初始化上传失败，数据集ID：{}", datasetId, e);
+            throw new BusinessException("初始化上传失败");
+        }
+        jdbcTemplate.update(INSERT_UPLOAD_SQL, uploadId, datasetId, fileName, fileSize, partSize, partCount, storage.getName(),
+                STATUS_UPLOADING, Timestamp.valueOf(now), Timestamp.valueOf(expireTime));
+        log.info("开始数据集分片上传，数据集ID：{}，上传ID：{}，{}字节，{}个分片", datasetId, uploadId, fileSize, partCount);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("uploadId", uploadId);
+        result.put("partSize", partSize);
+        result.put("partCount", partCount);
+        result.put("expireTime", expireTime);
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> uploadPart(Long datasetId, String uploadId, int partNumber, long contentLength,
+                                          String expectedSha256, ReadableByteChannel body) {
+        Upload upload = load(datasetId, uploadId);
+        if (partNumber < 1 || partNumber > upload.partCount()) {
+            throw new BusinessException("分片序号超出范围：1-" + upload.partCount());
+        }
+        long offset = (partNumber - 1) * upload.partSize();
+        long length = Math.min(upload.partSize(), upload.fileSize() - offset);
+        if (contentLength != length) {
+            throw new BusinessException("第" + partNumber + "个分片长度应为" + length + "字节");
+        }
+        ReentrantReadWriteLock lock = locks.computeIfAbsent(uploadId, k -> new ReentrantReadWriteLock());
+        lock.readLock().lock();
+        try {
+            if (load(datasetId, uploadId).status() != STATUS_UPLOADING) {
+                throw new BusinessException("上传已结束");
+            }
+            // 先删除分片记录再写入：写入中断或校验失败时该分片视为未上传，合并前必须重新上传
+            jdbcTemplate.update(DELETE_PART_SQL, uploadId, partNumber);
+            MessageDigest digest = ContentDefinedChunker.sha256();
+            try {
+                storage.writePart(uploadId, partNumber, offset, length, body, digest);
+            } catch (EOFException e) {
+                throw new BusinessException("分片数据不完整，请重新上传该分片");
+            } catch (IOException e) {
+                log.error("写入分片失败，上传ID：{}，分片：{}", uploadId, partNumber, e);
+                throw new BusinessException("写入分片失败");
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            if (expectedSha256 != null && !expectedSha256.isBlank() && !expectedSha256.trim().equalsIgnoreCase(sha256)) {
+                throw new BusinessException("分片校验失败，请重新上传该分片");
+            }
+            jdbcTemplate.update(UPSERT_PART_SQL, uploadId, partNumber, length, sha256, Timestamp.valueOf(LocalDateTime.now()));
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("partNumber", partNumber);
+            result.put("size", length);
+            result.put("sha256", sha256);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Object> getUpload(Long datasetId, String uploadId) {
+        Upload upload = load(datasetId, uploadId);
+        List<Part> parts = parts(uploadId);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("uploadId", uploadId);
+        result.put("datasetId", datasetId);
+        result.put("fileName", upload.fileName());
+        result.put("fileSize", upload.fileSize());
+        result.put("partSize", upload.partSize());
+        result.put("partCount", upload.partCount());
+        result.put("status", upload.status());
+        result.put("uploadedParts", parts.stream().map(Part::number).toList());
+        result.put("uploadedBytes", parts.stream().mapToLong(Part::size).sum());
+        result.put("expireTime", upload.expireTime());
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> complete(Long datasetId, String uploadId) {
+        Upload upload = load(datasetId, uploadId);
+        if (jdbcTemplate.update(STATUS_SQL, STATUS_COMPLETING, uploadId, STATUS_UPLOADING) == 0) {
+            throw new BusinessException("上传已结束或正在合并");
+        }
+        ReentrantReadWriteLock lock = locks.computeIfAbsent(uploadId, k -> new ReentrantReadWriteLock());
+        lock.writeLock().lock();
+        try {
+            List<Part> parts = parts(uploadId);
+            String missing = missingParts(upload, parts);
+            if (missing != null) {
+                jdbcTemplate.update(STATUS_SQL, STATUS_UPLOADING, uploadId, STATUS_COMPLETING);
+                throw new BusinessException("分片未上传完整，缺少第" + missing + "个分片");
+            }
+            String checksum = checksum(parts);
+            String filePath;
+            try {
+                filePath = storage.complete(uploadId, upload.partCount(), datasetId + "/" + upload.fileName());
+            } catch (IOException e) {
+                jdbcTemplate.update(STATUS_SQL, STATUS_UPLOADING, uploadId, STATUS_COMPLETING);
+                log.error("合并分片失败，上传ID：{}", uploadId, e);
+                throw new BusinessException("合并分片失败");
+            }
+            jdbcTemplate.update(DATASET_FILE_SQL, filePath, upload.fileSize(), checksum, Timestamp.valueOf(LocalDateTime.now()), datasetId);
+            jdbcTemplate.update(STATUS_SQL, STATUS_COMPLETED, uploadId, STATUS_COMPLETING);
+            jdbcTemplate.update(DELETE_PARTS_SQL, uploadId);
+            log.info("数据集分片上传完成，数据集ID：{}，上传ID：{}，文件：{}，校验和：{}", datasetId, uploadId, filePath, checksum);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("filePath", filePath);
+            result.put("fileSize", upload.fileSize());
+            result.put("fileChecksum", checksum);
+            return result;
+        } finally {
+            lock.writeLock().unlock();
+            locks.remove(uploadId);
+        }
+    }
+
+    @Override
+    public void abort(Long datasetId, String uploadId) {
+        load(datasetId, uploadId);
+        if (!abort(uploadId)) {
+            throw new BusinessException("上传已结束或正在合并");
+        }
+    }
+
+    /**
+     * 清理过期未完成的上传
+     */
+    @Scheduled(fixedDelayString = "${dataset.upload.purge-interval:3600000}")
+    public void purgeExpired() {
+        List<String> expired;
+        try {
+            expired = jdbcTemplate.queryForList(EXPIRED_SQL, String.class, Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DataAccessException e) {
+            log.warn("查询过期上传失败: {}", e.getMessage());
+            return;
+        }
+        int purged = 0;
+        for (String uploadId : expired) {
+            if (abort(uploadId)) {
+                purged++;
+            }
+        }
+        if (purged > 0) {
+            log.info("清理过期的数据集上传{}个", purged);
+        }
+    }
+
+    private boolean abort(String uploadId) {
+        if (jdbcTemplate.update(STATUS_SQL, STATUS_ABORTED, uploadId, STATUS_UPLOADING) == 0) {
+            return false;
+        }
+        ReentrantReadWriteLock lock = locks.computeIfAbsent(uploadId, k -> new ReentrantReadWriteLock());
+        lock.writeLock().lock();
+        try {
+            storage.abort(uploadId);
+            jdbcTemplate.update(DELETE_PARTS_SQL, uploadId);
+        } catch (IOException e) {
+            log.warn("清理上传暂存数据失败，上传ID：{}", uploadId, e);
+        } finally {
+            lock.writeLock().unlock();
+            locks.remove(uploadId);
+        }
+        return true;
+    }
+
+    private Upload load(Long datasetId, String uploadId) {
+        List<Upload> uploads = jdbcTemplate.query(SELECT_UPLOAD_SQL, (rs, rowNum) -> new Upload(rs.getString("upload_id"),
+                rs.getLong("dataset_id"), rs.getString("file_name"), rs.getLong("file_size"), rs.getLong("part_size"),
+                rs.getInt("part_count"), rs.getString("backend"), rs.getInt("status"),
+                rs.getTimestamp("expire_time").toLocalDateTime()), uploadId);
+        if (uploads.isEmpty() || !uploads.get(0).datasetId().equals(datasetId)) {
+            throw new BusinessException("上传不存在");
+        }
+        Upload upload = uploads.get(0);
+        if (!upload.backend().equals(storage.getName())) {
+            throw new BusinessException("上传使用的存储后端已变更，请重新上传");
+        }
+        return upload;
+    }
+
+    private List<Part> parts(String uploadId) {
+        return jdbcTemplate.query(SELECT_PARTS_SQL,
+                (rs, rowNum) -> new Part(rs.getInt("part_number"), rs.getLong("size"), rs.getString("sha256")), uploadId);
+    }
+
+    /**
+     * 缺少的分片序号（最多列出10个），完整时返回null
+     */
+    private static String missingParts(Upload upload, List<Part> parts) {
+        boolean[] present = new boolean[upload.partCount() + 1];
+        for (Part part : parts) {
+            long expected = Math.min(upload.partSize(), upload.fileSize() - (part.number() - 1) * upload.partSize());
+            if (part.number() <= upload.partCount() && part.size() == expected) {
+                present[part.number()] = true;
+            }
+        }
+        List<String> missing = new ArrayList<>();
+        for (int i = 1; i <= upload.partCount() && missing.size() < 10; i++) {
+            if (!present[i]) {
+                missing.add(String.valueOf(i));
+            }
+        }
+        return missing.isEmpty() ? null : String.join("、", missing);
+    }
+
+    private static String checksum(List<Part> parts) {
+        if (parts.size() == 1) {
+            return "sha256:" + parts.get(0).sha256();
+        }
+        MessageDigest digest = ContentDefinedChunker.sha256();
+        for (Part part : parts) {
+            digest.update(HexFormat.of().parseHex(part.sha256()));
+        }
+        return "sha256-parts:" + HexFormat.of().formatHex(digest.digest()) + "-" + parts.size();
+    }
+
+    private static String checkFileName(String fileName) {
+        String name = fileName.trim();
+        if (name.isEmpty() || name.length() > 255 || name.startsWith(".") || name.contains("/") || name.contains("\\")
+                || name.chars().anyMatch(Character::isISOControl)) {
+            throw new BusinessException("文件名不合法");
+        }
+        return name;
+    }
+
+    private record Upload(String uploadId, Long datasetId, String fileName, long fileSize, long partSize, int partCount,
+                          String backend, int status, LocalDateTime expireTime) {
+    }
+
+    private record Part(int number, long size, String sha256) {
+    }
+}
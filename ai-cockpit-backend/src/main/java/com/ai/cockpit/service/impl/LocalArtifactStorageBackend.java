@@ -0,0 +1,172 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.service.ArtifactStorageBackend;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 本地文件系统存储后端
+ * <p>
+ * 对象保存为dataDir下与键同名的文件。写入先写临时文件再原子改名，读者不会看到写了一半的对象；
+ * 文件之间的复制使用FileChannel.transferTo，由内核直接复制（copy_file_range/sendfile），不经过用户态缓冲。
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "training.artifact", name = "backend", havingValue = "local", matchIfMissing = true)
+public class LocalArtifactStorageBackend implements ArtifactStorageBackend {
+
+    private final Path root;
+
+    public LocalArtifactStorageBackend(@Value("${training.artifact.local.data-dir:data/training-artifacts}") String dataDir) {
+        this.root = Paths.get(dataDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public boolean touch(String key) throws IOException {
+        try {
+            Files.setLastModifiedTime(resolve(key), FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void put(String key, FileChannel source, long position, long length) throws IOException {
+        Path target = resolve(key);
+        Path temp = tempFile(target);
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long written = 0;
+                while (written < length) {
+                    long n = source.transferTo(position + written, length - written, out);
+                    if (n <= 0) {
+                        throw new IOException("源文件在写入过程中被截断: " + key);
+                    }
+                    written += n;
+                }
+            }
+            commit(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] content) throws IOException {
+        Path target = resolve(key);
+        Path temp = tempFile(target);
+        try {
+            Files.write(temp, content);
+            commit(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public byte[] get(String key) throws IOException {
+        return Files.readAllBytes(resolve(key));
+    }
+
+    @Override
+    public long transferTo(String key, WritableByteChannel target) throws IOException {
+        try (FileChannel in = FileChannel.open(resolve(key), StandardOpenOption.READ)) {
+            long size = in.size();
+            long transferred = 0;
+            while (transferred < size) {
+                long n = in.transferTo(transferred, size - transferred, target);
+                if (n <= 0) {
+                    break;
+                }
+                transferred += n;
+            }
+            return transferred;
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public List<StoredObject> list(String prefix) throws IOException {
+        Path base = resolve(prefix);
+        Path dir = Files.isDirectory(base) ? base : base.getParent();
+        List<StoredObject> objects = new ArrayList<>();
+        if (dir == null || !Files.isDirectory(dir)) {
+            return objects;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String key = root.relativize(file).toString().replace('\\', '/');
+                if (!key.startsWith(prefix) || file.getFileName().toString().startsWith(".")) {
+                    continue;
+                }
+                try {
+                    if (Files.isRegularFile(file)) {
+                        objects.add(new StoredObject(key, Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+                    }
+                } catch (NoSuchFileException e) {
+                    // 列出过程中被删除
+                }
+            }
+        }
+        return objects;
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("非法的对象键: " + key);
+        }
+        return path;
+    }
+
+    private static Path tempFile(Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        return Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+    }
+
+    private static void commit(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
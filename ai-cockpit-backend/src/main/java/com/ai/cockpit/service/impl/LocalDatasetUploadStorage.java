@@ -0,0 +1,104 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.service.DatasetUploadStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+/**
+ * 本地文件系统分片上传存储
+ * <p>
+ * 开始上传时创建与文件等长的稀疏暂存文件，每个分片按偏移直接写入暂存文件的对应位置，
+ * 完成时刷盘后原子改名为最终文件，合并不复制数据。
+ */
+@Service
+@ConditionalOnProperty(prefix = "dataset.upload", name = "backend", havingValue = "local", matchIfMissing = true)
+public class LocalDatasetUploadStorage implements DatasetUploadStorage {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final Path root;
+
+    private final Path staging;
+
+    public LocalDatasetUploadStorage(@Value("${dataset.upload.local.data-dir:data/datasets}") String dataDir) {
+        this.root = Paths.get(dataDir).toAbsolutePath().normalize();
+        this.staging = root.resolve(".uploads");
+    }
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public void initiate(String uploadId, long fileSize) throws IOException {
+        Files.createDirectories(staging);
+        try (RandomAccessFile file = new RandomAccessFile(stagingFile(uploadId).toFile(), "rw")) {
+            file.setLength(fileSize);
+        }
+    }
+
+    @Override
+    public void writePart(String uploadId, int partNumber, long offset, long length, ReadableByteChannel source,
+                          MessageDigest digest) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(BUFFER_SIZE, Math.max(length, 1)));
+        try (FileChannel out = FileChannel.open(stagingFile(uploadId), StandardOpenOption.WRITE)) {
+            long written = 0;
+            while (written < length) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), length - written));
+                if (source.read(buffer) < 0) {
+                    throw new EOFException("分片数据不完整");
+                }
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    written += out.write(buffer, offset + written);
+                }
+            }
+        }
+    }
+
+    @Override
+    public String complete(String uploadId, int partCount, String key) throws IOException {
+        Path source = stagingFile(uploadId);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Path target = root.resolve(key).normalize();
+        if (!target.startsWith(root)) {
+            throw new IllegalArgumentException("非法的文件路径: " + key);
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return target.toString();
+    }
+
+    @Override
+    public void abort(String uploadId) throws IOException {
+        Files.deleteIfExists(stagingFile(uploadId));
+    }
+
+    private Path stagingFile(String uploadId) {
+        return staging.resolve(uploadId + ".part");
+    }
+}
@@ -0,0 +1,231 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.service.ArtifactStorageBackend;
+import io.minio.BucketExistsArgs;
+import io.minio.CopyObjectArgs;
+import io.minio.CopySource;
+import io.minio.Directive;
+import io.minio.GetObjectArgs;
+import io.minio.ListObjectsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.Item;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MinIO/S3兼容存储后端
+ * <p>
+ * 使用minio.*配置的端点与存储桶，对象键加keyPrefix前缀；开发环境可用本地MinIO服务代替。
+ * 块内容通过内存映射源文件区间上传，不复制到堆内存。
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "training.artifact", name = "backend", havingValue = "minio")
+public class MinioArtifactStorageBackend implements ArtifactStorageBackend {
+
+    private static final String CONTENT_TYPE = "application/octet-stream";
+
+    @Value("${minio.endpoint}")
+    private String endpoint;
+
+    @Value("${minio.accessKey}")
+    private String accessKey;
+
+    @Value("${minio.secretKey}")
+    private String secretKey;
+
+    @Value("${minio.bucketName}")
+    private String bucket;
+
+    /** 对象键前缀 */
+    @Value("${training.artifact.minio.key-prefix:training-artifacts/}")
+    private String keyPrefix;
+
+    private MinioClient client;
+
+    @PostConstruct
+    public void init() {
+        client = MinioClient.builder().endpoint(endpoint).credentials(accessKey, secretKey).build();
+        try {
+            if (!client.bucketExists(BucketExistsArgs.builder().bucket(bucket).build())) {
+                client.makeBucket(MakeBucketArgs.builder().bucket(bucket).build());
+                log.info("创建训练产物存储桶：{}", bucket);
+            }
+        } catch (Exception e) {
+            log.error("检查训练产物存储桶失败，端点：{}，存储桶：{}", endpoint, bucket, e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "minio";
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        try {
+            client.statObject(StatObjectArgs.builder().bucket(bucket).object(keyPrefix + key).build());
+            return true;
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return false;
+            }
+            throw new IOException("查询对象失败: " + key, e);
+        } catch (Exception e) {
+            throw failure("查询对象失败: " + key, e);
+        }
+    }
+
+    /**
+     * 对象存储不能直接修改最后修改时间，以替换元数据的方式把对象复制到自身，服务端完成复制，不传输内容
+     */
+    @Override
+    public boolean touch(String key) throws IOException {
+        String object = keyPrefix + key;
+        try {
+            client.copyObject(CopyObjectArgs.builder().bucket(bucket).object(object)
+                    .source(CopySource.builder().bucket(bucket).object(object).build())
+                    .metadataDirective(Directive.REPLACE)
+                    .headers(Map.of("Content-Type", CONTENT_TYPE)).build());
+            return true;
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return false;
+            }
+            throw new IOException("刷新对象时间失败: " + key, e);
+        } catch (Exception e) {
+            throw failure("刷新对象时间失败: " + key, e);
+        }
+    }
+
+    @Override
+    public void put(String key, FileChannel source, long position, long length) throws IOException {
+        ByteBuffer region = source.map(FileChannel.MapMode.READ_ONLY, position, length);
+        upload(key, new ByteBufferInputStream(region), length);
+    }
+
+    @Override
+    public void put(String key, byte[] content) throws IOException {
+        upload(key, new ByteArrayInputStream(content), content.length);
+    }
+
+    @Override
+    public byte[] get(String key) throws IOException {
+        try (InputStream in = open(key)) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Override
+    public long transferTo(String key, WritableByteChannel target) throws IOException {
+        try (InputStream in = open(key)) {
+            return in.transferTo(Channels.newOutputStream(target));
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return client.getObject(GetObjectArgs.builder().bucket(bucket).object(keyPrefix + key).build());
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                throw new NoSuchFileException(key);
+            }
+            throw new IOException("读取对象失败: " + key, e);
+        } catch (Exception e) {
+            throw failure("读取对象失败: " + key, e);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            client.removeObject(RemoveObjectArgs.builder().bucket(bucket).object(keyPrefix + key).build());
+        } catch (Exception e) {
+            throw failure("删除对象失败: " + key, e);
+        }
+    }
+
+    @Override
+    public List<StoredObject> list(String prefix) throws IOException {
+        List<StoredObject> objects = new ArrayList<>();
+        try {
+            Iterable<Result<Item>> results = client.listObjects(ListObjectsArgs.builder()
+                    .bucket(bucket).prefix(keyPrefix + prefix).recursive(true).build());
+            for (Result<Item> result : results) {
+                Item item = result.get();
+                long lastModified = item.lastModified() == null ? 0 : item.lastModified().toInstant().toEpochMilli();
+                objects.add(new StoredObject(item.objectName().substring(keyPrefix.length()), item.size(), lastModified));
+            }
+        } catch (Exception e) {
+            throw failure("列出对象失败: " + prefix, e);
+        }
+        return objects;
+    }
+
+    private void upload(String key, InputStream in, long length) throws IOException {
+        try {
+            client.putObject(PutObjectArgs.builder().bucket(bucket).object(keyPrefix + key)
+                    .stream(in, length, -1).contentType(CONTENT_TYPE).build());
+        } catch (Exception e) {
+            throw failure("写入对象失败: " + key, e);
+        }
+    }
+
+    private static IOException failure(String message, Exception e) {
+        return e instanceof IOException io ? io : new IOException(message, e);
+    }
+
+    /**
+     * 读取ByteBuffer剩余内容的输入流
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
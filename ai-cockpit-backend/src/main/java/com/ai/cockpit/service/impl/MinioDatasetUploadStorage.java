@@ -0,0 +1,183 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.service.DatasetUploadStorage;
+import io.minio.BucketExistsArgs;
+import io.minio.ComposeObjectArgs;
+import io.minio.ComposeSource;
+import io.minio.ListObjectsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MinIO/S3兼容分片上传存储
+ * <p>
+ * 每个分片边读边上传为一个临时对象，完成时用服务端合并（ComposeObject）生成最终对象并删除临时对象，
+ * 数据不经过本服务。服务端合并要求除最后一个分片外每个分片不小于5MB。
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "dataset.upload", name = "backend", havingValue = "minio")
+public class MinioDatasetUploadStorage implements DatasetUploadStorage {
+
+    private static final String CONTENT_TYPE = "application/octet-stream";
+
+    @Value("${minio.endpoint}")
+    private String endpoint;
+
+    @Value("${minio.accessKey}")
+    private String accessKey;
+
+    @Value("${minio.secretKey}")
+    private String secretKey;
+
+    @Value("${minio.bucketName}")
+    private String bucket;
+
+    /** 对象键前缀 */
+    @Value("${dataset.upload.minio.key-prefix:datasets/}")
+    private String keyPrefix;
+
+    private MinioClient client;
+
+    @PostConstruct
+    public void init() {
+        client = MinioClient.builder().endpoint(endpoint).credentials(accessKey, secretKey).build();
+        try {
+            if (!client.bucketExists(BucketExistsArgs.builder().bucket(bucket).build())) {
+                client.makeBucket(MakeBucketArgs.builder().bucket(bucket).build());
+                log.info("创建数据集存储桶：{}", bucket);
+            }
+        } catch (Exception e) {
+            log.error("检查数据集存储桶失败，端点：{}，存储桶：{}", endpoint, bucket, e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "minio";
+    }
+
+    @Override
+    public void initiate(String uploadId, long fileSize) {
+        // 分片各自成为对象，无需预先分配
+    }
+
+    @Override
+    public void writePart(String uploadId, int partNumber, long offset, long length, ReadableByteChannel source,
+                          MessageDigest digest) throws IOException {
+        InputStream in = new DigestInputStream(new ExactLengthInputStream(Channels.newInputStream(source), length), digest);
+        try {
+            client.putObject(PutObjectArgs.builder().bucket(bucket).object(partKey(uploadId, partNumber))
+                    .stream(in, length, -1).contentType(CONTENT_TYPE).build());
+        } catch (Exception e) {
+            throw failure("上传分片失败: " + uploadId + "/" + partNumber, e);
+        }
+    }
+
+    @Override
+    public String complete(String uploadId, int partCount, String key) throws IOException {
+        List<ComposeSource> sources = new ArrayList<>(partCount);
+        for (int part = 1; part <= partCount; part++) {
+            sources.add(ComposeSource.builder().bucket(bucket).object(partKey(uploadId, part)).build());
+        }
+        try {
+            client.composeObject(ComposeObjectArgs.builder().bucket(bucket).object(keyPrefix + key).sources(sources).build());
+        } catch (Exception e) {
+            throw failure("合并分片失败: " + uploadId, e);
+        }
+        abort(uploadId);
+        return "s3://" + bucket + "/" + keyPrefix + key;
+    }
+
+    @Override
+    public void abort(String uploadId) throws IOException {
+        try {
+            List<DeleteObject> objects = new ArrayList<>();
+            for (Result<Item> result : client.listObjects(ListObjectsArgs.builder().bucket(bucket)
+                    .prefix(uploadPrefix(uploadId)).recursive(true).build())) {
+                objects.add(new DeleteObject(result.get().objectName()));
+            }
+            if (objects.isEmpty()) {
+                return;
+            }
+            for (Result<DeleteError> error : client.removeObjects(RemoveObjectsArgs.builder().bucket(bucket).objects(objects).build())) {
+                log.warn("删除上传分片失败：{}", error.get().objectName());
+            }
+        } catch (Exception e) {
+            throw failure("清理上传分片失败: " + uploadId, e);
+        }
+    }
+
+    private String uploadPrefix(String uploadId) {
+        return keyPrefix + ".uploads/" + uploadId + "/";
+    }
+
+    private String partKey(String uploadId, int partNumber) {
+        return uploadPrefix(uploadId) + String.format("%05d", partNumber);
+    }
+
+    private static IOException failure(String message, Exception e) {
+        return e instanceof IOException io ? io : new IOException(message, e);
+    }
+
+    /**
+     * 只读取指定字节数的输入流，源数据不足时抛出EOFException
+     */
+    private static final class ExactLengthInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        ExactLengthInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b < 0) {
+                throw new EOFException("分片数据不完整");
+            }
+            remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n < 0) {
+                throw new EOFException("分片数据不完整");
+            }
+            remaining -= n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,706 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.entity.ResourceMonitor;
+import com.ai.cockpit.event.MonitorAlertEvent;
+import com.ai.cockpit.event.ResourceMonitorChangedEvent;
+import com.ai.cockpit.repository.ResourceMonitorRepository;
+import com.ai.cockpit.service.MonitorAlertEvaluator;
+import com.ai.cockpit.service.MonitorTimeSeriesService;
+import com.ai.cockpit.util.SeasonalEwmaBaseline;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 监控告警评估器实现类
+ * <p>
+ * 评估状态按时序序列ID分页保存在原始类型数组中（每页1024个序列，页对象同时作为该页的锁），
+ * 每个样本只在所属页内做常数次运算，不查询数据库。状态与计数的变化标记为脏数据，
+ * 由定时任务按批次写回resource_monitor表；状态迁移在释放页锁后以事件发布。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MonitorAlertEvaluatorImpl implements MonitorAlertEvaluator, MonitorTimeSeriesService.SampleListener {
+
+    private static final int PAGE_BITS = 10;
+
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final int STATUS_NORMAL = 0;
+
+    private static final int STATUS_WARNING = 1;
+
+    private static final int STATUS_CRITICAL = 2;
+
+    private static final int STATUS_UNKNOWN = 3;
+
+    /** 评估结果写回语句 */
+    private static final String UPDATE_SQL = "UPDATE resource_monitor SET status = ?, "
+            + "consecutive_warning_count = ?, consecutive_critical_count = ?, "
+            + "normal_count = COALESCE(normal_count, 0) + ?, warning_count = COALESCE(warning_count, 0) + ?, "
+            + "critical_count = COALESCE(critical_count, 0) + ?, "
+            + "last_normal_time = COALESCE(?, last_normal_time), last_warning_time = COALESCE(?, last_warning_time), "
+            + "last_critical_time = COALESCE(?, last_critical_time) WHERE id = ?";
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final MonitorTimeSeriesService monitorTimeSeriesService;
+    private final ResourceMonitorRepository resourceMonitorRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** 监控项ID -> 序列ID */
+    private final ConcurrentHashMap<Long, Integer> seriesByMonitor = new ConcurrentHashMap<>();
+
+    private volatile StatePage[] pages = new StatePage[16];
+
+    private final Object flushLock = new Object();
+
+    @PostConstruct
+    public void init() {
+        monitorTimeSeriesService.addSampleListener(this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int pageNumber = 0;
+        Page<ResourceMonitor> page;
+        do {
+            page = resourceMonitorRepository.findByIsEnabled(true, PageRequest.of(pageNumber++, LOAD_PAGE_SIZE, Sort.by("id")));
+            page.forEach(this::bind);
+        } while (page.hasNext());
+        log.info("加载监控告警评估规则完成: 监控项数={}", seriesByMonitor.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 先于其他监听器执行，保证统计等下游读取到重新绑定后的状态
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMonitorChanged(ResourceMonitorChangedEvent event) {
+        ResourceMonitor monitor = event.getMonitor();
+        if (event.getChangeType() == ResourceMonitorChangedEvent.ChangeType.DELETED
+                || !Boolean.TRUE.equals(monitor.getIsEnabled())) {
+            unbind(monitor.getId());
+        } else {
+            bind(monitor);
+        }
+    }
+
+    @Override
+    public void onSample(int seriesId, long timestamp, double value) {
+        StatePage page = page(seriesId);
+        if (page == null) {
+            return;
+        }
+        MonitorAlertEvent event;
+        synchronized (page) {
+            int i = seriesId & PAGE_MASK;
+            AlertRule rule = page.rules[i];
+            if (rule == null || timestamp < page.lastTimestamp[i]) {
+                return;
+            }
+            double observed = value;
+            MonitorAlertEvent.Trigger trigger = MonitorAlertEvent.Trigger.THRESHOLD;
+            if (rule.window > 0) {
+                observed = page.window(i).add(timestamp, value, rule.window);
+                trigger = MonitorAlertEvent.Trigger.WINDOW_AVERAGE;
+            }
+            int level = rule.level(observed, false);
+            int exitLevel = rule.level(observed, true);
+            AnomalyRule anomaly = rule.anomaly;
+            if (anomaly != null) {
+                double deviation = page.baseline().score(i, timestamp, value, anomaly.params);
+                int anomalyLevel = anomaly.level(deviation, false);
+                int anomalyExitLevel = anomaly.level(deviation, true);
+                if (!anomaly.combineThresholds) {
+                    level = anomalyLevel;
+                    exitLevel = anomalyExitLevel;
+                    observed = deviation;
+                    trigger = MonitorAlertEvent.Trigger.ANOMALY;
+                } else {
+                    if (anomalyLevel > level) {
+                        level = anomalyLevel;
+                        observed = deviation;
+                        trigger = MonitorAlertEvent.Trigger.ANOMALY;
+                    }
+                    exitLevel = Math.max(exitLevel, anomalyExitLevel);
+                }
+            }
+            if (rule.rateEnabled() && page.lastTimestamp[i] > 0 && timestamp > page.lastTimestamp[i]) {
+                double rate = Math.abs(value - page.lastValue[i]) * rule.ratePerMillis / (timestamp - page.lastTimestamp[i]);
+                int rateLevel = rule.rateLevel(rate);
+                if (rateLevel > level) {
+                    level = rateLevel;
+                    observed = rate;
+                    trigger = MonitorAlertEvent.Trigger.RATE_OF_CHANGE;
+                }
+                exitLevel = Math.max(exitLevel, rateLevel);
+            }
+            // 按计入变化率后的级别累计连续次数与分级计数
+            recordLevel(page, i, level, timestamp);
+            page.lastTimestamp[i] = timestamp;
+            page.lastValue[i] = value;
+            event = step(page, i, seriesId, rule, level, exitLevel, trigger, observed, timestamp);
+        }
+        publish(event);
+    }
+
+    @Override
+    public void onCheckFailure(int seriesId, long timestamp, int status) {
+        StatePage page = page(seriesId);
+        if (page == null) {
+            return;
+        }
+        MonitorAlertEvent event;
+        synchronized (page) {
+            int i = seriesId & PAGE_MASK;
+            AlertRule rule = page.rules[i];
+            if (rule == null) {
+                return;
+            }
+            if (status == STATUS_UNKNOWN) {
+                int previous = page.level[i];
+                if (previous == STATUS_UNKNOWN) {
+                    return;
+                }
+                transition(page, i, STATUS_UNKNOWN);
+                event = new MonitorAlertEvent(this, page.monitorIds[i], seriesId, previous, STATUS_UNKNOWN,
+                        MonitorAlertEvent.Trigger.NO_DATA, Double.NaN, timestamp);
+            } else {
+                recordLevel(page, i, STATUS_CRITICAL, timestamp);
+                event = step(page, i, seriesId, rule, STATUS_CRITICAL, STATUS_CRITICAL,
+                        MonitorAlertEvent.Trigger.PROBE_FAILURE, Double.NaN, timestamp);
+            }
+        }
+        publish(event);
+    }
+
+    @Override
+    public Integer currentStatus(Long monitorId) {
+        Integer seriesId = seriesByMonitor.get(monitorId);
+        StatePage page = seriesId == null ? null : page(seriesId);
+        if (page == null) {
+            return null;
+        }
+        synchronized (page) {
+            return (int) page.level[seriesId & PAGE_MASK];
+        }
+    }
+
+    @Override
+    public List<Long> alertingMonitorIds() {
+        List<Long> ids = new ArrayList<>();
+        for (StatePage page : pages) {
+            if (page == null) {
+                continue;
+            }
+            synchronized (page) {
+                for (int i = 0; i < PAGE_SIZE; i++) {
+                    if (page.rules[i] != null && (page.level[i] == STATUS_WARNING || page.level[i] == STATUS_CRITICAL)) {
+                        ids.add(page.monitorIds[i]);
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 批量写回评估状态与计数
+     */
+    @Scheduled(fixedDelayString = "${monitor.alert.flush-interval:1000}")
+    public void flush() {
+        synchronized (flushLock) {
+            doFlush();
+        }
+    }
+
+    private void doFlush() {
+        List<Object[]> batch = new ArrayList<>();
+        List<FlushedSlot> slots = new ArrayList<>();
+        for (StatePage page : pages) {
+            if (page == null) {
+                continue;
+            }
+            synchronized (page) {
+                for (int d = 0; d < page.dirtySize; d++) {
+                    int i = page.dirtyList[d];
+                    page.dirty[i] = false;
+                    if (page.rules[i] == null) {
+                        continue;
+                    }
+                    batch.add(new Object[] {
+                            (int) page.level[i], page.consecutiveWarning[i], page.consecutiveCritical[i],
+                            page.normalDelta[i], page.warningDelta[i], page.criticalDelta[i],
+                            toTimestamp(page.lastNormal[i]), toTimestamp(page.lastWarning[i]),
+                            toTimestamp(page.lastCritical[i]), page.monitorIds[i]
+                    });
+                    slots.add(new FlushedSlot(page, i, page.monitorIds[i], page.persistedLevel[i], page.level[i],
+                            page.lastNormal[i], page.lastWarning[i], page.lastCritical[i]));
+                    page.persistedLevel[i] = page.level[i];
+                    page.normalDelta[i] = page.warningDelta[i] = page.criticalDelta[i] = 0;
+                    page.lastNormal[i] = page.lastWarning[i] = page.lastCritical[i] = 0;
+                }
+                page.dirtySize = 0;
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, row) -> {
+                for (int p = 0; p < row.length; p++) {
+                    if (row[p] == null) {
+                        ps.setNull(p + 1, Types.TIMESTAMP);
+                    } else {
+                        ps.setObject(p + 1, row[p]);
+                    }
+                }
+            });
+        } catch (DataAccessException e) {
+            log.error("写回监控告警状态失败，计数将在下次重试: 数量={}", batch.size(), e);
+            for (int r = 0; r < slots.size(); r++) {
+                restore(slots.get(r), batch.get(r));
+            }
+        }
+    }
+
+    /**
+     * 写回失败时把已清零的计数加回并重新标记，期间被重新绑定到其他监控项的槽位不恢复
+     */
+    private static void restore(FlushedSlot slot, Object[] row) {
+        StatePage page = slot.page();
+        int i = slot.index();
+        synchronized (page) {
+            if (page.rules[i] == null || page.monitorIds[i] != slot.monitorId()) {
+                return;
+            }
+            page.normalDelta[i] += (Integer) row[3];
+            page.warningDelta[i] += (Integer) row[4];
+            page.criticalDelta[i] += (Integer) row[5];
+            page.lastNormal[i] = Math.max(page.lastNormal[i], slot.lastNormal());
+            page.lastWarning[i] = Math.max(page.lastWarning[i], slot.lastWarning());
+            page.lastCritical[i] = Math.max(page.lastCritical[i], slot.lastCritical());
+            if (page.persistedLevel[i] == slot.flushedLevel()) {
+                page.persistedLevel[i] = slot.persistedLevel();
+            }
+            page.markDirty(i);
+        }
+    }
+
+    /**
+     * 按目标级别推进状态机：升级需连续consecutive次，降级需连续recoverConsecutive次，未知状态收到样本立即恢复
+     */
+    private MonitorAlertEvent step(StatePage page, int i, int seriesId, AlertRule rule, int level, int exitLevel,
+                                   MonitorAlertEvent.Trigger trigger, double observed, long timestamp) {
+        int current = page.level[i];
+        int target;
+        if (current == STATUS_UNKNOWN || level > current) {
+            target = level;
+        } else if (exitLevel < current) {
+            target = exitLevel;
+        } else {
+            target = current;
+        }
+        if (target == current) {
+            page.pendingCount[i] = 0;
+            return null;
+        }
+        if (page.pendingLevel[i] == target) {
+            page.pendingCount[i]++;
+        } else {
+            page.pendingLevel[i] = (byte) target;
+            page.pendingCount[i] = 1;
+        }
+        int required = current == STATUS_UNKNOWN ? 1 : target > current ? rule.consecutive : rule.recoverConsecutive;
+        if (page.pendingCount[i] < required) {
+            return null;
+        }
+        transition(page, i, target);
+        return new MonitorAlertEvent(this, page.monitorIds[i], seriesId, current, target, trigger, observed, timestamp);
+    }
+
+    private void transition(StatePage page, int i, int status) {
+        page.level[i] = (byte) status;
+        page.pendingCount[i] = 0;
+        page.markDirty(i);
+    }
+
+    /**
+     * 记录单个样本所处级别，用于连续次数与分级计数
+     */
+    private static void recordLevel(StatePage page, int i, int level, long timestamp) {
+        switch (level) {
+            case STATUS_CRITICAL -> {
+                page.consecutiveCritical[i]++;
+                page.consecutiveWarning[i] = 0;
+                page.criticalDelta[i]++;
+                page.lastCritical[i] = timestamp;
+            }
+            case STATUS_WARNING -> {
+                page.consecutiveWarning[i]++;
+                page.consecutiveCritical[i] = 0;
+                page.warningDelta[i]++;
+                page.lastWarning[i] = timestamp;
+            }
+            default -> {
+                page.consecutiveWarning[i] = 0;
+                page.consecutiveCritical[i] = 0;
+                page.normalDelta[i]++;
+                page.lastNormal[i] = timestamp;
+            }
+        }
+        page.markDirty(i);
+    }
+
+    private void publish(MonitorAlertEvent event) {
+        if (event == null) {
+            return;
+        }
+        log.info("监控状态变更: 监控项ID={}, {} -> {}, 触发方式={}, 值={}", event.getMonitorId(),
+                event.getPreviousStatus(), event.getStatus(), event.getTrigger(), event.getValue());
+        eventPublisher.publishEvent(event);
+    }
+
+    private void bind(ResourceMonitor monitor) {
+        int seriesId = monitorTimeSeriesService.seriesId(monitor.getMonitorType(), monitor.getTargetType(), monitor.getTargetId());
+        Integer previous = seriesByMonitor.put(monitor.getId(), seriesId);
+        if (previous != null && previous != seriesId) {
+            clear(previous);
+        }
+        AlertRule rule = parseRule(monitor);
+        StatePage page = pageForWrite(seriesId);
+        synchronized (page) {
+            int i = seriesId & PAGE_MASK;
+            int status = monitor.getStatus() == null ? STATUS_NORMAL : monitor.getStatus();
+            boolean fresh = page.rules[i] == null || page.monitorIds[i] != monitor.getId();
+            if (fresh) {
+                page.monitorIds[i] = monitor.getId();
+                page.level[i] = (byte) status;
+                page.persistedLevel[i] = (byte) status;
+                page.pendingCount[i] = 0;
+                page.consecutiveWarning[i] = monitor.getConsecutiveWarningCount() == null ? 0 : monitor.getConsecutiveWarningCount();
+                page.consecutiveCritical[i] = monitor.getConsecutiveCriticalCount() == null ? 0 : monitor.getConsecutiveCriticalCount();
+                page.lastTimestamp[i] = 0;
+                page.windows[i] = null;
+                if (page.baseline != null) {
+                    page.baseline.reset(i);
+                }
+            } else if (status != page.persistedLevel[i]) {
+                // 状态被人工修改（如处理告警），以数据库中的状态为准
+                page.level[i] = (byte) status;
+                page.persistedLevel[i] = (byte) status;
+                page.pendingCount[i] = 0;
+            }
+            if (!fresh && page.rules[i].window != rule.window) {
+                page.windows[i] = null;
+            }
+            page.rules[i] = rule;
+        }
+    }
+
+    private void unbind(Long monitorId) {
+        Integer seriesId = seriesByMonitor.remove(monitorId);
+        if (seriesId != null) {
+            clear(seriesId);
+        }
+    }
+
+    private void clear(int seriesId) {
+        StatePage page = page(seriesId);
+        if (page == null) {
+            return;
+        }
+        synchronized (page) {
+            int i = seriesId & PAGE_MASK;
+            page.rules[i] = null;
+            page.windows[i] = null;
+        }
+    }
+
+    private AlertRule parseRule(ResourceMonitor monitor) {
+        AlertRule rule = new AlertRule();
+        rule.warning = monitor.getWarningThreshold() == null ? Double.NaN : monitor.getWarningThreshold().doubleValue();
+        rule.critical = monitor.getCriticalThreshold() == null ? Double.NaN : monitor.getCriticalThreshold().doubleValue();
+        if (monitor.getAlertConfig() == null || monitor.getAlertConfig().isBlank()) {
+            return rule;
+        }
+        try {
+            JsonNode config = objectMapper.readTree(monitor.getAlertConfig());
+            rule.consecutive = Math.max(1, config.path("consecutive").asInt(1));
+            rule.recoverConsecutive = Math.max(1, config.path("recoverConsecutive").asInt(rule.consecutive));
+            rule.hysteresis = Math.max(0, Math.min(1, config.path("hysteresis").asDouble(0)));
+            rule.below = "below".equalsIgnoreCase(config.path("direction").asText("above"));
+            rule.window = Math.max(0, config.path("windowSeconds").asLong(0)) * 1000;
+            JsonNode rate = config.path("rateOfChange");
+            if (rate.isObject()) {
+                rule.rateWarning = rate.path("warning").asDouble(Double.NaN);
+                rule.rateCritical = rate.path("critical").asDouble(Double.NaN);
+                rule.ratePerMillis = Math.max(1, rate.path("perSeconds").asLong(1)) * 1000.0;
+            }
+            JsonNode anomaly = config.path("anomaly");
+            if (anomaly.isObject() && anomaly.path("enabled").asBoolean(true)) {
+                rule.anomaly = parseAnomalyRule(anomaly, rule.hysteresis);
+            }
+        } catch (Exception e) {
+            log.warn("解析告警配置失败，仅使用阈值规则: ID={}, {}", monitor.getId(), e.getMessage());
+        }
+        return rule;
+    }
+
+    private static AnomalyRule parseAnomalyRule(JsonNode config, double hysteresis) {
+        AnomalyRule rule = new AnomalyRule();
+        rule.warningSigma = config.path("warningSigma").asDouble(3);
+        rule.criticalSigma = config.path("criticalSigma").asDouble(5);
+        rule.hysteresis = hysteresis;
+        String direction = config.path("direction").asText("both");
+        rule.above = !"below".equalsIgnoreCase(direction);
+        rule.below = !"above".equalsIgnoreCase(direction);
+        rule.combineThresholds = config.path("combineThresholds").asBoolean(false);
+        rule.params = new SeasonalEwmaBaseline.Params(
+                Math.max(0.0001, Math.min(1, config.path("alpha").asDouble(0.05))),
+                Math.max(1, config.path("warmup").asInt(30)),
+                config.path("seasonal").asBoolean(false),
+                Math.max(0.0001, Math.min(1, config.path("seasonalAlpha").asDouble(0.1))),
+                Math.max(1, Math.min(127, config.path("seasonalWarmup").asInt(12))),
+                Math.max(0, config.path("minSigma").asDouble(0)),
+                Math.max(0, config.path("clampSigma").asDouble(rule.criticalSigma)));
+        return rule;
+    }
+
+    private StatePage page(int seriesId) {
+        StatePage[] current = pages;
+        int index = seriesId >>> PAGE_BITS;
+        return index < current.length ? current[index] : null;
+    }
+
+    private synchronized StatePage pageForWrite(int seriesId) {
+        int index = seriesId >>> PAGE_BITS;
+        StatePage[] current = pages;
+        if (index >= current.length) {
+            current = Arrays.copyOf(current, Math.max(index + 1, current.length * 2));
+        }
+        if (current[index] == null) {
+            current[index] = new StatePage();
+        }
+        pages = current;
+        return current[index];
+    }
+
+    private static Timestamp toTimestamp(long epochMilli) {
+        return epochMilli == 0 ? null
+                : Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault()));
+    }
+
+    /**
+     * 告警规则（阈值来自监控项，其余来自alertConfig），构建后不可变
+     */
+    private static final class AlertRule {
+
+        double warning = Double.NaN;
+        double critical = Double.NaN;
+        /** 连续越限多少次才升级 */
+        int consecutive = 1;
+        /** 连续恢复多少次才降级 */
+        int recoverConsecutive = 1;
+        /** 恢复回差比例，恢复时阈值按该比例向正常方向收紧 */
+        double hysteresis;
+        /** 低于阈值告警 */
+        boolean below;
+        /** 窗口平均的窗口长度（毫秒），0表示使用样本原值 */
+        long window;
+        double rateWarning = Double.NaN;
+        double rateCritical = Double.NaN;
+        /** 变化率的时间单位（毫秒） */
+        double ratePerMillis = 1000.0;
+        /** 异常检测规则，未配置时为null */
+        AnomalyRule anomaly;
+
+        int level(double value, boolean exiting) {
+            if (breaches(value, critical, exiting)) {
+                return STATUS_CRITICAL;
+            }
+            return breaches(value, warning, exiting) ? STATUS_WARNING : STATUS_NORMAL;
+        }
+
+        boolean breaches(double value, double threshold, boolean exiting) {
+            if (Double.isNaN(threshold)) {
+                return false;
+            }
+            double margin = exiting ? Math.abs(threshold) * hysteresis : 0;
+            return below ? value <= threshold + margin : value >= threshold - margin;
+        }
+
+        boolean rateEnabled() {
+            return !Double.isNaN(rateWarning) || !Double.isNaN(rateCritical);
+        }
+
+        int rateLevel(double rate) {
+            if (!Double.isNaN(rateCritical) && rate >= rateCritical) {
+                return STATUS_CRITICAL;
+            }
+            return !Double.isNaN(rateWarning) && rate >= rateWarning ? STATUS_WARNING : STATUS_NORMAL;
+        }
+    }
+
+    /**
+     * 异常检测规则：按样本偏离基线的标准差倍数分级
+     */
+    private static final class AnomalyRule {
+
+        double warningSigma = 3;
+        double criticalSigma = 5;
+        /** 恢复回差比例，与阈值规则共用 */
+        double hysteresis;
+        /** 向上偏离告警 */
+        boolean above = true;
+        /** 向下偏离告警 */
+        boolean below = true;
+        /** 是否同时保留阈值规则，false时仅按异常检测判定 */
+        boolean combineThresholds;
+        SeasonalEwmaBaseline.Params params;
+
+        int level(double deviation, boolean exiting) {
+            if (Double.isNaN(deviation)) {
+                return STATUS_NORMAL;
+            }
+            double magnitude = Math.max(above ? deviation : Double.NEGATIVE_INFINITY,
+                    below ? -deviation : Double.NEGATIVE_INFINITY);
+            double factor = exiting ? 1 - hysteresis : 1;
+            if (magnitude >= criticalSigma * factor) {
+                return STATUS_CRITICAL;
+            }
+            return magnitude >= warningSigma * factor ? STATUS_WARNING : STATUS_NORMAL;
+        }
+    }
+
+    /**
+     * 已写入批次的槽位，写回失败时据此恢复
+     */
+    private record FlushedSlot(StatePage page, int index, long monitorId, byte persistedLevel, byte flushedLevel,
+                               long lastNormal, long lastWarning, long lastCritical) {
+    }
+
+    /**
+     * 一页序列的评估状态
+     */
+    private static final class StatePage {
+
+        final long[] monitorIds = new long[PAGE_SIZE];
+        final AlertRule[] rules = new AlertRule[PAGE_SIZE];
+        final byte[] level = new byte[PAGE_SIZE];
+        final byte[] persistedLevel = new byte[PAGE_SIZE];
+        final byte[] pendingLevel = new byte[PAGE_SIZE];
+        final int[] pendingCount = new int[PAGE_SIZE];
+        final int[] consecutiveWarning = new int[PAGE_SIZE];
+        final int[] consecutiveCritical = new int[PAGE_SIZE];
+        final long[] lastTimestamp = new long[PAGE_SIZE];
+        final double[] lastValue = new double[PAGE_SIZE];
+        final int[] normalDelta = new int[PAGE_SIZE];
+        final int[] warningDelta = new int[PAGE_SIZE];
+        final int[] criticalDelta = new int[PAGE_SIZE];
+        final long[] lastNormal = new long[PAGE_SIZE];
+        final long[] lastWarning = new long[PAGE_SIZE];
+        final long[] lastCritical = new long[PAGE_SIZE];
+        final SlidingWindow[] windows = new SlidingWindow[PAGE_SIZE];
+        /** 异常检测基线，页内有序列配置异常检测时才分配 */
+        SeasonalEwmaBaseline baseline;
+        final boolean[] dirty = new boolean[PAGE_SIZE];
+        final int[] dirtyList = new int[PAGE_SIZE];
+        int dirtySize;
+
+        void markDirty(int i) {
+            if (!dirty[i]) {
+                dirty[i] = true;
+                dirtyList[dirtySize++] = i;
+            }
+        }
+
+        SeasonalEwmaBaseline baseline() {
+            if (baseline == null) {
+                baseline = new SeasonalEwmaBaseline(PAGE_SIZE);
+            }
+            return baseline;
+        }
+
+        SlidingWindow window(int i) {
+            if (windows[i] == null) {
+                windows[i] = new SlidingWindow();
+            }
+            return windows[i];
+        }
+    }
+
+    /**
+     * 时间窗口内的样本环形缓冲，增量维护总和
+     */
+    private static final class SlidingWindow {
+
+        long[] timestamps = new long[8];
+        double[] values = new double[8];
+        int head;
+        int size;
+        double sum;
+
+        double add(long timestamp, double value, long window) {
+            while (size > 0 && timestamps[head] <= timestamp - window) {
+                sum -= values[head];
+                head = (head + 1) % timestamps.length;
+                size--;
+            }
+            if (size == timestamps.length) {
+                long[] newTimestamps = new long[size * 2];
+                double[] newValues = new double[size * 2];
+                for (int k = 0; k < size; k++) {
+                    newTimestamps[k] = timestamps[(head + k) % size];
+                    newValues[k] = values[(head + k) % size];
+                }
+                timestamps = newTimestamps;
+                values = newValues;
+                head = 0;
+            }
+            int tail = (head + size) % timestamps.length;
+            timestamps[tail] = timestamp;
+            values[tail] = value;
+            size++;
+            sum += value;
+            return size == 0 ? value : sum / size;
+        }
+    }
+}
@@ -0,0 +1,661 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.entity.ResourceMonitor;
+import com.ai.cockpit.event.ResourceMonitorChangedEvent;
+import com.ai.cockpit.repository.ResourceMonitorRepository;
+import com.ai.cockpit.service.MonitorAlertEvaluator;
+import com.ai.cockpit.service.MonitorCheckScheduler;
+import com.ai.cockpit.service.MonitorSlaService;
+import com.ai.cockpit.service.MonitorTimeSeriesService;
+import com.ai.cockpit.util.ConsistentHashRing;
+import com.ai.cockpit.util.HashedTimingWheel;
+import com.ai.cockpit.util.ProbeAddressPolicy;
+import com.ai.cockpit.util.RedisUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 监控检查调度器实现类
+ * <p>
+ * 所有启用的监控项按各自的检查间隔挂在哈希时间轮上，由单个驱动线程推进时间轮，
+ * 到期后只有一致性哈希环上归属于本节点的监控项才会真正发起检查。
+ * HTTP探测使用异步HTTP客户端，TCP探测在有界工作线程池中执行，每个目标单独超时；
+ * 检查结果先进入无锁队列，再按批次通过JDBC批量更新写回数据库。
+ * 未配置主动探测的监控项视为被动上报，检查时仅判断上报是否超时。
+ * 探测前解析目标地址，内网地址须在allowed-targets白名单中（见{@link ProbeAddressPolicy}），HTTP探测不跟随重定向。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MonitorCheckSchedulerImpl implements MonitorCheckScheduler {
+
+    /** 集群节点心跳（Redis哈希：节点ID -> 心跳时间） */
+    private static final String NODES_KEY = "monitor:check:nodes";
+
+    /** 检查结果写回语句，未携带的字段保持原值，状态由告警评估器维护 */
+    private static final String UPDATE_SQL = "UPDATE resource_monitor SET last_check_time = ?, "
+            + "metric_value = COALESCE(?, metric_value), monitor_timestamp = COALESCE(?, monitor_timestamp), "
+            + "total_monitor_count = COALESCE(total_monitor_count, 0) + 1 WHERE id = ?";
+
+    /** 启动加载时的分页大小 */
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    /** 状态：严重 */
+    private static final int STATUS_CRITICAL = 2;
+
+    /** 状态：未知 */
+    private static final int STATUS_UNKNOWN = 3;
+
+    private final ResourceMonitorRepository resourceMonitorRepository;
+    private final MonitorTimeSeriesService monitorTimeSeriesService;
+    private final MonitorAlertEvaluator monitorAlertEvaluator;
+    private final MonitorSlaService monitorSlaService;
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisUtil redisUtil;
+    private final ObjectMapper objectMapper;
+
+    @Value("${monitor.check.enabled:true}")
+    private boolean enabled;
+
+    @Value("${monitor.check.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+
+    /** 集群成员来源：static-使用nodes配置，redis-通过Redis心跳自动发现 */
+    @Value("${monitor.check.membership:static}")
+    private String membership;
+
+    @Value("${monitor.check.nodes:}")
+    private String staticNodes;
+
+    @Value("${monitor.check.virtual-nodes:160}")
+    private int virtualNodes;
+
+    @Value("${monitor.check.node-ttl:30000}")
+    private long nodeTtl;
+
+    @Value("${monitor.check.tick:1000}")
+    private long tickMillis;
+
+    @Value("${monitor.check.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${monitor.check.worker-threads:64}")
+    private int workerThreads;
+
+    @Value("${monitor.check.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${monitor.check.timeout:5000}")
+    private long defaultTimeout;
+
+    @Value("${monitor.check.batch-size:500}")
+    private int batchSize;
+
+    @Value("${monitor.check.flush-interval:1000}")
+    private long flushInterval;
+
+    /** 允许探测的内网主机名或网段（CIDR），逗号分隔 */
+    @Value("${monitor.check.allowed-targets:}")
+    private String allowedTargets;
+
+    /** 被动监控项超过多少个检查间隔未上报即视为未知 */
+    @Value("${monitor.check.stale-factor:3}")
+    private int staleFactor;
+
+    private final ConcurrentHashMap<Long, CheckTarget> targets = new ConcurrentHashMap<>();
+
+    private final ConcurrentLinkedQueue<CheckResult> results = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pendingResults = new AtomicInteger();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final LongAdder completedCount = new LongAdder();
+
+    private final LongAdder failedCount = new LongAdder();
+
+    private final LongAdder skippedCount = new LongAdder();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private volatile ConsistentHashRing ring;
+
+    private HashedTimingWheel<CheckTarget> wheel;
+
+    private ScheduledExecutorService driver;
+
+    private ThreadPoolExecutor workers;
+
+    private HttpClient httpClient;
+
+    private ProbeAddressPolicy addressPolicy;
+
+    @PostConstruct
+    public void init() {
+        addressPolicy = new ProbeAddressPolicy(allowedTargets);
+        wheel = new HashedTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+        ring = new ConsistentHashRing(initialNodes(), virtualNodes);
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory("monitor-check-"), new ThreadPoolExecutor.AbortPolicy());
+        workers.allowCoreThreadTimeOut(true);
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(defaultTimeout))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        driver = Executors.newScheduledThreadPool(2, threadFactory("monitor-check-driver-"));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("监控检查调度器未启用");
+            return;
+        }
+        heartbeat();
+        int loaded = loadTargets();
+        driver.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        driver.scheduleWithFixedDelay(this::flushResults, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        log.info("监控检查调度器启动: 节点={}, 集群节点={}, 监控项数={}", nodeId, ring.getNodes(), loaded);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        driver.shutdownNow();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(defaultTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushResults();
+        if ("redis".equals(membership)) {
+            try {
+                redisUtil.hdel(NODES_KEY, nodeId);
+            } catch (Exception e) {
+                log.warn("注销监控检查节点失败: {}", nodeId);
+            }
+        }
+    }
+
+    @Override
+    public void schedule(ResourceMonitor monitor) {
+        if (!Boolean.TRUE.equals(monitor.getIsEnabled())) {
+            cancel(monitor.getId());
+            return;
+        }
+        CheckTarget target = toTarget(monitor);
+        CheckTarget previous = targets.put(target.monitorId, target);
+        long now = System.currentTimeMillis();
+        if (previous != null) {
+            target.nextDeadline = Math.min(previous.nextDeadline, now + target.intervalMillis);
+        } else {
+            // 按监控项ID打散首次检查时间，避免同一间隔的监控项集中到期
+            target.nextDeadline = now + Math.floorMod(target.monitorId * 0x9E3779B97F4A7C15L, target.intervalMillis);
+        }
+        wheel.schedule(target.nextDeadline, target);
+    }
+
+    @Override
+    public void cancel(Long monitorId) {
+        // 时间轮中的旧任务在到期时发现已不在调度表中会被自动丢弃
+        targets.remove(monitorId);
+    }
+
+    @Override
+    public int triggerAll() {
+        int triggered = 0;
+        for (CheckTarget target : targets.values()) {
+            if (isOwner(target.monitorId) && dispatch(target)) {
+                triggered++;
+            }
+        }
+        return triggered;
+    }
+
+    @Override
+    public boolean isOwner(Long monitorId) {
+        return nodeId.equals(ring.nodeFor(monitorId));
+    }
+
+    @Override
+    public Map<String, Object> getStatus() {
+        int owned = 0;
+        for (Long id : targets.keySet()) {
+            if (isOwner(id)) {
+                owned++;
+            }
+        }
+        Map<String, Object> status = new HashMap<>();
+        status.put("nodeId", nodeId);
+        status.put("nodes", ring.getNodes());
+        status.put("scheduledCount", targets.size());
+        status.put("ownedCount", owned);
+        status.put("activeWorkers", workers.getActiveCount());
+        status.put("queuedChecks", workers.getQueue().size());
+        status.put("pendingResults", pendingResults.get());
+        status.put("completedCount", completedCount.sum());
+        status.put("failedCount", failedCount.sum());
+        status.put("skippedCount", skippedCount.sum());
+        status.put("rejectedCount", rejectedCount.sum());
+        return status;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMonitorChanged(ResourceMonitorChangedEvent event) {
+        if (event.getChangeType() == ResourceMonitorChangedEvent.ChangeType.DELETED) {
+            cancel(event.getMonitor().getId());
+        } else {
+            schedule(event.getMonitor());
+        }
+    }
+
+    /**
+     * 定期与数据库全量对账，补齐其他节点上发生的变更
+     */
+    @Scheduled(fixedDelayString = "${monitor.check.resync-interval:300000}", initialDelayString = "${monitor.check.resync-interval:300000}")
+    public void resync() {
+        if (enabled) {
+            loadTargets();
+        }
+    }
+
+    /**
+     * 分页加载全部启用的监控项，配置有变化的重新调度，已删除或禁用的移出调度表
+     */
+    private int loadTargets() {
+        Set<Long> seen = new HashSet<>();
+        int pageNumber = 0;
+        Page<ResourceMonitor> page;
+        do {
+            page = resourceMonitorRepository.findByIsEnabled(true, PageRequest.of(pageNumber++, LOAD_PAGE_SIZE, Sort.by("id")));
+            for (ResourceMonitor monitor : page) {
+                seen.add(monitor.getId());
+                CheckTarget current = targets.get(monitor.getId());
+                if (current == null || !current.matches(monitor)) {
+                    schedule(monitor);
+                }
+            }
+        } while (page.hasNext());
+        targets.keySet().removeIf(id -> !seen.contains(id));
+        return seen.size();
+    }
+
+    /**
+     * 集群心跳：上报本节点并根据存活节点重建哈希环
+     */
+    @Scheduled(fixedDelayString = "${monitor.check.heartbeat-interval:10000}")
+    public void heartbeat() {
+        if (!enabled || !"redis".equals(membership)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            redisUtil.hset(NODES_KEY, nodeId, now);
+            Set<String> live = new TreeSet<>();
+            live.add(nodeId);
+            for (Map.Entry<Object, Object> entry : redisUtil.hmget(NODES_KEY).entrySet()) {
+                String node = String.valueOf(entry.getKey());
+                long lastSeen = entry.getValue() instanceof Number number ? number.longValue() : 0L;
+                if (now - lastSeen <= nodeTtl) {
+                    live.add(node);
+                } else {
+                    redisUtil.hdel(NODES_KEY, node);
+                }
+            }
+            if (!live.equals(new TreeSet<>(ring.getNodes()))) {
+                ring = new ConsistentHashRing(live, virtualNodes);
+                log.info("监控检查集群节点变更: 节点={}", live);
+            }
+        } catch (Exception e) {
+            // Redis不可用时保持当前哈希环，避免检查归属频繁抖动
+            log.warn("监控检查节点心跳失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 推进时间轮（仅由驱动线程调用）
+     */
+    private void tick() {
+        try {
+            wheel.advance(System.currentTimeMillis(), this::fire);
+        } catch (Exception e) {
+            log.error("推进监控检查时间轮失败", e);
+        }
+    }
+
+    private void fire(CheckTarget target) {
+        if (targets.get(target.monitorId) != target) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long next = target.nextDeadline + target.intervalMillis;
+        if (next <= now) {
+            // 落后超过一个间隔时不补跑，从当前时间重新计算
+            next = now + target.intervalMillis;
+        }
+        target.nextDeadline = next;
+        wheel.schedule(next, target);
+        if (isOwner(target.monitorId)) {
+            dispatch(target);
+        }
+    }
+
+    /**
+     * 发起一次检查，同一监控项上一次检查未结束时跳过
+     */
+    private boolean dispatch(CheckTarget target) {
+        if (!target.running.compareAndSet(false, true)) {
+            skippedCount.increment();
+            return false;
+        }
+        long timestamp = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        CompletableFuture<CheckResult> future;
+        try {
+            future = switch (target.probeType) {
+                // 地址解析可能阻塞，在工作线程中检查后再发起异步请求
+                case HTTP -> CompletableFuture.runAsync(() -> checkAddress(target, target.uri.getHost()), workers)
+                        .thenCompose(ignored -> probeHttp(target, timestamp, startNanos));
+                case TCP -> CompletableFuture.supplyAsync(() -> probeTcp(target, timestamp, startNanos), workers);
+                case PASSIVE -> CompletableFuture.completedFuture(checkPassive(target, timestamp));
+            };
+        } catch (RejectedExecutionException e) {
+            target.running.set(false);
+            rejectedCount.increment();
+            return false;
+        }
+        future.orTimeout(target.timeoutMillis, TimeUnit.MILLISECONDS)
+                .exceptionally(ex -> CheckResult.down(target.monitorId, timestamp))
+                .thenAccept(result -> complete(target, result));
+        return true;
+    }
+
+    private CompletableFuture<CheckResult> probeHttp(CheckTarget target, long timestamp, long startNanos) {
+        HttpRequest request = HttpRequest.newBuilder(target.uri)
+                .timeout(Duration.ofMillis(target.timeoutMillis))
+                .method(target.httpMethod, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> {
+                    boolean up = target.expectStatus > 0
+                            ? response.statusCode() == target.expectStatus
+                            : response.statusCode() < 400;
+                    return up ? CheckResult.measured(target.monitorId, timestamp, elapsedMillis(startNanos))
+                            : CheckResult.down(target.monitorId, timestamp);
+                });
+    }
+
+    private CheckResult probeTcp(CheckTarget target, long timestamp, long startNanos) {
+        try (Socket socket = new Socket()) {
+            // 连接检查过的地址，不再重新解析主机名
+            InetAddress address = checkAddress(target, target.host);
+            socket.connect(new InetSocketAddress(address, target.port), (int) target.timeoutMillis);
+            return CheckResult.measured(target.monitorId, timestamp, elapsedMillis(startNanos));
+        } catch (IOException | UncheckedIOException e) {
+            return CheckResult.down(target.monitorId, timestamp);
+        }
+    }
+
+    /**
+     * 解析并检查探测地址，不允许时按探测失败处理，每个目标只记录一次警告
+     */
+    private InetAddress checkAddress(CheckTarget target, String host) {
+        try {
+            return addressPolicy.resolve(host);
+        } catch (IOException e) {
+            if (!target.blockedLogged) {
+                target.blockedLogged = true;
+                log.warn("监控项探测目标不可用: ID={}, {}", target.monitorId, e.getMessage());
+            }
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 被动监控项：超过若干个检查间隔未收到上报时置为未知
+     */
+    private CheckResult checkPassive(CheckTarget target, long timestamp) {
+        long lastSample = Math.max(monitorTimeSeriesService.lastTimestamp(target.seriesId), target.registeredAt);
+        Integer status = timestamp - lastSample > target.intervalMillis * staleFactor ? STATUS_UNKNOWN : null;
+        return new CheckResult(target.monitorId, timestamp, true, Double.NaN, status);
+    }
+
+    private void complete(CheckTarget target, CheckResult result) {
+        target.running.set(false);
+        if (result.up) {
+            completedCount.increment();
+        } else {
+            failedCount.increment();
+        }
+        if (target.probeType != ProbeType.PASSIVE) {
+            monitorSlaService.recordCheck(target.monitorId, result.timestamp, result.up, result.value);
+        }
+        if (!Double.isNaN(result.value)) {
+            // 样本写入时序存储后由告警评估器按阈值规则评估
+            monitorTimeSeriesService.append(target.seriesId, result.timestamp, result.value);
+        } else if (result.status != null) {
+            monitorAlertEvaluator.onCheckFailure(target.seriesId, result.timestamp, result.status);
+        }
+        results.offer(result);
+        if (pendingResults.incrementAndGet() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                driver.execute(this::flushResults);
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * 批量写回检查结果
+     */
+    private synchronized void flushResults() {
+        flushRequested.set(false);
+        List<CheckResult> batch = new ArrayList<>(batchSize);
+        while (true) {
+            batch.clear();
+            CheckResult result;
+            while (batch.size() < batchSize && (result = results.poll()) != null) {
+                batch.add(result);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            pendingResults.addAndGet(-batch.size());
+            try {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, r) -> {
+                    Timestamp checkTime = Timestamp.valueOf(toLocalDateTime(r.timestamp));
+                    ps.setTimestamp(1, checkTime);
+                    if (Double.isNaN(r.value)) {
+                        ps.setNull(2, Types.DECIMAL);
+                        ps.setNull(3, Types.TIMESTAMP);
+                    } else {
+                        ps.setBigDecimal(2, BigDecimal.valueOf(r.value).setScale(4, RoundingMode.HALF_UP));
+                        ps.setTimestamp(3, checkTime);
+                    }
+                    ps.setLong(4, r.monitorId);
+                });
+            } catch (DataAccessException e) {
+                log.error("写回监控检查结果失败: 数量={}", batch.size(), e);
+            }
+        }
+    }
+
+    private CheckTarget toTarget(ResourceMonitor monitor) {
+        CheckTarget target = new CheckTarget();
+        target.monitorId = monitor.getId();
+        target.updatedTime = monitor.getUpdatedTime();
+        target.seriesId = monitorTimeSeriesService.seriesId(monitor.getMonitorType(), monitor.getTargetType(), monitor.getTargetId());
+        int interval = monitor.getMonitorInterval() == null || monitor.getMonitorInterval() <= 0 ? 60 : monitor.getMonitorInterval();
+        target.intervalMillis = interval * 1000L;
+        target.timeoutMillis = Math.min(defaultTimeout, target.intervalMillis);
+        target.registeredAt = System.currentTimeMillis();
+        target.probeType = ProbeType.PASSIVE;
+        if (monitor.getMonitorConfig() == null || monitor.getMonitorConfig().isBlank()) {
+            return target;
+        }
+        try {
+            JsonNode config = objectMapper.readTree(monitor.getMonitorConfig());
+            String probe = config.path("probe").asText("");
+            if (config.has("timeoutMs")) {
+                target.timeoutMillis = Math.max(1, Math.min(config.get("timeoutMs").asLong(), target.intervalMillis));
+            }
+            if ("http".equalsIgnoreCase(probe) && config.hasNonNull("url")) {
+                target.uri = URI.create(config.get("url").asText());
+                String scheme = target.uri.getScheme();
+                if (target.uri.getHost() == null || !("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))) {
+                    log.warn("监控项HTTP探测地址无效，按被动上报处理: ID={}", monitor.getId());
+                    return target;
+                }
+                target.httpMethod = config.path("method").asText("GET").toUpperCase();
+                target.expectStatus = config.path("expectStatus").asInt(0);
+                target.probeType = ProbeType.HTTP;
+            } else if ("tcp".equalsIgnoreCase(probe) && config.hasNonNull("host") && config.has("port")) {
+                target.host = config.get("host").asText();
+                target.port = config.get("port").asInt();
+                target.probeType = ProbeType.TCP;
+            }
+        } catch (Exception e) {
+            log.warn("解析监控配置失败，按被动上报处理: ID={}, {}", monitor.getId(), e.getMessage());
+        }
+        return target;
+    }
+
+    private List<String> initialNodes() {
+        List<String> nodes = new ArrayList<>();
+        if ("static".equals(membership) && !staticNodes.isBlank()) {
+            Arrays.stream(staticNodes.split(",")).map(String::trim).filter(s -> !s.isEmpty()).forEach(nodes::add);
+            if (!nodes.contains(nodeId)) {
+                log.warn("当前节点不在监控检查节点列表中，将不执行任何检查: 节点={}, 列表={}", nodeId, nodes);
+            }
+        } else {
+            nodes.add(nodeId);
+        }
+        return nodes;
+    }
+
+    private static double elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000.0;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault());
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 探测方式
+     */
+    private enum ProbeType {
+        HTTP,
+        TCP,
+        PASSIVE
+    }
+
+    /**
+     * 调度中的检查目标（配置快照），监控项变更时整体替换
+     */
+    private static final class CheckTarget {
+
+        long monitorId;
+        LocalDateTime updatedTime;
+        int seriesId;
+        long intervalMillis;
+        long timeoutMillis;
+        long registeredAt;
+        ProbeType probeType;
+        URI uri;
+        String httpMethod;
+        int expectStatus;
+        String host;
+        int port;
+
+        /** 已记录过地址不允许的警告 */
+        volatile boolean blockedLogged;
+
+        /** 下一次到期时间，由驱动线程维护 */
+        volatile long nextDeadline;
+
+        final AtomicBoolean running = new AtomicBoolean();
+
+        boolean matches(ResourceMonitor monitor) {
+            return updatedTime != null && updatedTime.equals(monitor.getUpdatedTime());
+        }
+    }
+
+    /**
+     * 单次检查结果，value为NaN表示没有测量值，status为探测失败或超时对应的状态，null表示无需变更
+     */
+    private record CheckResult(long monitorId, long timestamp, boolean up, double value, Integer status) {
+
+        static CheckResult measured(long monitorId, long timestamp, double value) {
+            return new CheckResult(monitorId, timestamp, true, value, null);
+        }
+
+        static CheckResult down(long monitorId, long timestamp) {
+            return new CheckResult(monitorId, timestamp, false, Double.NaN, STATUS_CRITICAL);
+        }
+    }
+}
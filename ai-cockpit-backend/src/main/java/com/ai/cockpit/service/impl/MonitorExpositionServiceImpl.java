@@ -0,0 +1,340 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.event.MonitorAlertEvent;
+import com.ai.cockpit.service.MonitorAlertEvaluator;
+import com.ai.cockpit.service.MonitorExpositionService;
+import com.ai.cockpit.service.MonitorTimeSeriesService;
+import com.ai.cockpit.util.MetricsTextBuffer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 监控指标导出服务实现类
+ * <p>
+ * 监控项按槽位保存在原始类型数组中：标签在加载时预先渲染为字节，数值由定时加载刷新，
+ * 当前值与状态再由样本监听和告警事件实时覆盖。抓取时持锁复用同一个缓冲区，
+ * 只做数组遍历与按位写数字，不为每个序列创建对象。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MonitorExpositionServiceImpl implements MonitorExpositionService, MonitorTimeSeriesService.SampleListener {
+
+    private static final String LOAD_SQL = "SELECT id, monitor_type, target_type, target_id, status, metric_value, "
+            + "monitor_timestamp, availability_percentage, avg_response_time, min_response_time, max_response_time, "
+            + "total_monitor_count, warning_count, critical_count FROM resource_monitor WHERE is_enabled = TRUE";
+
+    private static final byte[] VALUE = ascii("ai_cockpit_monitor_value");
+    private static final byte[] STATUS = ascii("ai_cockpit_monitor_status");
+    private static final byte[] AVAILABILITY = ascii("ai_cockpit_monitor_availability_percent");
+    private static final byte[] RESPONSE_TIME = ascii("ai_cockpit_monitor_response_time_milliseconds");
+    private static final byte[] CHECKS = ascii("ai_cockpit_monitor_checks_total");
+    private static final byte[] WARNINGS = ascii("ai_cockpit_monitor_warnings_total");
+    private static final byte[] CRITICALS = ascii("ai_cockpit_monitor_criticals_total");
+
+    private static final byte[] VALUE_HEADER = header("ai_cockpit_monitor_value", "gauge", null, "监控指标当前值");
+    private static final byte[] STATUS_HEADER = header("ai_cockpit_monitor_status", "gauge", null,
+            "监控状态：0-正常，1-警告，2-严重，3-未知");
+    private static final byte[] AVAILABILITY_HEADER = header("ai_cockpit_monitor_availability_percent", "gauge",
+            "percent", "可用性百分比");
+    private static final byte[] RESPONSE_TIME_HEADER = header("ai_cockpit_monitor_response_time_milliseconds", "gauge",
+            "milliseconds", "响应时间（毫秒），stat为min/avg/max");
+    private static final byte[] CHECKS_HEADER = header("ai_cockpit_monitor_checks", "counter", null, "总监控次数");
+    private static final byte[] WARNINGS_HEADER = header("ai_cockpit_monitor_warnings", "counter", null, "警告次数");
+    private static final byte[] CRITICALS_HEADER = header("ai_cockpit_monitor_criticals", "counter", null, "严重次数");
+    private static final byte[] EOF = ascii("# EOF\n");
+
+    private static final byte[] STAT_MIN = ascii(",stat=\"min\"} ");
+    private static final byte[] STAT_AVG = ascii(",stat=\"avg\"} ");
+    private static final byte[] STAT_MAX = ascii(",stat=\"max\"} ");
+    private static final byte[] LABELS_END = ascii("} ");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MonitorTimeSeriesService monitorTimeSeriesService;
+    private final MonitorAlertEvaluator monitorAlertEvaluator;
+
+    private final ReentrantLock scrapeLock = new ReentrantLock();
+
+    /** 以下字段由scrapeLock保护 */
+    private final MetricsTextBuffer buffer = new MetricsTextBuffer(1 << 20);
+
+    /** 已渲染的标签，标签未变化时跨刷新复用，仅由刷新线程访问 */
+    private Map<Long, Labels> labelCache = new HashMap<>();
+
+    private volatile Table table = Table.EMPTY;
+
+    @PostConstruct
+    public void init() {
+        monitorTimeSeriesService.addSampleListener(this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+        log.info("加载监控指标导出数据完成: 监控项数={}", table.size);
+    }
+
+    /**
+     * 定时从数据库刷新可用性、响应时间与计数，当前值取数据库与内存中较新的一个
+     */
+    @Scheduled(fixedDelayString = "${monitor.metrics.refresh-interval:15000}",
+            initialDelayString = "${monitor.metrics.refresh-interval:15000}")
+    public synchronized void refresh() {
+        List<Row> rows = new ArrayList<>();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            rows.add(Row.of(rs));
+        });
+        Table previous = table;
+        Map<Long, Labels> labels = new HashMap<>(rows.size() * 2);
+        Table next = new Table(rows.size());
+        int maxSeriesId = -1;
+        int[] seriesIds = new int[rows.size()];
+        for (int slot = 0; slot < rows.size(); slot++) {
+            Row row = rows.get(slot);
+            Labels label = labelCache.get(row.id);
+            if (label == null || !label.matches(row)) {
+                label = Labels.of(row);
+            }
+            labels.put(row.id, label);
+            next.labels[slot] = label.bytes;
+            next.slotByMonitor.put(row.id, slot);
+            next.value[slot] = row.value;
+            next.valueTimestamp[slot] = row.timestamp;
+            Integer status = monitorAlertEvaluator.currentStatus(row.id);
+            next.status[slot] = status != null ? status : row.status;
+            Integer previousSlot = previous.slotByMonitor.get(row.id);
+            if (previousSlot != null && previous.valueTimestamp[previousSlot] > row.timestamp) {
+                next.value[slot] = previous.value[previousSlot];
+                next.valueTimestamp[slot] = previous.valueTimestamp[previousSlot];
+            }
+            next.availability[slot] = row.availability;
+            next.avgResponseTime[slot] = row.avgResponseTime;
+            next.minResponseTime[slot] = row.minResponseTime;
+            next.maxResponseTime[slot] = row.maxResponseTime;
+            next.checks[slot] = row.checks;
+            next.warnings[slot] = row.warnings;
+            next.criticals[slot] = row.criticals;
+            seriesIds[slot] = monitorTimeSeriesService.seriesId(row.monitorType, row.targetType, row.targetId);
+            maxSeriesId = Math.max(maxSeriesId, seriesIds[slot]);
+        }
+        next.slotBySeries = new int[maxSeriesId + 1];
+        Arrays.fill(next.slotBySeries, -1);
+        for (int slot = 0; slot < seriesIds.length; slot++) {
+            next.slotBySeries[seriesIds[slot]] = slot;
+        }
+        labelCache = labels;
+        table = next;
+    }
+
+    @Override
+    public void onSample(int seriesId, long timestamp, double value) {
+        Table current = table;
+        if (seriesId >= current.slotBySeries.length) {
+            return;
+        }
+        int slot = current.slotBySeries[seriesId];
+        if (slot >= 0 && timestamp >= current.valueTimestamp[slot]) {
+            current.value[slot] = value;
+            current.valueTimestamp[slot] = timestamp;
+        }
+    }
+
+    @EventListener
+    public void onAlert(MonitorAlertEvent event) {
+        Table current = table;
+        Integer slot = current.slotByMonitor.get(event.getMonitorId());
+        if (slot != null) {
+            current.status[slot] = event.getStatus();
+        }
+    }
+
+    @Override
+    public void scrape(OutputStream out) throws IOException {
+        scrapeLock.lock();
+        try {
+            buffer.reset();
+            render(table, buffer);
+            buffer.writeTo(out);
+        } finally {
+            scrapeLock.unlock();
+        }
+    }
+
+    private static void render(Table t, MetricsTextBuffer buf) {
+        buf.write(VALUE_HEADER);
+        for (int i = 0; i < t.size; i++) {
+            gauge(buf, VALUE, t.labels[i], LABELS_END, t.value[i]);
+        }
+        buf.write(STATUS_HEADER);
+        for (int i = 0; i < t.size; i++) {
+            buf.write(STATUS).write(t.labels[i]).write(LABELS_END).writeLong(t.status[i]).write((byte) '\n');
+        }
+        buf.write(AVAILABILITY_HEADER);
+        for (int i = 0; i < t.size; i++) {
+            gauge(buf, AVAILABILITY, t.labels[i], LABELS_END, t.availability[i]);
+        }
+        buf.write(RESPONSE_TIME_HEADER);
+        for (int i = 0; i < t.size; i++) {
+            gauge(buf, RESPONSE_TIME, t.labels[i], STAT_MIN, t.minResponseTime[i]);
+            gauge(buf, RESPONSE_TIME, t.labels[i], STAT_AVG, t.avgResponseTime[i]);
+            gauge(buf, RESPONSE_TIME, t.labels[i], STAT_MAX, t.maxResponseTime[i]);
+        }
+        buf.write(CHECKS_HEADER);
+        for (int i = 0; i < t.size; i++) {
+            buf.write(CHECKS).write(t.labels[i]).write(LABELS_END).writeLong(t.checks[i]).write((byte) '\n');
+        }
+        buf.write(WARNINGS_HEADER);
+        for (int i = 0; i < t.size; i++) {
+            buf.write(WARNINGS).write(t.labels[i]).write(LABELS_END).writeLong(t.warnings[i]).write((byte) '\n');
+        }
+        buf.write(CRITICALS_HEADER);
+        for (int i = 0; i < t.size; i++) {
+            buf.write(CRITICALS).write(t.labels[i]).write(LABELS_END).writeLong(t.criticals[i]).write((byte) '\n');
+        }
+        buf.write(EOF);
+    }
+
+    /**
+     * 写出一行仪表值，无值（NaN）时跳过
+     */
+    private static void gauge(MetricsTextBuffer buf, byte[] name, byte[] labels, byte[] labelsEnd, double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        buf.write(name).write(labels).write(labelsEnd).writeDouble(value).write((byte) '\n');
+    }
+
+    private static byte[] header(String family, String type, String unit, String help) {
+        StringBuilder header = new StringBuilder();
+        header.append("# TYPE ").append(family).append(' ').append(type).append('\n');
+        if (unit != null) {
+            header.append("# UNIT ").append(family).append(' ').append(unit).append('\n');
+        }
+        header.append("# HELP ").append(family).append(' ').append(help).append('\n');
+        return header.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+
+    /**
+     * 一次加载中的监控项行
+     */
+    private record Row(long id, String monitorType, String targetType, long targetId, int status,
+                       double value, long timestamp, double availability, double avgResponseTime,
+                       double minResponseTime, double maxResponseTime, long checks, long warnings, long criticals) {
+
+        static Row of(ResultSet rs) throws SQLException {
+            Timestamp timestamp = rs.getTimestamp("monitor_timestamp");
+            return new Row(rs.getLong("id"), rs.getString("monitor_type"), rs.getString("target_type"),
+                    rs.getLong("target_id"), rs.getInt("status"), toDouble(rs.getBigDecimal("metric_value")),
+                    timestamp == null ? Long.MIN_VALUE : timestamp.getTime(),
+                    toDouble(rs.getBigDecimal("availability_percentage")),
+                    toDouble(rs.getBigDecimal("avg_response_time")), toDouble(rs.getBigDecimal("min_response_time")),
+                    toDouble(rs.getBigDecimal("max_response_time")), rs.getLong("total_monitor_count"),
+                    rs.getLong("warning_count"), rs.getLong("critical_count"));
+        }
+    }
+
+    /**
+     * 预渲染的标签（不含右花括号，便于追加额外标签）
+     */
+    private record Labels(String monitorType, String targetType, long targetId, byte[] bytes) {
+
+        static Labels of(Row row) {
+            StringBuilder labels = new StringBuilder(96);
+            labels.append("{monitor_id=\"").append(row.id()).append('"');
+            appendLabel(labels, "monitor_type", row.monitorType());
+            appendLabel(labels, "target_type", row.targetType());
+            labels.append(",target_id=\"").append(row.targetId()).append('"');
+            return new Labels(row.monitorType(), row.targetType(), row.targetId(),
+                    labels.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        boolean matches(Row row) {
+            return targetId == row.targetId() && Objects.equals(monitorType, row.monitorType())
+                    && Objects.equals(targetType, row.targetType());
+        }
+
+        private static void appendLabel(StringBuilder labels, String name, String value) {
+            labels.append(',').append(name).append("=\"");
+            if (value != null) {
+                for (int k = 0; k < value.length(); k++) {
+                    char c = value.charAt(k);
+                    switch (c) {
+                        case '\\' -> labels.append("\\\\");
+                        case '"' -> labels.append("\\\"");
+                        case '\n' -> labels.append("\\n");
+                        default -> labels.append(c);
+                    }
+                }
+            }
+            labels.append('"');
+        }
+    }
+
+    /**
+     * 监控项槽位表，每次刷新整体替换；当前值与状态由监听线程原地更新
+     */
+    private static final class Table {
+
+        static final Table EMPTY = new Table(0);
+
+        final int size;
+        final byte[][] labels;
+        final double[] value;
+        final long[] valueTimestamp;
+        final int[] status;
+        final double[] availability;
+        final double[] avgResponseTime;
+        final double[] minResponseTime;
+        final double[] maxResponseTime;
+        final long[] checks;
+        final long[] warnings;
+        final long[] criticals;
+        final Map<Long, Integer> slotByMonitor;
+        int[] slotBySeries = new int[0];
+
+        Table(int size) {
+            this.size = size;
+            this.labels = new byte[size][];
+            this.value = new double[size];
+            this.valueTimestamp = new long[size];
+            this.status = new int[size];
+            this.availability = new double[size];
+            this.avgResponseTime = new double[size];
+            this.minResponseTime = new double[size];
+            this.maxResponseTime = new double[size];
+            this.checks = new long[size];
+            this.warnings = new long[size];
+            this.criticals = new long[size];
+            this.slotByMonitor = new HashMap<>(size * 2);
+        }
+    }
+}
@@ -0,0 +1,602 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.exception.BusinessException;
+import com.ai.cockpit.service.MonitorIngestService;
+import com.ai.cockpit.service.MonitorTimeSeriesService;
+import com.ai.cockpit.util.SampleRingBuffer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 监控指标批量接入服务实现类
+ * <p>
+ * 请求线程直接在字节数组上解析载荷，样本写入线程本地的原始类型数组，不创建逐样本对象；
+ * 序列标识通过哈希表缓存到序列ID，只有首次出现的序列才会解码为字符串并确认存在对应的监控项，
+ * 未注册的序列按格式错误拒绝，不会在时序存储中创建新序列。
+ * 整批样本一次性写入环形缓冲区，容量不足时整批拒绝并返回429，由单个消费线程批量写入时序存储，
+ * 并按固定间隔把每个序列的最新值合并后批量回写resource_monitor表。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MonitorIngestServiceImpl implements MonitorIngestService {
+
+    /** 二进制载荷魔数（"MSB1"） */
+    private static final int BINARY_MAGIC = 0x4D534231;
+
+    /** 线程本地缓冲保留的最大字节数，超出的请求体临时分配 */
+    private static final int RETAINED_BUFFER_BYTES = 1 << 20;
+
+    /** 快速解析支持的最大有效数字位数 */
+    private static final int MAX_FAST_DIGITS = 15;
+
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /** 最新值回写语句 */
+    private static final String UPDATE_SQL = "UPDATE resource_monitor SET metric_value = ?, monitor_timestamp = ?, "
+            + "total_monitor_count = COALESCE(total_monitor_count, 0) + ? "
+            + "WHERE monitor_type = ? AND target_type = ? AND target_id = ?";
+
+    /** 序列对应的监控项是否存在 */
+    private static final String EXISTS_SQL = "SELECT COUNT(*) FROM resource_monitor "
+            + "WHERE monitor_type = ? AND target_type = ? AND target_id = ?";
+
+    private final MonitorTimeSeriesService monitorTimeSeriesService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${monitor.ingest.buffer-capacity:1048576}")
+    private int bufferCapacity;
+
+    @Value("${monitor.ingest.drain-batch:8192}")
+    private int drainBatch;
+
+    @Value("${monitor.ingest.max-request-bytes:16777216}")
+    private int maxRequestBytes;
+
+    @Value("${monitor.ingest.max-samples-per-request:200000}")
+    private int maxSamplesPerRequest;
+
+    @Value("${monitor.ingest.retry-after:1000}")
+    private long retryAfterMillis;
+
+    @Value("${monitor.ingest.latest-flush-interval:5000}")
+    private long latestFlushInterval;
+
+    private SampleRingBuffer ringBuffer;
+
+    private Thread consumer;
+
+    private volatile boolean running;
+
+    private final SeriesTokenCache tokenCache = new SeriesTokenCache();
+
+    private final ThreadLocal<SampleBatch> batches = ThreadLocal.withInitial(SampleBatch::new);
+
+    private final ThreadLocal<byte[]> buffers = ThreadLocal.withInitial(() -> new byte[64 * 1024]);
+
+    private final LongAdder acceptedSamples = new LongAdder();
+
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    private final LongAdder droppedSamples = new LongAdder();
+
+    private final LongAdder writtenSamples = new LongAdder();
+
+    /** 以下字段仅由消费线程访问：每个序列自上次回写以来的最新值与样本数 */
+    private double[] latestValues = new double[1024];
+    private long[] latestTimestamps = new long[1024];
+    private int[] latestCounts = new int[1024];
+    private int[] touched = new int[1024];
+    private int touchedSize;
+    private long lastLatestFlush;
+
+    @PostConstruct
+    public void init() {
+        ringBuffer = new SampleRingBuffer(bufferCapacity);
+        maxSamplesPerRequest = Math.min(maxSamplesPerRequest, ringBuffer.capacity());
+        running = true;
+        consumer = new Thread(this::consume, "monitor-ingest-consumer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(consumer);
+        consumer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    @Override
+    public IngestResult ingestLines(InputStream body) {
+        SampleBatch batch = batches.get();
+        batch.clear();
+        byte[] payload = readBody(body, batch);
+        int length = batch.payloadLength;
+        long now = System.currentTimeMillis();
+        int position = 0;
+        int lineNumber = 0;
+        while (position < length) {
+            lineNumber++;
+            int lineEnd = indexOf(payload, position, length, (byte) '\n');
+            int next = lineEnd + 1;
+            int end = lineEnd;
+            if (end > position && payload[end - 1] == '\r') {
+                end--;
+            }
+            int start = skipSpaces(payload, position, end);
+            position = next;
+            if (start == end || payload[start] == '#') {
+                continue;
+            }
+            int tokenEnd = indexOf(payload, start, end, (byte) ' ');
+            if (tokenEnd == end) {
+                throw lineError(lineNumber);
+            }
+            int seriesId = resolveSeries(payload, start, tokenEnd - start, lineNumber);
+            int valueStart = skipSpaces(payload, tokenEnd, end);
+            int valueEnd = indexOf(payload, valueStart, end, (byte) ' ');
+            double value = parseDouble(payload, valueStart, valueEnd, lineNumber);
+            long timestamp = now;
+            int timestampStart = skipSpaces(payload, valueEnd, end);
+            if (timestampStart < end) {
+                timestamp = parseLong(payload, timestampStart, trimEnd(payload, timestampStart, end), lineNumber);
+            }
+            addSample(batch, seriesId, timestamp, value);
+        }
+        return submit(batch);
+    }
+
+    @Override
+    public IngestResult ingestBinary(InputStream body) {
+        SampleBatch batch = batches.get();
+        batch.clear();
+        byte[] payload = readBody(body, batch);
+        int length = batch.payloadLength;
+        ByteBuffer buffer = ByteBuffer.wrap(payload, 0, length);
+        if (length < 4 || buffer.getInt() != BINARY_MAGIC) {
+            throw new BusinessException(30004, "二进制监控数据格式错误: 魔数不匹配");
+        }
+        int group = 0;
+        while (buffer.hasRemaining()) {
+            group++;
+            if (buffer.remaining() < 2) {
+                throw groupError(group);
+            }
+            int tokenLength = buffer.getShort() & 0xffff;
+            if (buffer.remaining() < tokenLength + 4) {
+                throw groupError(group);
+            }
+            int seriesId = resolveSeries(payload, buffer.position(), tokenLength, group);
+            buffer.position(buffer.position() + tokenLength);
+            int count = buffer.getInt();
+            if (count < 0 || (long) count * 16 > buffer.remaining()) {
+                throw groupError(group);
+            }
+            for (int k = 0; k < count; k++) {
+                long timestamp = buffer.getLong();
+                double value = buffer.getDouble();
+                addSample(batch, seriesId, timestamp, value);
+            }
+        }
+        return submit(batch);
+    }
+
+    @Override
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("bufferCapacity", ringBuffer.capacity());
+        status.put("bufferedSamples", ringBuffer.size());
+        status.put("acceptedSamples", acceptedSamples.sum());
+        status.put("writtenSamples", writtenSamples.sum());
+        status.put("droppedSamples", droppedSamples.sum());
+        status.put("rejectedRequests", rejectedRequests.sum());
+        status.put("cachedSeries", tokenCache.size());
+        return status;
+    }
+
+    private IngestResult submit(SampleBatch batch) {
+        if (batch.size == 0) {
+            return new IngestResult(true, 0, 0);
+        }
+        if (!ringBuffer.offer(batch.seriesIds, batch.timestamps, batch.values, batch.size)) {
+            rejectedRequests.increment();
+            return new IngestResult(false, 0, retryAfterMillis);
+        }
+        acceptedSamples.add(batch.size);
+        return new IngestResult(true, batch.size, 0);
+    }
+
+    private void addSample(SampleBatch batch, int seriesId, long timestamp, double value) {
+        if (!Double.isFinite(value)) {
+            droppedSamples.increment();
+            return;
+        }
+        if (batch.size >= maxSamplesPerRequest) {
+            throw new BusinessException(30005, "单次请求的样本数超过上限: " + maxSamplesPerRequest);
+        }
+        batch.add(seriesId, timestamp, value);
+    }
+
+    /**
+     * 消费线程：批量写入时序存储，定期回写最新值
+     */
+    private void consume() {
+        lastLatestFlush = System.currentTimeMillis();
+        while (running || ringBuffer.size() > 0) {
+            int drained;
+            try {
+                drained = ringBuffer.drain(this::write, drainBatch);
+                if (touchedSize > 0 && System.currentTimeMillis() - lastLatestFlush >= latestFlushInterval) {
+                    flushLatest();
+                }
+            } catch (Exception e) {
+                log.error("消费监控样本失败", e);
+                drained = 0;
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+        flushLatest();
+    }
+
+    private void write(int seriesId, long timestamp, double value) {
+        if (!monitorTimeSeriesService.append(seriesId, timestamp, value)) {
+            droppedSamples.increment();
+            return;
+        }
+        writtenSamples.increment();
+        if (seriesId >= latestCounts.length) {
+            int capacity = Math.max(seriesId + 1, latestCounts.length * 2);
+            latestValues = Arrays.copyOf(latestValues, capacity);
+            latestTimestamps = Arrays.copyOf(latestTimestamps, capacity);
+            latestCounts = Arrays.copyOf(latestCounts, capacity);
+        }
+        if (latestCounts[seriesId] == 0) {
+            if (touchedSize == touched.length) {
+                touched = Arrays.copyOf(touched, touchedSize * 2);
+            }
+            touched[touchedSize++] = seriesId;
+        }
+        latestCounts[seriesId]++;
+        if (timestamp >= latestTimestamps[seriesId]) {
+            latestTimestamps[seriesId] = timestamp;
+            latestValues[seriesId] = value;
+        }
+    }
+
+    private void flushLatest() {
+        lastLatestFlush = System.currentTimeMillis();
+        if (touchedSize == 0) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(touchedSize);
+        for (int k = 0; k < touchedSize; k++) {
+            int seriesId = touched[k];
+            MonitorTimeSeriesService.SeriesKey key = monitorTimeSeriesService.seriesKey(seriesId);
+            batch.add(new Object[] {
+                    BigDecimal.valueOf(latestValues[seriesId]).setScale(4, RoundingMode.HALF_UP),
+                    Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(latestTimestamps[seriesId]), ZoneId.systemDefault())),
+                    latestCounts[seriesId], key.monitorType(), key.targetType(), key.targetId()
+            });
+            latestCounts[seriesId] = 0;
+            latestTimestamps[seriesId] = 0;
+        }
+        touchedSize = 0;
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+        } catch (DataAccessException e) {
+            log.error("回写监控最新值失败: 数量={}", batch.size(), e);
+        }
+    }
+
+    /**
+     * 将序列标识解析为序列ID，命中缓存时不产生任何对象
+     */
+    private int resolveSeries(byte[] payload, int offset, int length, int position) {
+        long hash = hash(payload, offset, length);
+        int seriesId = tokenCache.get(hash, payload, offset, length);
+        if (seriesId >= 0) {
+            return seriesId;
+        }
+        String token = new String(payload, offset, length, StandardCharsets.UTF_8);
+        String[] parts = token.split(",");
+        if (parts.length != 3 || parts[0].isBlank() || parts[1].isBlank()) {
+            throw new BusinessException(30004, "监控序列标识格式错误: 第" + position + "处, " + token);
+        }
+        long targetId;
+        try {
+            targetId = Long.parseLong(parts[2].trim());
+        } catch (NumberFormatException e) {
+            throw new BusinessException(30004, "监控序列标识格式错误: 第" + position + "处, " + token);
+        }
+        String monitorType = parts[0].trim();
+        String targetType = parts[1].trim();
+        Integer monitors = jdbcTemplate.queryForObject(EXISTS_SQL, Integer.class, monitorType, targetType, targetId);
+        if (monitors == null || monitors == 0) {
+            throw new BusinessException(30004, "监控序列未注册: 第" + position + "处, " + token);
+        }
+        seriesId = monitorTimeSeriesService.seriesId(monitorType, targetType, targetId);
+        tokenCache.put(hash, Arrays.copyOfRange(payload, offset, offset + length), seriesId);
+        return seriesId;
+    }
+
+    /**
+     * 读取请求体到线程本地缓冲，超过上限时拒绝
+     */
+    private byte[] readBody(InputStream body, SampleBatch batch) {
+        byte[] buffer = buffers.get();
+        int length = 0;
+        try {
+            while (true) {
+                if (length == buffer.length) {
+                    if (buffer.length > maxRequestBytes) {
+                        throw new BusinessException(30005, "监控数据请求体超过上限: " + maxRequestBytes + "字节");
+                    }
+                    buffer = Arrays.copyOf(buffer, Math.min(buffer.length * 2, maxRequestBytes + 1));
+                }
+                int read = body.read(buffer, length, buffer.length - length);
+                if (read < 0) {
+                    break;
+                }
+                length += read;
+            }
+        } catch (IOException e) {
+            throw new BusinessException(30004, "读取监控数据失败", e);
+        }
+        if (length > maxRequestBytes) {
+            throw new BusinessException(30005, "监控数据请求体超过上限: " + maxRequestBytes + "字节");
+        }
+        if (buffer.length <= RETAINED_BUFFER_BYTES) {
+            buffers.set(buffer);
+        }
+        batch.payloadLength = length;
+        return buffer;
+    }
+
+    private static int indexOf(byte[] bytes, int from, int to, byte target) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == target) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private static int skipSpaces(byte[] bytes, int from, int to) {
+        while (from < to && (bytes[from] == ' ' || bytes[from] == '\t')) {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(byte[] bytes, int from, int to) {
+        while (to > from && (bytes[to - 1] == ' ' || bytes[to - 1] == '\t')) {
+            to--;
+        }
+        return to;
+    }
+
+    /**
+     * 解析十进制数值，常见的定点格式走快速路径，科学计数法等回退到Double.parseDouble
+     */
+    private static double parseDouble(byte[] bytes, int start, int end, int lineNumber) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean dot = false;
+        boolean any = false;
+        for (; i < end; i++) {
+            byte c = bytes[i];
+            if (c >= '0' && c <= '9') {
+                any = true;
+                if (digits >= MAX_FAST_DIGITS) {
+                    return parseDoubleSlow(bytes, start, end, lineNumber);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+                if (dot) {
+                    scale++;
+                }
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                return parseDoubleSlow(bytes, start, end, lineNumber);
+            }
+        }
+        if (!any || scale >= POWERS_OF_TEN.length) {
+            return parseDoubleSlow(bytes, start, end, lineNumber);
+        }
+        double value = mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    private static double parseDoubleSlow(byte[] bytes, int start, int end, int lineNumber) {
+        try {
+            return Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw lineError(lineNumber);
+        }
+    }
+
+    private static long parseLong(byte[] bytes, int start, int end, int lineNumber) {
+        if (start == end || end - start > 18) {
+            throw lineError(lineNumber);
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            byte c = bytes[i];
+            if (c < '0' || c > '9') {
+                throw lineError(lineNumber);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static BusinessException lineError(int lineNumber) {
+        return new BusinessException(30004, "监控数据格式错误: 第" + lineNumber + "行");
+    }
+
+    private static BusinessException groupError(int group) {
+        return new BusinessException(30004, "二进制监控数据格式错误: 第" + group + "组");
+    }
+
+    /**
+     * 64位FNV-1a哈希，0保留为空槽标记
+     */
+    private static long hash(byte[] bytes, int offset, int length) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = offset; i < offset + length; i++) {
+            h ^= bytes[i] & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h == 0 ? 1 : h;
+    }
+
+    /**
+     * 请求线程本地的样本批次
+     */
+    private static final class SampleBatch {
+
+        int[] seriesIds = new int[1024];
+        long[] timestamps = new long[1024];
+        double[] values = new double[1024];
+        int size;
+        /** 请求体的字节数 */
+        int payloadLength;
+
+        void clear() {
+            size = 0;
+        }
+
+        void add(int seriesId, long timestamp, double value) {
+            if (size == seriesIds.length) {
+                seriesIds = Arrays.copyOf(seriesIds, size * 2);
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            seriesIds[size] = seriesId;
+            timestamps[size] = timestamp;
+            values[size] = value;
+            size++;
+        }
+    }
+
+    /**
+     * 序列标识缓存：只增不删的开放寻址哈希表，读无锁，写加锁并在扩容时整体替换
+     */
+    private static final class SeriesTokenCache {
+
+        private volatile Table table = new Table(1024);
+
+        private int size;
+
+        int get(long hash, byte[] bytes, int offset, int length) {
+            Table t = table;
+            int i = (int) (hash ^ (hash >>> 32)) & t.mask;
+            while (true) {
+                long key = t.keys.get(i);
+                if (key == 0) {
+                    return -1;
+                }
+                if (key == hash && Arrays.equals(t.tokens[i], 0, t.tokens[i].length, bytes, offset, offset + length)) {
+                    return t.seriesIds[i];
+                }
+                i = (i + 1) & t.mask;
+            }
+        }
+
+        synchronized void put(long hash, byte[] token, int seriesId) {
+            if (get(hash, token, 0, token.length) >= 0) {
+                return;
+            }
+            Table t = table;
+            if ((size + 1) * 2 > t.tokens.length) {
+                Table grown = new Table(t.tokens.length * 2);
+                for (int i = 0; i < t.tokens.length; i++) {
+                    long key = t.keys.get(i);
+                    if (key != 0) {
+                        grown.insert(key, t.tokens[i], t.seriesIds[i]);
+                    }
+                }
+                table = grown;
+                t = grown;
+            }
+            t.insert(hash, token, seriesId);
+            size++;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private static final class Table {
+
+            final AtomicLongArray keys;
+            final byte[][] tokens;
+            final int[] seriesIds;
+            final int mask;
+
+            Table(int capacity) {
+                keys = new AtomicLongArray(capacity);
+                tokens = new byte[capacity][];
+                seriesIds = new int[capacity];
+                mask = capacity - 1;
+            }
+
+            void insert(long hash, byte[] token, int seriesId) {
+                int i = (int) (hash ^ (hash >>> 32)) & mask;
+                while (keys.get(i) != 0) {
+                    i = (i + 1) & mask;
+                }
+                tokens[i] = token;
+                seriesIds[i] = seriesId;
+                // 先写值再发布键，读线程看到键时一定能看到对应的值
+                keys.set(i, hash);
+            }
+        }
+    }
+}
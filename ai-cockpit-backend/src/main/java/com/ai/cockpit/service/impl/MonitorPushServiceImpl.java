@@ -0,0 +1,204 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.event.MonitorAlertEvent;
+import com.ai.cockpit.service.MonitorPushService;
+import com.ai.cockpit.service.MonitorTimeSeriesService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 监控实时推送服务实现类
+ * <p>
+ * 样本与告警迁移先在内存中按序列合并（同一序列在窗口内只保留最新值），
+ * 窗口结束时每个主题生成一条消息并只序列化一次；没有客户端连接时不做任何累积。
+ * 在线会话按会话ID登记，重复的断开事件与未完成连接的会话断开不会影响判断。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MonitorPushServiceImpl implements MonitorPushService, MonitorTimeSeriesService.SampleListener {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final MonitorTimeSeriesService monitorTimeSeriesService;
+
+    /** 已完成STOMP连接的会话ID */
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+
+    private final Object lock = new Object();
+
+    /** 以下字段由lock保护：窗口内每个序列的最新样本 */
+    private double[] values = new double[1024];
+    private long[] timestamps = new long[1024];
+    private boolean[] dirty = new boolean[1024];
+    private int[] dirtyList = new int[1024];
+    private int dirtySize;
+    private List<AlertMessage> pendingAlerts = new ArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        monitorTimeSeriesService.addSampleListener(this);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null) {
+            sessions.add(sessionId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        if (sessions.remove(event.getSessionId()) && sessions.isEmpty()) {
+            synchronized (lock) {
+                for (int k = 0; k < dirtySize; k++) {
+                    dirty[dirtyList[k]] = false;
+                }
+                dirtySize = 0;
+                pendingAlerts = new ArrayList<>();
+            }
+        }
+    }
+
+    @Override
+    public void onSample(int seriesId, long timestamp, double value) {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            if (seriesId >= dirty.length) {
+                int capacity = Math.max(seriesId + 1, dirty.length * 2);
+                values = Arrays.copyOf(values, capacity);
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                dirty = Arrays.copyOf(dirty, capacity);
+            }
+            if (dirty[seriesId]) {
+                if (timestamp < timestamps[seriesId]) {
+                    return;
+                }
+            } else {
+                dirty[seriesId] = true;
+                if (dirtySize == dirtyList.length) {
+                    dirtyList = Arrays.copyOf(dirtyList, dirtySize * 2);
+                }
+                dirtyList[dirtySize++] = seriesId;
+            }
+            values[seriesId] = value;
+            timestamps[seriesId] = timestamp;
+        }
+    }
+
+    @EventListener
+    public void onAlert(MonitorAlertEvent event) {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        AlertMessage message = new AlertMessage(event.getMonitorId(), event.getPreviousStatus(), event.getStatus(),
+                event.getTrigger().name(), Double.isNaN(event.getValue()) ? null : event.getValue(), event.getSampleTimestamp());
+        synchronized (lock) {
+            pendingAlerts.add(message);
+        }
+    }
+
+    /**
+     * 窗口结束时推送合并后的增量与告警
+     */
+    @Scheduled(fixedDelayString = "${monitor.push.coalesce-window:500}")
+    public void flush() {
+        int size;
+        int[] seriesIds;
+        double[] latestValues;
+        long[] latestTimestamps;
+        List<AlertMessage> alerts;
+        synchronized (lock) {
+            if (dirtySize == 0 && pendingAlerts.isEmpty()) {
+                return;
+            }
+            size = dirtySize;
+            seriesIds = Arrays.copyOf(dirtyList, size);
+            latestValues = new double[size];
+            latestTimestamps = new long[size];
+            for (int k = 0; k < size; k++) {
+                int seriesId = seriesIds[k];
+                dirty[seriesId] = false;
+                latestValues[k] = values[seriesId];
+                latestTimestamps[k] = timestamps[seriesId];
+            }
+            dirtySize = 0;
+            alerts = pendingAlerts;
+            pendingAlerts = new ArrayList<>();
+        }
+        long now = System.currentTimeMillis();
+        if (size > 0) {
+            List<SeriesDelta> deltas = new ArrayList<>(size);
+            for (int k = 0; k < size; k++) {
+                MonitorTimeSeriesService.SeriesKey key = monitorTimeSeriesService.seriesKey(seriesIds[k]);
+                deltas.add(new SeriesDelta(seriesIds[k], key.monitorType(), key.targetType(), key.targetId(),
+                        latestValues[k], latestTimestamps[k]));
+            }
+            publish(DELTA_TOPIC, new PushMessage<>(now, deltas));
+        }
+        if (!alerts.isEmpty()) {
+            publish(ALERT_TOPIC, new PushMessage<>(now, alerts));
+        }
+    }
+
+    @Override
+    public void publish(String destination, Object payload) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            log.error("序列化推送消息失败: 主题={}", destination, e);
+            return;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.send(destination, MessageBuilder.createMessage(body, accessor.getMessageHeaders()));
+    }
+
+    @Override
+    public boolean hasSubscribers() {
+        return !sessions.isEmpty();
+    }
+
+    /**
+     * 推送消息
+     */
+    public record PushMessage<T>(long timestamp, List<T> items) {
+    }
+
+    /**
+     * 序列增量
+     */
+    public record SeriesDelta(int seriesId, String monitorType, String targetType, long targetId,
+                              double value, long timestamp) {
+    }
+
+    /**
+     * 告警迁移
+     */
+    public record AlertMessage(long monitorId, int previousStatus, int status, String trigger,
+                               Double value, long timestamp) {
+    }
+}
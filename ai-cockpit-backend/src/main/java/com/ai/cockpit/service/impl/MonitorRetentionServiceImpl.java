@@ -0,0 +1,434 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.entity.ResourceMonitor;
+import com.ai.cockpit.event.ResourceMonitorChangedEvent;
+import com.ai.cockpit.exception.BusinessException;
+import com.ai.cockpit.service.MonitorRetentionService;
+import com.ai.cockpit.util.RedisUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 监控数据保留服务实现类
+ * <p>
+ * 分块删除沿idx_monitor_timestamp索引（InnoDB二级索引隐含主键，即(monitor_timestamp, id)）按键集推进：
+ * 每块先只读索引取出本块的键，再以“上一块末键 &lt; 键 &lt;= 本块末键”为范围执行DELETE ... LIMIT，
+ * 语句自动提交，锁范围不超出本块；下一块从本块末键之后开始扫描，不会反复扫过已删除未回收的记录。
+ * 截止时间与末键在每块后写入Redis检查点，进程崩溃或重启后按原截止时间从末键续跑。
+ * 多个节点之间通过Redis租约互斥：开始前以SET NX获得租约，每块后续期，租约丢失时停止本次清理。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MonitorRetentionServiceImpl implements MonitorRetentionService {
+
+    private static final String CHECKPOINT_KEY = "monitor:retention:checkpoint";
+
+    private static final String LEASE_KEY = "monitor:retention:lease";
+
+    private static final String MODE_PARTITION = "partition";
+
+    /** MySQL TO_DAYS('1970-01-01') */
+    private static final long TO_DAYS_EPOCH = 719528L;
+
+    private static final String PARTITIONS_SQL = "SELECT PARTITION_NAME, PARTITION_METHOD, PARTITION_EXPRESSION, "
+            + "PARTITION_DESCRIPTION FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() "
+            + "AND TABLE_NAME = 'resource_monitor' AND PARTITION_NAME IS NOT NULL ORDER BY PARTITION_ORDINAL_POSITION";
+
+    private static final String FIRST_KEYS_SQL = "SELECT id, monitor_timestamp FROM resource_monitor "
+            + "WHERE monitor_timestamp < ? ORDER BY monitor_timestamp, id LIMIT ?";
+
+    private static final String NEXT_KEYS_SQL = "SELECT id, monitor_timestamp FROM resource_monitor "
+            + "WHERE monitor_timestamp < ? AND (monitor_timestamp > ? OR (monitor_timestamp = ? AND id > ?)) "
+            + "ORDER BY monitor_timestamp, id LIMIT ?";
+
+    private static final String FIRST_DELETE_SQL = "DELETE FROM resource_monitor "
+            + "WHERE (monitor_timestamp < ? OR (monitor_timestamp = ? AND id <= ?)) "
+            + "ORDER BY monitor_timestamp, id LIMIT ?";
+
+    private static final String NEXT_DELETE_SQL = "DELETE FROM resource_monitor "
+            + "WHERE (monitor_timestamp > ? OR (monitor_timestamp = ? AND id > ?)) "
+            + "AND (monitor_timestamp < ? OR (monitor_timestamp = ? AND id <= ?)) "
+            + "ORDER BY monitor_timestamp, id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisUtil redisUtil;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** 定时清理开关 */
+    @Value("${monitor.retention.enabled:false}")
+    private boolean enabled;
+
+    /** 保留天数 */
+    @Value("${monitor.retention.days:30}")
+    private int retentionDays;
+
+    /** 清理模式：delete-分块删除，partition-优先删除分区 */
+    @Value("${monitor.retention.mode:delete}")
+    private String mode;
+
+    /** 每块删除行数 */
+    @Value("${monitor.retention.chunk-size:1000}")
+    private int chunkSize;
+
+    /** 块间暂停时长与本块耗时之比 */
+    @Value("${monitor.retention.throttle-ratio:1.0}")
+    private double throttleRatio;
+
+    /** 块间最短暂停（毫秒） */
+    @Value("${monitor.retention.min-pause:50}")
+    private long minPause;
+
+    /** 块间最长暂停（毫秒） */
+    @Value("${monitor.retention.max-pause:5000}")
+    private long maxPause;
+
+    /** 跨节点租约时长（秒），每块后续期 */
+    @Value("${monitor.retention.lease-ttl:300}")
+    private long leaseTtl;
+
+    /** 本实例的租约持有者标识 */
+    private final String leaseOwner = UUID.randomUUID().toString();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "monitor-retention");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile Job job;
+
+    /**
+     * 启动时续跑未完成的清理任务
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        Map<Object, Object> checkpoint;
+        try {
+            checkpoint = redisUtil.hmget(CHECKPOINT_KEY);
+        } catch (Exception e) {
+            log.warn("读取监控数据清理检查点失败: {}", e.getMessage());
+            return;
+        }
+        if (checkpoint == null || !(checkpoint.get("cutoff") instanceof Number cutoff)) {
+            return;
+        }
+        Job resumed = new Job(toLocalDateTime(cutoff.longValue()));
+        if (checkpoint.get("lastTimestamp") instanceof Number lastTimestamp && checkpoint.get("lastId") instanceof Number lastId) {
+            resumed.lastTimestamp = toLocalDateTime(lastTimestamp.longValue());
+            resumed.lastId = lastId.longValue();
+        }
+        if (checkpoint.get("deleted") instanceof Number deleted) {
+            resumed.deleted = deleted.longValue();
+        }
+        if (checkpoint.get("chunks") instanceof Number chunks) {
+            resumed.chunks = chunks.longValue();
+        }
+        log.info("续跑监控数据清理任务: 截止时间={}, 已删除={}", resumed.cutoff, resumed.deleted);
+        start(resumed);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 中断块间等待，检查点保留在Redis中，下次启动续跑
+        executor.shutdownNow();
+    }
+
+    /**
+     * 按保留天数定时清理
+     */
+    @Scheduled(cron = "${monitor.retention.cron:0 30 3 * * ?}")
+    public void scheduledPurge() {
+        if (!enabled || running.get()) {
+            return;
+        }
+        if (!start(new Job(LocalDateTime.now().minusDays(retentionDays)))) {
+            log.info("监控数据清理任务正在其他节点执行，跳过本次定时清理");
+        }
+    }
+
+    @Override
+    public Map<String, Object> purge(LocalDateTime beforeTime) {
+        if (!start(new Job(beforeTime))) {
+            throw new BusinessException(30006, "监控数据清理任务正在执行");
+        }
+        return getStatus();
+    }
+
+    @Override
+    public Map<String, Object> getStatus() {
+        Job current = job;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("mode", mode);
+        status.put("running", running.get());
+        if (current != null) {
+            status.put("state", current.state);
+            status.put("cutoff", current.cutoff);
+            status.put("deletedCount", current.deleted);
+            status.put("chunkCount", current.chunks);
+            status.put("droppedPartitions", current.droppedPartitions);
+            status.put("lastTimestamp", current.lastTimestamp);
+            status.put("lastId", current.lastId);
+            status.put("startedAt", current.startedAt);
+            status.put("finishedAt", current.finishedAt);
+            status.put("error", current.error);
+        }
+        return status;
+    }
+
+    private boolean start(Job newJob) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        if (!redisUtil.tryLease(LEASE_KEY, leaseOwner, leaseTtl)) {
+            running.set(false);
+            return false;
+        }
+        job = newJob;
+        saveCheckpoint(newJob);
+        try {
+            executor.execute(() -> run(newJob));
+        } catch (RuntimeException e) {
+            redisUtil.releaseLease(LEASE_KEY, leaseOwner);
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    private void run(Job current) {
+        try {
+            if (MODE_PARTITION.equalsIgnoreCase(mode)) {
+                dropPartitions(current);
+                renewLease();
+            }
+            deleteChunks(current);
+            current.state = Thread.currentThread().isInterrupted() ? "INTERRUPTED" : "COMPLETED";
+            if ("COMPLETED".equals(current.state)) {
+                redisUtil.del(CHECKPOINT_KEY);
+            }
+            log.info("监控数据清理结束: 状态={}, 截止时间={}, 删除={}, 分块={}, 删除分区={}",
+                    current.state, current.cutoff, current.deleted, current.chunks, current.droppedPartitions);
+        } catch (Exception e) {
+            current.state = "FAILED";
+            current.error = e.getMessage();
+            log.error("监控数据清理失败: 截止时间={}, 已删除={}", current.cutoff, current.deleted, e);
+        } finally {
+            current.finishedAt = LocalDateTime.now();
+            redisUtil.releaseLease(LEASE_KEY, leaseOwner);
+            running.set(false);
+        }
+    }
+
+    /**
+     * 按键集分块删除，块间按本块耗时限流
+     */
+    private void deleteChunks(Job current) {
+        Timestamp cutoff = Timestamp.valueOf(current.cutoff);
+        while (!Thread.currentThread().isInterrupted()) {
+            long started = System.nanoTime();
+            List<Long> ids = new ArrayList<>(chunkSize);
+            Timestamp[] upper = new Timestamp[1];
+            if (current.lastTimestamp == null) {
+                jdbcTemplate.query(FIRST_KEYS_SQL, rs -> {
+                    ids.add(rs.getLong(1));
+                    upper[0] = rs.getTimestamp(2);
+                }, cutoff, chunkSize);
+            } else {
+                Timestamp lower = Timestamp.valueOf(current.lastTimestamp);
+                jdbcTemplate.query(NEXT_KEYS_SQL, rs -> {
+                    ids.add(rs.getLong(1));
+                    upper[0] = rs.getTimestamp(2);
+                }, cutoff, lower, lower, current.lastId, chunkSize);
+            }
+            if (ids.isEmpty()) {
+                return;
+            }
+            long upperId = ids.get(ids.size() - 1);
+            int deleted;
+            if (current.lastTimestamp == null) {
+                deleted = jdbcTemplate.update(FIRST_DELETE_SQL, upper[0], upper[0], upperId, chunkSize);
+            } else {
+                Timestamp lower = Timestamp.valueOf(current.lastTimestamp);
+                deleted = jdbcTemplate.update(NEXT_DELETE_SQL, lower, lower, current.lastId,
+                        upper[0], upper[0], upperId, chunkSize);
+            }
+            current.deleted += deleted;
+            current.chunks++;
+            current.lastTimestamp = upper[0].toLocalDateTime();
+            current.lastId = upperId;
+            saveCheckpoint(current);
+            renewLease();
+            publishDeleted(ids);
+            if (ids.size() < chunkSize) {
+                return;
+            }
+            pause(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * 删除上界不晚于截止时间的范围分区；表未分区或分区方式不支持时跳过，由分块删除处理
+     */
+    private void dropPartitions(Job current) {
+        List<Map<String, Object>> partitions = jdbcTemplate.queryForList(PARTITIONS_SQL);
+        if (partitions.isEmpty()) {
+            log.info("resource_monitor未分区，使用分块删除");
+            return;
+        }
+        List<String> droppable = new ArrayList<>();
+        for (Map<String, Object> partition : partitions) {
+            LocalDateTime upperBound = partitionUpperBound(partition);
+            if (upperBound == null || upperBound.isAfter(current.cutoff)) {
+                break;
+            }
+            droppable.add((String) partition.get("PARTITION_NAME"));
+        }
+        // MySQL不允许删除全部分区，至少保留最后一个
+        if (droppable.size() == partitions.size()) {
+            droppable.remove(droppable.size() - 1);
+        }
+        if (droppable.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE resource_monitor DROP PARTITION `" + String.join("`, `", droppable) + "`");
+        current.droppedPartitions = droppable;
+        log.info("删除过期监控数据分区: {}", droppable);
+    }
+
+    /**
+     * 解析分区上界（不含），支持RANGE COLUMNS(monitor_timestamp)、RANGE(TO_DAYS(monitor_timestamp))
+     * 与RANGE(UNIX_TIMESTAMP(monitor_timestamp))，其他方式返回null
+     */
+    private static LocalDateTime partitionUpperBound(Map<String, Object> partition) {
+        String method = String.valueOf(partition.get("PARTITION_METHOD")).toUpperCase(Locale.ROOT);
+        String expression = String.valueOf(partition.get("PARTITION_EXPRESSION")).toLowerCase(Locale.ROOT);
+        String description = String.valueOf(partition.get("PARTITION_DESCRIPTION")).replace("'", "").trim();
+        if (!method.startsWith("RANGE") || !expression.contains("monitor_timestamp")
+                || "MAXVALUE".equalsIgnoreCase(description)) {
+            return null;
+        }
+        try {
+            if ("RANGE COLUMNS".equals(method)) {
+                return description.length() <= 10
+                        ? LocalDate.parse(description).atStartOfDay()
+                        : LocalDateTime.parse(description.replace(' ', 'T'));
+            }
+            if (expression.startsWith("to_days")) {
+                return LocalDate.ofEpochDay(Long.parseLong(description) - TO_DAYS_EPOCH).atStartOfDay();
+            }
+            if (expression.startsWith("unix_timestamp")) {
+                return toLocalDateTime(Long.parseLong(description) * 1000);
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            log.warn("无法解析分区上界: 分区={}, 上界={}", partition.get("PARTITION_NAME"), description);
+        }
+        return null;
+    }
+
+    /**
+     * 通知调度、告警评估与统计移除已删除的监控项
+     */
+    private void publishDeleted(List<Long> ids) {
+        for (Long id : ids) {
+            ResourceMonitor monitor = new ResourceMonitor();
+            monitor.setId(id);
+            eventPublisher.publishEvent(new ResourceMonitorChangedEvent(this, ResourceMonitorChangedEvent.ChangeType.DELETED, monitor));
+        }
+    }
+
+    /**
+     * 续期租约；租约已过期时尝试重新获得，已被其他节点获得时停止本次清理
+     */
+    private void renewLease() {
+        if (!redisUtil.renewLease(LEASE_KEY, leaseOwner, leaseTtl) && !redisUtil.tryLease(LEASE_KEY, leaseOwner, leaseTtl)) {
+            throw new IllegalStateException("监控数据清理租约已失效");
+        }
+    }
+
+    private void pause(long elapsedNanos) {
+        long millis = Math.min(maxPause, Math.max(minPause, (long) (elapsedNanos / 1_000_000 * throttleRatio)));
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void saveCheckpoint(Job current) {
+        Map<String, Object> checkpoint = new HashMap<>();
+        checkpoint.put("cutoff", toEpochMilli(current.cutoff));
+        checkpoint.put("deleted", current.deleted);
+        checkpoint.put("chunks", current.chunks);
+        if (current.lastTimestamp != null) {
+            checkpoint.put("lastTimestamp", toEpochMilli(current.lastTimestamp));
+            checkpoint.put("lastId", current.lastId);
+        }
+        redisUtil.hmset(CHECKPOINT_KEY, checkpoint);
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault());
+    }
+
+    /**
+     * 清理任务进度，仅由清理线程写入
+     */
+    private static final class Job {
+
+        private final LocalDateTime cutoff;
+
+        private final LocalDateTime startedAt = LocalDateTime.now();
+
+        private volatile String state = "RUNNING";
+
+        private volatile long deleted;
+
+        private volatile long chunks;
+
+        private volatile LocalDateTime lastTimestamp;
+
+        private volatile long lastId;
+
+        private volatile List<String> droppedPartitions = List.of();
+
+        private volatile LocalDateTime finishedAt;
+
+        private volatile String error;
+
+        Job(LocalDateTime cutoff) {
+            this.cutoff = cutoff;
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.event.ResourceMonitorChangedEvent;
+import com.ai.cockpit.exception.BusinessException;
+import com.ai.cockpit.service.MonitorSlaService;
+import com.ai.cockpit.util.LatencySketch;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 监控可用性与响应时间服务实现类
+ * <p>
+ * 内存中只保留本节点最近memory-hours小时的桶，更早的桶只在数据库中。一个分钟内任一次探测失败即记为失败分钟，
+ * 可用性 = (检查过的分钟 - 失败分钟) / 检查过的分钟，多个节点的位图按分钟取并集，窗口边界精确到分钟；
+ * 分位数按与窗口有交集的整桶合并，边界精确到小时。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MonitorSlaServiceImpl implements MonitorSlaService {
+
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    private static final int BUCKET_MINUTES = 60;
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final String UPSERT_SQL = "INSERT INTO monitor_sla_bucket "
+            + "(monitor_id, node_id, bucket_start, bucket_minutes, payload, updated_time) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE payload = VALUES(payload), updated_time = VALUES(updated_time)";
+
+    private static final String LOAD_SQL = "SELECT monitor_id, bucket_start, payload FROM monitor_sla_bucket "
+            + "WHERE node_id = ? AND bucket_minutes = ? AND bucket_start >= ?";
+
+    private static final String QUERY_SQL = "SELECT node_id, bucket_start, payload FROM monitor_sla_bucket "
+            + "WHERE monitor_id = ? AND bucket_minutes = ? AND bucket_start >= ? AND bucket_start < ?";
+
+    private static final String SUMMARY_SQL = "UPDATE resource_monitor SET availability_percentage = ?, "
+            + "avg_response_time = COALESCE(?, avg_response_time), max_response_time = COALESCE(?, max_response_time), "
+            + "min_response_time = COALESCE(?, min_response_time) WHERE id = ?";
+
+    private static final String PURGE_SQL = "DELETE FROM monitor_sla_bucket WHERE bucket_start < ? LIMIT ?";
+
+    private static final int PURGE_CHUNK = 10000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${monitor.check.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+
+    /** 内存中保留的小时数 */
+    @Value("${monitor.sla.memory-hours:48}")
+    private int memoryHours;
+
+    /** 数据库中保留的天数，也是查询窗口的上限 */
+    @Value("${monitor.sla.retention-days:30}")
+    private int retentionDays;
+
+    /** 写回监控项的可用性与响应时间所用的统计窗口（小时） */
+    @Value("${monitor.sla.summary-hours:24}")
+    private int summaryHours;
+
+    /** 监控项ID -> 本节点的小时桶，桶由所属对象加锁 */
+    private final ConcurrentHashMap<Long, MonitorBuckets> monitors = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long since = currentMinute() - (long) memoryHours * 60;
+        int[] loaded = new int[1];
+        try {
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                MonitorBuckets buckets = monitors.computeIfAbsent(rs.getLong(1), id -> new MonitorBuckets());
+                Bucket bucket = Bucket.fromBytes(rs.getLong(2), rs.getBytes(3));
+                synchronized (buckets) {
+                    buckets.hourly.put(bucket.start, bucket);
+                }
+                loaded[0]++;
+            }, nodeId, BUCKET_MINUTES, since);
+        } catch (DataAccessException e) {
+            log.error("加载监控可用性数据失败", e);
+            return;
+        }
+        log.info("加载监控可用性数据完成: 监控项数={}, 桶数={}", monitors.size(), loaded[0]);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMonitorChanged(ResourceMonitorChangedEvent event) {
+        if (event.getChangeType() == ResourceMonitorChangedEvent.ChangeType.DELETED) {
+            monitors.remove(event.getMonitor().getId());
+        }
+    }
+
+    @Override
+    public void recordCheck(long monitorId, long timestamp, boolean up, double latencyMillis) {
+        long minute = Math.floorDiv(timestamp, MINUTE_MILLIS);
+        long start = minute - Math.floorMod(minute, BUCKET_MINUTES);
+        long bit = 1L << (minute - start);
+        MonitorBuckets buckets = monitors.computeIfAbsent(monitorId, id -> new MonitorBuckets());
+        synchronized (buckets) {
+            Bucket bucket = buckets.hourly.computeIfAbsent(start, Bucket::new);
+            bucket.checked |= bit;
+            if (!up) {
+                bucket.down |= bit;
+            } else if (!Double.isNaN(latencyMillis)) {
+                bucket.sketch.add(latencyMillis);
+            }
+            bucket.dirty = true;
+            buckets.dirty = true;
+        }
+    }
+
+    /**
+     * 写出变化的桶，淘汰超出内存保留期的桶，并回写监控项的可用性与响应时间
+     */
+    @Scheduled(fixedDelayString = "${monitor.sla.flush-interval:60000}")
+    public synchronized void flush() {
+        long nowMinute = currentMinute();
+        long evictBefore = nowMinute - (long) memoryHours * 60;
+        long summarySince = nowMinute - (long) summaryHours * 60;
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> summaries = new ArrayList<>();
+        monitors.forEach((monitorId, buckets) -> {
+            synchronized (buckets) {
+                for (Bucket bucket : buckets.hourly.values()) {
+                    if (bucket.dirty) {
+                        upserts.add(new Object[] {monitorId, nodeId, bucket.start, BUCKET_MINUTES, bucket.toBytes(), now});
+                        bucket.dirty = false;
+                    }
+                }
+                buckets.hourly.headMap(evictBefore).clear();
+                if (buckets.dirty) {
+                    buckets.dirty = false;
+                    Summary summary = new Summary(summarySince, nowMinute + 1);
+                    buckets.hourly.tailMap(summarySince - BUCKET_MINUTES + 1).values().forEach(summary::add);
+                    if (summary.checkedMinutes() > 0) {
+                        summaries.add(new Object[] {summary.availability(), nullable(summary.sketch.mean()),
+                                nullable(summary.sketch.max()), nullable(summary.sketch.min()), monitorId});
+                    }
+                }
+            }
+        });
+        try {
+            if (!upserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, upserts);
+            }
+            if (!summaries.isEmpty()) {
+                jdbcTemplate.batchUpdate(SUMMARY_SQL, summaries);
+            }
+        } catch (DataAccessException e) {
+            // 写入失败的桶重新标记，下次重试
+            for (Object[] row : upserts) {
+                MonitorBuckets buckets = monitors.get((Long) row[0]);
+                if (buckets != null) {
+                    synchronized (buckets) {
+                        Bucket bucket = buckets.hourly.get((Long) row[2]);
+                        if (bucket != null) {
+                            bucket.dirty = true;
+                        }
+                    }
+                }
+            }
+            log.error("写入监控可用性数据失败: 桶数={}", upserts.size(), e);
+        }
+    }
+
+    /**
+     * 分块清理超出保留期的桶
+     */
+    @Scheduled(fixedDelayString = "${monitor.sla.purge-interval:3600000}",
+            initialDelayString = "${monitor.sla.purge-interval:3600000}")
+    public void purge() {
+        long before = currentMinute() - (long) retentionDays * 24 * 60;
+        int deleted;
+        long total = 0;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, before, PURGE_CHUNK);
+            total += deleted;
+        } while (deleted == PURGE_CHUNK);
+        if (total > 0) {
+            log.info("清理过期监控可用性数据: 数量={}", total);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getSla(Long monitorId, LocalDateTime startTime, LocalDateTime endTime) {
+        long startMinute = Math.floorDiv(toEpochMilli(startTime), MINUTE_MILLIS);
+        long endMinute = Math.floorDiv(toEpochMilli(endTime) + MINUTE_MILLIS - 1, MINUTE_MILLIS);
+        if (endMinute <= startMinute) {
+            throw new BusinessException(30003, "结束时间必须晚于开始时间");
+        }
+        if (endMinute - startMinute > (long) retentionDays * 24 * 60) {
+            throw new BusinessException(30009, "查询窗口超过保留期限: " + retentionDays + "天");
+        }
+        long firstBucket = startMinute - Math.floorMod(startMinute, BUCKET_MINUTES);
+        Summary summary = new Summary(startMinute, endMinute);
+        Set<Long> localStarts = new HashSet<>();
+        MonitorBuckets buckets = monitors.get(monitorId);
+        if (buckets != null) {
+            synchronized (buckets) {
+                for (Bucket bucket : buckets.hourly.subMap(firstBucket, endMinute).values()) {
+                    summary.add(bucket);
+                    localStarts.add(bucket.start);
+                }
+            }
+        }
+        Set<String> nodeIds = new HashSet<>();
+        jdbcTemplate.query(QUERY_SQL, rs -> {
+            String node = rs.getString(1);
+            long start = rs.getLong(2);
+            // 本节点内存中的桶包含已写入的内容，以内存为准
+            if (nodeId.equals(node) && localStarts.contains(start)) {
+                return;
+            }
+            nodeIds.add(node);
+            summary.add(Bucket.fromBytes(start, rs.getBytes(3)));
+        }, monitorId, BUCKET_MINUTES, firstBucket, endMinute);
+        if (!localStarts.isEmpty()) {
+            nodeIds.add(nodeId);
+        }
+
+        LatencySketch sketch = summary.sketch;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("monitorId", monitorId);
+        result.put("startTime", startTime);
+        result.put("endTime", endTime);
+        result.put("checkedMinutes", summary.checkedMinutes());
+        result.put("downMinutes", summary.downMinutes());
+        result.put("availabilityPercentage", summary.checkedMinutes() == 0 ? null : summary.availability());
+        result.put("sampleCount", sketch.count());
+        result.put("p50", nullable(sketch.quantile(0.5)));
+        result.put("p90", nullable(sketch.quantile(0.9)));
+        result.put("p99", nullable(sketch.quantile(0.99)));
+        result.put("minResponseTime", nullable(sketch.min()));
+        result.put("avgResponseTime", nullable(sketch.mean()));
+        result.put("maxResponseTime", nullable(sketch.max()));
+        result.put("nodeCount", nodeIds.size());
+        return result;
+    }
+
+    private static Double nullable(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static long currentMinute() {
+        return Math.floorDiv(System.currentTimeMillis(), MINUTE_MILLIS);
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 单个监控项在本节点的小时桶
+     */
+    private static final class MonitorBuckets {
+
+        final TreeMap<Long, Bucket> hourly = new TreeMap<>();
+
+        /** 自上次回写后是否有新的探测结果 */
+        boolean dirty;
+    }
+
+    /**
+     * 小时桶：分钟级检查位图、失败位图（第k位对应桶内第k分钟）与延迟草图
+     */
+    private static final class Bucket {
+
+        final long start;
+        long checked;
+        long down;
+        LatencySketch sketch;
+        boolean dirty;
+
+        Bucket(long start) {
+            this(start, new LatencySketch());
+        }
+
+        Bucket(long start, LatencySketch sketch) {
+            this.start = start;
+            this.sketch = sketch;
+        }
+
+        byte[] toBytes() {
+            byte[] sketchBytes = sketch.toBytes();
+            ByteBuffer buffer = ByteBuffer.allocate(1 + 16 + sketchBytes.length);
+            buffer.put(FORMAT_VERSION).putLong(checked).putLong(down).put(sketchBytes);
+            return buffer.array();
+        }
+
+        static Bucket fromBytes(long start, byte[] payload) {
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            byte version = buffer.get();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("不支持的可用性桶版本: " + version);
+            }
+            long checked = buffer.getLong();
+            long down = buffer.getLong();
+            Bucket bucket = new Bucket(start, LatencySketch.fromBytes(buffer));
+            bucket.checked = checked;
+            bucket.down = down;
+            return bucket;
+        }
+    }
+
+    /**
+     * 窗口汇总：按分钟对齐的位图并集与合并后的延迟草图
+     */
+    private static final class Summary {
+
+        final long startMinute;
+        final long endMinute;
+        final long[] checked;
+        final long[] down;
+        final LatencySketch sketch = new LatencySketch();
+
+        Summary(long startMinute, long endMinute) {
+            this.startMinute = startMinute;
+            this.endMinute = endMinute;
+            int words = (int) ((endMinute - startMinute + 63) / 64);
+            this.checked = new long[words];
+            this.down = new long[words];
+        }
+
+        void add(Bucket bucket) {
+            long bucketEnd = bucket.start + BUCKET_MINUTES;
+            if (bucketEnd <= startMinute || bucket.start >= endMinute) {
+                return;
+            }
+            sketch.merge(bucket.sketch);
+            long from = Math.max(startMinute, bucket.start);
+            long to = Math.min(endMinute, bucketEnd);
+            for (long minute = from; minute < to; minute++) {
+                long bit = 1L << (minute - bucket.start);
+                if ((bucket.checked & bit) == 0) {
+                    continue;
+                }
+                int offset = (int) (minute - startMinute);
+                checked[offset >>> 6] |= 1L << offset;
+                if ((bucket.down & bit) != 0) {
+                    down[offset >>> 6] |= 1L << offset;
+                }
+            }
+        }
+
+        long checkedMinutes() {
+            long total = 0;
+            for (long word : checked) {
+                total += Long.bitCount(word);
+            }
+            return total;
+        }
+
+        long downMinutes() {
+            long total = 0;
+            for (long word : down) {
+                total += Long.bitCount(word);
+            }
+            return total;
+        }
+
+        double availability() {
+            long checkedMinutes = checkedMinutes();
+            return checkedMinutes == 0 ? 0 : Math.round((checkedMinutes - downMinutes()) * 10000.0 / checkedMinutes) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.entity.ResourceMonitor;
+import com.ai.cockpit.event.MonitorAlertEvent;
+import com.ai.cockpit.event.ResourceMonitorChangedEvent;
+import com.ai.cockpit.repository.ResourceMonitorRepository;
+import com.ai.cockpit.service.MonitorAlertEvaluator;
+import com.ai.cockpit.service.MonitorPushService;
+import com.ai.cockpit.service.MonitorStatisticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 监控统计服务实现类
+ * <p>
+ * 每个监控项保存一个不可变的计数单元（监控类型、目标类型、状态、是否启用），变更时在ConcurrentHashMap.compute
+ * 内以“旧单元减一、新单元加一”的方式调整分组计数，保证并发变更下计数精确。读取时返回按版本号缓存的快照，
+ * 计数未变化时为O(1)。状态以告警评估器的当前状态为准（数据库中的状态按批次回写，可能滞后）。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MonitorStatisticsServiceImpl implements MonitorStatisticsService {
+
+    private static final int STATUS_UNKNOWN = 3;
+
+    private static final int STATUS_COUNT = 4;
+
+    private static final String UNSPECIFIED = "unspecified";
+
+    private final ResourceMonitorRepository resourceMonitorRepository;
+    private final MonitorAlertEvaluator monitorAlertEvaluator;
+    private final MonitorPushService monitorPushService;
+
+    /** 监控项ID -> 计数单元 */
+    private final ConcurrentHashMap<Long, Cell> cells = new ConcurrentHashMap<>();
+
+    /** （监控类型, 目标类型） -> 分组计数 */
+    private final ConcurrentHashMap<GroupKey, GroupCounter> groups = new ConcurrentHashMap<>();
+
+    /** 增量更新持读锁并发执行，重建持写锁 */
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot = new Snapshot(-1, Map.of(), Map.of());
+
+    private volatile long pushedVersion = -1;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild(false);
+        log.info("加载监控统计完成: 监控项数={}, 分组数={}", cells.size(), groups.size());
+    }
+
+    /**
+     * 监控项增删改后更新计数；晚于告警评估器执行，以便读取其重新绑定后的状态
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMonitorChanged(ResourceMonitorChangedEvent event) {
+        ResourceMonitor monitor = event.getMonitor();
+        if (event.getChangeType() == ResourceMonitorChangedEvent.ChangeType.DELETED) {
+            apply(monitor.getId(), null);
+            return;
+        }
+        Integer status = monitorAlertEvaluator.currentStatus(monitor.getId());
+        apply(monitor.getId(), new Cell(monitor.getMonitorType(), monitor.getTargetType(),
+                status != null ? status : monitor.getStatus(), Boolean.TRUE.equals(monitor.getIsEnabled())));
+    }
+
+    @EventListener
+    public void onAlert(MonitorAlertEvent event) {
+        rebuildLock.readLock().lock();
+        try {
+            cells.computeIfPresent(event.getMonitorId(), (id, previous) -> {
+                Cell current = previous.withStatus(event.getStatus());
+                move(previous, current);
+                return current;
+            });
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 与数据库分组统计对账，不一致时重建
+     */
+    @Scheduled(fixedDelayString = "${monitor.statistics.reconcile-interval:300000}",
+            initialDelayString = "${monitor.statistics.reconcile-interval:300000}")
+    public void reconcile() {
+        Map<String, long[]> expectedByMonitorType = toStatusCounts(resourceMonitorRepository.countByMonitorTypeAndStatusGroup());
+        Map<String, long[]> expectedByTargetType = toStatusCounts(resourceMonitorRepository.countByTargetTypeAndStatusGroup());
+        Snapshot current = snapshot();
+        Map<String, long[]> actualByMonitorType = toStatusCounts(current.distribution().get("monitorType"));
+        Map<String, long[]> actualByTargetType = toStatusCounts(current.distribution().get("targetType"));
+        if (sameCounts(expectedByMonitorType, actualByMonitorType) && sameCounts(expectedByTargetType, actualByTargetType)) {
+            return;
+        }
+        // 数据库状态按批次回写，刚发生的状态迁移也会造成差异，重建时以评估器状态为准
+        log.warn("监控统计与数据库不一致，重建统计: 监控项数={}", cells.size());
+        rebuild(true);
+    }
+
+    /**
+     * 统计变化时向驾驶舱推送最新快照
+     */
+    @Scheduled(fixedDelayString = "${monitor.push.coalesce-window:500}")
+    public void push() {
+        long currentVersion = version.get();
+        if (currentVersion == pushedVersion || !monitorPushService.hasSubscribers()) {
+            return;
+        }
+        monitorPushService.publish(MonitorPushService.STATISTICS_TOPIC, snapshot().statistics());
+        pushedVersion = currentVersion;
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        return snapshot().statistics();
+    }
+
+    @Override
+    public Map<String, Map<String, Map<Integer, Long>>> getStatusDistribution() {
+        return snapshot().distribution();
+    }
+
+    private void apply(Long monitorId, Cell cell) {
+        rebuildLock.readLock().lock();
+        try {
+            cells.compute(monitorId, (id, previous) -> {
+                move(previous, cell);
+                return cell;
+            });
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 从旧单元所在分组减一，向新单元所在分组加一
+     */
+    private void move(Cell previous, Cell current) {
+        if (Objects.equals(previous, current)) {
+            return;
+        }
+        if (previous != null) {
+            groups.computeIfAbsent(previous.groupKey(), key -> new GroupCounter()).add(previous, -1);
+        }
+        if (current != null) {
+            groups.computeIfAbsent(current.groupKey(), key -> new GroupCounter()).add(current, 1);
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * 从数据库重新加载全部计数单元
+     *
+     * @param preferEvaluator 是否以告警评估器的当前状态覆盖数据库状态
+     */
+    private void rebuild(boolean preferEvaluator) {
+        List<Object[]> rows = resourceMonitorRepository.findAllStatisticCells();
+        rebuildLock.writeLock().lock();
+        try {
+            cells.clear();
+            groups.clear();
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                Integer status = preferEvaluator ? monitorAlertEvaluator.currentStatus(id) : null;
+                Cell cell = new Cell((String) row[1], (String) row[2],
+                        status != null ? status : (Integer) row[3], Boolean.TRUE.equals(row[4]));
+                cells.put(id, cell);
+                groups.computeIfAbsent(cell.groupKey(), key -> new GroupCounter()).add(cell, 1);
+            }
+            version.incrementAndGet();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        long currentVersion = version.get();
+        if (current.version() == currentVersion) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            currentVersion = version.get();
+            if (current.version() != currentVersion) {
+                current = buildSnapshot(currentVersion);
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    private Snapshot buildSnapshot(long snapshotVersion) {
+        long total = 0;
+        long enabled = 0;
+        long[] statusCounts = new long[STATUS_COUNT];
+        Map<String, long[]> byMonitorType = new TreeMap<>();
+        Map<String, long[]> byTargetType = new TreeMap<>();
+        groups.forEach((key, counter) -> {
+            long[] counts = counter.snapshot();
+            merge(byMonitorType.computeIfAbsent(key.monitorType(), k -> new long[STATUS_COUNT + 1]), counts);
+            merge(byTargetType.computeIfAbsent(key.targetType(), k -> new long[STATUS_COUNT + 1]), counts);
+        });
+        for (long[] counts : byMonitorType.values()) {
+            for (int status = 0; status < STATUS_COUNT; status++) {
+                statusCounts[status] += counts[status];
+                total += counts[status];
+            }
+            enabled += counts[STATUS_COUNT];
+        }
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("totalCount", total);
+        statistics.put("enabledCount", enabled);
+        statistics.put("normalCount", statusCounts[0]);
+        statistics.put("warningCount", statusCounts[1]);
+        statistics.put("criticalCount", statusCounts[2]);
+        statistics.put("unknownCount", statusCounts[3]);
+        statistics.put("byMonitorType", toBreakdown(byMonitorType));
+        statistics.put("byTargetType", toBreakdown(byTargetType));
+
+        Map<String, Map<String, Map<Integer, Long>>> distribution = new LinkedHashMap<>();
+        distribution.put("monitorType", toDistribution(byMonitorType));
+        distribution.put("targetType", toDistribution(byTargetType));
+        return new Snapshot(snapshotVersion, Collections.unmodifiableMap(statistics),
+                Collections.unmodifiableMap(distribution));
+    }
+
+    private static void merge(long[] target, long[] counts) {
+        for (int k = 0; k < target.length; k++) {
+            target[k] += counts[k];
+        }
+    }
+
+    private static Map<String, Object> toBreakdown(Map<String, long[]> counts) {
+        Map<String, Object> breakdown = new LinkedHashMap<>();
+        counts.forEach((name, value) -> {
+            long total = 0;
+            for (int status = 0; status < STATUS_COUNT; status++) {
+                total += value[status];
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("totalCount", total);
+            item.put("enabledCount", value[STATUS_COUNT]);
+            item.put("normalCount", value[0]);
+            item.put("warningCount", value[1]);
+            item.put("criticalCount", value[2]);
+            item.put("unknownCount", value[3]);
+            breakdown.put(name, item);
+        });
+        return breakdown;
+    }
+
+    private static Map<String, Map<Integer, Long>> toDistribution(Map<String, long[]> counts) {
+        Map<String, Map<Integer, Long>> distribution = new LinkedHashMap<>();
+        counts.forEach((name, value) -> {
+            Map<Integer, Long> byStatus = new LinkedHashMap<>();
+            for (int status = 0; status < STATUS_COUNT; status++) {
+                byStatus.put(status, value[status]);
+            }
+            distribution.put(name, byStatus);
+        });
+        return distribution;
+    }
+
+    /**
+     * 将数据库分组统计结果（分组值, 状态, 数量）转换为分组值 -> 各状态数量
+     */
+    private static Map<String, long[]> toStatusCounts(List<Object[]> rows) {
+        Map<String, long[]> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            long[] value = counts.computeIfAbsent(normalize((String) row[0]), k -> new long[STATUS_COUNT]);
+            value[statusIndex((Integer) row[1])] += ((Number) row[2]).longValue();
+        }
+        return counts;
+    }
+
+    private static Map<String, long[]> toStatusCounts(Map<String, Map<Integer, Long>> distribution) {
+        Map<String, long[]> counts = new HashMap<>();
+        distribution.forEach((name, byStatus) -> {
+            long[] value = new long[STATUS_COUNT];
+            byStatus.forEach((status, count) -> value[status] = count);
+            counts.put(name, value);
+        });
+        return counts;
+    }
+
+    private static boolean sameCounts(Map<String, long[]> expected, Map<String, long[]> actual) {
+        for (String name : union(expected, actual)) {
+            long[] left = expected.getOrDefault(name, new long[STATUS_COUNT]);
+            long[] right = actual.getOrDefault(name, new long[STATUS_COUNT]);
+            for (int status = 0; status < STATUS_COUNT; status++) {
+                if (left[status] != right[status]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> union(Map<String, long[]> left, Map<String, long[]> right) {
+        Set<String> names = new HashSet<>(left.keySet());
+        names.addAll(right.keySet());
+        return names;
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isEmpty() ? UNSPECIFIED : value;
+    }
+
+    /**
+     * 空状态或超出范围的状态按未知统计
+     */
+    private static int statusIndex(Integer status) {
+        return status == null || status < 0 || status >= STATUS_COUNT ? STATUS_UNKNOWN : status;
+    }
+
+    /**
+     * 监控项计数单元
+     */
+    private record Cell(String monitorType, String targetType, int status, boolean enabled) {
+
+        Cell(String monitorType, String targetType, Integer status, boolean enabled) {
+            this(normalize(monitorType), normalize(targetType), statusIndex(status), enabled);
+        }
+
+        Cell withStatus(int newStatus) {
+            return new Cell(monitorType, targetType, statusIndex(newStatus), enabled);
+        }
+
+        GroupKey groupKey() {
+            return new GroupKey(monitorType, targetType);
+        }
+    }
+
+    private record GroupKey(String monitorType, String targetType) {
+    }
+
+    /**
+     * 分组计数：各状态数量与启用数量
+     */
+    private static final class GroupCounter {
+
+        private final LongAdder[] counters = new LongAdder[STATUS_COUNT + 1];
+
+        GroupCounter() {
+            for (int k = 0; k < counters.length; k++) {
+                counters[k] = new LongAdder();
+            }
+        }
+
+        void add(Cell cell, int delta) {
+            counters[cell.status()].add(delta);
+            if (cell.enabled()) {
+                counters[STATUS_COUNT].add(delta);
+            }
+        }
+
+        long[] snapshot() {
+            long[] counts = new long[counters.length];
+            for (int k = 0; k < counters.length; k++) {
+                counts[k] = counters[k].sum();
+            }
+            return counts;
+        }
+    }
+
+    private record Snapshot(long version, Map<String, Object> statistics,
+                            Map<String, Map<String, Map<Integer, Long>>> distribution) {
+    }
+}
@@ -0,0 +1,660 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.service.MonitorTimeSeriesService;
+import com.ai.cockpit.util.RollupSeries;
+import com.ai.cockpit.util.TimeSeriesChunk;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 监控时序存储服务实现类
+ * <p>
+ * 每个序列维护一个可写的头块和若干已封存的只读块，头块写满或存在时间超过head-max-age后封存，
+ * 封存块由定时任务批量写入段文件（segment-*.seg），启动时从段文件恢复。
+ * 刷写时一并封存超龄的头块，进程异常退出时丢失的样本不超过head-max-age加一个刷写间隔。
+ * 同时为每个序列维护1分钟、10分钟、1小时三级降采样汇总，汇总定期快照到rollup.snap，
+ * 重启时加载快照后从原始样本回放快照之后的数据。
+ */
+@Slf4j
+@Service
+public class MonitorTimeSeriesServiceImpl implements MonitorTimeSeriesService {
+
+    /** 段文件魔数 */
+    private static final int SEGMENT_MAGIC = 0x54534547;
+
+    /** 段文件版本 */
+    private static final int SEGMENT_VERSION = 1;
+
+    /** 汇总快照魔数 */
+    private static final int SNAPSHOT_MAGIC = 0x52534e50;
+
+    /** 汇总快照文件名 */
+    private static final String SNAPSHOT_FILE = "rollup.snap";
+
+    /** 降采样级别分辨率：1分钟、10分钟、1小时 */
+    private static final long[] TIER_RESOLUTIONS = {
+            Duration.ofMinutes(1).toMillis(), Duration.ofMinutes(10).toMillis(), Duration.ofHours(1).toMillis()
+    };
+
+    @Value("${monitor.tsdb.data-dir:data/tsdb}")
+    private String dataDir;
+
+    @Value("${monitor.tsdb.chunk-size:720}")
+    private int chunkSize;
+
+    /** 头块最长存在时间（毫秒），刷写时封存超过该时间的头块，0表示每次刷写都封存 */
+    @Value("${monitor.tsdb.head-max-age:0}")
+    private long headMaxAge;
+
+    @Value("${monitor.tsdb.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${monitor.tsdb.rollup.minute-retention:1d}")
+    private Duration minuteRetention;
+
+    @Value("${monitor.tsdb.rollup.ten-minute-retention:7d}")
+    private Duration tenMinuteRetention;
+
+    @Value("${monitor.tsdb.rollup.hour-retention:30d}")
+    private Duration hourRetention;
+
+    /** 各降采样级别保留的桶数量 */
+    private int[] tierCapacities;
+
+    private final ConcurrentHashMap<SeriesKey, Integer> seriesIds = new ConcurrentHashMap<>();
+
+    private volatile Series[] series = new Series[1024];
+
+    private int seriesCount;
+
+    private final List<SampleListener> sampleListeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        tierCapacities = new int[] {
+                (int) (minuteRetention.toMillis() / TIER_RESOLUTIONS[0]),
+                (int) (tenMinuteRetention.toMillis() / TIER_RESOLUTIONS[1]),
+                (int) (hourRetention.toMillis() / TIER_RESOLUTIONS[2])
+        };
+        Path dir = Paths.get(dataDir);
+        try {
+            Files.createDirectories(dir);
+            long cutoff = retentionCutoff();
+            int loaded = 0;
+            for (Path segment : listSegments(dir)) {
+                loaded += loadSegment(segment, cutoff);
+            }
+            for (int i = 0; i < seriesCount(); i++) {
+                series[i].chunks.sort(Comparator.comparingLong(TimeSeriesChunk::getMinTimestamp));
+            }
+            loadRollupSnapshot(dir.resolve(SNAPSHOT_FILE));
+            for (int i = 0; i < seriesCount(); i++) {
+                Series s = series[i];
+                RollupSeries rollup = s.rollup;
+                long from = rollup.closedUntil();
+                for (TimeSeriesChunk chunk : s.chunks) {
+                    chunk.scan(from, Long.MAX_VALUE, rollup::add);
+                }
+            }
+            log.info("加载监控时序数据完成: 序列数={}, 数据块数={}", seriesCount(), loaded);
+        } catch (IOException e) {
+            log.error("加载监控时序数据失败: {}", dir, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (int i = 0; i < seriesCount(); i++) {
+            Series s = series[i];
+            synchronized (s) {
+                s.sealHead();
+            }
+        }
+        flush();
+        snapshotRollups();
+    }
+
+    @Override
+    public int seriesId(String monitorType, String targetType, long targetId) {
+        SeriesKey key = new SeriesKey(monitorType, targetType, targetId);
+        Integer id = seriesIds.get(key);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = seriesIds.get(key);
+            if (id != null) {
+                return id;
+            }
+            Series[] current = series;
+            if (seriesCount == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            int newId = seriesCount;
+            current[newId] = new Series(key, new RollupSeries(TIER_RESOLUTIONS, tierCapacities));
+            series = current;
+            seriesCount++;
+            seriesIds.put(key, newId);
+            return newId;
+        }
+    }
+
+    @Override
+    public SeriesKey seriesKey(int seriesId) {
+        return series(seriesId).key;
+    }
+
+    @Override
+    public synchronized int seriesCount() {
+        return seriesCount;
+    }
+
+    @Override
+    public int[] findSeries(String monitorType, String targetType) {
+        int count = seriesCount();
+        Series[] current = series;
+        int[] result = new int[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            SeriesKey key = current[i].key;
+            if ((monitorType == null || monitorType.equals(key.monitorType()))
+                    && (targetType == null || targetType.equals(key.targetType()))) {
+                result[size++] = i;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    @Override
+    public boolean append(int seriesId, long timestamp, double value) {
+        Series s = series(seriesId);
+        synchronized (s) {
+            if (!s.head.append(timestamp, value)) {
+                log.debug("丢弃乱序监控样本: 序列={}, 时间戳={}", s.key, timestamp);
+                return false;
+            }
+            s.rollup.add(timestamp, value);
+            if (s.head.getCount() == 1) {
+                s.headCreatedAt = System.currentTimeMillis();
+            }
+            if (s.head.getCount() >= chunkSize) {
+                s.sealHead();
+            }
+        }
+        for (SampleListener listener : sampleListeners) {
+            try {
+                listener.onSample(seriesId, timestamp, value);
+            } catch (Exception e) {
+                log.error("监控样本监听器处理失败: 序列={}", s.key, e);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void addSampleListener(SampleListener listener) {
+        sampleListeners.add(listener);
+    }
+
+    @Override
+    public long lastTimestamp(int seriesId) {
+        Series s = series(seriesId);
+        synchronized (s) {
+            if (s.head.getCount() > 0) {
+                return s.head.getMaxTimestamp();
+            }
+        }
+        long last = Long.MIN_VALUE;
+        for (TimeSeriesChunk chunk : s.chunks) {
+            last = Math.max(last, chunk.getMaxTimestamp());
+        }
+        return last;
+    }
+
+    @Override
+    public void scan(int seriesId, long start, long end, TimeSeriesChunk.SampleVisitor visitor) {
+        Series s = series(seriesId);
+        // 封存块列表与头块在同一把锁下取快照：其间封存的头块已不在快照中，仍作为头块引用被扫描，既不遗漏也不重复
+        TimeSeriesChunk[] sealed;
+        TimeSeriesChunk head;
+        synchronized (s) {
+            sealed = s.chunks.toArray(new TimeSeriesChunk[0]);
+            head = s.head;
+        }
+        for (TimeSeriesChunk chunk : sealed) {
+            if (chunk.getMaxTimestamp() >= start && chunk.getMinTimestamp() <= end) {
+                chunk.scan(start, end, visitor);
+            }
+        }
+        synchronized (s) {
+            head.scan(start, end, visitor);
+        }
+    }
+
+    @Override
+    public BucketAggregate trend(int[] ids, long start, long end, int points) {
+        int tier = selectTier(start, end, points);
+        if (tier < 0) {
+            return aggregateRaw(ids, start, end, points);
+        }
+        long resolution = TIER_RESOLUTIONS[tier];
+        long width = Math.max(resolution, ceilDiv(end - start + 1, points));
+        width = ceilDiv(width, resolution) * resolution;
+        long alignedStart = Math.floorDiv(start, resolution) * resolution;
+        int buckets = (int) ceilDiv(end - alignedStart + 1, width);
+        Accumulator acc = new Accumulator(alignedStart, width, resolution, buckets);
+        long bucketWidth = width;
+        RollupSeries.BucketConsumer consumer = (bucketStart, min, max, sum, count, p95) -> {
+            int bucket = (int) ((bucketStart - alignedStart) / bucketWidth);
+            acc.add(bucket, min, max, sum, count, p95);
+        };
+        for (int id : ids) {
+            Series s = series(id);
+            synchronized (s) {
+                s.rollup.forEach(tier, start, end, consumer);
+            }
+        }
+        return acc.toAggregate();
+    }
+
+    /**
+     * 选择降采样级别：从粗到细选择第一个覆盖查询起点且点数满足要求的级别；
+     * 若都不满足点数要求，则依次回退到原始样本、最细的可覆盖级别；返回-1表示使用原始样本
+     */
+    private int selectTier(long start, long end, int points) {
+        long now = System.currentTimeMillis();
+        long range = end - start + 1;
+        int finestCovering = TIER_RESOLUTIONS.length - 1;
+        for (int i = TIER_RESOLUTIONS.length - 1; i >= 0; i--) {
+            boolean covers = start >= now - TIER_RESOLUTIONS[i] * tierCapacities[i];
+            if (!covers) {
+                continue;
+            }
+            if (range / TIER_RESOLUTIONS[i] >= points) {
+                return i;
+            }
+            finestCovering = i;
+        }
+        return start >= retentionCutoff() ? -1 : finestCovering;
+    }
+
+    private BucketAggregate aggregateRaw(int[] ids, long start, long end, int buckets) {
+        long width = Math.max(1, ceilDiv(end - start + 1, buckets));
+        Accumulator acc = new Accumulator(start, width, 0, buckets);
+        TimeSeriesChunk.SampleVisitor visitor = (timestamp, value) -> {
+            int bucket = (int) Math.min(buckets - 1, (timestamp - start) / width);
+            acc.add(bucket, value, value, value, 1, value);
+        };
+        for (int id : ids) {
+            scan(id, start, end, visitor);
+        }
+        return acc.toAggregate();
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${monitor.tsdb.flush-interval:60000}")
+    public void flush() {
+        List<SeriesKey> keys = new ArrayList<>();
+        List<TimeSeriesChunk> chunks = new ArrayList<>();
+        long sealBefore = System.currentTimeMillis() - headMaxAge;
+        for (int i = 0; i < seriesCount(); i++) {
+            Series s = series[i];
+            synchronized (s) {
+                if (s.head.getCount() > 0 && s.headCreatedAt <= sealBefore) {
+                    s.sealHead();
+                }
+                for (TimeSeriesChunk chunk : s.unflushed) {
+                    keys.add(s.key);
+                    chunks.add(chunk);
+                }
+                s.unflushed.clear();
+            }
+        }
+        if (chunks.isEmpty()) {
+            return;
+        }
+        try {
+            writeSegment(keys, chunks);
+            log.debug("刷写监控时序段文件完成: 数据块数={}", chunks.size());
+        } catch (IOException e) {
+            log.error("刷写监控时序段文件失败，将在下次重试", e);
+            for (int i = 0; i < chunks.size(); i++) {
+                Series s = series(seriesIds.get(keys.get(i)));
+                synchronized (s) {
+                    // 刷写期间已被清理的块不再放回
+                    if (s.chunks.contains(chunks.get(i))) {
+                        s.unflushed.add(chunks.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void purgeBefore(long timestamp) {
+        int removed = 0;
+        for (int i = 0; i < seriesCount(); i++) {
+            Series s = series[i];
+            List<TimeSeriesChunk> expired = new ArrayList<>();
+            for (TimeSeriesChunk chunk : s.chunks) {
+                if (chunk.getMaxTimestamp() < timestamp) {
+                    expired.add(chunk);
+                }
+            }
+            if (!expired.isEmpty()) {
+                synchronized (s) {
+                    s.chunks.removeAll(expired);
+                    s.unflushed.removeAll(expired);
+                }
+                removed += expired.size();
+            }
+        }
+        try {
+            for (Path segment : listSegments(Paths.get(dataDir))) {
+                if (readSegmentMaxTimestamp(segment) < timestamp) {
+                    Files.deleteIfExists(segment);
+                }
+            }
+        } catch (IOException e) {
+            log.error("清理监控时序段文件失败", e);
+        }
+        log.info("清理过期监控时序数据完成: 数据块数={}", removed);
+    }
+
+    /**
+     * 按保留期清理过期数据
+     */
+    @Scheduled(fixedDelayString = "${monitor.tsdb.purge-interval:3600000}")
+    public void purgeExpired() {
+        purgeBefore(retentionCutoff());
+    }
+
+    /**
+     * 关闭已过期的开放桶并按各级保留期清理汇总数据
+     */
+    @Scheduled(fixedDelayString = "${monitor.tsdb.rollup.maintain-interval:60000}")
+    public void maintainRollups() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < seriesCount(); i++) {
+            Series s = series[i];
+            synchronized (s) {
+                s.rollup.expire(now);
+            }
+        }
+    }
+
+    /**
+     * 将降采样汇总写入快照文件
+     */
+    @Scheduled(fixedDelayString = "${monitor.tsdb.rollup.snapshot-interval:600000}",
+            initialDelayString = "${monitor.tsdb.rollup.snapshot-interval:600000}")
+    public void snapshotRollups() {
+        Path dir = Paths.get(dataDir);
+        Path target = dir.resolve(SNAPSHOT_FILE);
+        Path temp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+        int count = seriesCount();
+        try {
+            Files.createDirectories(dir);
+            try (OutputStream os = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 64 * 1024))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(count);
+                for (int i = 0; i < count; i++) {
+                    Series s = series[i];
+                    out.writeUTF(s.key.monitorType());
+                    out.writeUTF(s.key.targetType());
+                    out.writeLong(s.key.targetId());
+                    synchronized (s) {
+                        s.rollup.write(out);
+                    }
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.debug("写入监控降采样快照完成: 序列数={}", count);
+        } catch (IOException e) {
+            log.error("写入监控降采样快照失败", e);
+        }
+    }
+
+    private void loadRollupSnapshot(Path snapshot) throws IOException {
+        if (!Files.exists(snapshot)) {
+            return;
+        }
+        try (InputStream is = Files.newInputStream(snapshot);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(is, 64 * 1024))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                log.warn("忽略无法识别的监控降采样快照: {}", snapshot);
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String monitorType = in.readUTF();
+                String targetType = in.readUTF();
+                long targetId = in.readLong();
+                series(seriesId(monitorType, targetType, targetId)).rollup.read(in);
+            }
+        }
+    }
+
+    private long retentionCutoff() {
+        return System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionDays);
+    }
+
+    private Series series(int seriesId) {
+        Series s = seriesId >= 0 && seriesId < series.length ? series[seriesId] : null;
+        if (s == null) {
+            throw new IllegalArgumentException("unknown series id: " + seriesId);
+        }
+        return s;
+    }
+
+    private List<Path> listSegments(Path dir) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "segment-*.seg")) {
+            stream.forEach(segments::add);
+        }
+        segments.sort(Comparator.naturalOrder());
+        return segments;
+    }
+
+    private void writeSegment(List<SeriesKey> keys, List<TimeSeriesChunk> chunks) throws IOException {
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+        for (TimeSeriesChunk chunk : chunks) {
+            minTimestamp = Math.min(minTimestamp, chunk.getMinTimestamp());
+            maxTimestamp = Math.max(maxTimestamp, chunk.getMaxTimestamp());
+        }
+        Path dir = Paths.get(dataDir);
+        Files.createDirectories(dir);
+        Path target = dir.resolve(String.format("segment-%013d-%08x.seg", System.currentTimeMillis(), System.nanoTime() & 0xffffffffL));
+        Path temp = dir.resolve(target.getFileName() + ".tmp");
+        try (OutputStream os = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 64 * 1024))) {
+            out.writeInt(SEGMENT_MAGIC);
+            out.writeInt(SEGMENT_VERSION);
+            out.writeLong(minTimestamp);
+            out.writeLong(maxTimestamp);
+            out.writeInt(chunks.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                SeriesKey key = keys.get(i);
+                byte[] bytes = chunks.get(i).toBytes();
+                out.writeUTF(key.monitorType());
+                out.writeUTF(key.targetType());
+                out.writeLong(key.targetId());
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private int loadSegment(Path segment, long cutoff) throws IOException {
+        try (InputStream is = Files.newInputStream(segment);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(is, 64 * 1024))) {
+            if (in.readInt() != SEGMENT_MAGIC || in.readInt() != SEGMENT_VERSION) {
+                log.warn("忽略无法识别的监控时序段文件: {}", segment);
+                return 0;
+            }
+            in.readLong();
+            long maxTimestamp = in.readLong();
+            if (maxTimestamp >= cutoff) {
+                int records = in.readInt();
+                for (int i = 0; i < records; i++) {
+                    String monitorType = in.readUTF();
+                    String targetType = in.readUTF();
+                    long targetId = in.readLong();
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                    TimeSeriesChunk chunk = TimeSeriesChunk.fromBytes(ByteBuffer.wrap(bytes));
+                    series(seriesId(monitorType, targetType, targetId)).chunks.add(chunk);
+                }
+                return records;
+            }
+        }
+        // 整个段已过期，关闭后删除
+        Files.deleteIfExists(segment);
+        return 0;
+    }
+
+    private long readSegmentMaxTimestamp(Path segment) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(segment))) {
+            if (in.readInt() != SEGMENT_MAGIC || in.readInt() != SEGMENT_VERSION) {
+                return Long.MAX_VALUE;
+            }
+            in.readLong();
+            return in.readLong();
+        }
+    }
+
+    /**
+     * 单个监控序列
+     */
+    private static final class Series {
+
+        final SeriesKey key;
+
+        /** 已封存的块，按时间排序 */
+        final List<TimeSeriesChunk> chunks = new CopyOnWriteArrayList<>();
+
+        /** 尚未刷写到段文件的封存块 */
+        final List<TimeSeriesChunk> unflushed = new ArrayList<>();
+
+        /** 降采样汇总 */
+        final RollupSeries rollup;
+
+        /** 当前可写的头块 */
+        TimeSeriesChunk head = new TimeSeriesChunk();
+
+        /** 头块写入第一个样本的时间 */
+        long headCreatedAt;
+
+        Series(SeriesKey key, RollupSeries rollup) {
+            this.key = key;
+            this.rollup = rollup;
+        }
+
+        void sealHead() {
+            if (head.getCount() == 0) {
+                return;
+            }
+            head.seal();
+            chunks.add(head);
+            unflushed.add(head);
+            head = new TimeSeriesChunk();
+        }
+    }
+
+    /**
+     * 趋势查询的时间桶累加器
+     */
+    private static final class Accumulator {
+
+        final long start;
+        final long width;
+        final long resolution;
+        final double[] min;
+        final double[] max;
+        final double[] sum;
+        final long[] count;
+        final double[][] quantileValues;
+        final long[][] quantileWeights;
+        final int[] quantileSizes;
+
+        Accumulator(long start, long width, long resolution, int buckets) {
+            this.start = start;
+            this.width = width;
+            this.resolution = resolution;
+            this.min = new double[buckets];
+            this.max = new double[buckets];
+            this.sum = new double[buckets];
+            this.count = new long[buckets];
+            this.quantileValues = new double[buckets][];
+            this.quantileWeights = new long[buckets][];
+            this.quantileSizes = new int[buckets];
+            Arrays.fill(min, Double.POSITIVE_INFINITY);
+            Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        }
+
+        void add(int bucket, double vMin, double vMax, double vSum, long vCount, double vP95) {
+            if (bucket < 0 || bucket >= count.length || vCount == 0) {
+                return;
+            }
+            min[bucket] = Math.min(min[bucket], vMin);
+            max[bucket] = Math.max(max[bucket], vMax);
+            sum[bucket] += vSum;
+            count[bucket] += vCount;
+            int size = quantileSizes[bucket];
+            if (quantileValues[bucket] == null) {
+                quantileValues[bucket] = new double[8];
+                quantileWeights[bucket] = new long[8];
+            } else if (size == quantileValues[bucket].length) {
+                quantileValues[bucket] = Arrays.copyOf(quantileValues[bucket], size * 2);
+                quantileWeights[bucket] = Arrays.copyOf(quantileWeights[bucket], size * 2);
+            }
+            quantileValues[bucket][size] = vP95;
+            quantileWeights[bucket][size] = vCount;
+            quantileSizes[bucket] = size + 1;
+        }
+
+        BucketAggregate toAggregate() {
+            double[] p95 = new double[count.length];
+            for (int i = 0; i < count.length; i++) {
+                p95[i] = RollupSeries.weightedQuantile(quantileValues[i], quantileWeights[i], quantileSizes[i], 0.95);
+            }
+            return new BucketAggregate(start, width, resolution, min, max, sum, count, p95);
+        }
+    }
+}
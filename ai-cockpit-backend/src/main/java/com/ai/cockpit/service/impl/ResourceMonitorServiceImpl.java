@@ -1,22 +1,45 @@
 package com.ai.cockpit.service.impl;
 
 import com.ai.cockpit.dto.request.ResourceMonitorRequest;
+import com.ai.cockpit.dto.response.CursorPageResult;
 import com.ai.cockpit.dto.response.ResourceMonitorResponse;
+import com.ai.cockpit.dto.response.ResourceMonitorSummaryResponse;
 import com.ai.cockpit.entity.ResourceMonitor;
+import com.ai.cockpit.event.ResourceMonitorChangedEvent;
 import com.ai.cockpit.exception.BusinessException;
 import com.ai.cockpit.mapper.ResourceMonitorMapper;
 import com.ai.cockpit.repository.ResourceMonitorRepository;
+import com.ai.cockpit.repository.ResourceMonitorSpecifications;
+import com.ai.cockpit.service.MonitorAlertEvaluator;
+import com.ai.cockpit.service.MonitorCheckScheduler;
+import com.ai.cockpit.service.MonitorRetentionService;
+import com.ai.cockpit.service.MonitorSlaService;
+import com.ai.cockpit.service.MonitorStatisticsService;
+import com.ai.cockpit.service.MonitorTimeSeriesService;
 import com.ai.cockpit.service.ResourceMonitorService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 资源监控服务实现类
@@ -26,8 +49,35 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ResourceMonitorServiceImpl implements ResourceMonitorService {
 
+    /** 趋势数据默认点数 */
+    private static final int DEFAULT_TREND_POINTS = 60;
+
+    /** 趋势数据最大点数 */
+    private static final int MAX_TREND_POINTS = 2000;
+
+    /** 条件查询支持的排序列（均有索引且非空，可用于键集分页） */
+    private static final Set<String> SEARCH_SORT_PROPERTIES = Set.of("monitorTimestamp", "createdTime", "id");
+
+    /** 条件查询默认排序列 */
+    private static final String DEFAULT_SEARCH_SORT = "monitorTimestamp";
+
     private final ResourceMonitorRepository resourceMonitorRepository;
     private final ResourceMonitorMapper resourceMonitorMapper;
+    private final MonitorTimeSeriesService monitorTimeSeriesService;
+    private final MonitorCheckScheduler monitorCheckScheduler;
+    private final MonitorAlertEvaluator monitorAlertEvaluator;
+    private final MonitorStatisticsService monitorStatisticsService;
+    private final MonitorRetentionService monitorRetentionService;
+    private final MonitorSlaService monitorSlaService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** 偏移分页允许的最大偏移量，更深的分页需使用游标 */
+    @Value("${monitor.search.max-offset:10000}")
+    private int maxSearchOffset;
+
+    /** 条件查询单页最大记录数 */
+    @Value("${monitor.search.max-page-size:500}")
+    private int maxSearchPageSize;
 
     @Override
     @Transactional
@@ -44,6 +94,8 @@ public class ResourceMonitorServiceImpl implements ResourceMonitorService {
         monitor.setCreatorId(creatorId);
         
         ResourceMonitor savedMonitor = resourceMonitorRepository.save(monitor);
+        appendSample(savedMonitor);
+        publishChanged(ResourceMonitorChangedEvent.ChangeType.CREATED, savedMonitor);
         log.info("创建资源监控成功: 类型={}, 目标类型={}, 目标ID={}", 
                 request.getMonitorType(), request.getTargetType(), request.getTargetId());
         
@@ -61,6 +113,8 @@ public class ResourceMonitorServiceImpl implements ResourceMonitorService {
         monitor.setLastUpdaterId(updaterId);
         
         ResourceMonitor updatedMonitor = resourceMonitorRepository.save(monitor);
+        appendSample(updatedMonitor);
+        publishChanged(ResourceMonitorChangedEvent.ChangeType.UPDATED, updatedMonitor);
         log.info("更新资源监控成功: ID={}", id);
         
         return resourceMonitorMapper.toResponse(updatedMonitor);
@@ -73,6 +127,7 @@ public class ResourceMonitorServiceImpl implements ResourceMonitorService {
                 .orElseThrow(() -> new BusinessException(30002, "监控项不存在"));
         
         resourceMonitorRepository.delete(monitor);
+        publishChanged(ResourceMonitorChangedEvent.ChangeType.DELETED, monitor);
         log.info("删除资源监控成功: ID={}", id);
     }
 
@@ -90,12 +145,46 @@ public class ResourceMonitorServiceImpl implements ResourceMonitorService {
     }
 
     @Override
-    public Page<ResourceMonitorResponse> search(String monitorType, String targetType, Long targetId, 
-                                               Integer status, Boolean isEnabled, LocalDateTime startTime, 
-                                               LocalDateTime endTime, Pageable pageable) {
-        // 简化实现：使用Repository的默认分页查询
-        Page<ResourceMonitor> monitors = resourceMonitorRepository.findAll(pageable);
-        return monitors.map(resourceMonitorMapper::toResponse);
+    public Page<ResourceMonitorSummaryResponse> search(String monitorType, String targetType, Long targetId, 
+                                                      Integer status, Boolean isEnabled, LocalDateTime startTime, 
+                                                      LocalDateTime endTime, Pageable pageable) {
+        int size = Math.min(pageable.getPageSize(), maxSearchPageSize);
+        long offset = (long) pageable.getPageNumber() * size;
+        if (offset + size > maxSearchOffset) {
+            throw new BusinessException(30008, "分页过深，请使用游标分页查询");
+        }
+        Sort.Order order = searchOrder(pageable.getSort().stream().findFirst()
+                .orElse(Sort.Order.desc(DEFAULT_SEARCH_SORT)));
+        Sort sort = searchSort(order);
+        Specification<ResourceMonitor> spec = ResourceMonitorSpecifications.filter(
+                monitorType, targetType, targetId, status, isEnabled, startTime, endTime);
+        List<ResourceMonitorSummaryResponse> content = resourceMonitorRepository.findSummaries(spec, sort, offset, size);
+        return PageableExecutionUtils.getPage(content, PageRequest.of(pageable.getPageNumber(), size, sort),
+                () -> resourceMonitorRepository.count(spec));
+    }
+
+    @Override
+    public CursorPageResult<ResourceMonitorSummaryResponse> searchByCursor(String monitorType, String targetType,
+                                                                          Long targetId, Integer status, Boolean isEnabled,
+                                                                          LocalDateTime startTime, LocalDateTime endTime,
+                                                                          String cursor, int size, String sort,
+                                                                          String direction) {
+        int pageSize = Math.max(1, Math.min(size, maxSearchPageSize));
+        Sort.Order order = searchOrder(new Sort.Order(
+                "asc".equalsIgnoreCase(direction) ? Sort.Direction.ASC : Sort.Direction.DESC, sort));
+        Specification<ResourceMonitor> spec = ResourceMonitorSpecifications.filter(
+                monitorType, targetType, targetId, status, isEnabled, startTime, endTime);
+        if (cursor != null && !cursor.isEmpty()) {
+            spec = spec.and(afterCursor(cursor, order));
+        }
+        // 多取一条判断是否有下一页，不执行COUNT
+        List<ResourceMonitorSummaryResponse> rows = resourceMonitorRepository.findSummaries(
+                spec, searchSort(order), 0, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return CursorPageResult.of(rows, pageSize, null);
+        }
+        List<ResourceMonitorSummaryResponse> items = new ArrayList<>(rows.subList(0, pageSize));
+        return CursorPageResult.of(items, pageSize, encodeCursor(order, items.get(pageSize - 1)));
     }
 
     @Override
@@ -119,6 +208,7 @@ public class ResourceMonitorServiceImpl implements ResourceMonitorService {
         }
         
         resourceMonitorRepository.saveAll(monitors);
+        monitors.forEach(monitor -> publishChanged(ResourceMonitorChangedEvent.ChangeType.UPDATED, monitor));
         log.info("批量更新资源监控状态成功: 数量={}, 状态={}", monitors.size(), status);
     }
 
@@ -133,64 +223,69 @@ public class ResourceMonitorServiceImpl implements ResourceMonitorService {
         monitor.setLastUpdaterId(updaterId);
         
         resourceMonitorRepository.save(monitor);
+        publishChanged(ResourceMonitorChangedEvent.ChangeType.UPDATED, monitor);
         log.info("{}资源监控: ID={}", isEnabled ? "启用" : "禁用", id);
     }
 
     @Override
-    @Transactional
     public void executeMonitorCheck() {
-        LocalDateTime checkTime = LocalDateTime.now().minusMinutes(5);
-        List<ResourceMonitor> monitors = resourceMonitorRepository.findMonitorsNeedCheck(checkTime);
-        
-        for (ResourceMonitor monitor : monitors) {
-            // 模拟监控检查逻辑
-            monitor.setLastCheckTime(LocalDateTime.now());
-            
-            // 这里应该实现实际的监控检查逻辑
-            // 例如：调用API检查服务状态、检查资源使用率等
-            
-            resourceMonitorRepository.save(monitor);
-        }
-        
-        log.info("执行监控检查完成: 检查数量={}", monitors.size());
+        // 检查由调度器异步执行，结果批量写回，这里只负责立即触发本节点负责的监控项
+        int triggered = monitorCheckScheduler.triggerAll();
+        log.info("触发监控检查完成: 检查数量={}", triggered);
+    }
+
+    @Override
+    public Map<String, Object> getCheckSchedulerStatus() {
+        return monitorCheckScheduler.getStatus();
     }
 
     @Override
     public Map<String, Object> getMonitorStatistics() {
-        // 简化实现：返回基本统计信息
-        return Map.of(
-                "totalCount", resourceMonitorRepository.count(),
-                "enabledCount", resourceMonitorRepository.countByIsEnabled(true),
-                "warningCount", resourceMonitorRepository.countByStatus(1),
-                "criticalCount", resourceMonitorRepository.countByStatus(2)
-        );
+        return monitorStatisticsService.getStatistics();
     }
 
     @Override
-    public Map<String, Map<Integer, Long>> getStatusDistribution() {
-        // 简化实现：返回状态分布
-        return Map.of(
-                "monitorType", Map.of(
-                        0, resourceMonitorRepository.countByStatus(0),
-                        1, resourceMonitorRepository.countByStatus(1),
-                        2, resourceMonitorRepository.countByStatus(2)
-                )
-        );
+    public Map<String, Map<String, Map<Integer, Long>>> getStatusDistribution() {
+        return monitorStatisticsService.getStatusDistribution();
     }
 
     @Override
     public List<Map<String, Object>> getMonitorTrend(String monitorType, String targetType, 
-                                                    LocalDateTime startTime, LocalDateTime endTime) {
-        // 简化实现：返回趋势数据
-        return List.of(
-                Map.of("timestamp", startTime, "value", 95.5),
-                Map.of("timestamp", endTime, "value", 96.2)
-        );
+                                                    LocalDateTime startTime, LocalDateTime endTime, Integer points) {
+        if (!endTime.isAfter(startTime)) {
+            throw new BusinessException(30003, "结束时间必须晚于开始时间");
+        }
+        int pointCount = points == null || points <= 0 ? DEFAULT_TREND_POINTS : Math.min(points, MAX_TREND_POINTS);
+        int[] seriesIds = monitorTimeSeriesService.findSeries(monitorType, targetType);
+        MonitorTimeSeriesService.BucketAggregate aggregate = monitorTimeSeriesService.trend(
+                seriesIds, toEpochMilli(startTime), toEpochMilli(endTime), pointCount);
+        
+        List<Map<String, Object>> trend = new ArrayList<>();
+        for (int i = 0; i < aggregate.size(); i++) {
+            long count = aggregate.count()[i];
+            if (count == 0) {
+                continue;
+            }
+            trend.add(Map.of(
+                    "timestamp", toLocalDateTime(aggregate.bucketStart(i)),
+                    "value", aggregate.sum()[i] / count,
+                    "min", aggregate.min()[i],
+                    "max", aggregate.max()[i],
+                    "p95", aggregate.p95()[i],
+                    "count", count
+            ));
+        }
+        return trend;
     }
 
     @Override
     public List<ResourceMonitorResponse> getAlerts() {
-        List<ResourceMonitor> alerts = resourceMonitorRepository.findWarningOrCriticalMonitors();
+        // 告警状态由评估器在样本到达时增量维护，这里只按ID加载当前告警中的监控项
+        List<Long> alertingIds = monitorAlertEvaluator.alertingMonitorIds();
+        if (alertingIds.isEmpty()) {
+            return List.of();
+        }
+        List<ResourceMonitor> alerts = resourceMonitorRepository.findAllById(alertingIds);
         return resourceMonitorMapper.toResponseList(alerts);
     }
 
@@ -211,17 +306,110 @@ public class ResourceMonitorServiceImpl implements ResourceMonitorService {
         monitor.setLastUpdaterId(handlerId);
         
         resourceMonitorRepository.save(monitor);
+        publishChanged(ResourceMonitorChangedEvent.ChangeType.UPDATED, monitor);
         log.info("处理监控告警成功: ID={}, 操作={}", id, action);
     }
 
     @Override
-    @Transactional
-    public void cleanupExpiredData(LocalDateTime beforeTime) {
-        List<ResourceMonitor> expiredData = resourceMonitorRepository.findByMonitorTimestampBefore(beforeTime);
-        
-        if (!expiredData.isEmpty()) {
-            resourceMonitorRepository.deleteAll(expiredData);
-            log.info("清理过期监控数据成功: 数量={}", expiredData.size());
+    public Map<String, Object> getSla(Long id, LocalDateTime startTime, LocalDateTime endTime) {
+        if (!resourceMonitorRepository.existsById(id)) {
+            throw new BusinessException(30002, "监控项不存在");
+        }
+        if (!endTime.isAfter(startTime)) {
+            throw new BusinessException(30003, "结束时间必须晚于开始时间");
         }
+        return monitorSlaService.getSla(id, startTime, endTime);
+    }
+
+    @Override
+    public Map<String, Object> cleanupExpiredData(LocalDateTime beforeTime) {
+        return monitorRetentionService.purge(beforeTime);
+    }
+
+    @Override
+    public Map<String, Object> getCleanupStatus() {
+        return monitorRetentionService.getStatus();
+    }
+
+    /**
+     * 校验排序列，只允许有索引的非空列
+     */
+    private Sort.Order searchOrder(Sort.Order order) {
+        if (!SEARCH_SORT_PROPERTIES.contains(order.getProperty())) {
+            throw new BusinessException(30007, "不支持的排序字段: " + order.getProperty());
+        }
+        return order;
+    }
+
+    /**
+     * 排序列相同的记录再按ID排序，保证顺序稳定，也是键集分页的游标
+     */
+    private static Sort searchSort(Sort.Order order) {
+        if ("id".equals(order.getProperty())) {
+            return Sort.by(order);
+        }
+        return Sort.by(order, new Sort.Order(order.getDirection(), "id"));
+    }
+
+    /**
+     * 游标格式：Base64URL(排序列|方向|排序列值|ID)
+     */
+    private static String encodeCursor(Sort.Order order, ResourceMonitorSummaryResponse last) {
+        Object value = switch (order.getProperty()) {
+            case "monitorTimestamp" -> last.getMonitorTimestamp();
+            case "createdTime" -> last.getCreatedTime();
+            default -> last.getId();
+        };
+        String raw = order.getProperty() + "|" + order.getDirection() + "|" + value + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Specification<ResourceMonitor> afterCursor(String cursor, Sort.Order order) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(30007, "无效的分页游标");
+        }
+        if (parts.length != 4 || !parts[0].equals(order.getProperty())
+                || !parts[1].equals(order.getDirection().name())) {
+            throw new BusinessException(30007, "分页游标与排序条件不一致");
+        }
+        try {
+            Long id = Long.valueOf(parts[3]);
+            if ("id".equals(order.getProperty())) {
+                return ResourceMonitorSpecifications.after("id", order.getDirection(), id, id);
+            }
+            return ResourceMonitorSpecifications.after(order.getProperty(), order.getDirection(),
+                    LocalDateTime.parse(parts[2]), id);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new BusinessException(30007, "无效的分页游标");
+        }
+    }
+
+    /**
+     * 发布监控项变更事件
+     */
+    private void publishChanged(ResourceMonitorChangedEvent.ChangeType changeType, ResourceMonitor monitor) {
+        eventPublisher.publishEvent(new ResourceMonitorChangedEvent(this, changeType, monitor));
+    }
+
+    /**
+     * 将监控项携带的指标值写入时序存储
+     */
+    private void appendSample(ResourceMonitor monitor) {
+        if (monitor.getMetricValue() == null || monitor.getMonitorTimestamp() == null) {
+            return;
+        }
+        monitorTimeSeriesService.append(monitor.getMonitorType(), monitor.getTargetType(), monitor.getTargetId(),
+                toEpochMilli(monitor.getMonitorTimestamp()), monitor.getMetricValue().doubleValue());
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault());
     }
 }
\ No newline at end of file
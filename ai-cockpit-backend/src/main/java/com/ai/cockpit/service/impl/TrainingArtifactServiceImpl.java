@@ -0,0 +1,455 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.exception.BusinessException;
+import com.ai.cockpit.service.ArtifactStorageBackend;
+import com.ai.cockpit.service.ArtifactStorageBackend.StoredObject;
+import com.ai.cockpit.service.TrainingArtifactService;
+import com.ai.cockpit.util.ContentDefinedChunker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 训练产物存储服务实现类
+ * <p>
+ * 对象布局：chunks/{哈希前两位}/{SHA-256}保存块内容，manifests/{任务ID}/{检查点名称}.json保存清单。
+ * 导入时逐个文件做内容分块，块哈希先查本地已知集合（LRU），再查后端，都不存在时才写入；
+ * 块写入直接从源文件区间复制，本地后端使用FileChannel.transferTo。清单在所有块写入后最后写入，
+ * 清单存在即表示检查点完整。
+ * 清理为标记-清除：读取全部清单标记引用的块，删除未被引用且最后修改时间早于宽限期的块；
+ * 本节点的导入与清理互斥。复用已有的块时刷新其修改时间（半个宽限期内刷新过的不再重复刷新），
+ * 写入清单前再确认复用的块仍然存在，被其他节点清理掉的块重新导入补写。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrainingArtifactServiceImpl implements TrainingArtifactService {
+
+    private static final String CHUNK_PREFIX = "chunks/";
+
+    private static final String MANIFEST_PREFIX = "manifests/";
+
+    private static final String MANIFEST_SUFFIX = ".json";
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,127}");
+
+    private final ArtifactStorageBackend backend;
+    private final ObjectMapper objectMapper;
+
+    @Value("${training.artifact.chunk.min-size:262144}")
+    private int minChunkSize;
+
+    @Value("${training.artifact.chunk.avg-size:1048576}")
+    private int avgChunkSize;
+
+    @Value("${training.artifact.chunk.max-size:4194304}")
+    private int maxChunkSize;
+
+    /** 通过接口导入时允许读取的目录 */
+    @Value("${training.artifact.import-dir:data/training-outputs}")
+    private String importDir;
+
+    /** 已知存在的块哈希缓存条数 */
+    @Value("${training.artifact.known-chunks:200000}")
+    private int knownChunkCapacity;
+
+    /** 未被引用的块至少保留多久（毫秒）才会被清理 */
+    @Value("${training.artifact.gc-grace:86400000}")
+    private long gcGrace;
+
+    @Value("${training.artifact.async-queue:64}")
+    private int asyncQueueCapacity;
+
+    private ContentDefinedChunker chunker;
+
+    /** 块哈希 -> 最近一次写入或刷新修改时间的时刻（毫秒） */
+    private Map<String, Long> knownChunks;
+
+    private ThreadPoolExecutor importer;
+
+    private final ReentrantReadWriteLock gcLock = new ReentrantReadWriteLock();
+
+    private final LongAdder logicalBytes = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+    private final LongAdder totalChunks = new LongAdder();
+    private final LongAdder newChunks = new LongAdder();
+    private final LongAdder checkpoints = new LongAdder();
+    private final LongAdder collectedChunks = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        chunker = new ContentDefinedChunker(minChunkSize, avgChunkSize, maxChunkSize);
+        int capacity = knownChunkCapacity;
+        knownChunks = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > capacity;
+            }
+        });
+        importer = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(asyncQueueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "training-artifact-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("训练产物存储后端：{}，分块大小：{}/{}/{}", backend.getName(), minChunkSize, avgChunkSize, maxChunkSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importer.shutdown();
+    }
+
+    @Override
+    public Map<String, Object> storeCheckpoint(Long taskId, String name, Path source) {
+        checkName(name);
+        Path root = source.toAbsolutePath().normalize();
+        if (!Files.exists(root)) {
+            throw new BusinessException("检查点路径不存在");
+        }
+        long started = System.currentTimeMillis();
+        Manifest manifest;
+        gcLock.readLock().lock();
+        try {
+            Set<String> reused = new HashSet<>();
+            manifest = ingest(taskId, name, root, reused);
+            if (!stillStored(reused)) {
+                reused.clear();
+                manifest = ingest(taskId, name, root, reused);
+                if (!stillStored(reused)) {
+                    throw new IOException("复用的块在导入期间被清理");
+                }
+            }
+            backend.put(manifestKey(taskId, name), objectMapper.writeValueAsBytes(manifest));
+        } catch (IOException e) {
+            log.error("导入检查点失败，任务ID：{}，检查点：{}", taskId, name, e);
+            throw new BusinessException("导入检查点失败");
+        } finally {
+            gcLock.readLock().unlock();
+        }
+        checkpoints.increment();
+        logicalBytes.add(manifest.logicalBytes());
+        storedBytes.add(manifest.storedBytes());
+        newChunks.add(manifest.newChunkCount());
+        totalChunks.add(manifest.chunkCount());
+        log.info("检查点已导入，任务ID：{}，检查点：{}，{}个文件，{}字节，新写入{}字节（{}/{}块），耗时{}毫秒",
+                taskId, name, manifest.files().size(), manifest.logicalBytes(), manifest.storedBytes(),
+                manifest.newChunkCount(), manifest.chunkCount(), System.currentTimeMillis() - started);
+        return summary(manifest);
+    }
+
+    @Override
+    public void storeCheckpointAsync(Long taskId, String name, Path source) {
+        try {
+            importer.execute(() -> {
+                try {
+                    storeCheckpoint(taskId, name, source);
+                } catch (BusinessException e) {
+                    log.warn("检查点导入失败，任务ID：{}，检查点：{}，原因：{}", taskId, name, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("检查点导入队列已满，丢弃任务ID：{}，检查点：{}", taskId, name);
+        }
+    }
+
+    @Override
+    public Map<String, Object> importCheckpoint(Long taskId, String name, String relativePath) {
+        Path base = Paths.get(importDir).toAbsolutePath().normalize();
+        Path source = base.resolve(relativePath == null ? "" : relativePath).normalize();
+        if (!source.startsWith(base)) {
+            throw new BusinessException("检查点路径必须位于导入目录内");
+        }
+        return storeCheckpoint(taskId, name, source);
+    }
+
+    @Override
+    public List<Map<String, Object>> listCheckpoints(Long taskId) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        try {
+            List<StoredObject> objects = backend.list(MANIFEST_PREFIX + taskId + "/");
+            objects.sort(Comparator.comparingLong(StoredObject::lastModified));
+            for (StoredObject object : objects) {
+                result.add(summary(readManifest(object.key())));
+            }
+        } catch (IOException e) {
+            log.error("读取检查点列表失败，任务ID：{}", taskId, e);
+            throw new BusinessException("读取检查点列表失败");
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getCheckpoint(Long taskId, String name) {
+        Manifest manifest = loadManifest(taskId, name);
+        Map<String, Object> result = summary(manifest);
+        List<Map<String, Object>> files = new ArrayList<>();
+        for (FileEntry file : manifest.files()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("path", file.path());
+            item.put("size", file.size());
+            item.put("chunks", file.chunks().size());
+            files.add(item);
+        }
+        result.put("files", files);
+        return result;
+    }
+
+    @Override
+    public long getFileSize(Long taskId, String name, String file) {
+        return findFile(loadManifest(taskId, name), file).size();
+    }
+
+    @Override
+    public void writeFile(Long taskId, String name, String file, WritableByteChannel target) {
+        FileEntry entry = findFile(loadManifest(taskId, name), file);
+        try {
+            for (ChunkRef chunk : entry.chunks()) {
+                long written = backend.transferTo(chunkKey(chunk.hash()), target);
+                if (written != chunk.length()) {
+                    throw new IOException("块长度不符: " + chunk.hash());
+                }
+            }
+        } catch (IOException e) {
+            log.error("读取检查点文件失败，任务ID：{}，检查点：{}，文件：{}", taskId, name, entry.path(), e);
+            throw new BusinessException("读取检查点文件失败");
+        }
+    }
+
+    @Override
+    public void deleteTask(Long taskId) {
+        try {
+            for (StoredObject object : backend.list(MANIFEST_PREFIX + taskId + "/")) {
+                backend.delete(object.key());
+            }
+        } catch (IOException e) {
+            log.error("删除检查点清单失败，任务ID：{}", taskId, e);
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${training.artifact.gc-interval:21600000}",
+            fixedDelayString = "${training.artifact.gc-interval:21600000}")
+    public int collectGarbage() {
+        gcLock.writeLock().lock();
+        try {
+            Set<String> referenced = new HashSet<>();
+            for (StoredObject object : backend.list(MANIFEST_PREFIX)) {
+                for (FileEntry file : readManifest(object.key()).files()) {
+                    file.chunks().forEach(chunk -> referenced.add(chunk.hash()));
+                }
+            }
+            long cutoff = System.currentTimeMillis() - gcGrace;
+            int deleted = 0;
+            for (StoredObject object : backend.list(CHUNK_PREFIX)) {
+                String hash = object.key().substring(object.key().lastIndexOf('/') + 1);
+                if (!referenced.contains(hash) && object.lastModified() < cutoff) {
+                    knownChunks.remove(hash);
+                    backend.delete(object.key());
+                    deleted++;
+                }
+            }
+            collectedChunks.add(deleted);
+            if (deleted > 0) {
+                log.info("清理未引用的检查点块{}个，仍被引用{}个", deleted, referenced.size());
+            }
+            return deleted;
+        } catch (IOException | RuntimeException e) {
+            // 任何清单读取失败都放弃本轮清理，避免误删仍被引用的块
+            log.error("清理检查点块失败", e);
+            return 0;
+        } finally {
+            gcLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        long logical = logicalBytes.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("backend", backend.getName());
+        stats.put("checkpoints", checkpoints.sum());
+        stats.put("logicalBytes", logical);
+        stats.put("storedBytes", storedBytes.sum());
+        stats.put("chunks", totalChunks.sum());
+        stats.put("newChunks", newChunks.sum());
+        stats.put("dedupRatio", logical == 0 ? null : 1 - (double) storedBytes.sum() / logical);
+        stats.put("collectedChunks", collectedChunks.sum());
+        stats.put("pendingImports", importer.getQueue().size());
+        return stats;
+    }
+
+    /**
+     * 分块写入检查点文件，复用的已有块记录到reused
+     */
+    private Manifest ingest(Long taskId, String name, Path root, Set<String> reused) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.isRegularFile(root, LinkOption.NOFOLLOW_LINKS)) {
+            files.add(root);
+        } else {
+            try (Stream<Path> walk = Files.walk(root)) {
+                walk.filter(path -> Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS)).sorted().forEach(files::add);
+            }
+        }
+        List<FileEntry> entries = new ArrayList<>(files.size());
+        long[] counters = new long[4];
+        for (Path file : files) {
+            String path = file.equals(root) ? file.getFileName().toString() : root.relativize(file).toString().replace('\\', '/');
+            List<ChunkRef> chunks = new ArrayList<>();
+            long size;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                size = chunker.split(channel, (offset, length, sha256) -> {
+                    String hash = HexFormat.of().formatHex(sha256);
+                    if (reuse(hash)) {
+                        reused.add(hash);
+                    } else {
+                        backend.put(chunkKey(hash), channel, offset, length);
+                        knownChunks.put(hash, System.currentTimeMillis());
+                        counters[0] += length;
+                        counters[1]++;
+                    }
+                    counters[2]++;
+                    chunks.add(new ChunkRef(hash, length));
+                });
+            } catch (NoSuchFileException e) {
+                // 导入过程中被删除的临时文件
+                continue;
+            }
+            counters[3] += size;
+            entries.add(new FileEntry(path, size, chunks));
+        }
+        return new Manifest(taskId, name, System.currentTimeMillis(), counters[3], counters[0],
+                (int) counters[2], (int) counters[1], entries);
+    }
+
+    /**
+     * 块已存在时刷新其修改时间并返回true，半个宽限期内写入或刷新过的块不再访问后端
+     */
+    private boolean reuse(String hash) throws IOException {
+        long now = System.currentTimeMillis();
+        Long touched = knownChunks.get(hash);
+        if (touched != null && now - touched < gcGrace / 2) {
+            return true;
+        }
+        if (backend.touch(chunkKey(hash))) {
+            knownChunks.put(hash, now);
+            return true;
+        }
+        knownChunks.remove(hash);
+        return false;
+    }
+
+    /**
+     * 确认复用的块仍然存在，其他节点可能在刷新修改时间之前已选中并删除了它
+     */
+    private boolean stillStored(Set<String> hashes) throws IOException {
+        boolean stored = true;
+        for (String hash : hashes) {
+            if (!backend.exists(chunkKey(hash))) {
+                knownChunks.remove(hash);
+                stored = false;
+            }
+        }
+        return stored;
+    }
+
+    private Manifest loadManifest(Long taskId, String name) {
+        checkName(name);
+        try {
+            return readManifest(manifestKey(taskId, name));
+        } catch (NoSuchFileException e) {
+            throw new BusinessException("检查点不存在");
+        } catch (IOException e) {
+            log.error("读取检查点清单失败，任务ID：{}，检查点：{}", taskId, name, e);
+            throw new BusinessException("读取检查点清单失败");
+        }
+    }
+
+    private Manifest readManifest(String key) throws IOException {
+        return objectMapper.readValue(backend.get(key), Manifest.class);
+    }
+
+    private static FileEntry findFile(Manifest manifest, String file) {
+        if (file == null || file.isBlank()) {
+            if (manifest.files().size() != 1) {
+                throw new BusinessException("检查点包含多个文件，请指定文件路径");
+            }
+            return manifest.files().get(0);
+        }
+        return manifest.files().stream().filter(entry -> entry.path().equals(file)).findFirst()
+                .orElseThrow(() -> new BusinessException("检查点文件不存在"));
+    }
+
+    private static Map<String, Object> summary(Manifest manifest) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("taskId", manifest.taskId());
+        summary.put("name", manifest.name());
+        summary.put("createdAt", manifest.createdAt());
+        summary.put("fileCount", manifest.files().size());
+        summary.put("logicalBytes", manifest.logicalBytes());
+        summary.put("storedBytes", manifest.storedBytes());
+        summary.put("chunkCount", manifest.chunkCount());
+        summary.put("newChunkCount", manifest.newChunkCount());
+        return summary;
+    }
+
+    private static void checkName(String name) {
+        if (name == null || !NAME_PATTERN.matcher(name).matches()) {
+            throw new BusinessException("检查点名称只能包含字母、数字、点、下划线和连字符，且不超过128个字符");
+        }
+    }
+
+    private static String chunkKey(String hash) {
+        return CHUNK_PREFIX + hash.substring(0, 2) + "/" + hash;
+    }
+
+    private static String manifestKey(Long taskId, String name) {
+        return MANIFEST_PREFIX + taskId + "/" + name + MANIFEST_SUFFIX;
+    }
+
+    /**
+     * 检查点清单
+     *
+     * @param storedBytes 导入时新写入的字节数
+     */
+    public record Manifest(Long taskId, String name, long createdAt, long logicalBytes, long storedBytes,
+                           int chunkCount, int newChunkCount, List<FileEntry> files) {
+    }
+
+    public record FileEntry(String path, long size, List<ChunkRef> chunks) {
+    }
+
+    public record ChunkRef(String hash, int length) {
+    }
+}
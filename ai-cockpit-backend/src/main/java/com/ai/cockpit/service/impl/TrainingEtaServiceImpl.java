@@ -0,0 +1,508 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.entity.TrainingTaskStatus;
+import com.ai.cockpit.event.TrainingTaskDeltaEvent;
+import com.ai.cockpit.exception.BusinessException;
+import com.ai.cockpit.service.TrainingEtaService;
+import com.ai.cockpit.util.TheilSen;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 训练预计完成时间与队列预测服务实现类
+ * <p>
+ * 每个运行中的任务保留最近window个“进度首次达到某值”的时间点，拟合进度-时间直线，
+ * 预计完成时间为最后一个样本的拟合进度推进到100%的时刻。样本不足min-samples个时按历史估计：
+ * 同类型任务的单位工作量耗时中位数×本任务工作量（数据条数×epoch数），没有工作量时取同类型时长中位数，
+ * 再退化为全部任务的中位数。预计时间在内存中更新，变化超过min-change（毫秒）的按flush-interval批量写回，
+ * 写回不递增version。
+ * 队列预测按优先级、入队时间顺序近似执行器的公平调度，把排队任务依次放到最早空闲的并发名额上。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrainingEtaServiceImpl implements TrainingEtaService {
+
+    private static final String HISTORY_SQL = "SELECT t.task_type, t.duration, t.total_epochs, d.data_count FROM training_task t "
+            + "LEFT JOIN dataset d ON d.id = t.dataset_id WHERE t.status = 2 AND t.duration > 0 ORDER BY t.end_time DESC LIMIT ?";
+
+    private static final String TASK_SQL = "SELECT t.id, t.status, t.task_type, t.total_epochs, t.start_time, t.priority, "
+            + "t.queued_time, d.data_count FROM training_task t LEFT JOIN dataset d ON d.id = t.dataset_id WHERE t.id = ?";
+
+    private static final String ACTIVE_SQL = "SELECT t.id, t.status, t.task_type, t.total_epochs, t.start_time, t.priority, "
+            + "t.queued_time, d.data_count FROM training_task t LEFT JOIN dataset d ON d.id = t.dataset_id WHERE t.status IN (1, 5)";
+
+    private static final String ETA_SQL = "UPDATE training_task SET estimated_end_time = ? WHERE id = ? AND status = 1";
+
+    private static final Comparator<ActiveTask> QUEUE_ORDER = Comparator.comparingInt(ActiveTask::priority).reversed()
+            .thenComparingLong(ActiveTask::queuedAt)
+            .thenComparingLong(ActiveTask::id);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** 参与回归的最近样本数 */
+    @Value("${training.eta.window:32}")
+    private int window;
+
+    /** 使用推进速度估计所需的最少样本数 */
+    @Value("${training.eta.min-samples:3}")
+    private int minSamples;
+
+    /** 预计时间变化超过该值（毫秒）才写回 */
+    @Value("${training.eta.min-change:30000}")
+    private long minChange;
+
+    /** 参与历史估计的最近完成任务数 */
+    @Value("${training.eta.history-size:2000}")
+    private int historySize;
+
+    /** 按任务类型估计所需的最少历史任务数 */
+    @Value("${training.eta.min-history:3}")
+    private int minHistory;
+
+    @Value("${training.executor.enabled:true}")
+    private boolean executorEnabled;
+
+    @Value("${training.executor.max-running:2}")
+    private int maxRunning;
+
+    private final ConcurrentHashMap<Long, Track> tracks = new ConcurrentHashMap<>();
+
+    private volatile History history = History.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refreshHistory();
+    }
+
+    @Scheduled(initialDelayString = "${training.eta.history-refresh:600000}",
+            fixedDelayString = "${training.eta.history-refresh:600000}")
+    public void refreshHistory() {
+        Map<String, List<double[]>> byType = new HashMap<>();
+        List<double[]> all = new ArrayList<>();
+        try {
+            jdbcTemplate.query(HISTORY_SQL, rs -> {
+                double[] sample = {rs.getLong(2), work((Number) rs.getObject(4), (Number) rs.getObject(3))};
+                all.add(sample);
+                String taskType = rs.getString(1);
+                if (taskType != null) {
+                    byType.computeIfAbsent(taskType, k -> new ArrayList<>()).add(sample);
+                }
+            }, historySize);
+        } catch (DataAccessException e) {
+            log.warn("加载训练历史时长失败: {}", e.getMessage());
+            return;
+        }
+        Map<String, Double> rateByType = new HashMap<>();
+        Map<String, Double> durationByType = new HashMap<>();
+        byType.forEach((taskType, samples) -> {
+            if (samples.size() >= minHistory) {
+                durationByType.put(taskType, medianDuration(samples));
+                double rate = medianRate(samples);
+                if (!Double.isNaN(rate)) {
+                    rateByType.put(taskType, rate);
+                }
+            }
+        });
+        history = new History(rateByType, durationByType, medianRate(all),
+                all.isEmpty() ? Double.NaN : medianDuration(all), all.size());
+        // 历史变化后刷新尚无足够样本的任务
+        tracks.values().forEach(track -> {
+            synchronized (track) {
+                track.recompute();
+            }
+        });
+        log.debug("训练历史时长已刷新，样本数：{}，任务类型数：{}", all.size(), durationByType.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDelta(TrainingTaskDeltaEvent event) {
+        Long taskId = event.getTaskId();
+        if (event.getStatus() != null) {
+            TrainingTaskStatus status = TrainingTaskStatus.of(event.getStatus());
+            if (status.isTerminal()) {
+                tracks.remove(taskId);
+            } else if (status == TrainingTaskStatus.RUNNING) {
+                track(taskId, true);
+            }
+            return;
+        }
+        if (event.getProgress() == null) {
+            return;
+        }
+        Track track = track(taskId, false);
+        if (track != null) {
+            synchronized (track) {
+                track.add(event.getUpdatedAt(), event.getProgress());
+                track.recompute();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${training.eta.flush-interval:5000}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        List<Track> flushed = new ArrayList<>();
+        for (Track track : tracks.values()) {
+            synchronized (track) {
+                if (track.dirty && track.eta != null) {
+                    batch.add(new Object[]{new Timestamp(track.eta), track.taskId});
+                    flushed.add(track);
+                }
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(ETA_SQL, batch);
+        } catch (DataAccessException e) {
+            log.warn("写回训练预计完成时间失败，{}个任务，下次重试: {}", batch.size(), e.getMessage());
+            return;
+        }
+        for (int i = 0; i < flushed.size(); i++) {
+            Track track = flushed.get(i);
+            long written = ((Timestamp) batch.get(i)[0]).getTime();
+            synchronized (track) {
+                track.written = written;
+                track.dirty = track.eta != null && Math.abs(track.eta - written) >= minChange;
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> getEta(Long taskId) {
+        List<ActiveTask> rows = jdbcTemplate.query(TASK_SQL, this::activeTask, taskId);
+        if (rows.isEmpty()) {
+            throw new BusinessException("训练任务不存在");
+        }
+        ActiveTask task = rows.get(0);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("taskId", taskId);
+        result.put("status", task.status());
+        if (task.status() == TrainingTaskStatus.RUNNING.getCode()) {
+            Track track = track(taskId, true);
+            synchronized (track) {
+                result.put("estimatedEndTime", toLocalDateTime(track.eta));
+                result.put("source", track.source);
+                result.put("samples", track.size);
+                result.put("progressPerHour", Double.isNaN(track.slope) ? null : track.slope * 3600_000);
+                result.put("remainingSeconds", track.eta == null ? null : Math.max(0, (track.eta - System.currentTimeMillis()) / 1000));
+            }
+        } else if (task.status() == TrainingTaskStatus.QUEUED.getCode()) {
+            Map<String, Object> forecast = forecastQueue();
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> queued = (List<Map<String, Object>>) forecast.get("queued");
+            queued.stream().filter(item -> taskId.equals(item.get("taskId"))).findFirst().ifPresent(item -> {
+                result.put("estimatedStartTime", item.get("estimatedStartTime"));
+                result.put("estimatedEndTime", item.get("estimatedEndTime"));
+                result.put("queuePosition", item.get("position"));
+            });
+            result.put("source", "queue");
+        } else {
+            result.put("estimatedEndTime", null);
+            result.put("source", null);
+        }
+        Double predicted = history.predict(task.taskType(), task.work());
+        result.put("predictedDurationSeconds", predicted == null ? null : Math.round(predicted));
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> forecastQueue() {
+        long now = System.currentTimeMillis();
+        List<ActiveTask> active = jdbcTemplate.query(ACTIVE_SQL, this::activeTask);
+        History model = history;
+
+        // 各并发名额的空闲时间，结束时间未知的运行任务不释放名额
+        PriorityQueue<Long> slots = new PriorityQueue<>();
+        List<Map<String, Object>> running = new ArrayList<>();
+        List<ActiveTask> queuedTasks = new ArrayList<>();
+        int runningCount = 0;
+        for (ActiveTask task : active) {
+            if (task.status() == TrainingTaskStatus.QUEUED.getCode()) {
+                queuedTasks.add(task);
+                continue;
+            }
+            runningCount++;
+            Long end = runningEnd(task, model, now);
+            if (end != null) {
+                slots.add(Math.max(end, now));
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("taskId", task.id());
+            item.put("estimatedEndTime", toLocalDateTime(end));
+            running.add(item);
+        }
+        for (int i = runningCount; i < maxRunning; i++) {
+            slots.add(now);
+        }
+
+        queuedTasks.sort(QUEUE_ORDER);
+        List<Map<String, Object>> queued = new ArrayList<>();
+        boolean complete = executorEnabled;
+        long drain = slots.isEmpty() ? now : slots.stream().mapToLong(Long::longValue).max().getAsLong();
+        int position = 0;
+        for (ActiveTask task : queuedTasks) {
+            Double predicted = model.predict(task.taskType(), task.work());
+            Long start = complete ? slots.poll() : null;
+            Long end = start == null || predicted == null ? null : start + Math.round(predicted * 1000);
+            if (end == null) {
+                complete = false;
+            } else {
+                slots.add(end);
+                drain = Math.max(drain, end);
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("taskId", task.id());
+            item.put("position", ++position);
+            item.put("predictedDurationSeconds", predicted == null ? null : Math.round(predicted));
+            item.put("estimatedStartTime", toLocalDateTime(start));
+            item.put("estimatedEndTime", toLocalDateTime(end));
+            queued.add(item);
+        }
+        if (running.stream().anyMatch(item -> item.get("estimatedEndTime") == null)) {
+            complete = false;
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("executorEnabled", executorEnabled);
+        result.put("maxRunning", maxRunning);
+        result.put("historySamples", model.samples());
+        result.put("running", running);
+        result.put("queued", queued);
+        // 存在无法估计的任务时只给出已知部分
+        result.put("complete", complete);
+        result.put("drainTime", complete ? toLocalDateTime(drain) : null);
+        result.put("drainSeconds", complete ? Math.max(0, (drain - now) / 1000) : null);
+        return result;
+    }
+
+    private Long runningEnd(ActiveTask task, History model, long now) {
+        Track track = tracks.get(task.id());
+        if (track != null) {
+            synchronized (track) {
+                if (track.eta != null) {
+                    return track.eta;
+                }
+            }
+        }
+        Double predicted = model.predict(task.taskType(), task.work());
+        if (predicted == null) {
+            return null;
+        }
+        long startedAt = task.startedAt() == null ? now : task.startedAt();
+        return Math.max(now, startedAt + Math.round(predicted * 1000));
+    }
+
+    /**
+     * 获取任务的跟踪项，首次访问时加载任务类型、工作量与开始时间
+     */
+    private Track track(Long taskId, boolean create) {
+        Track track = tracks.get(taskId);
+        if (track != null) {
+            return track;
+        }
+        List<ActiveTask> rows = jdbcTemplate.query(TASK_SQL, this::activeTask, taskId);
+        if (rows.isEmpty() || (!create && rows.get(0).status() != TrainingTaskStatus.RUNNING.getCode())) {
+            return null;
+        }
+        ActiveTask task = rows.get(0);
+        Track created = new Track(taskId, task.taskType(), task.work(),
+                task.startedAt() == null ? System.currentTimeMillis() : task.startedAt());
+        track = tracks.putIfAbsent(taskId, created);
+        if (track == null) {
+            track = created;
+            synchronized (track) {
+                track.recompute();
+            }
+        }
+        return track;
+    }
+
+    private ActiveTask activeTask(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp startTime = rs.getTimestamp("start_time");
+        Timestamp queuedTime = rs.getTimestamp("queued_time");
+        return new ActiveTask(rs.getLong("id"), rs.getInt("status"), rs.getString("task_type"),
+                work((Number) rs.getObject("data_count"), (Number) rs.getObject("total_epochs")),
+                startTime == null ? null : startTime.getTime(), rs.getInt("priority"),
+                queuedTime == null ? Long.MAX_VALUE : queuedTime.getTime());
+    }
+
+    /**
+     * 工作量：数据条数×epoch数，数据条数未知时为NaN
+     */
+    private static double work(Number dataCount, Number totalEpochs) {
+        if (dataCount == null || dataCount.longValue() <= 0) {
+            return Double.NaN;
+        }
+        long epochs = totalEpochs == null ? 1 : Math.max(1, totalEpochs.longValue());
+        return dataCount.doubleValue() * epochs;
+    }
+
+    private static double medianDuration(List<double[]> samples) {
+        double[] values = new double[samples.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = samples.get(i)[0];
+        }
+        return TheilSen.median(values, values.length);
+    }
+
+    private double medianRate(List<double[]> samples) {
+        double[] rates = new double[samples.size()];
+        int n = 0;
+        for (double[] sample : samples) {
+            if (!Double.isNaN(sample[1])) {
+                rates[n++] = sample[0] / sample[1];
+            }
+        }
+        return n < minHistory ? Double.NaN : TheilSen.median(rates, n);
+    }
+
+    private static LocalDateTime toLocalDateTime(Long millis) {
+        return millis == null ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private record ActiveTask(long id, int status, String taskType, double work, Long startedAt, int priority, long queuedAt) {
+    }
+
+    /**
+     * 历史时长模型，时长单位为秒
+     *
+     * @param rateByType 各任务类型单位工作量耗时的中位数
+     * @param durationByType 各任务类型时长的中位数
+     */
+    private record History(Map<String, Double> rateByType, Map<String, Double> durationByType,
+                           double globalRate, double globalDuration, int samples) {
+
+        static final History EMPTY = new History(Map.of(), Map.of(), Double.NaN, Double.NaN, 0);
+
+        /**
+         * 预计时长（秒），无法估计时返回null
+         */
+        Double predict(String taskType, double work) {
+            boolean hasWork = !Double.isNaN(work);
+            Double rate = taskType == null ? null : rateByType.get(taskType);
+            if (rate != null && hasWork) {
+                return rate * work;
+            }
+            Double duration = taskType == null ? null : durationByType.get(taskType);
+            if (duration != null) {
+                return duration;
+            }
+            if (!Double.isNaN(globalRate) && hasWork) {
+                return globalRate * work;
+            }
+            return Double.isNaN(globalDuration) ? null : globalDuration;
+        }
+    }
+
+    /**
+     * 运行中任务的进度样本与预计完成时间，访问时对自身加锁
+     */
+    private final class Track {
+
+        final Long taskId;
+        final String taskType;
+        final double work;
+        final long startedAt;
+
+        /** 进度样本环形缓冲：时间（毫秒）与进度 */
+        final long[] times = new long[window];
+        final double[] values = new double[window];
+        int size;
+        int next;
+        double last = -1;
+
+        /** 每毫秒推进的进度，NaN表示未拟合 */
+        double slope = Double.NaN;
+        Long eta;
+        String source;
+        long written = Long.MIN_VALUE;
+        boolean dirty;
+
+        Track(Long taskId, String taskType, double work, long startedAt) {
+            this.taskId = taskId;
+            this.taskType = taskType;
+            this.work = work;
+            this.startedAt = startedAt;
+        }
+
+        /**
+         * 只记录进度首次达到某值的时间，进度回退（如重新开始）时清空样本
+         */
+        void add(long time, double progress) {
+            if (progress < last) {
+                size = 0;
+                next = 0;
+            } else if (progress == last) {
+                return;
+            }
+            last = progress;
+            times[next] = time;
+            values[next] = progress;
+            next = (next + 1) % window;
+            size = Math.min(size + 1, window);
+        }
+
+        void recompute() {
+            Long estimate = null;
+            String estimateSource = null;
+            slope = Double.NaN;
+            if (size >= minSamples) {
+                int first = (next - size + window) % window;
+                long origin = times[first];
+                double[] x = new double[size];
+                double[] y = new double[size];
+                for (int i = 0; i < size; i++) {
+                    int k = (first + i) % window;
+                    x[i] = times[k] - origin;
+                    y[i] = values[k];
+                }
+                double[] fit = TheilSen.fit(x, y, size);
+                if (fit != null && fit[0] > 0) {
+                    slope = fit[0];
+                    double xLast = x[size - 1];
+                    double fitted = Math.min(100, fit[0] * xLast + fit[1]);
+                    estimate = origin + (long) xLast + Math.round((100 - fitted) / fit[0]);
+                    estimateSource = "throughput";
+                }
+            }
+            if (estimate == null) {
+                Double predicted = history.predict(taskType, work);
+                if (predicted != null) {
+                    estimate = Math.max(System.currentTimeMillis(), startedAt + Math.round(predicted * 1000));
+                    estimateSource = "history";
+                }
+            }
+            eta = estimate;
+            source = estimateSource;
+            if (eta != null && (written == Long.MIN_VALUE || Math.abs(eta - written) >= minChange)) {
+                dirty = true;
+            }
+        }
+    }
+}
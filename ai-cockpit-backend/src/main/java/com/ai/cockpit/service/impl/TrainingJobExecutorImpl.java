@@ -0,0 +1,697 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.entity.TrainingTask;
+import com.ai.cockpit.entity.TrainingTaskStatus;
+import com.ai.cockpit.exception.BusinessException;
+import com.ai.cockpit.repository.TrainingTaskRepository;
+import com.ai.cockpit.service.TrainingArtifactService;
+import com.ai.cockpit.service.TrainingJobExecutor;
+import com.ai.cockpit.service.TrainingMetricsService;
+import com.ai.cockpit.service.TrainingProgressService;
+import com.ai.cockpit.service.TrainingTaskStateMachine;
+import com.ai.cockpit.service.TrainingTaskStateMachine.Changes;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * 本地训练作业执行器实现类
+ * <p>
+ * 调度：运行数未达上限时，从有排队任务的创建者中选出当前运行数最少的一个（相同时比较队首优先级与入队时间），
+ * 取其队首任务启动。进程的标准输出与错误输出写入logPath，以"##progress "开头的行按JSON解析为进度上报，
+ * 如 ##progress {"progress":40,"epoch":4,"metrics":{"loss":0.31}}；以"##checkpoint "开头的行上报检查点，
+ * 如 ##checkpoint {"path":"ckpt/epoch-4","name":"epoch-4"}，相对路径按工作目录解析，检查点异步导入产物存储；
+ * 检查点必须位于配置的工作目录或产物导入目录内，其他路径被忽略。
+ * 进程只在本节点运行，服务重启时由本执行器启动且仍为运行中的任务记为失败。
+ * 启动命令只来自服务端配置：训练配置中的commandTemplate选择training.executor.command-templates下的同名模板，
+ * 未指定时使用default-command；工作目录为work-dir，客户端提交的命令、工作目录与环境变量一律不使用。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrainingJobExecutorImpl implements TrainingJobExecutor {
+
+    private static final String PROGRESS_PREFIX = "##progress ";
+
+    private static final String CHECKPOINT_PREFIX = "##checkpoint ";
+
+    private static final String OUTPUT_PATH_SQL = "UPDATE training_task SET output_model_path = ? WHERE id = ?";
+
+    private static final long NO_CREATOR = 0L;
+
+    private static final Pattern TEMPLATE_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private static final String TEMPLATE_PREFIX = "training.executor.command-templates.";
+
+    private static final String DURATION_SQL = "UPDATE training_task SET duration = ? WHERE id = ?";
+
+    private static final String RECOVER_SQL = "UPDATE training_task SET status = 3, version = version + 1, error_message = ?, "
+            + "end_time = ?, update_time = ? WHERE status = 1 AND executor_node = ?";
+
+    private static final String LOAD_QUEUE_SQL = "SELECT id, creator_id, priority, queued_time FROM training_task "
+            + "WHERE status = 5";
+
+    private static final Comparator<QueuedJob> JOB_ORDER = Comparator.comparingInt(QueuedJob::priority).reversed()
+            .thenComparingLong(QueuedJob::queuedAt)
+            .thenComparingLong(QueuedJob::taskId);
+
+    private final TrainingTaskRepository trainingTaskRepository;
+    private final TrainingProgressService trainingProgressService;
+    private final TrainingMetricsService trainingMetricsService;
+    private final TrainingArtifactService trainingArtifactService;
+    private final TrainingTaskStateMachine trainingTaskStateMachine;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+
+    @Value("${training.executor.enabled:true}")
+    private boolean enabled;
+
+    /** 同时运行的训练进程数上限 */
+    @Value("${training.executor.max-running:2}")
+    private int maxRunning;
+
+    /** 排队任务数上限 */
+    @Value("${training.executor.max-queued:1000}")
+    private int maxQueued;
+
+    /** 本节点标识，记录在启动的任务上，重启时只回收本节点启动的任务 */
+    @Value("${training.executor.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+
+    @Value("${training.executor.log-dir:data/training-logs}")
+    private String logDir;
+
+    /** 训练配置未指定commandTemplate时使用的命令，{taskId}替换为任务ID */
+    @Value("${training.executor.default-command:}")
+    private String defaultCommand;
+
+    /** 训练进程的工作目录，为空时为服务进程的工作目录 */
+    @Value("${training.executor.work-dir:}")
+    private String workDir;
+
+    /** 检查点允许位于的导入目录，与产物存储的导入接口相同 */
+    @Value("${training.artifact.import-dir:data/training-outputs}")
+    private String importDir;
+
+    /** 停止时等待进程退出的时间（毫秒），超时后强制终止 */
+    @Value("${training.executor.stop-timeout:10000}")
+    private long stopTimeout;
+
+    /** 以下字段由this加锁：创建者 -> 排队任务 */
+    private final Map<Long, PriorityQueue<QueuedJob>> queues = new HashMap<>();
+    private final Map<Long, QueuedJob> queued = new HashMap<>();
+    private final Map<Long, Integer> runningByCreator = new HashMap<>();
+
+    private final ConcurrentHashMap<Long, RunningJob> running = new ConcurrentHashMap<>();
+
+    /** 启动过程中被停止/取消的任务 -> 目标状态，与running中占位的替换一起由this加锁 */
+    private final ConcurrentHashMap<Long, TrainingTaskStatus> pendingCancels = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final LongAdder launchedCount = new LongAdder();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder stoppedCount = new LongAdder();
+    private final LongAdder totalQueueWaitMillis = new LongAdder();
+    private final LongAdder totalRunMillis = new LongAdder();
+
+    private volatile boolean shuttingDown;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("本地训练执行器未启用");
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int interrupted = jdbcTemplate.update(RECOVER_SQL, "服务重启，训练进程已中断", now, now, nodeId);
+        List<QueuedJob> jobs = jdbcTemplate.query(LOAD_QUEUE_SQL, (rs, rowNum) -> {
+            Timestamp queuedTime = rs.getTimestamp(4);
+            int priority = rs.getInt(3);
+            return new QueuedJob(rs.getLong(1), creatorKey((Long) rs.getObject(2)), priority,
+                    queuedTime == null ? System.currentTimeMillis() : queuedTime.getTime(), sequence.incrementAndGet());
+        });
+        synchronized (this) {
+            jobs.forEach(this::offer);
+        }
+        log.info("本地训练执行器启动，排队任务数：{}，中断任务数：{}", jobs.size(), interrupted);
+        dispatch();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        for (RunningJob job : running.values()) {
+            if (job != RunningJob.RESERVED) {
+                destroyTree(job.process, false);
+            }
+        }
+    }
+
+    @Override
+    public void enqueue(TrainingTask task) {
+        synchronized (this) {
+            if (queued.size() >= maxQueued) {
+                throw new BusinessException("训练队列已满，请稍后再试");
+            }
+        }
+        long queuedAt = task.getQueuedTime() == null ? System.currentTimeMillis()
+                : task.getQueuedTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        QueuedJob job = new QueuedJob(task.getId(), creatorKey(task.getCreatorId()),
+                task.getPriority() == null ? 0 : task.getPriority(), queuedAt, sequence.incrementAndGet());
+        Runnable register = () -> {
+            synchronized (this) {
+                offer(job);
+            }
+            dispatch();
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    register.run();
+                }
+            });
+        } else {
+            register.run();
+        }
+    }
+
+    @Override
+    public boolean cancel(Long taskId, TrainingTaskStatus status) {
+        synchronized (this) {
+            QueuedJob job = queued.remove(taskId);
+            if (job != null) {
+                PriorityQueue<QueuedJob> queue = queues.get(job.creatorId());
+                if (queue != null) {
+                    queue.remove(job);
+                    if (queue.isEmpty()) {
+                        queues.remove(job.creatorId());
+                    }
+                }
+                return true;
+            }
+        }
+        RunningJob job;
+        synchronized (this) {
+            // 与launch中安装进程句柄同锁，占位期间的取消要么被launch取走，要么看到已安装的句柄
+            job = running.get(taskId);
+            if (job == null) {
+                return false;
+            }
+            if (job == RunningJob.RESERVED) {
+                pendingCancels.put(taskId, status);
+                return true;
+            }
+        }
+        stop(job, status);
+        return true;
+    }
+
+    private void stop(RunningJob job, TrainingTaskStatus status) {
+        Long taskId = job.taskId;
+        job.stopStatus = status;
+        // 进程树在终止前取快照，启动器先退出后子进程被挂到init下，无法再通过进程树找到
+        List<ProcessHandle> tree = new ArrayList<>(job.process.descendants().toList());
+        tree.add(job.process.toHandle());
+        tree.forEach(ProcessHandle::destroy);
+        CompletableFuture.allOf(tree.stream().map(ProcessHandle::onExit).toArray(CompletableFuture<?>[]::new))
+                .orTimeout(stopTimeout, TimeUnit.MILLISECONDS).exceptionally(e -> {
+                    log.warn("训练进程未在{}毫秒内全部退出，强制终止，任务ID：{}", stopTimeout, taskId);
+                    destroyTree(job.process, true);
+                    tree.stream().filter(ProcessHandle::isAlive).forEach(ProcessHandle::destroyForcibly);
+                    return null;
+                });
+    }
+
+    /**
+     * 终止进程及其全部子孙进程：sh -c、torchrun等启动器不会替子进程清理，工作进程会继续占用GPU，
+     * 先终止子孙进程再终止进程本身
+     */
+    private static void destroyTree(Process process, boolean force) {
+        process.descendants().forEach(child -> {
+            if (force) {
+                child.destroyForcibly();
+            } else {
+                child.destroy();
+            }
+        });
+        if (force) {
+            process.destroyForcibly();
+        } else {
+            process.destroy();
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        Map<Long, Map<String, Integer>> creators = new LinkedHashMap<>();
+        synchronized (this) {
+            status.put("queued", queued.size());
+            queues.forEach((creatorId, queue) ->
+                    creators.computeIfAbsent(creatorId, k -> new LinkedHashMap<>()).put("queued", queue.size()));
+            runningByCreator.forEach((creatorId, count) ->
+                    creators.computeIfAbsent(creatorId, k -> new LinkedHashMap<>()).put("running", count));
+        }
+        long launched = launchedCount.sum();
+        long finished = completedCount.sum() + failedCount.sum() + stoppedCount.sum();
+        status.put("enabled", enabled);
+        status.put("running", running.size());
+        status.put("maxRunning", maxRunning);
+        status.put("maxQueued", maxQueued);
+        status.put("launchedCount", launched);
+        status.put("completedCount", completedCount.sum());
+        status.put("failedCount", failedCount.sum());
+        status.put("stoppedCount", stoppedCount.sum());
+        status.put("avgQueueWaitSeconds", launched == 0 ? null : totalQueueWaitMillis.sum() / 1000.0 / launched);
+        status.put("avgRunSeconds", finished == 0 ? null : totalRunMillis.sum() / 1000.0 / finished);
+        status.put("creators", creators);
+        return status;
+    }
+
+    /**
+     * 在运行数上限内按公平份额取出任务并启动
+     */
+    private void dispatch() {
+        if (shuttingDown) {
+            return;
+        }
+        List<QueuedJob> launches = new ArrayList<>();
+        synchronized (this) {
+            while (running.size() + launches.size() < maxRunning && !queues.isEmpty()) {
+                QueuedJob job = pollFairShare();
+                runningByCreator.merge(job.creatorId(), 1, Integer::sum);
+                launches.add(job);
+            }
+            // 占位，保证并发启动时不超过上限
+            for (QueuedJob job : launches) {
+                running.put(job.taskId(), RunningJob.RESERVED);
+            }
+        }
+        for (QueuedJob job : launches) {
+            try {
+                launch(job);
+            } catch (RuntimeException e) {
+                log.error("启动训练任务失败，任务ID：{}", job.taskId(), e);
+                release(job.taskId(), job.creatorId());
+            }
+        }
+    }
+
+    private QueuedJob pollFairShare() {
+        Long chosen = null;
+        int chosenRunning = Integer.MAX_VALUE;
+        QueuedJob chosenHead = null;
+        for (Map.Entry<Long, PriorityQueue<QueuedJob>> entry : queues.entrySet()) {
+            int count = runningByCreator.getOrDefault(entry.getKey(), 0);
+            QueuedJob head = entry.getValue().peek();
+            if (count < chosenRunning || (count == chosenRunning && JOB_ORDER.compare(head, chosenHead) < 0)) {
+                chosen = entry.getKey();
+                chosenRunning = count;
+                chosenHead = head;
+            }
+        }
+        PriorityQueue<QueuedJob> queue = queues.get(chosen);
+        QueuedJob job = queue.poll();
+        if (queue.isEmpty()) {
+            queues.remove(chosen);
+        }
+        queued.remove(job.taskId());
+        return job;
+    }
+
+    private void offer(QueuedJob job) {
+        if (queued.putIfAbsent(job.taskId(), job) == null) {
+            queues.computeIfAbsent(job.creatorId(), k -> new PriorityQueue<>(JOB_ORDER)).add(job);
+        }
+    }
+
+    private void launch(QueuedJob queuedJob) {
+        Long taskId = queuedJob.taskId();
+        TrainingTask task = trainingTaskRepository.findById(taskId).orElse(null);
+        if (task == null || task.getStatus() == null || task.getStatus() != TrainingTaskStatus.QUEUED.getCode()) {
+            release(taskId, queuedJob.creatorId());
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long queueWaitMillis = Math.max(0, now - queuedJob.queuedAt());
+        Path logPath = Paths.get(logDir).resolve("task-" + taskId + ".log").toAbsolutePath();
+        ProcessBuilder builder;
+        try {
+            builder = processBuilder(task);
+        } catch (IllegalArgumentException e) {
+            fail(task, queueWaitMillis, e.getMessage());
+            release(taskId, queuedJob.creatorId());
+            return;
+        }
+        boolean launched = trainingTaskStateMachine.transition(taskId, EnumSet.of(TrainingTaskStatus.QUEUED), TrainingTaskStatus.RUNNING,
+                Changes.none().startTime(LocalDateTime.now()).queueWait(queueWaitMillis / 1000).logPath(logPath.toString()).executorNode(nodeId));
+        if (!launched) {
+            release(taskId, queuedJob.creatorId());
+            return;
+        }
+        Process process;
+        try {
+            Files.createDirectories(logPath.getParent());
+            builder.redirectErrorStream(true);
+            process = builder.start();
+        } catch (IOException e) {
+            finish(taskId, TrainingTaskStatus.FAILED, null, 0, "训练进程启动失败：" + e.getMessage());
+            release(taskId, queuedJob.creatorId());
+            return;
+        }
+        RunningJob job = new RunningJob(taskId, queuedJob.creatorId(), process, now);
+        TrainingTaskStatus cancelStatus;
+        synchronized (this) {
+            running.put(taskId, job);
+            cancelStatus = pendingCancels.remove(taskId);
+        }
+        if (cancelStatus != null) {
+            stop(job, cancelStatus);
+        }
+        launchedCount.increment();
+        totalQueueWaitMillis.add(queueWaitMillis);
+        log.info("训练进程已启动，任务ID：{}，PID：{}，排队{}秒", taskId, process.pid(), queueWaitMillis / 1000);
+        Path workDir = builder.directory() == null ? Paths.get("").toAbsolutePath() : builder.directory().toPath().toAbsolutePath();
+        Thread pump = new Thread(() -> pump(job, logPath, workDir), "training-job-" + taskId);
+        pump.setDaemon(true);
+        pump.start();
+    }
+
+    /**
+     * 按训练配置中的commandTemplate选择服务端配置的命令模板，未指定时使用默认命令
+     */
+    private ProcessBuilder processBuilder(TrainingTask task) {
+        String template = defaultCommand;
+        if (task.getTrainingConfig() != null && !task.getTrainingConfig().isBlank()) {
+            JsonNode config;
+            try {
+                config = objectMapper.readTree(task.getTrainingConfig());
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("训练配置不是有效的JSON");
+            }
+            JsonNode name = config.get("commandTemplate");
+            if (name != null && !name.isNull()) {
+                if (!name.isTextual() || !TEMPLATE_NAME.matcher(name.asText()).matches()) {
+                    throw new IllegalArgumentException("命令模板名称无效");
+                }
+                template = environment.getProperty(TEMPLATE_PREFIX + name.asText());
+                if (template == null || template.isBlank()) {
+                    throw new IllegalArgumentException("命令模板不存在：" + name.asText());
+                }
+            }
+        }
+        List<String> command = template == null ? List.of()
+                : split(template.replace("{taskId}", String.valueOf(task.getId())));
+        if (command.isEmpty()) {
+            throw new IllegalArgumentException("未配置训练命令");
+        }
+        ProcessBuilder builder = new ProcessBuilder(command);
+        if (!workDir.isBlank()) {
+            builder.directory(Paths.get(workDir).toFile());
+        }
+        Map<String, String> env = builder.environment();
+        env.put("TRAINING_TASK_ID", String.valueOf(task.getId()));
+        env.put("TRAINING_PROGRESS_PREFIX", PROGRESS_PREFIX);
+        env.put("TRAINING_CHECKPOINT_PREFIX", CHECKPOINT_PREFIX);
+        if (task.getHyperparameters() != null) {
+            env.put("TRAINING_HYPERPARAMETERS", task.getHyperparameters());
+        }
+        if (task.getTotalEpochs() != null) {
+            env.put("TRAINING_TOTAL_EPOCHS", String.valueOf(task.getTotalEpochs()));
+        }
+        return builder;
+    }
+
+    private static List<String> split(String command) {
+        List<String> parts = new ArrayList<>();
+        for (String part : command.trim().split("\\s+")) {
+            if (!part.isEmpty()) {
+                parts.add(part);
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * 把进程输出写入日志文件并解析进度与检查点行，进程退出后写回最终状态
+     */
+    private void pump(RunningJob job, Path logPath, Path workDir) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(job.process.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter writer = Files.newBufferedWriter(logPath, StandardCharsets.UTF_8,
+                     StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                writer.write(line);
+                writer.newLine();
+                if (line.startsWith(PROGRESS_PREFIX)) {
+                    report(job, line.substring(PROGRESS_PREFIX.length()));
+                } else if (line.startsWith(CHECKPOINT_PREFIX)) {
+                    checkpoint(job, workDir, line.substring(CHECKPOINT_PREFIX.length()));
+                }
+                // 没有更多已缓冲的输出时刷写，避免逐行刷盘
+                if (!reader.ready()) {
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("读取训练进程输出失败，任务ID：{}", job.taskId, e);
+        }
+        int exitCode;
+        try {
+            exitCode = job.process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            destroyTree(job.process, true);
+            exitCode = -1;
+        }
+        complete(job, exitCode);
+    }
+
+    private void report(RunningJob job, String payload) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            log.debug("忽略无法解析的进度行，任务ID：{}", job.taskId);
+            return;
+        }
+        try {
+            if (node.hasNonNull("progress") || node.hasNonNull("epoch")) {
+                if (node.hasNonNull("progress")) {
+                    job.progress = Math.max(0, Math.min(100, node.get("progress").asInt()));
+                }
+                if (node.hasNonNull("epoch")) {
+                    job.epoch = node.get("epoch").asInt();
+                }
+                trainingProgressService.updateProgress(job.taskId, job.progress, job.epoch);
+            }
+            JsonNode metrics = node.get("metrics");
+            if (metrics != null && metrics.isObject()) {
+                String snapshot = metrics.toString();
+                trainingProgressService.updateMetrics(job.taskId, snapshot);
+                trainingMetricsService.appendSnapshot(job.taskId, snapshot);
+            }
+        } catch (BusinessException e) {
+            log.debug("训练进度上报被拒绝，任务ID：{}，原因：{}", job.taskId, e.getMessage());
+        }
+    }
+
+    /**
+     * 记录最新检查点路径为输出模型路径，并提交异步导入
+     */
+    private void checkpoint(RunningJob job, Path workDir, String payload) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            log.debug("忽略无法解析的检查点行，任务ID：{}", job.taskId);
+            return;
+        }
+        if (!node.hasNonNull("path")) {
+            return;
+        }
+        Path path = confineCheckpoint(workDir, node.get("path").asText());
+        if (path == null) {
+            log.warn("忽略工作目录与导入目录之外的检查点，任务ID：{}，路径：{}", job.taskId, node.get("path").asText());
+            return;
+        }
+        String name = node.hasNonNull("name") ? node.get("name").asText() : String.valueOf(path.getFileName());
+        try {
+            jdbcTemplate.update(OUTPUT_PATH_SQL, path.toString(), job.taskId);
+        } catch (DataAccessException e) {
+            log.warn("写回输出模型路径失败，任务ID：{}", job.taskId, e);
+        }
+        trainingArtifactService.storeCheckpointAsync(job.taskId, name, path);
+    }
+
+    /**
+     * 解析检查点路径并按真实路径（解析符号链接后）限制在配置的工作目录或导入目录内，不满足时返回null；
+     * 未配置work-dir时工作目录是服务进程的目录，不作为允许的目录
+     */
+    private Path confineCheckpoint(Path workDir, String value) {
+        Path real;
+        try {
+            real = workDir.resolve(value).normalize().toRealPath();
+        } catch (IOException | InvalidPathException e) {
+            return null;
+        }
+        List<String> roots = new ArrayList<>(2);
+        roots.add(importDir);
+        if (this.workDir != null && !this.workDir.isBlank()) {
+            roots.add(this.workDir);
+        }
+        for (String root : roots) {
+            try {
+                if (real.startsWith(Paths.get(root).toRealPath())) {
+                    return real;
+                }
+            } catch (IOException | InvalidPathException e) {
+                // 目录不存在
+            }
+        }
+        return null;
+    }
+
+    private void complete(RunningJob job, int exitCode) {
+        long runMillis = System.currentTimeMillis() - job.startedAt;
+        totalRunMillis.add(runMillis);
+        try {
+            if (job.stopStatus != null) {
+                // 状态由停止/取消操作写入，这里只补充运行时长
+                stoppedCount.increment();
+                trainingProgressService.evict(job.taskId);
+                jdbcTemplate.update(DURATION_SQL, runMillis / 1000, job.taskId);
+                log.info("训练进程已停止，任务ID：{}，退出码：{}", job.taskId, exitCode);
+            } else if (exitCode == 0) {
+                completedCount.increment();
+                finish(job.taskId, TrainingTaskStatus.COMPLETED, 100, runMillis, null);
+                log.info("训练进程已完成，任务ID：{}，耗时{}秒", job.taskId, runMillis / 1000);
+            } else {
+                failedCount.increment();
+                finish(job.taskId, TrainingTaskStatus.FAILED, null, runMillis, "训练进程异常退出，退出码：" + exitCode);
+                log.warn("训练进程异常退出，任务ID：{}，退出码：{}", job.taskId, exitCode);
+            }
+        } catch (DataAccessException e) {
+            log.error("写回训练任务结果失败，任务ID：{}", job.taskId, e);
+        } finally {
+            release(job.taskId, job.creatorKey);
+        }
+    }
+
+    private void finish(Long taskId, TrainingTaskStatus status, Integer progress, long runMillis, String errorMessage) {
+        // 进度只能写入运行中的任务，状态机在迁移前写回缓冲中的进度
+        Changes changes = Changes.none().endTime(LocalDateTime.now()).duration(runMillis / 1000).errorMessage(errorMessage);
+        if (progress != null) {
+            changes.progress(progress);
+        }
+        trainingTaskStateMachine.transition(taskId, EnumSet.of(TrainingTaskStatus.RUNNING), status, changes);
+    }
+
+    /**
+     * 启动前校验失败时把排队中的任务直接记为失败
+     */
+    private void fail(TrainingTask task, long queueWaitMillis, String errorMessage) {
+        boolean failed = trainingTaskStateMachine.transition(task.getId(), EnumSet.of(TrainingTaskStatus.QUEUED), TrainingTaskStatus.FAILED,
+                Changes.none().queueWait(queueWaitMillis / 1000).errorMessage(errorMessage).endTime(LocalDateTime.now()));
+        if (failed) {
+            failedCount.increment();
+        }
+        log.warn("训练任务无法启动，任务ID：{}，原因：{}", task.getId(), errorMessage);
+    }
+
+    private void release(Long taskId, long creatorKey) {
+        synchronized (this) {
+            running.remove(taskId);
+            pendingCancels.remove(taskId);
+            runningByCreator.computeIfPresent(creatorKey, (k, count) -> count > 1 ? count - 1 : null);
+        }
+        dispatch();
+    }
+
+    private static long creatorKey(Long creatorId) {
+        return creatorId == null ? NO_CREATOR : creatorId;
+    }
+
+    /**
+     * 排队任务
+     */
+    private record QueuedJob(long taskId, long creatorId, int priority, long queuedAt, long sequence) {
+    }
+
+    /**
+     * 运行中的训练进程
+     */
+    private static final class RunningJob {
+
+        /** 启动过程中的占位 */
+        static final RunningJob RESERVED = new RunningJob(0L, NO_CREATOR, null, 0);
+
+        final Long taskId;
+        final long creatorKey;
+        final Process process;
+        final long startedAt;
+
+        /** 停止/取消后的目标状态，null表示进程自行退出 */
+        volatile TrainingTaskStatus stopStatus;
+
+        /** 以下字段只由输出读取线程访问 */
+        Integer progress = 0;
+        Integer epoch = 0;
+
+        RunningJob(Long taskId, long creatorKey, Process process, long startedAt) {
+            this.taskId = taskId;
+            this.creatorKey = creatorKey;
+            this.process = process;
+            this.startedAt = startedAt;
+        }
+    }
+}
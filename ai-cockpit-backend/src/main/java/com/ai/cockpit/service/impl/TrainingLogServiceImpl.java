@@ -0,0 +1,387 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.entity.TrainingTaskStatus;
+import com.ai.cockpit.event.TrainingTaskDeltaEvent;
+import com.ai.cockpit.exception.BusinessException;
+import com.ai.cockpit.service.TrainingLogService;
+import com.ai.cockpit.util.LineOffsetIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 训练日志读取服务实现类
+ * <p>
+ * 行偏移索引按文件缓存，超出max-indexes时淘汰最久未访问的索引；文件变短（被截断或轮转）时重建。
+ * 跟随连接由定时任务检查文件增长，每个连接同一时刻最多一次在途写入，每次最多推送max-lines行。
+ * 建立跟随时按任务当前状态判断是否已结束，登记后再检查一次，避免错过登记期间的结束事件；
+ * 已结束任务推送完剩余内容后立即发送end并释放连接。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrainingLogServiceImpl implements TrainingLogService {
+
+    private static final String STATUS_SQL = "SELECT status FROM training_task WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${training.log.max-lines:5000}")
+    private int maxLines;
+
+    /** 单次读取返回的最大字节数 */
+    @Value("${training.log.max-bytes:1048576}")
+    private int maxBytes;
+
+    /** 每多少行记录一个行偏移 */
+    @Value("${training.log.index-stride:1024}")
+    private int indexStride;
+
+    /** 缓存的日志文件索引数 */
+    @Value("${training.log.max-indexes:32}")
+    private int maxIndexes;
+
+    @Value("${training.log.follow-timeout:1800000}")
+    private long followTimeout;
+
+    @Value("${training.log.max-followers:200}")
+    private int maxFollowers;
+
+    private final Map<String, LineOffsetIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Set<Follower> followers = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor senders;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        senders = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "training-log-follow-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        senders.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        for (Follower follower : followers) {
+            follower.emitter.complete();
+        }
+        followers.clear();
+    }
+
+    @Override
+    public Map<String, Object> readLines(Long taskId, Path logPath, long fromLine, int count) {
+        if (fromLine < 0) {
+            throw new BusinessException("起始行号不能为负数");
+        }
+        try (FileChannel channel = open(logPath)) {
+            LineOffsetIndex index = index(logPath, channel);
+            long offset;
+            long totalLines;
+            synchronized (index) {
+                offset = index.lineStart(channel, fromLine);
+                totalLines = index.lines();
+            }
+            LineOffsetIndex.Chunk chunk = fromLine > totalLines
+                    ? new LineOffsetIndex.Chunk(List.of(), offset, offset)
+                    : LineOffsetIndex.readLines(channel, offset, Math.min(count, maxLines), maxBytes, true);
+            Map<String, Object> result = result(taskId, chunk, channel.size());
+            result.put("fromLine", fromLine);
+            result.put("nextLine", fromLine + chunk.lines().size());
+            result.put("totalLines", totalLines);
+            return result;
+        } catch (IOException e) {
+            throw readFailure(taskId, e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> tail(Long taskId, Path logPath, int lines) {
+        try (FileChannel channel = open(logPath)) {
+            LineOffsetIndex.Chunk chunk = LineOffsetIndex.tail(channel, Math.max(1, Math.min(lines, maxLines)), maxBytes);
+            return result(taskId, chunk, channel.size());
+        } catch (IOException e) {
+            throw readFailure(taskId, e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> readBytes(Long taskId, Path logPath, long offset, int length) {
+        if (offset < 0 || length <= 0) {
+            throw new BusinessException("字节范围无效");
+        }
+        try (FileChannel channel = open(logPath)) {
+            long size = channel.size();
+            int actual = (int) Math.max(0, Math.min(Math.min(length, maxBytes), size - offset));
+            ByteBuffer buffer = ByteBuffer.allocate(actual);
+            if (actual > 0) {
+                buffer.put(channel.map(FileChannel.MapMode.READ_ONLY, offset, actual));
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("taskId", taskId);
+            result.put("offset", offset);
+            result.put("length", actual);
+            result.put("nextOffset", offset + actual);
+            result.put("fileSize", size);
+            result.put("content", new String(buffer.array(), StandardCharsets.UTF_8));
+            return result;
+        } catch (IOException e) {
+            throw readFailure(taskId, e);
+        }
+    }
+
+    @Override
+    public SseEmitter follow(Long taskId, Path logPath, Long fromOffset, int tailLines) {
+        if (followers.size() >= maxFollowers) {
+            throw new BusinessException("日志跟随连接数已达上限");
+        }
+        Follower follower = new Follower(taskId, logPath, new SseEmitter(followTimeout));
+        follower.ended = isFinished(taskId);
+        follower.emitter.onCompletion(() -> followers.remove(follower));
+        follower.emitter.onTimeout(() -> followers.remove(follower));
+        follower.emitter.onError(e -> followers.remove(follower));
+        try (FileChannel channel = open(logPath)) {
+            if (fromOffset != null) {
+                follower.position = Math.min(Math.max(0, fromOffset), channel.size());
+            } else if (tailLines > 0) {
+                LineOffsetIndex.Chunk chunk = LineOffsetIndex.tail(channel, Math.min(tailLines, maxLines), maxBytes);
+                // 未以换行符结束的最后一行留给后续推送
+                long end = chunk.endOffset();
+                List<String> lines = chunk.lines();
+                if (!lines.isEmpty() && end > 0 && !endsWithNewline(channel, end)) {
+                    lines = lines.subList(0, lines.size() - 1);
+                    end = Math.max(chunk.startOffset(), lastLineStart(channel, end));
+                }
+                follower.emitter.send(SseEmitter.event().name("lines")
+                        .data(chunkEvent(lines, chunk.startOffset(), end), MediaType.APPLICATION_JSON));
+                follower.position = end;
+            } else {
+                follower.position = channel.size();
+            }
+        } catch (IOException e) {
+            throw readFailure(taskId, e);
+        }
+        followers.add(follower);
+        // 登记前发布的结束事件不会通知到该连接，登记后重新检查
+        if (follower.ended || isFinished(taskId)) {
+            follower.ended = true;
+            dispatch(follower);
+        }
+        return follower.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDelta(TrainingTaskDeltaEvent event) {
+        Integer status = event.getStatus();
+        if (status == null || followers.isEmpty() || !TrainingTaskStatus.of(status).isTerminal()) {
+            return;
+        }
+        for (Follower follower : followers) {
+            if (follower.taskId.equals(event.getTaskId())) {
+                follower.ended = true;
+            }
+        }
+    }
+
+    /**
+     * 检查跟随的日志文件是否有新内容
+     */
+    @Scheduled(fixedDelayString = "${training.log.follow-interval:500}")
+    public void poll() {
+        for (Follower follower : followers) {
+            dispatch(follower);
+        }
+    }
+
+    /**
+     * 没有在途写入时提交一次推送
+     */
+    private void dispatch(Follower follower) {
+        synchronized (follower) {
+            if (follower.sending) {
+                return;
+            }
+            follower.sending = true;
+        }
+        senders.execute(() -> push(follower));
+    }
+
+    /**
+     * 任务已结束或已删除
+     */
+    private boolean isFinished(Long taskId) {
+        List<Integer> status = jdbcTemplate.queryForList(STATUS_SQL, Integer.class, taskId);
+        return status.isEmpty() || status.get(0) == null || TrainingTaskStatus.of(status.get(0)).isTerminal();
+    }
+
+    private void push(Follower follower) {
+        try (FileChannel channel = open(follower.path)) {
+            long size = channel.size();
+            if (size < follower.position) {
+                // 文件被截断或轮转，从头开始
+                follower.position = 0;
+                follower.emitter.send(SseEmitter.event().name("reset").data(size));
+            }
+            boolean ended = follower.ended;
+            if (size > follower.position) {
+                LineOffsetIndex.Chunk chunk = LineOffsetIndex.readLines(channel, follower.position, maxLines, maxBytes, ended);
+                if (!chunk.lines().isEmpty()) {
+                    follower.emitter.send(SseEmitter.event().name("lines")
+                            .data(chunkEvent(chunk.lines(), chunk.startOffset(), chunk.endOffset()), MediaType.APPLICATION_JSON));
+                    follower.position = chunk.endOffset();
+                    return;
+                }
+            }
+            if (ended) {
+                follower.emitter.send(SseEmitter.event().name("end").data(follower.position));
+                follower.emitter.complete();
+                followers.remove(follower);
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("训练日志跟随连接已断开，任务ID：{}，原因：{}", follower.taskId, e.getMessage());
+            followers.remove(follower);
+            follower.emitter.complete();
+        } finally {
+            synchronized (follower) {
+                follower.sending = false;
+            }
+        }
+    }
+
+    /**
+     * 获取并增量扩展文件的行偏移索引
+     */
+    private LineOffsetIndex index(Path logPath, FileChannel channel) throws IOException {
+        String key = logPath.toAbsolutePath().toString();
+        LineOffsetIndex index;
+        synchronized (indexes) {
+            index = indexes.computeIfAbsent(key, k -> new LineOffsetIndex(indexStride));
+            while (indexes.size() > maxIndexes) {
+                indexes.remove(indexes.keySet().iterator().next());
+            }
+        }
+        synchronized (index) {
+            if (!index.extend(channel)) {
+                return index;
+            }
+        }
+        LineOffsetIndex rebuilt = new LineOffsetIndex(indexStride);
+        synchronized (rebuilt) {
+            rebuilt.extend(channel);
+        }
+        synchronized (indexes) {
+            indexes.put(key, rebuilt);
+        }
+        return rebuilt;
+    }
+
+    private static FileChannel open(Path logPath) throws IOException {
+        return FileChannel.open(logPath, StandardOpenOption.READ);
+    }
+
+    private static boolean endsWithNewline(FileChannel channel, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        channel.read(buffer, end - 1);
+        return buffer.get(0) == '\n';
+    }
+
+    /**
+     * 最后一个换行符之后的偏移，即未完成的最后一行的行首
+     */
+    private static long lastLineStart(FileChannel channel, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = end;
+        while (position > 0) {
+            int length = (int) Math.min(buffer.capacity(), position);
+            buffer.clear().limit(length);
+            channel.read(buffer, position - length);
+            for (int i = length - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return position - length + i + 1;
+                }
+            }
+            position -= length;
+        }
+        return 0;
+    }
+
+    private static Map<String, Object> result(Long taskId, LineOffsetIndex.Chunk chunk, long fileSize) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("taskId", taskId);
+        result.put("lines", chunk.lines());
+        result.put("startOffset", chunk.startOffset());
+        result.put("endOffset", chunk.endOffset());
+        result.put("fileSize", fileSize);
+        return result;
+    }
+
+    private static Map<String, Object> chunkEvent(List<String> lines, long startOffset, long endOffset) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("lines", lines);
+        event.put("startOffset", startOffset);
+        event.put("endOffset", endOffset);
+        return event;
+    }
+
+    private static BusinessException readFailure(Long taskId, IOException e) {
+        if (e instanceof NoSuchFileException) {
+            return new BusinessException("训练日志不存在");
+        }
+        log.error("读取训练日志失败，任务ID：{}", taskId, e);
+        return new BusinessException("读取训练日志失败");
+    }
+
+    /**
+     * 单个日志跟随连接
+     */
+    private static final class Follower {
+
+        final Long taskId;
+        final Path path;
+        final SseEmitter emitter;
+
+        /** 下一次推送的起始偏移，只由发送线程修改 */
+        volatile long position;
+
+        /** 任务已结束，推送完剩余内容后关闭连接 */
+        volatile boolean ended;
+
+        boolean sending;
+
+        Follower(Long taskId, Path path, SseEmitter emitter) {
+            this.taskId = taskId;
+            this.path = path;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,473 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.dto.request.TrainingMetricPointRequest;
+import com.ai.cockpit.exception.BusinessException;
+import com.ai.cockpit.service.TrainingMetricsService;
+import com.ai.cockpit.util.Lttb;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 训练指标时序服务实现类
+ * <p>
+ * 每个任务一个追加写的日志文件（名称定义记录与指标点记录），首次访问时回放到内存，空闲超时后释放内存。
+ * 每条曲线的步数、epoch、值分别存放在long[]、int[]、double[]中，按步数有序，范围查询用二分查找定位。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrainingMetricsServiceImpl implements TrainingMetricsService {
+
+    private static final int LOG_MAGIC = 0x544d4c47;
+
+    private static final int LOG_VERSION = 1;
+
+    private static final int HEADER_BYTES = 8;
+
+    private static final byte RECORD_NAME = 1;
+
+    private static final byte RECORD_POINT = 2;
+
+    private static final int POINT_RECORD_BYTES = 1 + 4 + 8 + 4 + 8;
+
+    private static final int MAX_NAME_LENGTH = 128;
+
+    private static final int MIN_WIDTH = 3;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${training.metrics.data-dir:data/training-metrics}")
+    private String dataDir;
+
+    /** 未指定像素宽度时的默认点数 */
+    @Value("${training.metrics.default-width:1000}")
+    private int defaultWidth;
+
+    /** 单次查询返回的最大点数 */
+    @Value("${training.metrics.max-width:5000}")
+    private int maxWidth;
+
+    /** 任务曲线空闲多久（毫秒）后释放内存 */
+    @Value("${training.metrics.idle-timeout:1800000}")
+    private long idleTimeout;
+
+    private final ConcurrentHashMap<Long, TaskMetrics> tasks = new ConcurrentHashMap<>();
+
+    @Override
+    public void append(Long taskId, List<TrainingMetricPointRequest> points) {
+        for (TrainingMetricPointRequest point : points) {
+            if (point.getStep() == null || point.getName() == null || point.getName().isBlank() || point.getValue() == null) {
+                throw new BusinessException("指标点的步数、名称与值不能为空");
+            }
+            if (point.getName().length() > MAX_NAME_LENGTH) {
+                throw new BusinessException("指标名称过长: " + point.getName());
+            }
+        }
+        while (true) {
+            TaskMetrics task = open(taskId);
+            synchronized (task) {
+                if (task.closed) {
+                    continue;
+                }
+                for (TrainingMetricPointRequest point : points) {
+                    int epoch = point.getEpoch() == null ? task.lastEpoch : point.getEpoch();
+                    task.append(point.getName(), point.getStep(), epoch, point.getValue());
+                }
+                task.lastAccess = System.currentTimeMillis();
+            }
+            return;
+        }
+    }
+
+    @Override
+    public void appendSnapshot(Long taskId, String metrics) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(metrics);
+        } catch (JsonProcessingException e) {
+            log.debug("训练指标不是JSON，跳过曲线记录，任务ID：{}", taskId);
+            return;
+        }
+        if (root == null || !root.isObject()) {
+            return;
+        }
+        JsonNode stepNode = root.hasNonNull("step") ? root.get("step") : root.get("global_step");
+        JsonNode epochNode = root.get("epoch");
+        while (true) {
+            TaskMetrics task = open(taskId);
+            synchronized (task) {
+                if (task.closed) {
+                    continue;
+                }
+                long step = stepNode != null && stepNode.isNumber() ? stepNode.asLong() : task.lastStep + 1;
+                int epoch = epochNode != null && epochNode.isNumber() ? epochNode.asInt() : task.lastEpoch;
+                Iterator<Map.Entry<String, JsonNode>> fields = root.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    String name = field.getKey();
+                    if (!field.getValue().isNumber() || name.length() > MAX_NAME_LENGTH
+                            || "step".equals(name) || "global_step".equals(name) || "epoch".equals(name)) {
+                        continue;
+                    }
+                    task.append(name, step, epoch, field.getValue().asDouble());
+                }
+                task.lastAccess = System.currentTimeMillis();
+            }
+            return;
+        }
+    }
+
+    @Override
+    public List<String> getNames(Long taskId) {
+        while (true) {
+            TaskMetrics task = open(taskId);
+            synchronized (task) {
+                if (task.closed) {
+                    continue;
+                }
+                task.lastAccess = System.currentTimeMillis();
+                return new ArrayList<>(task.columns.keySet());
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> getCurve(Long taskId, String name, Long fromStep, Long toStep, Integer width) {
+        int threshold = Math.max(MIN_WIDTH, Math.min(maxWidth, width == null ? defaultWidth : width));
+        while (true) {
+            TaskMetrics task = open(taskId);
+            synchronized (task) {
+                if (task.closed) {
+                    continue;
+                }
+                task.lastAccess = System.currentTimeMillis();
+                Column column = task.columns.get(name);
+                if (column == null) {
+                    throw new BusinessException("训练指标不存在: " + name);
+                }
+                int from = fromStep == null ? 0 : column.lowerBound(fromStep);
+                int to = toStep == null ? column.size : column.lowerBound(toStep == Long.MAX_VALUE ? toStep : toStep + 1);
+                int total = Math.max(0, to - from);
+                int[] selected = total == 0 ? new int[0] : Lttb.select(column.steps, column.values, from, to, threshold);
+                long[] steps = new long[selected.length];
+                int[] epochs = new int[selected.length];
+                double[] values = new double[selected.length];
+                for (int i = 0; i < selected.length; i++) {
+                    steps[i] = column.steps[selected[i]];
+                    epochs[i] = column.epochs[selected[i]];
+                    values[i] = column.values[selected[i]];
+                }
+                Map<String, Object> curve = new LinkedHashMap<>();
+                curve.put("taskId", taskId);
+                curve.put("name", name);
+                curve.put("totalPoints", total);
+                curve.put("points", selected.length);
+                curve.put("steps", steps);
+                curve.put("epochs", epochs);
+                curve.put("values", values);
+                return curve;
+            }
+        }
+    }
+
+    @Override
+    public void delete(Long taskId) {
+        TaskMetrics task = tasks.remove(taskId);
+        if (task != null) {
+            synchronized (task) {
+                task.close();
+            }
+        }
+        try {
+            Files.deleteIfExists(logPath(taskId));
+        } catch (IOException e) {
+            log.error("删除训练指标日志失败，任务ID：{}", taskId, e);
+        }
+    }
+
+    /**
+     * 刷写日志缓冲，释放空闲任务
+     */
+    @Scheduled(fixedDelayString = "${training.metrics.flush-interval:1000}")
+    public void maintain() {
+        long idleBefore = System.currentTimeMillis() - idleTimeout;
+        Iterator<TaskMetrics> iterator = tasks.values().iterator();
+        while (iterator.hasNext()) {
+            TaskMetrics task = iterator.next();
+            synchronized (task) {
+                if (task.lastAccess < idleBefore) {
+                    task.close();
+                    iterator.remove();
+                } else {
+                    task.flush();
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        tasks.values().forEach(task -> {
+            synchronized (task) {
+                task.close();
+            }
+        });
+        tasks.clear();
+    }
+
+    private TaskMetrics open(Long taskId) {
+        return tasks.computeIfAbsent(taskId, this::load);
+    }
+
+    private Path logPath(Long taskId) {
+        return Paths.get(dataDir).resolve("task-" + taskId + ".log");
+    }
+
+    /**
+     * 回放任务日志；末尾不完整的记录（写入中途宕机）会被截掉
+     */
+    private TaskMetrics load(Long taskId) {
+        Path path = logPath(taskId);
+        TaskMetrics task = new TaskMetrics(path);
+        if (!Files.exists(path)) {
+            return task;
+        }
+        long valid = HEADER_BYTES;
+        List<String> names = new ArrayList<>();
+        try (InputStream is = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(is, 64 * 1024))) {
+            if (in.readInt() != LOG_MAGIC || in.readInt() != LOG_VERSION) {
+                log.warn("无法识别的训练指标日志，重新创建: {}", path);
+                valid = 0;
+            }
+            while (valid > 0) {
+                int type = in.read();
+                if (type < 0) {
+                    break;
+                }
+                if (type == RECORD_NAME) {
+                    int id = in.readInt();
+                    byte[] bytes = new byte[in.readUnsignedShort()];
+                    in.readFully(bytes);
+                    String name = new String(bytes, StandardCharsets.UTF_8);
+                    while (names.size() <= id) {
+                        names.add(null);
+                    }
+                    names.set(id, name);
+                    task.define(name);
+                    valid += 1 + 4 + 2 + bytes.length;
+                } else if (type == RECORD_POINT) {
+                    int id = in.readInt();
+                    long step = in.readLong();
+                    int epoch = in.readInt();
+                    double value = in.readDouble();
+                    task.columns.get(names.get(id)).add(step, epoch, value);
+                    task.lastStep = Math.max(task.lastStep, step);
+                    task.lastEpoch = epoch;
+                    valid += POINT_RECORD_BYTES;
+                } else {
+                    throw new IOException("未知的训练指标记录类型: " + type);
+                }
+            }
+        } catch (EOFException e) {
+            // 文件头不完整时整个文件重建
+            if (valid == HEADER_BYTES && task.columns.isEmpty()) {
+                valid = 0;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("读取训练指标日志失败，任务ID：{}，已恢复到第{}字节", taskId, valid, e);
+        }
+        task.exists = valid > 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            if (channel.size() > valid) {
+                log.warn("截断训练指标日志末尾不完整的记录，任务ID：{}，长度：{} -> {}", taskId, channel.size(), valid);
+                channel.truncate(valid);
+            }
+        } catch (IOException e) {
+            log.error("截断训练指标日志失败，任务ID：{}", taskId, e);
+        }
+        return task;
+    }
+
+    /**
+     * 单个任务的全部曲线与日志写入流，由自身加锁
+     */
+    private static final class TaskMetrics {
+
+        final Path path;
+
+        /** 指标名称 -> 曲线，插入顺序即名称编号 */
+        final Map<String, Column> columns = new LinkedHashMap<>();
+
+        DataOutputStream out;
+
+        /** 日志文件是否已存在（含文件头） */
+        boolean exists;
+
+        long lastStep = -1;
+
+        int lastEpoch = -1;
+
+        long lastAccess = System.currentTimeMillis();
+
+        /** 已释放，持有旧引用的调用方需要重新获取 */
+        boolean closed;
+
+        TaskMetrics(Path path) {
+            this.path = path;
+        }
+
+        Column define(String name) {
+            Column column = new Column(columns.size());
+            columns.put(name, column);
+            return column;
+        }
+
+        void append(String name, long step, int epoch, double value) {
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                return;
+            }
+            Column column = columns.get(name);
+            try {
+                DataOutputStream stream = stream();
+                if (column == null) {
+                    column = define(name);
+                    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                    stream.writeByte(RECORD_NAME);
+                    stream.writeInt(column.id);
+                    stream.writeShort(bytes.length);
+                    stream.write(bytes);
+                }
+                stream.writeByte(RECORD_POINT);
+                stream.writeInt(column.id);
+                stream.writeLong(step);
+                stream.writeInt(epoch);
+                stream.writeDouble(value);
+            } catch (IOException e) {
+                log.error("写入训练指标日志失败: {}", path, e);
+                if (column == null) {
+                    column = define(name);
+                }
+            }
+            column.add(step, epoch, value);
+            lastStep = Math.max(lastStep, step);
+            lastEpoch = epoch;
+        }
+
+        DataOutputStream stream() throws IOException {
+            if (out == null) {
+                Files.createDirectories(path.getParent());
+                out = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024));
+                if (!exists) {
+                    out.writeInt(LOG_MAGIC);
+                    out.writeInt(LOG_VERSION);
+                    exists = true;
+                }
+            }
+            return out;
+        }
+
+        void flush() {
+            if (out != null) {
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    log.error("刷写训练指标日志失败: {}", path, e);
+                }
+            }
+        }
+
+        void close() {
+            closed = true;
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    log.error("关闭训练指标日志失败: {}", path, e);
+                }
+                out = null;
+            }
+        }
+    }
+
+    /**
+     * 单条曲线，按步数有序的列式数组
+     */
+    private static final class Column {
+
+        final int id;
+        long[] steps = new long[64];
+        int[] epochs = new int[64];
+        double[] values = new double[64];
+        int size;
+
+        Column(int id) {
+            this.id = id;
+        }
+
+        /**
+         * 追加点；步数不大于最后一步时先丢弃该步数及之后的点
+         */
+        void add(long step, int epoch, double value) {
+            if (size > 0 && step <= steps[size - 1]) {
+                size = lowerBound(step);
+            }
+            if (size == steps.length) {
+                int capacity = steps.length * 2;
+                steps = Arrays.copyOf(steps, capacity);
+                epochs = Arrays.copyOf(epochs, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            steps[size] = step;
+            epochs[size] = epoch;
+            values[size] = value;
+            size++;
+        }
+
+        /**
+         * 第一个步数不小于step的下标
+         */
+        int lowerBound(long step) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (steps[mid] < step) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
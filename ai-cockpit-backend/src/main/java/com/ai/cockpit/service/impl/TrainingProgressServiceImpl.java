@@ -0,0 +1,312 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.entity.TrainingTask;
+import com.ai.cockpit.entity.TrainingTaskStatus;
+import com.ai.cockpit.event.TrainingTaskDeltaEvent;
+import com.ai.cockpit.exception.BusinessException;
+import com.ai.cockpit.repository.TrainingTaskRepository;
+import com.ai.cockpit.service.TrainingProgressService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 训练进度写回缓冲服务实现类
+ * <p>
+ * 任务首次上报时查询一次状态并建立缓冲项，之后的上报只更新内存；写回使用只含变化列的批量UPDATE，
+ * 进度只写回运行中的任务。长时间没有上报的缓冲项在写回后移除，下次上报重新校验状态。
+ * 写回失败的任务保留在缓冲中，下次重试。
+ * 数据库写入不在服务级锁内执行：状态迁移在持有行锁的事务中调用evict，若evict等待正在等行锁的写回就会互相阻塞。
+ * 写回期间被evict移出的缓冲项，其最终值可能先于本次较旧的值写入，写回完成后按移出时的值重写一次。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrainingProgressServiceImpl implements TrainingProgressService {
+
+    private static final String PROGRESS_SQL = "UPDATE training_task SET progress = ?, current_epoch = ?, update_time = ? "
+            + "WHERE id = ? AND status = 1";
+
+    private static final String METRICS_SQL = "UPDATE training_task SET metrics = ?, update_time = ? WHERE id = ?";
+
+    private final TrainingTaskRepository trainingTaskRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** 缓冲项空闲多久（毫秒）后移除 */
+    @Value("${training.progress.idle-timeout:600000}")
+    private long idleTimeout;
+
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    /** 串行化定时写回与关闭时的写回，evict不使用 */
+    private final Object flushLock = new Object();
+
+    @Override
+    public void updateProgress(Long id, Integer progress, Integer currentEpoch) {
+        while (true) {
+            Pending entry = acquire(id);
+            synchronized (entry) {
+                if (entry.retired) {
+                    continue;
+                }
+                if (entry.status != TrainingTaskStatus.RUNNING) {
+                    throw new BusinessException("只有运行中的任务可以更新进度");
+                }
+                entry.progress = progress;
+                entry.currentEpoch = currentEpoch;
+                entry.progressDirty = true;
+                entry.touch();
+            }
+            eventPublisher.publishEvent(TrainingTaskDeltaEvent.progress(this, id, progress, currentEpoch));
+            log.debug("更新训练任务进度，任务ID：{}，进度：{}%，当前epoch：{}", id, progress, currentEpoch);
+            return;
+        }
+    }
+
+    @Override
+    public void updateMetrics(Long id, String metrics) {
+        while (true) {
+            Pending entry = acquire(id);
+            synchronized (entry) {
+                if (entry.retired) {
+                    continue;
+                }
+                entry.metrics = metrics;
+                entry.metricsDirty = true;
+                entry.touch();
+            }
+            eventPublisher.publishEvent(TrainingTaskDeltaEvent.metrics(this, id, metrics));
+            log.debug("更新训练任务指标，任务ID：{}", id);
+            return;
+        }
+    }
+
+    @Override
+    public void overlay(TrainingTask task) {
+        Pending entry = pending.get(task.getId());
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            if (entry.retired) {
+                return;
+            }
+            if (entry.progressTouched) {
+                task.setProgress(entry.progress);
+                task.setCurrentEpoch(entry.currentEpoch);
+            }
+            if (entry.metricsTouched) {
+                task.setMetrics(entry.metrics);
+            }
+            if (entry.updateTime != null) {
+                task.setUpdateTime(entry.updateTime);
+            }
+        }
+    }
+
+    @Override
+    public void evict(Long id) {
+        Pending entry = pending.remove(id);
+        if (entry == null) {
+            return;
+        }
+        List<Object[]> progressRows = new ArrayList<>(1);
+        List<Object[]> metricsRows = new ArrayList<>(1);
+        synchronized (entry) {
+            entry.retired = true;
+            entry.finalRows(id, progressRows, metricsRows);
+        }
+        write(progressRows, metricsRows);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${training.progress.flush-interval:1000}")
+    public void flush() {
+        synchronized (flushLock) {
+            doFlush();
+        }
+    }
+
+    private void doFlush() {
+        List<Object[]> progressRows = new ArrayList<>();
+        List<Object[]> metricsRows = new ArrayList<>();
+        Map<Long, Pending> drained = new HashMap<>();
+        pending.forEach((id, entry) -> {
+            synchronized (entry) {
+                if (entry.drain(id, progressRows, metricsRows)) {
+                    drained.put(id, entry);
+                }
+            }
+        });
+        boolean written = write(progressRows, metricsRows);
+        rewriteEvicted(drained);
+        if (!written) {
+            // 写回失败时重新标记，下次重试
+            for (Object[] row : progressRows) {
+                markDirty((Long) row[3], true, false);
+            }
+            for (Object[] row : metricsRows) {
+                markDirty((Long) row[2], false, true);
+            }
+            return;
+        }
+        long idleBefore = System.currentTimeMillis() - idleTimeout;
+        Iterator<Pending> iterator = pending.values().iterator();
+        while (iterator.hasNext()) {
+            Pending entry = iterator.next();
+            synchronized (entry) {
+                if (!entry.progressDirty && !entry.metricsDirty && entry.lastTouched < idleBefore) {
+                    entry.retired = true;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            log.info("训练进度写回完成，缓冲任务数：{}", pending.size());
+        }
+    }
+
+    /**
+     * 获取任务的缓冲项，首次上报时校验任务是否存在并记录其状态
+     */
+    private Pending acquire(Long id) {
+        Pending entry = pending.get(id);
+        if (entry != null) {
+            return entry;
+        }
+        TrainingTaskStatus status = trainingTaskRepository.findById(id)
+                .map(task -> task.getStatus() == null ? TrainingTaskStatus.PENDING : TrainingTaskStatus.of(task.getStatus()))
+                .orElseThrow(() -> new BusinessException("训练任务不存在"));
+        return pending.computeIfAbsent(id, k -> new Pending(status));
+    }
+
+    /**
+     * 重写写回期间被移出的缓冲项的最终值，保证较旧的值不会覆盖evict写入的值
+     */
+    private void rewriteEvicted(Map<Long, Pending> drained) {
+        List<Object[]> progressRows = new ArrayList<>();
+        List<Object[]> metricsRows = new ArrayList<>();
+        drained.forEach((id, entry) -> {
+            synchronized (entry) {
+                if (entry.retired) {
+                    entry.finalRows(id, progressRows, metricsRows);
+                }
+            }
+        });
+        write(progressRows, metricsRows);
+    }
+
+    private void markDirty(Long id, boolean progress, boolean metrics) {
+        Pending entry = pending.get(id);
+        if (entry != null) {
+            synchronized (entry) {
+                entry.progressDirty |= progress;
+                entry.metricsDirty |= metrics;
+            }
+        }
+    }
+
+    private boolean write(List<Object[]> progressRows, List<Object[]> metricsRows) {
+        try {
+            if (!progressRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(PROGRESS_SQL, progressRows);
+            }
+            if (!metricsRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(METRICS_SQL, metricsRows);
+            }
+            return true;
+        } catch (DataAccessException e) {
+            log.error("写回训练进度失败，进度数：{}，指标数：{}", progressRows.size(), metricsRows.size(), e);
+            return false;
+        }
+    }
+
+    /**
+     * 单个任务的缓冲项，由自身加锁
+     */
+    private static final class Pending {
+
+        /** 建立缓冲项时的任务状态 */
+        final TrainingTaskStatus status;
+
+        Integer progress;
+        Integer currentEpoch;
+        String metrics;
+        LocalDateTime updateTime;
+
+        /** 自上次写回后是否有变化 */
+        boolean progressDirty;
+        boolean metricsDirty;
+
+        /** 是否上报过，未上报的字段读取时不覆盖 */
+        boolean progressTouched;
+        boolean metricsTouched;
+
+        long lastTouched = System.currentTimeMillis();
+
+        /** 已移出缓冲，持有旧引用的调用方需要重新获取 */
+        boolean retired;
+
+        Pending(TrainingTaskStatus status) {
+            this.status = status;
+        }
+
+        void touch() {
+            progressTouched |= progressDirty;
+            metricsTouched |= metricsDirty;
+            updateTime = LocalDateTime.now();
+            lastTouched = System.currentTimeMillis();
+        }
+
+        /**
+         * 取出自上次写回后变化的列，返回是否有变化
+         */
+        boolean drain(Long id, List<Object[]> progressRows, List<Object[]> metricsRows) {
+            boolean dirty = progressDirty || metricsDirty;
+            Timestamp time = updateTime == null ? null : Timestamp.valueOf(updateTime);
+            if (progressDirty) {
+                progressRows.add(new Object[] {progress, currentEpoch, time, id});
+                progressDirty = false;
+            }
+            if (metricsDirty) {
+                metricsRows.add(new Object[] {metrics, time, id});
+                metricsDirty = false;
+            }
+            return dirty;
+        }
+
+        /**
+         * 移出缓冲时的全部已上报值，不论是否已写回
+         */
+        void finalRows(Long id, List<Object[]> progressRows, List<Object[]> metricsRows) {
+            Timestamp time = updateTime == null ? null : Timestamp.valueOf(updateTime);
+            if (progressTouched) {
+                progressRows.add(new Object[] {progress, currentEpoch, time, id});
+            }
+            if (metricsTouched) {
+                metricsRows.add(new Object[] {metrics, time, id});
+            }
+        }
+    }
+}
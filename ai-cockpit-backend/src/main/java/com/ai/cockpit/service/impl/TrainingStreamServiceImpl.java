@@ -0,0 +1,278 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.event.TrainingTaskDeltaEvent;
+import com.ai.cockpit.exception.BusinessException;
+import com.ai.cockpit.service.TrainingStreamService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 训练任务实时推送服务实现类
+ * <p>
+ * 增量事件按任务ID找到订阅连接后并入各连接的待推送表（每个任务只保留合并后的一条），
+ * 定时分发时把满足最小间隔且没有在途写入的连接交给发送线程；写入失败或超时的连接直接移除。
+ * 没有连接时事件直接丢弃。
+ */
+@Slf4j
+@Service
+public class TrainingStreamServiceImpl implements TrainingStreamService {
+
+    /** 连接超时（毫秒），客户端断开后由EventSource自动重连 */
+    @Value("${training.stream.timeout:1800000}")
+    private long timeout;
+
+    /** 同一连接两次推送的最小间隔（毫秒） */
+    @Value("${training.stream.min-interval:500}")
+    private long minInterval;
+
+    /** 空闲连接的心跳间隔（毫秒） */
+    @Value("${training.stream.heartbeat-interval:15000}")
+    private long heartbeatInterval;
+
+    @Value("${training.stream.max-connections:1000}")
+    private int maxConnections;
+
+    @Value("${training.stream.sender-threads:4}")
+    private int senderThreads;
+
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+
+    /** 任务ID -> 订阅该任务的连接（含用户级连接） */
+    private final ConcurrentHashMap<Long, Set<Connection>> byTask = new ConcurrentHashMap<>();
+
+    /** 用户ID -> 用户级连接 */
+    private final ConcurrentHashMap<Long, Set<Connection>> byUser = new ConcurrentHashMap<>();
+
+    /** 每个连接同一时刻最多一个发送任务，队列长度不超过连接数 */
+    private ThreadPoolExecutor senders;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        senders = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "training-stream-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        senders.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        for (Connection connection : connections) {
+            connection.emitter.complete();
+        }
+        connections.clear();
+    }
+
+    @Override
+    public SseEmitter subscribeTask(Long taskId, Object snapshot) {
+        Connection connection = open(null, snapshot);
+        connection.taskIds.add(taskId);
+        index(byTask, taskId, connection);
+        return connection.emitter;
+    }
+
+    @Override
+    public SseEmitter subscribeUser(Long userId, Collection<Long> taskIds, Object snapshot) {
+        Connection connection = open(userId, snapshot);
+        index(byUser, userId, connection);
+        for (Long taskId : taskIds) {
+            if (connection.taskIds.add(taskId)) {
+                index(byTask, taskId, connection);
+            }
+        }
+        return connection.emitter;
+    }
+
+    @Override
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDelta(TrainingTaskDeltaEvent event) {
+        if (connections.isEmpty()) {
+            return;
+        }
+        if (event.getCreatorId() != null) {
+            Set<Connection> owners = byUser.get(event.getCreatorId());
+            if (owners != null) {
+                for (Connection connection : owners) {
+                    if (connection.taskIds.add(event.getTaskId())) {
+                        index(byTask, event.getTaskId(), connection);
+                    }
+                }
+            }
+        }
+        Set<Connection> subscribers = byTask.get(event.getTaskId());
+        if (subscribers == null) {
+            return;
+        }
+        Delta delta = Delta.of(event);
+        for (Connection connection : subscribers) {
+            synchronized (connection) {
+                connection.pending.merge(delta.taskId(), delta, Delta::merge);
+            }
+        }
+    }
+
+    /**
+     * 把到期的待推送增量交给发送线程，空闲连接发送心跳
+     */
+    @Scheduled(fixedDelayString = "${training.stream.dispatch-interval:100}")
+    public void dispatch() {
+        long now = System.currentTimeMillis();
+        for (Connection connection : connections) {
+            List<Delta> batch;
+            synchronized (connection) {
+                if (connection.sending) {
+                    continue;
+                }
+                boolean due = now - connection.lastSent >= minInterval;
+                if (due && !connection.pending.isEmpty()) {
+                    batch = new ArrayList<>(connection.pending.values());
+                    connection.pending.clear();
+                } else if (now - connection.lastSent >= heartbeatInterval) {
+                    batch = null;
+                } else {
+                    continue;
+                }
+                connection.sending = true;
+            }
+            senders.execute(() -> send(connection, batch));
+        }
+    }
+
+    private void send(Connection connection, List<Delta> batch) {
+        try {
+            if (batch == null) {
+                connection.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else {
+                connection.emitter.send(SseEmitter.event().name("delta").data(batch, MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("训练推送连接已断开: {}", e.getMessage());
+            close(connection);
+        } finally {
+            synchronized (connection) {
+                connection.sending = false;
+                connection.lastSent = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private Connection open(Long userId, Object snapshot) {
+        if (connections.size() >= maxConnections) {
+            throw new BusinessException("训练推送连接数已达上限");
+        }
+        Connection connection = new Connection(new SseEmitter(timeout), userId);
+        connection.emitter.onCompletion(() -> close(connection));
+        connection.emitter.onTimeout(() -> close(connection));
+        connection.emitter.onError(e -> close(connection));
+        try {
+            connection.emitter.send(SseEmitter.event().name("snapshot").data(snapshot, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new BusinessException("训练推送连接建立失败");
+        }
+        connection.lastSent = System.currentTimeMillis();
+        connections.add(connection);
+        return connection;
+    }
+
+    private void close(Connection connection) {
+        if (!connections.remove(connection)) {
+            return;
+        }
+        for (Long taskId : connection.taskIds) {
+            unindex(byTask, taskId, connection);
+        }
+        if (connection.userId != null) {
+            unindex(byUser, connection.userId, connection);
+        }
+        connection.emitter.complete();
+    }
+
+    private static void index(ConcurrentHashMap<Long, Set<Connection>> index, Long key, Connection connection) {
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(connection);
+    }
+
+    private static void unindex(ConcurrentHashMap<Long, Set<Connection>> index, Long key, Connection connection) {
+        index.computeIfPresent(key, (k, set) -> {
+            set.remove(connection);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * 单个SSE连接，待推送表与发送状态由自身加锁
+     */
+    private static final class Connection {
+
+        final SseEmitter emitter;
+
+        /** 用户级连接的用户ID，任务级连接为null */
+        final Long userId;
+
+        final Set<Long> taskIds = ConcurrentHashMap.newKeySet();
+
+        /** 任务ID -> 合并后的增量 */
+        final Map<Long, Delta> pending = new LinkedHashMap<>();
+
+        long lastSent;
+
+        /** 是否有在途写入 */
+        boolean sending;
+
+        Connection(SseEmitter emitter, Long userId) {
+            this.emitter = emitter;
+            this.userId = userId;
+        }
+    }
+
+    /**
+     * 推送给客户端的任务增量，未变化的字段为null
+     */
+    public record Delta(Long taskId, Integer progress, Integer currentEpoch, String metrics, Integer status,
+                        long updatedAt) {
+
+        static Delta of(TrainingTaskDeltaEvent event) {
+            return new Delta(event.getTaskId(), event.getProgress(), event.getCurrentEpoch(), event.getMetrics(),
+                    event.getStatus(), event.getUpdatedAt());
+        }
+
+        /**
+         * 用较新的增量覆盖本增量中对应的字段
+         */
+        Delta merge(Delta newer) {
+            return new Delta(taskId,
+                    newer.progress != null ? newer.progress : progress,
+                    newer.currentEpoch != null ? newer.currentEpoch : currentEpoch,
+                    newer.metrics != null ? newer.metrics : metrics,
+                    newer.status != null ? newer.status : status,
+                    Math.max(updatedAt, newer.updatedAt));
+        }
+    }
+}
@@ -1,19 +1,42 @@
 package com.ai.cockpit.service.impl;
 
+import com.ai.cockpit.dto.request.TrainingMetricPointRequest;
+import com.ai.cockpit.dto.request.TrainingTaskBatchStatusRequest;
 import com.ai.cockpit.dto.request.TrainingTaskRequest;
 import com.ai.cockpit.dto.response.TrainingTaskResponse;
 import com.ai.cockpit.entity.TrainingTask;
+import com.ai.cockpit.entity.TrainingTaskStatus;
+import com.ai.cockpit.event.TrainingTaskDeltaEvent;
 import com.ai.cockpit.exception.BusinessException;
 import com.ai.cockpit.mapper.TrainingTaskMapper;
 import com.ai.cockpit.repository.TrainingTaskRepository;
+import com.ai.cockpit.service.TrainingArtifactService;
+import com.ai.cockpit.service.TrainingEtaService;
+import com.ai.cockpit.service.TrainingJobExecutor;
+import com.ai.cockpit.service.TrainingLogService;
+import com.ai.cockpit.service.TrainingMetricsService;
+import com.ai.cockpit.service.TrainingProgressService;
+import com.ai.cockpit.service.TrainingStreamService;
 import com.ai.cockpit.service.TrainingTaskService;
+import com.ai.cockpit.service.TrainingTaskStateMachine;
+import com.ai.cockpit.service.TrainingTaskStateMachine.Changes;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 训练任务服务实现类
@@ -25,6 +48,19 @@ public class TrainingTaskServiceImpl implements TrainingTaskService {
     
     private final TrainingTaskRepository trainingTaskRepository;
     private final TrainingTaskMapper trainingTaskMapper;
+    private final TrainingProgressService trainingProgressService;
+    private final TrainingMetricsService trainingMetricsService;
+    private final TrainingStreamService trainingStreamService;
+    private final TrainingJobExecutor trainingJobExecutor;
+    private final TrainingLogService trainingLogService;
+    private final TrainingArtifactService trainingArtifactService;
+    private final TrainingEtaService trainingEtaService;
+    private final TrainingTaskStateMachine trainingTaskStateMachine;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    /** 批量变更状态的单次任务数上限 */
+    @Value("${training.status.max-batch-size:1000}")
+    private int maxBatchSize;
     
     @Override
     @Transactional
@@ -36,7 +72,8 @@ public class TrainingTaskServiceImpl implements TrainingTaskService {
         
         TrainingTask task = trainingTaskMapper.toEntity(request);
         // 设置默认值
-        task.setStatus(0); // 等待中
+        task.setStatus(TrainingTaskStatus.PENDING.getCode());
+        task.setPriority(request.getPriority() == null ? 0 : request.getPriority());
         task.setProgress(0);
         task.setCurrentEpoch(0);
         task.setCreateTime(LocalDateTime.now());
@@ -44,6 +81,7 @@ public class TrainingTaskServiceImpl implements TrainingTaskService {
         // TODO: 设置创建者信息
         
         TrainingTask savedTask = trainingTaskRepository.save(task);
+        publishStatus(savedTask);
         log.info("创建训练任务成功，任务ID：{}", savedTask.getId());
         
         return trainingTaskMapper.toResponse(savedTask);
@@ -61,6 +99,7 @@ public class TrainingTaskServiceImpl implements TrainingTaskService {
             throw new BusinessException("任务名称已存在");
         }
         
+        trainingProgressService.overlay(task);
         trainingTaskMapper.updateEntity(request, task);
         task.setUpdateTime(LocalDateTime.now());
         
@@ -73,15 +112,18 @@ public class TrainingTaskServiceImpl implements TrainingTaskService {
     @Override
     @Transactional
     public void deleteTask(Long id) {
+        trainingProgressService.evict(id);
         TrainingTask task = trainingTaskRepository.findById(id)
                 .orElseThrow(() -> new BusinessException("训练任务不存在"));
         
-        // 检查任务状态，运行中的任务不能删除
-        if (task.getStatus() == 1 || task.getStatus() == 2) {
+        // 检查任务状态，运行中与排队中的任务不能删除
+        if (task.getStatus() == TrainingTaskStatus.RUNNING.getCode() || task.getStatus() == TrainingTaskStatus.QUEUED.getCode()) {
             throw new BusinessException("运行中的任务不能删除");
         }
         
-        trainingTaskRepository.deleteById(id);
+        trainingTaskRepository.delete(task);
+        trainingMetricsService.delete(id);
+        trainingArtifactService.deleteTask(id);
         log.info("删除训练任务成功，任务ID：{}", id);
     }
     
@@ -89,6 +131,7 @@ public class TrainingTaskServiceImpl implements TrainingTaskService {
     public TrainingTaskResponse findById(Long id) {
         TrainingTask task = trainingTaskRepository.findById(id)
                 .orElseThrow(() -> new BusinessException("训练任务不存在"));
+        trainingProgressService.overlay(task);
         return trainingTaskMapper.toResponse(task);
     }
     
@@ -96,157 +139,298 @@ public class TrainingTaskServiceImpl implements TrainingTaskService {
     public TrainingTaskResponse findByName(String name) {
         TrainingTask task = trainingTaskRepository.findByName(name)
                 .orElseThrow(() -> new BusinessException("训练任务不存在"));
+        trainingProgressService.overlay(task);
         return trainingTaskMapper.toResponse(task);
     }
     
     @Override
     public List<TrainingTaskResponse> findAllTasks() {
         List<TrainingTask> tasks = trainingTaskRepository.findAll();
+        tasks.forEach(trainingProgressService::overlay);
         return trainingTaskMapper.toResponseList(tasks);
     }
     
     @Override
     public List<TrainingTaskResponse> findByStatus(Integer status) {
         List<TrainingTask> tasks = trainingTaskRepository.findByStatus(status);
+        tasks.forEach(trainingProgressService::overlay);
         return trainingTaskMapper.toResponseList(tasks);
     }
     
     @Override
     public List<TrainingTaskResponse> findByModelId(Long modelId) {
         List<TrainingTask> tasks = trainingTaskRepository.findByModelId(modelId);
+        tasks.forEach(trainingProgressService::overlay);
         return trainingTaskMapper.toResponseList(tasks);
     }
     
     @Override
     public List<TrainingTaskResponse> findByDatasetId(Long datasetId) {
         List<TrainingTask> tasks = trainingTaskRepository.findByDatasetId(datasetId);
+        tasks.forEach(trainingProgressService::overlay);
         return trainingTaskMapper.toResponseList(tasks);
     }
     
     @Override
     public List<TrainingTaskResponse> findByCreatorId(Long creatorId) {
         List<TrainingTask> tasks = trainingTaskRepository.findByCreatorId(creatorId);
+        tasks.forEach(trainingProgressService::overlay);
         return trainingTaskMapper.toResponseList(tasks);
     }
     
     @Override
     @Transactional
     public void startTask(Long id) {
-        TrainingTask task = trainingTaskRepository.findById(id)
-                .orElseThrow(() -> new BusinessException("训练任务不存在"));
-        
-        if (task.getStatus() != 0) {
-            throw new BusinessException("只有等待中的任务可以启动");
+        if (trainingJobExecutor.isEnabled()) {
+            // 进入执行队列，由执行器按并发上限与公平份额启动
+            transitionOrReject(id, TrainingTaskStatus.QUEUED, EnumSet.of(TrainingTaskStatus.PENDING),
+                    Changes.none().queuedTime(LocalDateTime.now()), "只有等待中的任务可以启动");
+            trainingJobExecutor.enqueue(trainingTaskRepository.findById(id)
+                    .orElseThrow(() -> new BusinessException("训练任务不存在")));
+        } else {
+            transitionOrReject(id, TrainingTaskStatus.RUNNING, EnumSet.of(TrainingTaskStatus.PENDING),
+                    Changes.none().startTime(LocalDateTime.now()), "只有等待中的任务可以启动");
         }
-        
-        task.setStatus(1); // 运行中
-        task.setStartTime(LocalDateTime.now());
-        task.setUpdateTime(LocalDateTime.now());
-        
-        trainingTaskRepository.save(task);
         log.info("启动训练任务成功，任务ID：{}", id);
-        
-        // TODO: 调用实际的训练服务
     }
     
     @Override
     @Transactional
     public void stopTask(Long id) {
-        TrainingTask task = trainingTaskRepository.findById(id)
-                .orElseThrow(() -> new BusinessException("训练任务不存在"));
-        
-        if (task.getStatus() != 1 && task.getStatus() != 2) {
-            throw new BusinessException("只有运行中的任务可以停止");
-        }
-        
-        task.setStatus(3); // 已停止
-        task.setEndTime(LocalDateTime.now());
-        task.setUpdateTime(LocalDateTime.now());
-        
-        trainingTaskRepository.save(task);
+        transitionOrReject(id, TrainingTaskStatus.FAILED, EnumSet.of(TrainingTaskStatus.RUNNING, TrainingTaskStatus.QUEUED),
+                Changes.none().endTime(LocalDateTime.now()), "只有运行中或排队中的任务可以停止");
+        trainingJobExecutor.cancel(id, TrainingTaskStatus.FAILED);
         log.info("停止训练任务成功，任务ID：{}", id);
-        
-        // TODO: 调用实际的停止训练服务
     }
     
     @Override
     @Transactional
     public void cancelTask(Long id) {
-        TrainingTask task = trainingTaskRepository.findById(id)
-                .orElseThrow(() -> new BusinessException("训练任务不存在"));
-        
-        if (task.getStatus() == 2 || task.getStatus() == 4) {
-            throw new BusinessException("已完成或已取消的任务不能再次取消");
-        }
-        
-        task.setStatus(4); // 已取消
-        task.setEndTime(LocalDateTime.now());
-        task.setUpdateTime(LocalDateTime.now());
-        
-        trainingTaskRepository.save(task);
+        transitionOrReject(id, TrainingTaskStatus.CANCELLED, TrainingTaskStatus.sourcesOf(TrainingTaskStatus.CANCELLED),
+                Changes.none().endTime(LocalDateTime.now()), "已结束的任务不能取消");
+        trainingJobExecutor.cancel(id, TrainingTaskStatus.CANCELLED);
         log.info("取消训练任务成功，任务ID：{}", id);
     }
     
     @Override
-    @Transactional
-    public void updateProgress(Long id, Integer progress, Integer currentEpoch) {
+    public SseEmitter streamTask(Long id) {
         TrainingTask task = trainingTaskRepository.findById(id)
                 .orElseThrow(() -> new BusinessException("训练任务不存在"));
-        
-        if (task.getStatus() != 1 && task.getStatus() != 2) {
-            throw new BusinessException("只有运行中的任务可以更新进度");
-        }
-        
-        task.setProgress(progress);
-        task.setCurrentEpoch(currentEpoch);
-        task.setUpdateTime(LocalDateTime.now());
-        
-        trainingTaskRepository.save(task);
-        log.debug("更新训练任务进度，任务ID：{}，进度：{}%，当前epoch：{}", id, progress, currentEpoch);
+        trainingProgressService.overlay(task);
+        return trainingStreamService.subscribeTask(id, trainingTaskMapper.toResponse(task));
+    }
+    
+    @Override
+    public SseEmitter streamUserTasks(Long userId) {
+        List<TrainingTask> tasks = trainingTaskRepository.findByCreatorId(userId);
+        tasks.forEach(trainingProgressService::overlay);
+        List<Long> taskIds = tasks.stream().map(TrainingTask::getId).toList();
+        return trainingStreamService.subscribeUser(userId, taskIds, trainingTaskMapper.toResponseList(tasks));
+    }
+    
+    @Override
+    public Map<String, Object> getLogLines(Long id, Long fromLine, Integer count) {
+        return trainingLogService.readLines(id, logPath(id), fromLine == null ? 0 : fromLine, count == null ? 100 : count);
+    }
+    
+    @Override
+    public Map<String, Object> getLogTail(Long id, Integer lines) {
+        return trainingLogService.tail(id, logPath(id), lines == null ? 500 : lines);
+    }
+    
+    @Override
+    public Map<String, Object> getLogBytes(Long id, Long offset, Integer length) {
+        return trainingLogService.readBytes(id, logPath(id), offset == null ? 0 : offset, length == null ? 65536 : length);
+    }
+    
+    @Override
+    public SseEmitter followLog(Long id, Long fromOffset, Integer tailLines) {
+        return trainingLogService.follow(id, logPath(id), fromOffset, tailLines == null ? 0 : tailLines);
+    }
+    
+    @Override
+    public Map<String, Object> getExecutorStatus() {
+        return trainingJobExecutor.getStatus();
+    }
+    
+    @Override
+    public Map<String, Object> getEta(Long id) {
+        return trainingEtaService.getEta(id);
+    }
+    
+    @Override
+    public Map<String, Object> forecastQueue() {
+        return trainingEtaService.forecastQueue();
+    }
+    
+    @Override
+    public Map<String, Object> importCheckpoint(Long id, String name, String path) {
+        checkExists(id);
+        return trainingArtifactService.importCheckpoint(id, name, path);
+    }
+    
+    @Override
+    public List<Map<String, Object>> listCheckpoints(Long id) {
+        checkExists(id);
+        return trainingArtifactService.listCheckpoints(id);
+    }
+    
+    @Override
+    public Map<String, Object> getCheckpoint(Long id, String name) {
+        return trainingArtifactService.getCheckpoint(id, name);
+    }
+    
+    @Override
+    public long getCheckpointFileSize(Long id, String name, String file) {
+        return trainingArtifactService.getFileSize(id, name, file);
+    }
+    
+    @Override
+    public void writeCheckpointFile(Long id, String name, String file, WritableByteChannel target) {
+        trainingArtifactService.writeFile(id, name, file, target);
+    }
+    
+    @Override
+    public Map<String, Object> getArtifactStats() {
+        return trainingArtifactService.getStats();
+    }
+    
+    @Override
+    public void updateProgress(Long id, Integer progress, Integer currentEpoch) {
+        trainingProgressService.updateProgress(id, progress, currentEpoch);
     }
     
     @Override
-    @Transactional
     public void updateMetrics(Long id, String metrics) {
-        TrainingTask task = trainingTaskRepository.findById(id)
-                .orElseThrow(() -> new BusinessException("训练任务不存在"));
-        
-        task.setMetrics(metrics);
-        task.setUpdateTime(LocalDateTime.now());
-        
-        trainingTaskRepository.save(task);
-        log.debug("更新训练任务指标，任务ID：{}", id);
+        trainingProgressService.updateMetrics(id, metrics);
+        trainingMetricsService.appendSnapshot(id, metrics);
+    }
+    
+    @Override
+    public void appendMetricPoints(Long id, List<TrainingMetricPointRequest> points) {
+        checkExists(id);
+        trainingMetricsService.append(id, points);
+    }
+    
+    @Override
+    public List<String> getMetricNames(Long id) {
+        checkExists(id);
+        return trainingMetricsService.getNames(id);
+    }
+    
+    @Override
+    public Map<String, Object> getMetricCurve(Long id, String name, Long fromStep, Long toStep, Integer width) {
+        checkExists(id);
+        if (fromStep != null && toStep != null && fromStep > toStep) {
+            throw new BusinessException("起始步数不能大于结束步数");
+        }
+        return trainingMetricsService.getCurve(id, name, fromStep, toStep, width);
     }
     
     @Override
     @Transactional
     public void updateStatus(Long id, Integer status) {
-        TrainingTask task = trainingTaskRepository.findById(id)
-                .orElseThrow(() -> new BusinessException("训练任务不存在"));
-        
-        task.setStatus(status);
-        task.setUpdateTime(LocalDateTime.now());
-        
-        if (status == 2) { // 已完成
-            task.setEndTime(LocalDateTime.now());
+        TrainingTaskStatus target = targetStatus(status);
+        transitionOrReject(id, target, TrainingTaskStatus.sourcesOf(target), changesFor(target, null),
+                "当前状态不能变更为" + target.getDescription());
+        afterTransition(target, List.of(id));
+        log.info("更新训练任务状态，任务ID：{}，新状态：{}", id, status);
+    }
+    
+    @Override
+    @Transactional
+    public Map<String, Object> batchUpdateStatus(TrainingTaskBatchStatusRequest request) {
+        if (request.getIds().size() > maxBatchSize) {
+            throw new BusinessException("单次最多变更" + maxBatchSize + "个任务");
         }
+        TrainingTaskStatus target = targetStatus(request.getStatus());
+        List<Long> updatedIds = trainingTaskStateMachine.transitionAll(request.getIds(), TrainingTaskStatus.sourcesOf(target),
+                target, changesFor(target, request.getErrorMessage()));
+        afterTransition(target, updatedIds);
         
-        trainingTaskRepository.save(task);
-        log.info("更新训练任务状态，任务ID：{}，新状态：{}", id, status);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requested", request.getIds().size());
+        result.put("updated", updatedIds.size());
+        result.put("updatedIds", updatedIds);
+        return result;
     }
     
     @Override
     @Transactional
     public void recordError(Long id, String errorMessage) {
+        transitionOrReject(id, TrainingTaskStatus.FAILED, TrainingTaskStatus.sourcesOf(TrainingTaskStatus.FAILED),
+                changesFor(TrainingTaskStatus.FAILED, errorMessage), "只有运行中或排队中的任务可以记录错误");
+        trainingJobExecutor.cancel(id, TrainingTaskStatus.FAILED);
+        log.error("记录训练任务错误，任务ID：{}，错误信息：{}", id, errorMessage);
+    }
+    
+    /**
+     * 比较并交换迁移状态，失败时区分任务不存在与状态不允许
+     */
+    private void transitionOrReject(Long id, TrainingTaskStatus target, Set<TrainingTaskStatus> from, Changes changes,
+                                    String rejectMessage) {
+        if (!trainingTaskStateMachine.transition(id, from, target, changes)) {
+            checkExists(id);
+            throw new BusinessException(rejectMessage);
+        }
+    }
+    
+    private TrainingTaskStatus targetStatus(Integer status) {
+        TrainingTaskStatus target;
+        try {
+            target = TrainingTaskStatus.of(status);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("未知的训练状态：" + status);
+        }
+        if (target == TrainingTaskStatus.PENDING) {
+            throw new BusinessException("任务不能变更为等待中");
+        }
+        if (target == TrainingTaskStatus.QUEUED && !trainingJobExecutor.isEnabled()) {
+            throw new BusinessException("本地训练执行器未启用，任务不能进入排队");
+        }
+        return target;
+    }
+    
+    private static Changes changesFor(TrainingTaskStatus target, String errorMessage) {
+        LocalDateTime now = LocalDateTime.now();
+        return switch (target) {
+            case QUEUED -> Changes.none().queuedTime(now);
+            case RUNNING -> Changes.none().startTime(now);
+            case FAILED -> Changes.none().endTime(now).errorMessage(errorMessage);
+            default -> Changes.none().endTime(now);
+        };
+    }
+    
+    /**
+     * 迁移后同步执行器：进入排队的任务加入执行队列，结束的任务移出队列或终止进程
+     */
+    private void afterTransition(TrainingTaskStatus target, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (target == TrainingTaskStatus.QUEUED) {
+            trainingTaskRepository.findAllById(ids).forEach(trainingJobExecutor::enqueue);
+        } else if (target == TrainingTaskStatus.FAILED || target == TrainingTaskStatus.CANCELLED) {
+            ids.forEach(id -> trainingJobExecutor.cancel(id, target));
+        }
+    }
+    
+    private void checkExists(Long id) {
+        if (!trainingTaskRepository.existsById(id)) {
+            throw new BusinessException("训练任务不存在");
+        }
+    }
+    
+    private void publishStatus(TrainingTask task) {
+        eventPublisher.publishEvent(TrainingTaskDeltaEvent.status(this, task.getId(), task.getCreatorId(), task.getStatus()));
+    }
+    
+    private Path logPath(Long id) {
         TrainingTask task = trainingTaskRepository.findById(id)
                 .orElseThrow(() -> new BusinessException("训练任务不存在"));
-        
-        task.setStatus(3); // 失败
-        task.setErrorMessage(errorMessage);
-        task.setEndTime(LocalDateTime.now());
-        task.setUpdateTime(LocalDateTime.now());
-        
-        trainingTaskRepository.save(task);
-        log.error("记录训练任务错误，任务ID：{}，错误信息：{}", id, errorMessage);
+        if (task.getLogPath() == null || task.getLogPath().isBlank()) {
+            throw new BusinessException("训练日志不存在");
+        }
+        return Paths.get(task.getLogPath());
     }
 }
\ No newline at end of file
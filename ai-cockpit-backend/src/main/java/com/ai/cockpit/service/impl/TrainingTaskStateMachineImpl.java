@@ -0,0 +1,128 @@
+package com.ai.cockpit.service.impl;
+
+import com.ai.cockpit.entity.TrainingTaskStatus;
+import com.ai.cockpit.event.TrainingTaskDeltaEvent;
+import com.ai.cockpit.service.TrainingProgressService;
+import com.ai.cockpit.service.TrainingTaskStateMachine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 训练任务状态机实现类
+ * <p>
+ * 迁移前后各清理一次进度缓冲：迁移前写回运行中的进度，迁移后丢弃缓冲中记录的旧状态。
+ * 批量迁移先用SELECT ... FOR UPDATE锁定处于来源状态的行并取得创建者（推送事件需要），
+ * 再用一条UPDATE ... WHERE id IN (...)完成迁移，锁定保证返回的ID与实际更新的行一致。
+ * 进度与指标的周期写回不递增version，只有状态迁移和实体保存会递增。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrainingTaskStateMachineImpl implements TrainingTaskStateMachine {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TrainingProgressService trainingProgressService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public boolean transition(Long id, Set<TrainingTaskStatus> from, TrainingTaskStatus to, Changes changes) {
+        checkTransitions(from, to);
+        trainingProgressService.evict(id);
+        List<Object> args = new ArrayList<>();
+        String sql = updateSql(to, changes, args) + " WHERE id = ? AND status IN (" + placeholders(from.size()) + ")";
+        args.add(id);
+        from.forEach(status -> args.add(status.getCode()));
+        int updated = jdbcTemplate.update(sql, args.toArray());
+        trainingProgressService.evict(id);
+        if (updated == 0) {
+            return false;
+        }
+        Long creatorId = jdbcTemplate.queryForList("SELECT creator_id FROM training_task WHERE id = ?", Long.class, id)
+                .stream().findFirst().orElse(null);
+        eventPublisher.publishEvent(TrainingTaskDeltaEvent.status(this, id, creatorId, to.getCode()));
+        log.debug("训练任务状态迁移，任务ID：{}，新状态：{}", id, to);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public List<Long> transitionAll(Collection<Long> ids, Set<TrainingTaskStatus> from, TrainingTaskStatus to, Changes changes) {
+        checkTransitions(from, to);
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        if (distinct.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Object> selectArgs = new ArrayList<>(distinct);
+        from.forEach(status -> selectArgs.add(status.getCode()));
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT id, creator_id FROM training_task WHERE id IN ("
+                + placeholders(distinct.size()) + ") AND status IN (" + placeholders(from.size()) + ") ORDER BY id FOR UPDATE",
+                selectArgs.toArray());
+        if (rows.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> matched = rows.stream().map(row -> ((Number) row.get("id")).longValue()).collect(Collectors.toList());
+        matched.forEach(trainingProgressService::evict);
+
+        List<Object> args = new ArrayList<>();
+        String sql = updateSql(to, changes, args) + " WHERE id IN (" + placeholders(matched.size()) + ")";
+        args.addAll(matched);
+        int updated = jdbcTemplate.update(sql, args.toArray());
+        matched.forEach(trainingProgressService::evict);
+        for (Map<String, Object> row : rows) {
+            Number creatorId = (Number) row.get("creator_id");
+            eventPublisher.publishEvent(TrainingTaskDeltaEvent.status(this, ((Number) row.get("id")).longValue(),
+                    creatorId == null ? null : creatorId.longValue(), to.getCode()));
+        }
+        log.info("批量迁移训练任务状态，请求{}个，迁移{}个，新状态：{}", distinct.size(), updated, to);
+        return matched;
+    }
+
+    private static void checkTransitions(Set<TrainingTaskStatus> from, TrainingTaskStatus to) {
+        if (from.isEmpty()) {
+            throw new IllegalArgumentException("来源状态不能为空");
+        }
+        for (TrainingTaskStatus status : from) {
+            if (!status.canTransitionTo(to)) {
+                throw new IllegalArgumentException("不允许的状态迁移：" + status + " -> " + to);
+            }
+        }
+    }
+
+    private static String updateSql(TrainingTaskStatus to, Changes changes, List<Object> args) {
+        StringBuilder sql = new StringBuilder("UPDATE training_task SET status = ?, version = version + 1, update_time = ?");
+        args.add(to.getCode());
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        Map<String, Object> columns = changes.columns();
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            sql.append(", ").append(column.getKey()).append(" = ?");
+            Object value = column.getValue();
+            args.add(value instanceof LocalDateTime time ? Timestamp.valueOf(time) : value);
+        }
+        // 结束时未指定时长的按开始到结束时间计算
+        if (columns.get("end_time") instanceof LocalDateTime endTime && !columns.containsKey("duration")) {
+            sql.append(", duration = TIMESTAMPDIFF(SECOND, start_time, ?)");
+            args.add(Timestamp.valueOf(endTime));
+        }
+        return sql.toString();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
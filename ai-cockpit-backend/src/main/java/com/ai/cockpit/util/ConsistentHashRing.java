@@ -0,0 +1,98 @@
+package com.ai.cockpit.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 一致性哈希环
+ * <p>
+ * 每个节点在环上放置若干虚拟节点，键归属于顺时针方向的第一个虚拟节点。
+ * 节点增减时只有相邻区间的键发生迁移。环构建后不可变，查找为有序数组上的二分查找。
+ */
+public class ConsistentHashRing {
+
+    /** 虚拟节点位置（升序） */
+    private final long[] points;
+
+    /** 虚拟节点对应的物理节点 */
+    private final String[] owners;
+
+    private final List<String> nodes;
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        TreeSet<String> sorted = new TreeSet<>(nodes);
+        this.nodes = List.copyOf(sorted);
+        int total = sorted.size() * virtualNodes;
+        long[] keys = new long[total];
+        int[] order = new int[total];
+        String[] candidates = new String[total];
+        int index = 0;
+        for (String node : sorted) {
+            long seed = hash(node.getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < virtualNodes; i++) {
+                keys[index] = mix(seed + i * 0x9E3779B97F4A7C15L);
+                candidates[index] = node;
+                order[index] = index;
+                index++;
+            }
+        }
+        Integer[] boxed = Arrays.stream(order).boxed().toArray(Integer[]::new);
+        Arrays.sort(boxed, (a, b) -> Long.compare(keys[a], keys[b]));
+        this.points = new long[total];
+        this.owners = new String[total];
+        for (int i = 0; i < total; i++) {
+            points[i] = keys[boxed[i]];
+            owners[i] = candidates[boxed[i]];
+        }
+    }
+
+    /**
+     * 获取键所属的节点，环为空时返回null
+     */
+    public String nodeFor(long key) {
+        if (points.length == 0) {
+            return null;
+        }
+        long h = mix(key);
+        int index = Arrays.binarySearch(points, h);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    public boolean isEmpty() {
+        return points.length == 0;
+    }
+
+    /**
+     * 64位FNV-1a哈希
+     */
+    private static long hash(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * MurmurHash3的64位终结混淆函数
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9a7c3b0c1e5L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,133 @@
+package com.ai.cockpit.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 基于内容的分块（FastCDC思路）
+ * <p>
+ * 逐字节滚动Gear哈希h = (h << 1) + GEAR[b]，哈希高位与掩码全为0处切分，边界只取决于附近的内容，
+ * 文件中间插入或修改数据只影响附近几个块，其余块的哈希不变，可以按哈希去重。
+ * 块长度不足minSize时不判断边界，达到maxSize时强制切分；未达到平均长度前使用更严格的掩码、之后使用更宽松的掩码
+ * （归一化分块），块长度集中在平均值附近。分块时同时计算每个块的SHA-256，只读取一遍数据。
+ */
+public class ContentDefinedChunker {
+
+    private static final long[] GEAR = new long[256];
+
+    static {
+        // 固定种子生成的随机表，分块边界在不同节点、不同版本间保持一致
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < GEAR.length; i++) {
+            seed += 0x9E3779B97F4A7C15L;
+            long z = seed;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            GEAR[i] = z ^ (z >>> 31);
+        }
+    }
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final int minSize;
+
+    private final int avgSize;
+
+    private final int maxSize;
+
+    /** 未达到平均长度时使用的掩码（多2位，更难命中） */
+    private final long strictMask;
+
+    /** 达到平均长度后使用的掩码（少2位，更易命中） */
+    private final long looseMask;
+
+    public ContentDefinedChunker(int minSize, int avgSize, int maxSize) {
+        if (minSize <= 0 || minSize > avgSize || avgSize > maxSize) {
+            throw new IllegalArgumentException("chunk sizes must satisfy 0 < min <= avg <= max");
+        }
+        this.minSize = minSize;
+        this.avgSize = avgSize;
+        this.maxSize = maxSize;
+        int bits = 64 - Long.numberOfLeadingZeros(avgSize - 1L);
+        this.strictMask = highBits(Math.min(bits + 2, 63));
+        this.looseMask = highBits(Math.max(bits - 2, 1));
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 顺序读取通道并切分，每切出一个块回调一次
+     *
+     * @return 读取的总字节数
+     */
+    public long split(ReadableByteChannel channel, ChunkConsumer consumer) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        long chunkStart = 0;
+        long total = 0;
+        int length = 0;
+        long hash = 0;
+        int read;
+        while ((read = channel.read(buffer)) != -1) {
+            if (read == 0) {
+                continue;
+            }
+            int sliceStart = 0;
+            for (int i = 0; i < read; i++) {
+                length++;
+                if (length < minSize) {
+                    continue;
+                }
+                hash = (hash << 1) + GEAR[bytes[i] & 0xFF];
+                long mask = length < avgSize ? strictMask : looseMask;
+                if ((hash & mask) == 0 || length >= maxSize) {
+                    digest.update(bytes, sliceStart, i + 1 - sliceStart);
+                    consumer.accept(chunkStart, length, digest.digest());
+                    chunkStart += length;
+                    sliceStart = i + 1;
+                    length = 0;
+                    hash = 0;
+                }
+            }
+            digest.update(bytes, sliceStart, read - sliceStart);
+            total += read;
+            buffer.clear();
+        }
+        if (length > 0) {
+            consumer.accept(chunkStart, length, digest.digest());
+        }
+        return total;
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long highBits(int count) {
+        return -1L << (64 - count);
+    }
+
+    /**
+     * 块回调
+     */
+    @FunctionalInterface
+    public interface ChunkConsumer {
+
+        /**
+         * @param offset 块在数据中的起始偏移
+         * @param length 块长度
+         * @param sha256 块内容的SHA-256
+         */
+        void accept(long offset, int length, byte[] sha256) throws IOException;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ai.cockpit.util;
+
+import com.ai.cockpit.entity.Dataset;
+import com.ai.cockpit.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 数据集本地文件定位
+ * <p>
+ * 数据集文件路径由上传完成时写入，按dataset.upload.local.data-dir解析并规范化，
+ * 不在该目录下的路径一律拒绝，预览、分析、切分与去重只读取数据目录内的文件。
+ */
+@Component
+public class DatasetFileResolver {
+
+    private final Path root;
+
+    public DatasetFileResolver(@Value("${dataset.upload.local.data-dir:data/datasets}") String dataDir) {
+        this.root = Paths.get(dataDir).toAbsolutePath().normalize();
+    }
+
+    /**
+     * 数据目录（绝对路径）
+     */
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * 数据集文件的本地路径，未上传、非本地存储、不在数据目录内或文件不存在时抛出业务异常
+     */
+    public Path resolve(Dataset dataset) {
+        String filePath = dataset.getFilePath();
+        if (filePath == null || filePath.isBlank()) {
+            throw new BusinessException("数据集未上传文件");
+        }
+        if (filePath.contains("://")) {
+            throw new BusinessException("仅支持本地存储的数据集文件");
+        }
+        Path file;
+        try {
+            file = root.resolve(filePath).normalize();
+        } catch (InvalidPathException e) {
+            throw new BusinessException("非法的数据集文件路径");
+        }
+        if (!file.startsWith(root) || file.equals(root)) {
+            throw new BusinessException("非法的数据集文件路径");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new BusinessException("数据集文件不存在");
+        }
+        return file;
+    }
+}
@@ -0,0 +1,805 @@
+package com.ai.cockpit.util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 行式数据文件的单遍统计分析（CSV/TSV/JSON Lines）
+ * <p>
+ * 文件按字节均分为若干段，由多个线程并行扫描（见MappedLineScanner），
+ * 内存占用只与线程数、块大小和列数有关，与文件大小无关。
+ * 每列统计非空数、类型分布、不同值个数（HyperLogLog）、数值分位数（KLL）、最小/最大/均值与字符串长度，
+ * 各段的统计结果可直接合并。CSV按RFC 4180处理引号，但不支持引号内换行；JSON Lines每行一个扁平对象，
+ * 嵌套的对象与数组按字符串统计。非线程安全的部分只在单个段内使用。
+ */
+public class DatasetProfiler {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /** 小于该大小的文件不再拆分 */
+    private static final long MIN_SPLIT = 8L * 1024 * 1024;
+
+    public enum Format {
+        CSV, TSV, JSONL
+    }
+
+    public enum ValueType {
+        INTEGER, DECIMAL, BOOLEAN, STRING
+    }
+
+    private final Format format;
+
+    private final int hllPrecision;
+
+    private final int kllK;
+
+    private final int maxColumns;
+
+    private final int blockSize;
+
+    private final int maxLineBytes;
+
+    public DatasetProfiler(Format format, int hllPrecision, int kllK, int maxColumns, int blockSize, int maxLineBytes) {
+        this.format = format;
+        this.hllPrecision = hllPrecision;
+        this.kllK = kllK;
+        this.maxColumns = maxColumns;
+        this.blockSize = blockSize;
+        this.maxLineBytes = Math.max(maxLineBytes, blockSize);
+    }
+
+    /**
+     * 分析文件
+     *
+     * @param executor    执行各段扫描的线程池
+     * @param parallelism 最多拆分的段数
+     * @param progress    已扫描字节数，供调用方查询进度
+     */
+    public Result profile(FileChannel channel, ExecutorService executor, int parallelism, LongAdder progress)
+            throws IOException, InterruptedException {
+        long size = channel.size();
+        long start = MappedLineScanner.bomLength(channel);
+        List<String> header = null;
+        if (format != Format.JSONL) {
+            long lineEnd = MappedLineScanner.nextLineStart(channel, start, size);
+            byte[] line = MappedLineScanner.read(channel, start, (int) (lineEnd - start));
+            header = parseHeader(line, MappedLineScanner.trimLineEnd(line, 0, line.length));
+            start = lineEnd;
+        }
+        progress.add(start);
+
+        long[] bounds = MappedLineScanner.split(channel, start, parallelism, MIN_SPLIT);
+        int parts = bounds.length - 1;
+        List<Future<Partial>> futures = new ArrayList<>(parts);
+        for (int i = 0; i < parts; i++) {
+            long from = bounds[i];
+            long to = bounds[i + 1];
+            List<String> columns = header;
+            futures.add(executor.submit(() -> scan(channel, from, to, columns, progress)));
+        }
+        Partial total = null;
+        try {
+            for (Future<Partial> future : futures) {
+                Partial partial = future.get();
+                if (total == null) {
+                    total = partial;
+                } else {
+                    total.merge(partial);
+                }
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+        return new Result(format, size, total.rows, total.malformedRows, total.truncatedColumns, total.columns);
+    }
+
+    private Partial scan(FileChannel channel, long start, long end, List<String> header, LongAdder progress)
+            throws IOException {
+        Partial partial = new Partial(header);
+        MappedLineScanner.scan(channel, start, end, blockSize, maxLineBytes, progress, partial::line);
+        return partial;
+    }
+
+    private List<String> parseHeader(byte[] line, int end) throws IOException {
+        CsvReader reader = new CsvReader(format == Format.TSV ? (byte) '\t' : (byte) ',');
+        int fields = reader.parse(line, 0, end);
+        if (fields < 0) {
+            throw new IOException("表头格式错误");
+        }
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < fields; i++) {
+            String name = new String(reader.cells, reader.starts[i], reader.ends[i] - reader.starts[i], StandardCharsets.UTF_8).trim();
+            names.add(name.isEmpty() || names.contains(name) ? "column_" + (i + 1) : name);
+        }
+        return names;
+    }
+
+    /**
+     * 值的类型：空串及null/NULL/NA/N/A视为缺失（返回null），其余依次尝试整数、小数、布尔
+     */
+    static ValueType classify(byte[] bytes, int start, int end) {
+        int length = end - start;
+        if (length == 0 || isNullToken(bytes, start, length)) {
+            return null;
+        }
+        int i = start;
+        if (bytes[i] == '-' || bytes[i] == '+') {
+            i++;
+        }
+        int digits = 0;
+        while (i < end && bytes[i] >= '0' && bytes[i] <= '9') {
+            i++;
+            digits++;
+        }
+        if (i == end && digits > 0) {
+            return digits <= 18 ? ValueType.INTEGER : ValueType.DECIMAL;
+        }
+        int fraction = 0;
+        if (i < end && bytes[i] == '.') {
+            i++;
+            while (i < end && bytes[i] >= '0' && bytes[i] <= '9') {
+                i++;
+                fraction++;
+            }
+        }
+        if (digits + fraction > 0 && i < end && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            i++;
+            if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+                i++;
+            }
+            int exponent = 0;
+            while (i < end && bytes[i] >= '0' && bytes[i] <= '9') {
+                i++;
+                exponent++;
+            }
+            if (exponent == 0) {
+                return ValueType.STRING;
+            }
+        }
+        if (i == end && digits + fraction > 0) {
+            return ValueType.DECIMAL;
+        }
+        if (equalsIgnoreCase(bytes, start, length, "true") || equalsIgnoreCase(bytes, start, length, "false")) {
+            return ValueType.BOOLEAN;
+        }
+        return ValueType.STRING;
+    }
+
+    static double parseNumber(byte[] bytes, int start, int end, ValueType type) {
+        if (type == ValueType.INTEGER) {
+            boolean negative = bytes[start] == '-';
+            int i = bytes[start] == '-' || bytes[start] == '+' ? start + 1 : start;
+            long value = 0;
+            for (; i < end; i++) {
+                value = value * 10 + (bytes[i] - '0');
+            }
+            return negative ? -value : value;
+        }
+        // 有效数字不超过15位且没有指数时，尾数与10的幂都能精确表示，一次除法即为正确舍入的结果
+        boolean negative = bytes[start] == '-';
+        int i = bytes[start] == '-' || bytes[start] == '+' ? start + 1 : start;
+        long mantissa = 0;
+        int digits = 0;
+        int fraction = -1;
+        for (; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '.') {
+                fraction = 0;
+            } else if (b >= '0' && b <= '9' && digits < 15) {
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa > 0) {
+                    digits++;
+                }
+                if (fraction >= 0) {
+                    fraction++;
+                }
+            } else {
+                break;
+            }
+        }
+        if (i == end && fraction < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[Math.max(fraction, 0)];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.ISO_8859_1));
+    }
+
+    private static boolean isNullToken(byte[] bytes, int start, int length) {
+        return equalsIgnoreCase(bytes, start, length, "null") || equalsIgnoreCase(bytes, start, length, "na")
+                || equalsIgnoreCase(bytes, start, length, "n/a");
+    }
+
+    private static boolean equalsIgnoreCase(byte[] bytes, int start, int length, String token) {
+        if (length != token.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.toLowerCase(bytes[start + i]) != token.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 单个段的统计结果
+     */
+    private class Partial {
+
+        private final boolean fixedColumns;
+
+        /** CSV表头的字段数，每行字段数必须与之相同 */
+        private final int headerFields;
+
+        private final List<ColumnProfile> columns = new ArrayList<>();
+
+        private final CsvReader csv;
+
+        private final JsonLineReader json;
+
+        private long rows;
+
+        private long malformedRows;
+
+        private boolean truncatedColumns;
+
+        Partial(List<String> header) {
+            fixedColumns = header != null;
+            headerFields = fixedColumns ? header.size() : 0;
+            if (fixedColumns) {
+                header.stream().limit(maxColumns).forEach(name -> columns.add(new ColumnProfile(name, hllPrecision, kllK)));
+                truncatedColumns = header.size() > maxColumns;
+                csv = new CsvReader(format == Format.TSV ? (byte) '\t' : (byte) ',');
+                json = null;
+            } else {
+                csv = null;
+                json = new JsonLineReader();
+            }
+        }
+
+        void line(byte[] bytes, int start, int end) {
+            end = MappedLineScanner.trimLineEnd(bytes, start, end);
+            if (end == start) {
+                return;
+            }
+            rows++;
+            if (fixedColumns) {
+                csvLine(bytes, start, end);
+            } else {
+                jsonLine(bytes, start, end);
+            }
+        }
+
+        private void csvLine(byte[] bytes, int start, int end) {
+            int fields = csv.parse(bytes, start, end);
+            if (fields != headerFields) {
+                malformedRows++;
+                return;
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                columns.get(i).add(csv.cells, csv.starts[i], csv.ends[i], null);
+            }
+        }
+
+        private void jsonLine(byte[] bytes, int start, int end) {
+            if (!json.parse(bytes, start, end)) {
+                malformedRows++;
+                return;
+            }
+            for (int f = 0; f < json.count; f++) {
+                ColumnProfile column = column(json, f);
+                if (column != null) {
+                    column.add(json.cells, json.valueStarts[f], json.valueEnds[f], json.types[f]);
+                }
+            }
+        }
+
+        /**
+         * 按键查找列：各行键顺序通常一致，先检查同一位置，再顺序查找
+         */
+        private ColumnProfile column(JsonLineReader reader, int field) {
+            int keyStart = reader.keyStarts[field];
+            int keyLength = reader.keyEnds[field] - keyStart;
+            if (field < columns.size() && columns.get(field).matches(reader.cells, keyStart, keyLength)) {
+                return columns.get(field);
+            }
+            for (ColumnProfile column : columns) {
+                if (column.matches(reader.cells, keyStart, keyLength)) {
+                    return column;
+                }
+            }
+            if (columns.size() >= maxColumns) {
+                truncatedColumns = true;
+                return null;
+            }
+            ColumnProfile column = new ColumnProfile(
+                    new String(reader.cells, keyStart, keyLength, StandardCharsets.UTF_8), hllPrecision, kllK);
+            column.key = Arrays.copyOfRange(reader.cells, keyStart, keyStart + keyLength);
+            columns.add(column);
+            return column;
+        }
+
+        void merge(Partial other) {
+            rows += other.rows;
+            malformedRows += other.malformedRows;
+            truncatedColumns |= other.truncatedColumns;
+            for (ColumnProfile column : other.columns) {
+                ColumnProfile target = columns.stream().filter(c -> c.name.equals(column.name)).findFirst().orElse(null);
+                if (target != null) {
+                    target.merge(column);
+                } else if (columns.size() < maxColumns) {
+                    columns.add(column);
+                } else {
+                    truncatedColumns = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * 分析结果
+     */
+    public record Result(Format format, long bytes, long rows, long malformedRows, boolean truncatedColumns,
+                         List<ColumnProfile> columns) {
+
+        /**
+         * 质量评分（0-100）：完整度（非空单元格占比）40%，类型一致度30%，格式正确的行占比30%
+         */
+        public double qualityScore() {
+            if (rows == 0) {
+                return 0;
+            }
+            long cells = 0;
+            long nonNull = 0;
+            long conforming = 0;
+            for (ColumnProfile column : columns) {
+                cells += rows - malformedRows;
+                nonNull += column.nonNull();
+                conforming += column.conforming();
+            }
+            double completeness = cells == 0 ? 0 : (double) nonNull / cells;
+            double validity = nonNull == 0 ? 0 : (double) conforming / nonNull;
+            double wellFormed = (double) (rows - malformedRows) / rows;
+            return 100 * (0.4 * completeness + 0.3 * validity + 0.3 * wellFormed);
+        }
+    }
+
+    /**
+     * 单列统计
+     */
+    public static class ColumnProfile {
+
+        private final String name;
+
+        private byte[] key;
+
+        private final long[] typeCounts = new long[ValueType.values().length];
+
+        private final HyperLogLog distinct;
+
+        private final KllSketch quantiles;
+
+        private double sum;
+
+        private long minLength = Long.MAX_VALUE;
+
+        private long maxLength;
+
+        private long lengthSum;
+
+        ColumnProfile(String name, int hllPrecision, int kllK) {
+            this.name = name;
+            this.distinct = new HyperLogLog(hllPrecision);
+            this.quantiles = new KllSketch(kllK);
+        }
+
+        void add(byte[] bytes, int start, int end, ValueType declared) {
+            ValueType type = declared == ValueType.STRING ? (end > start ? ValueType.STRING : null) : classify(bytes, start, end);
+            if (type == null) {
+                return;
+            }
+            typeCounts[type.ordinal()]++;
+            if (type == ValueType.INTEGER || type == ValueType.DECIMAL) {
+                double value = parseNumber(bytes, start, end, type);
+                quantiles.add(value);
+                sum += value;
+                distinct.addHash(HyperLogLog.mix(Double.doubleToLongBits(value == 0 ? 0.0 : value)));
+            } else {
+                distinct.add(bytes, start, end - start);
+            }
+            int length = end - start;
+            minLength = Math.min(minLength, length);
+            maxLength = Math.max(maxLength, length);
+            lengthSum += length;
+        }
+
+        boolean matches(byte[] bytes, int start, int length) {
+            return key != null && key.length == length && Arrays.equals(key, 0, length, bytes, start, start + length);
+        }
+
+        void merge(ColumnProfile other) {
+            for (int i = 0; i < typeCounts.length; i++) {
+                typeCounts[i] += other.typeCounts[i];
+            }
+            distinct.merge(other.distinct);
+            quantiles.merge(other.quantiles);
+            sum += other.sum;
+            minLength = Math.min(minLength, other.minLength);
+            maxLength = Math.max(maxLength, other.maxLength);
+            lengthSum += other.lengthSum;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public long nonNull() {
+            long total = 0;
+            for (long count : typeCounts) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * 缺失值个数，rows为数据集的有效行数（JSON Lines中未出现该键的行也算缺失）
+         */
+        public long nulls(long rows) {
+            return Math.max(0, rows - nonNull());
+        }
+
+        public long typeCount(ValueType type) {
+            return typeCounts[type.ordinal()];
+        }
+
+        /**
+         * 推断类型：全部为整数时为integer，只有整数与小数时为decimal，全部为布尔时为boolean；
+         * 数值占非空值95%以上时仍按数值类型，其余为string，无非空值时为null
+         */
+        public String inferredType() {
+            long nonNull = nonNull();
+            if (nonNull == 0) {
+                return "null";
+            }
+            long integers = typeCount(ValueType.INTEGER);
+            long numeric = integers + typeCount(ValueType.DECIMAL);
+            if (typeCount(ValueType.BOOLEAN) == nonNull) {
+                return "boolean";
+            }
+            if (numeric >= nonNull * 0.95) {
+                return integers == numeric ? "integer" : "decimal";
+            }
+            return "string";
+        }
+
+        /**
+         * 符合推断类型的非空值个数
+         */
+        public long conforming() {
+            return switch (inferredType()) {
+                case "integer" -> typeCount(ValueType.INTEGER);
+                case "decimal" -> typeCount(ValueType.INTEGER) + typeCount(ValueType.DECIMAL);
+                case "boolean" -> typeCount(ValueType.BOOLEAN);
+                default -> nonNull();
+            };
+        }
+
+        public long distinct() {
+            return Math.min(distinct.estimate(), nonNull());
+        }
+
+        public KllSketch quantiles() {
+            return quantiles;
+        }
+
+        public double mean() {
+            return quantiles.count() == 0 ? Double.NaN : sum / quantiles.count();
+        }
+
+        public long minLength() {
+            return nonNull() == 0 ? 0 : minLength;
+        }
+
+        public long maxLength() {
+            return maxLength;
+        }
+
+        public double meanLength() {
+            return nonNull() == 0 ? 0 : (double) lengthSum / nonNull();
+        }
+    }
+
+    /**
+     * CSV行解析：字段内容（去掉引号并还原""）依次写入cells，starts/ends为各字段在cells中的范围
+     */
+    private static class CsvReader {
+
+        private final byte delimiter;
+
+        private byte[] cells = new byte[1024];
+
+        private int[] starts = new int[64];
+
+        private int[] ends = new int[64];
+
+        CsvReader(byte delimiter) {
+            this.delimiter = delimiter;
+        }
+
+        /**
+         * @return 字段数，引号不匹配时返回-1
+         */
+        int parse(byte[] bytes, int start, int end) {
+            if (cells.length < end - start) {
+                cells = new byte[Math.max(end - start, cells.length * 2)];
+            }
+            int out = 0;
+            int fields = 0;
+            int i = start;
+            while (true) {
+                if (fields == starts.length) {
+                    starts = Arrays.copyOf(starts, fields * 2);
+                    ends = Arrays.copyOf(ends, fields * 2);
+                }
+                starts[fields] = out;
+                if (i < end && bytes[i] == '"') {
+                    i++;
+                    boolean closed = false;
+                    while (i < end) {
+                        if (bytes[i] == '"') {
+                            if (i + 1 < end && bytes[i + 1] == '"') {
+                                cells[out++] = '"';
+                                i += 2;
+                                continue;
+                            }
+                            i++;
+                            closed = true;
+                            break;
+                        }
+                        cells[out++] = bytes[i++];
+                    }
+                    if (!closed || i < end && bytes[i] != delimiter) {
+                        return -1;
+                    }
+                } else {
+                    while (i < end && bytes[i] != delimiter) {
+                        cells[out++] = bytes[i++];
+                    }
+                }
+                ends[fields++] = out;
+                if (i >= end) {
+                    return fields;
+                }
+                i++;
+            }
+        }
+    }
+
+    /**
+     * JSON Lines行解析：只解析顶层对象的键与值，字符串还原转义后写入cells，
+     * 嵌套对象与数组按原文作为字符串值
+     */
+    private static class JsonLineReader {
+
+        private byte[] cells = new byte[1024];
+
+        private int count;
+
+        private int[] keyStarts = new int[32];
+
+        private int[] keyEnds = new int[32];
+
+        private int[] valueStarts = new int[32];
+
+        private int[] valueEnds = new int[32];
+
+        private ValueType[] types = new ValueType[32];
+
+        private byte[] line;
+
+        private int pos;
+
+        private int end;
+
+        private int out;
+
+        boolean parse(byte[] bytes, int start, int end) {
+            if (cells.length < (end - start) * 2) {
+                cells = new byte[Math.max((end - start) * 2, cells.length * 2)];
+            }
+            this.line = bytes;
+            this.pos = start;
+            this.end = end;
+            this.out = 0;
+            this.count = 0;
+            skipWhitespace();
+            if (!consume('{')) {
+                return false;
+            }
+            skipWhitespace();
+            if (consume('}')) {
+                return trailingWhitespaceOnly();
+            }
+            while (true) {
+                if (count == keyStarts.length) {
+                    grow();
+                }
+                skipWhitespace();
+                keyStarts[count] = out;
+                if (!string()) {
+                    return false;
+                }
+                keyEnds[count] = out;
+                skipWhitespace();
+                if (!consume(':')) {
+                    return false;
+                }
+                skipWhitespace();
+                if (!value()) {
+                    return false;
+                }
+                count++;
+                skipWhitespace();
+                if (consume('}')) {
+                    return trailingWhitespaceOnly();
+                }
+                if (!consume(',')) {
+                    return false;
+                }
+            }
+        }
+
+        private boolean value() {
+            if (pos >= end) {
+                return false;
+            }
+            valueStarts[count] = out;
+            byte b = line[pos];
+            if (b == '"') {
+                types[count] = ValueType.STRING;
+                boolean ok = string();
+                valueEnds[count] = out;
+                return ok;
+            }
+            if (b == '{' || b == '[') {
+                int from = pos;
+                if (!skipNested()) {
+                    return false;
+                }
+                System.arraycopy(line, from, cells, out, pos - from);
+                out += pos - from;
+                types[count] = ValueType.STRING;
+                valueEnds[count] = out;
+                return true;
+            }
+            int from = pos;
+            while (pos < end && line[pos] != ',' && line[pos] != '}' && line[pos] > ' ') {
+                pos++;
+            }
+            System.arraycopy(line, from, cells, out, pos - from);
+            out += pos - from;
+            valueEnds[count] = out;
+            ValueType type = classify(cells, valueStarts[count], out);
+            if (type == ValueType.STRING) {
+                return false;
+            }
+            // null字面量由classify识别为缺失；数值与布尔以外的裸值不是合法JSON
+            types[count] = type;
+            return true;
+        }
+
+        private boolean string() {
+            if (!consume('"')) {
+                return false;
+            }
+            while (pos < end) {
+                byte b = line[pos++];
+                if (b == '"') {
+                    return true;
+                }
+                if (b != '\\') {
+                    cells[out++] = b;
+                    continue;
+                }
+                if (pos >= end) {
+                    return false;
+                }
+                byte escaped = line[pos++];
+                switch (escaped) {
+                    case 'n' -> cells[out++] = '\n';
+                    case 't' -> cells[out++] = '\t';
+                    case 'r' -> cells[out++] = '\r';
+                    case 'b' -> cells[out++] = '\b';
+                    case 'f' -> cells[out++] = '\f';
+                    case 'u' -> {
+                        if (pos + 4 > end) {
+                            return false;
+                        }
+                        int code;
+                        try {
+                            code = Integer.parseInt(new String(line, pos, 4, StandardCharsets.ISO_8859_1), 16);
+                        } catch (NumberFormatException e) {
+                            return false;
+                        }
+                        pos += 4;
+                        byte[] encoded = String.valueOf((char) code).getBytes(StandardCharsets.UTF_8);
+                        System.arraycopy(encoded, 0, cells, out, encoded.length);
+                        out += encoded.length;
+                    }
+                    default -> cells[out++] = escaped;
+                }
+            }
+            return false;
+        }
+
+        private boolean skipNested() {
+            int depth = 0;
+            boolean inString = false;
+            while (pos < end) {
+                byte b = line[pos++];
+                if (inString) {
+                    if (b == '\\') {
+                        pos++;
+                    } else if (b == '"') {
+                        inString = false;
+                    }
+                } else if (b == '"') {
+                    inString = true;
+                } else if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    if (--depth == 0) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean consume(char c) {
+            if (pos < end && line[pos] == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (pos < end && (line[pos] == ' ' || line[pos] == '\t' || line[pos] == '\r')) {
+                pos++;
+            }
+        }
+
+        private boolean trailingWhitespaceOnly() {
+            skipWhitespace();
+            return pos == end;
+        }
+
+        private void grow() {
+            int size = keyStarts.length * 2;
+            keyStarts = Arrays.copyOf(keyStarts, size);
+            keyEnds = Arrays.copyOf(keyEnds, size);
+            valueStarts = Arrays.copyOf(valueStarts, size);
+            valueEnds = Arrays.copyOf(valueEnds, size);
+            types = Arrays.copyOf(types, size);
+        }
+    }
+}
@@ -0,0 +1,516 @@
+package com.ai.cockpit.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按行键哈希的确定性数据集切分（训练/验证/测试）
+ * <p>
+ * 每行取键（CSV/TSV的键列、JSON Lines的顶层键，未指定或该行缺少键时取整行内容），
+ * 与种子一起哈希为[0, 1)上的均匀值，按累计比例落入训练、验证或测试集。
+ * 分配只取决于键、种子与比例，与行的位置和文件的其他内容无关：重复运行结果相同，文件追加行后原有行的归属不变。
+ * 文件按段并行扫描（见MappedLineScanner），每段同时写出三个结果：
+ * FILES模式在{split}/目录下写分片文件（CSV/TSV每个分片带表头）；
+ * BITMAP模式写{split}.bitmap行位图，不复制数据，训练任务按位图跳过不属于本集合的行。
+ * 行号与数据集预览接口一致（从0开始，CSV/TSV不含表头，空行不属于任何集合）。
+ */
+public class DatasetSplitter {
+
+    public static final String[] SPLITS = {"train", "validation", "test"};
+
+    /** 位图文件头：魔数"RBMP"、版本、行数、置位数，全部小端 */
+    public static final int BITMAP_HEADER_BYTES = 24;
+
+    private static final byte[] BITMAP_MAGIC = {'R', 'B', 'M', 'P'};
+
+    private static final int BITMAP_VERSION = 1;
+
+    /** 小于该大小的文件不再拆分 */
+    private static final long MIN_SPLIT = 8L * 1024 * 1024;
+
+    public enum Mode {
+        FILES, BITMAP
+    }
+
+    private final DatasetProfiler.Format format;
+
+    private final String keyColumn;
+
+    private final long seedMix;
+
+    /** 训练集与训练+验证集的累计比例上限 */
+    private final double trainBound;
+
+    private final double validationBound;
+
+    private final int blockSize;
+
+    private final int maxLineBytes;
+
+    /**
+     * @param format    文件格式，为null时按普通文本行处理（以整行为键）
+     * @param keyColumn 键列或键名，为null时以整行为键
+     * @param ratios    训练、验证、测试比例，按总和归一化
+     */
+    public DatasetSplitter(DatasetProfiler.Format format, String keyColumn, long seed, double[] ratios,
+                           int blockSize, int maxLineBytes) {
+        double total = ratios[0] + ratios[1] + ratios[2];
+        if (ratios[0] < 0 || ratios[1] < 0 || ratios[2] < 0 || !(total > 0)) {
+            throw new IllegalArgumentException("切分比例必须非负且总和大于0");
+        }
+        this.format = format;
+        this.keyColumn = keyColumn == null || keyColumn.isBlank() ? null : keyColumn.trim();
+        this.seedMix = HyperLogLog.mix(seed ^ 0x9E3779B97F4A7C15L);
+        this.trainBound = ratios[0] / total;
+        this.validationBound = (ratios[0] + ratios[1]) / total;
+        this.blockSize = blockSize;
+        this.maxLineBytes = maxLineBytes;
+    }
+
+    /**
+     * 切分文件并写出结果到outputDir
+     *
+     * @param extension FILES模式分片文件的扩展名（含点，可为空串）
+     */
+    public Result split(FileChannel channel, Path outputDir, Mode mode, String extension, ExecutorService executor,
+                        int parallelism, LongAdder progress) throws IOException, InterruptedException {
+        long size = channel.size();
+        long start = MappedLineScanner.bomLength(channel);
+        byte[] header = null;
+        int keyIndex = -1;
+        boolean delimited = format == DatasetProfiler.Format.CSV || format == DatasetProfiler.Format.TSV;
+        if (delimited) {
+            long lineEnd = MappedLineScanner.nextLineStart(channel, start, size);
+            byte[] line = MappedLineScanner.read(channel, start, (int) (lineEnd - start));
+            header = Arrays.copyOf(line, MappedLineScanner.trimLineEnd(line, 0, line.length));
+            if (keyColumn != null) {
+                keyIndex = headerIndex(header, delimiter(), keyColumn);
+                if (keyIndex < 0) {
+                    throw new IllegalArgumentException("键列不存在: " + keyColumn);
+                }
+            }
+            start = lineEnd;
+        }
+        if (progress != null) {
+            progress.add(start);
+        }
+        Files.createDirectories(outputDir);
+        if (mode == Mode.FILES) {
+            for (String split : SPLITS) {
+                Files.createDirectories(outputDir.resolve(split));
+            }
+        }
+
+        long[] bounds = MappedLineScanner.split(channel, start, parallelism, MIN_SPLIT);
+        int parts = bounds.length - 1;
+        List<Future<Part>> futures = new ArrayList<>(parts);
+        for (int i = 0; i < parts; i++) {
+            Part part = new Part(i, outputDir, mode, extension, header, keyIndex);
+            long from = bounds[i];
+            long to = bounds[i + 1];
+            futures.add(executor.submit(() -> {
+                try (part) {
+                    MappedLineScanner.scan(channel, from, to, blockSize, maxLineBytes, progress, part::line);
+                }
+                return part;
+            }));
+        }
+        List<Part> results = new ArrayList<>(parts);
+        try {
+            for (Future<Part> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+
+        long rows = 0;
+        long[] counts = new long[SPLITS.length];
+        List<String> files = new ArrayList<>();
+        for (Part part : results) {
+            rows += part.rows;
+            for (int s = 0; s < SPLITS.length; s++) {
+                counts[s] += part.counts[s];
+                if (mode == Mode.FILES && part.counts[s] > 0) {
+                    files.add(SPLITS[s] + "/" + part.fileName(extension));
+                }
+            }
+        }
+        if (mode == Mode.BITMAP) {
+            for (int s = 0; s < SPLITS.length; s++) {
+                Path bitmap = outputDir.resolve(SPLITS[s] + ".bitmap");
+                mergeBitmaps(results, s, rows, counts[s], bitmap);
+                files.add(bitmap.getFileName().toString());
+            }
+        }
+        return new Result(rows, counts, files);
+    }
+
+    /**
+     * 行键的哈希落入的集合下标
+     */
+    int assign(byte[] bytes, int start, int end) {
+        long hash = HyperLogLog.mix(HyperLogLog.hash(bytes, start, end - start) ^ seedMix);
+        double u = (hash >>> 11) * 0x1.0p-53;
+        return u < trainBound ? 0 : u < validationBound ? 1 : 2;
+    }
+
+    private byte delimiter() {
+        return format == DatasetProfiler.Format.TSV ? (byte) '\t' : (byte) ',';
+    }
+
+    /**
+     * 把各段的临时位图按行号顺序拼接为完整位图，段内行数不是64的倍数时逐字移位
+     */
+    private static void mergeBitmaps(List<Part> parts, int split, long rows, long ones, Path target) throws IOException {
+        try (OutputStream output = Files.newOutputStream(target);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, 1 << 20))) {
+            out.write(BITMAP_MAGIC);
+            out.writeInt(Integer.reverseBytes(BITMAP_VERSION));
+            out.writeLong(Long.reverseBytes(rows));
+            out.writeLong(Long.reverseBytes(ones));
+            BitmapWriter writer = new BitmapWriter(out);
+            for (Part part : parts) {
+                Path temp = part.bitmapFile(split);
+                try (InputStream input = Files.newInputStream(temp);
+                     DataInputStream in = new DataInputStream(new BufferedInputStream(input, 1 << 20))) {
+                    long remaining = part.rows;
+                    while (remaining > 0) {
+                        int bits = (int) Math.min(64, remaining);
+                        writer.append(Long.reverseBytes(in.readLong()), bits);
+                        remaining -= bits;
+                    }
+                }
+                Files.deleteIfExists(temp);
+            }
+            writer.finish();
+        }
+    }
+
+    /**
+     * 表头中列名对应的下标，不存在时返回-1
+     */
+    static int headerIndex(byte[] header, byte delimiter, String name) {
+        byte[] target = name.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; ; i++) {
+            long range = fieldRange(header, 0, header.length, delimiter, i);
+            if (range < 0) {
+                return -1;
+            }
+            int from = (int) (range >>> 32);
+            int to = (int) range;
+            String field = new String(header, from, to - from, StandardCharsets.UTF_8).trim();
+            if (field.equals(name) || Arrays.equals(header, from, to, target, 0, target.length)) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * CSV行中第index个字段的范围（去掉包围的引号），打包为(起始 << 32 | 结束)，不存在时返回-1
+     */
+    static long fieldRange(byte[] bytes, int start, int end, byte delimiter, int index) {
+        int i = start;
+        for (int field = 0; ; field++) {
+            int from = i;
+            if (i < end && bytes[i] == '"') {
+                i++;
+                while (i < end) {
+                    if (bytes[i] == '"') {
+                        if (i + 1 < end && bytes[i + 1] == '"') {
+                            i += 2;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    i++;
+                }
+            }
+            while (i < end && bytes[i] != delimiter) {
+                i++;
+            }
+            if (field == index) {
+                int to = i;
+                if (to - from >= 2 && bytes[from] == '"' && bytes[to - 1] == '"') {
+                    from++;
+                    to--;
+                }
+                return (long) from << 32 | to;
+            }
+            if (i >= end) {
+                return -1;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * JSON Lines行中顶层键key的值的原文范围（字符串值去掉引号），打包为(起始 << 32 | 结束)，不存在时返回-1
+     */
+    static long jsonFieldRange(byte[] bytes, int start, int end, byte[] key) {
+        int depth = 0;
+        int i = start;
+        while (i < end) {
+            byte b = bytes[i];
+            if (b == '"') {
+                int from = i + 1;
+                i = skipString(bytes, i, end);
+                if (depth != 1 || i - 1 - from != key.length
+                        || !Arrays.equals(bytes, from, i - 1, key, 0, key.length)) {
+                    continue;
+                }
+                int j = skipWhitespace(bytes, i, end);
+                if (j >= end || bytes[j] != ':') {
+                    continue;
+                }
+                int valueStart = skipWhitespace(bytes, j + 1, end);
+                int valueEnd = skipValue(bytes, valueStart, end);
+                if (valueEnd - valueStart >= 2 && bytes[valueStart] == '"') {
+                    return (long) (valueStart + 1) << 32 | (valueEnd - 1);
+                }
+                return (long) valueStart << 32 | valueEnd;
+            }
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * 跳过从i处引号开始的字符串，返回结束引号之后的位置
+     */
+    private static int skipString(byte[] bytes, int i, int end) {
+        i++;
+        while (i < end) {
+            byte b = bytes[i++];
+            if (b == '\\') {
+                i++;
+            } else if (b == '"') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static int skipValue(byte[] bytes, int i, int end) {
+        if (i < end && bytes[i] == '"') {
+            return skipString(bytes, i, end);
+        }
+        int depth = 0;
+        while (i < end) {
+            byte b = bytes[i];
+            if (b == '"') {
+                i = skipString(bytes, i, end);
+                continue;
+            }
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                if (depth == 0) {
+                    break;
+                }
+                depth--;
+            } else if (b == ',' && depth == 0) {
+                break;
+            }
+            i++;
+        }
+        while (i > 0 && (bytes[i - 1] == ' ' || bytes[i - 1] == '\t')) {
+            i--;
+        }
+        return i;
+    }
+
+    private static int skipWhitespace(byte[] bytes, int i, int end) {
+        while (i < end && (bytes[i] == ' ' || bytes[i] == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 切分结果
+     *
+     * @param rows   参与编号的行数（不含表头，含空行）
+     * @param counts 各集合的行数
+     * @param files  相对输出目录的结果文件
+     */
+    public record Result(long rows, long[] counts, List<String> files) {
+    }
+
+    /**
+     * 单个段的切分：同时写出三个集合，分片文件在首次写入时创建
+     */
+    private class Part implements Closeable {
+
+        private final int index;
+
+        private final Path outputDir;
+
+        private final Mode mode;
+
+        private final String extension;
+
+        private final byte[] header;
+
+        private final int keyIndex;
+
+        private final byte[] jsonKey;
+
+        private final OutputStream[] outputs = new OutputStream[SPLITS.length];
+
+        private final BitmapWriter[] bitmaps = new BitmapWriter[SPLITS.length];
+
+        private final long[] counts = new long[SPLITS.length];
+
+        private long rows;
+
+        Part(int index, Path outputDir, Mode mode, String extension, byte[] header, int keyIndex) throws IOException {
+            this.index = index;
+            this.outputDir = outputDir;
+            this.mode = mode;
+            this.extension = extension;
+            this.header = header;
+            this.keyIndex = keyIndex;
+            this.jsonKey = format == DatasetProfiler.Format.JSONL && keyColumn != null
+                    ? keyColumn.getBytes(StandardCharsets.UTF_8) : null;
+            if (mode == Mode.BITMAP) {
+                for (int s = 0; s < SPLITS.length; s++) {
+                    OutputStream file = Files.newOutputStream(bitmapFile(s));
+                    bitmaps[s] = new BitmapWriter(new DataOutputStream(new BufferedOutputStream(file, 1 << 16)));
+                }
+            }
+        }
+
+        void line(byte[] bytes, int start, int end) throws IOException {
+            end = MappedLineScanner.trimLineEnd(bytes, start, end);
+            rows++;
+            int split = -1;
+            if (end > start) {
+                long range = keyIndex >= 0 ? fieldRange(bytes, start, end, delimiter(), keyIndex)
+                        : jsonKey != null ? jsonFieldRange(bytes, start, end, jsonKey) : -1;
+                split = range < 0 ? assign(bytes, start, end) : assign(bytes, (int) (range >>> 32), (int) range);
+                counts[split]++;
+            }
+            if (mode == Mode.BITMAP) {
+                for (int s = 0; s < SPLITS.length; s++) {
+                    bitmaps[s].append(s == split ? 1L : 0L, 1);
+                }
+            } else if (split >= 0) {
+                OutputStream out = outputs[split];
+                if (out == null) {
+                    out = new BufferedOutputStream(Files.newOutputStream(
+                            outputDir.resolve(SPLITS[split]).resolve(fileName(extension))), 1 << 20);
+                    outputs[split] = out;
+                    if (header != null) {
+                        out.write(header);
+                        out.write('\n');
+                    }
+                }
+                out.write(bytes, start, end - start);
+                out.write('\n');
+            }
+        }
+
+        String fileName(String extension) {
+            return String.format("part-%05d%s", index, extension);
+        }
+
+        Path bitmapFile(int split) {
+            return outputDir.resolve(String.format(".part-%05d.%s.tmp", index, SPLITS[split]));
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            for (int s = 0; s < SPLITS.length; s++) {
+                try {
+                    if (outputs[s] != null) {
+                        outputs[s].close();
+                    }
+                    if (bitmaps[s] != null) {
+                        bitmaps[s].finish();
+                        bitmaps[s].out.close();
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * 按位追加写出位图：第i位在第i/64个字的第i%64位（低位在前），字按小端字节序写出，
+     * 等价于按字节低位在前排列（numpy.unpackbits(bitorder="little")）
+     */
+    private static class BitmapWriter {
+
+        private final DataOutputStream out;
+
+        private long word;
+
+        private int used;
+
+        BitmapWriter(DataOutputStream out) {
+            this.out = out;
+        }
+
+        /**
+         * 追加bits（1-64）个位，取value的低bits位
+         */
+        void append(long value, int bits) throws IOException {
+            if (bits < 64) {
+                value &= (1L << bits) - 1;
+            }
+            word |= value << used;
+            int total = used + bits;
+            if (total >= 64) {
+                out.writeLong(Long.reverseBytes(word));
+                word = used == 0 ? 0 : value >>> (64 - used);
+                total -= 64;
+            }
+            used = total;
+        }
+
+        void finish() throws IOException {
+            if (used > 0) {
+                out.writeLong(Long.reverseBytes(word));
+                word = 0;
+                used = 0;
+            }
+            out.flush();
+        }
+    }
+}
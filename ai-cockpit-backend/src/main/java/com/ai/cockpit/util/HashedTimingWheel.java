@@ -0,0 +1,117 @@
+package com.ai.cockpit.util;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * 哈希时间轮
+ * <p>
+ * 时间轴被划分为固定宽度的刻度，每个刻度对应一个槽位，超过一圈的任务记录剩余圈数。
+ * 任意线程都可以提交任务（先写入无锁队列），到期推进只能由单个驱动线程调用，
+ * 插入与到期的代价均为O(1)，与已调度的任务总数无关。
+ *
+ * @param <T> 任务类型
+ */
+public class HashedTimingWheel<T> {
+
+    /** 刻度宽度（毫秒） */
+    private final long tickMillis;
+
+    private final int mask;
+
+    private final ArrayDeque<Entry<T>>[] buckets;
+
+    private final ConcurrentLinkedQueue<Entry<T>> pending = new ConcurrentLinkedQueue<>();
+
+    /** 下一个待处理的刻度编号 */
+    private long currentTick;
+
+    private int size;
+
+    /**
+     * @param tickMillis 刻度宽度（毫秒）
+     * @param wheelSize  槽位数量，向上取整为2的幂
+     * @param startTime  起始时间（毫秒）
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startTime) {
+        int capacity = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = capacity - 1;
+        this.buckets = (ArrayDeque<Entry<T>>[]) new ArrayDeque<?>[capacity];
+        for (int i = 0; i < capacity; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.currentTick = startTime / tickMillis;
+    }
+
+    /**
+     * 调度任务在指定时间到期（线程安全）
+     */
+    public void schedule(long deadline, T task) {
+        pending.offer(new Entry<>(deadline, task));
+    }
+
+    /**
+     * 推进到指定时间，依次回调所有已到期的任务（仅限驱动线程调用）
+     */
+    public int advance(long now, Consumer<T> expired) {
+        transferPending();
+        long targetTick = now / tickMillis;
+        int fired = 0;
+        while (currentTick <= targetTick) {
+            ArrayDeque<Entry<T>> bucket = buckets[(int) (currentTick & mask)];
+            Iterator<Entry<T>> iterator = bucket.iterator();
+            while (iterator.hasNext()) {
+                Entry<T> entry = iterator.next();
+                if (entry.rounds > 0) {
+                    entry.rounds--;
+                    continue;
+                }
+                iterator.remove();
+                size--;
+                fired++;
+                expired.accept(entry.task);
+            }
+            currentTick++;
+            // 回调中新提交的任务可能落在当前刻度之前，需要立即放入
+            transferPending();
+        }
+        return fired;
+    }
+
+    /**
+     * 已进入时间轮的任务数量（不含尚未转移的提交）
+     */
+    public int size() {
+        return size;
+    }
+
+    private void transferPending() {
+        Entry<T> entry;
+        while ((entry = pending.poll()) != null) {
+            // 向上取整，保证任务不会早于到期时间触发
+            long tick = Math.max(Math.floorDiv(entry.deadline + tickMillis - 1, tickMillis), currentTick);
+            long ticks = tick - currentTick;
+            entry.rounds = ticks / buckets.length;
+            buckets[(int) (tick & mask)].addLast(entry);
+            size++;
+        }
+    }
+
+    private static final class Entry<T> {
+
+        final long deadline;
+
+        final T task;
+
+        long rounds;
+
+        Entry(long deadline, T task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.ai.cockpit.util;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * 可合并的分位数草图（KLL）
+ * <p>
+ * 样本分层保存，第h层每个样本代表2^h个原始样本。层满时排序后随机取奇数位或偶数位的一半晋升到上一层，
+ * 第h层容量为k·(2/3)^(顶层-h)（至少2），总占用约3k个double，与样本数无关；
+ * 分位数的秩误差约为1.65/k（k=200时约0.8%）。可以表示任意实数，适合取值可能为负的数值列。
+ * 相同k的草图按层拼接后压缩即可合并。非线程安全，由调用方加锁。
+ */
+public class KllSketch {
+
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final int k;
+
+    private final SplittableRandom random;
+
+    private double[][] levels = new double[1][];
+
+    private int[] sizes = new int[1];
+
+    /** 各层容量，层数变化时重新计算 */
+    private int[] capacities;
+
+    private int totalSize;
+
+    private int totalCapacity;
+
+    private long count;
+
+    private double min = Double.NaN;
+
+    private double max = Double.NaN;
+
+    public KllSketch(int k) {
+        this(k, 0x5DEECE66DL);
+    }
+
+    public KllSketch(int k, long seed) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k must be at least 8");
+        }
+        this.k = k;
+        this.random = new SplittableRandom(seed);
+        this.levels[0] = new double[k];
+        updateCapacities();
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        count++;
+        min = Double.isNaN(min) ? value : Math.min(min, value);
+        max = Double.isNaN(max) ? value : Math.max(max, value);
+        append(0, value);
+        if (totalSize > totalCapacity) {
+            compress();
+        }
+    }
+
+    public void merge(KllSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        for (int h = 0; h < other.levels.length; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+        }
+        count += other.count;
+        min = Double.isNaN(min) ? other.min : Math.min(min, other.min);
+        max = Double.isNaN(max) ? other.max : Math.max(max, other.max);
+        compress();
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    /**
+     * 分位数，q取值[0, 1]，无样本时返回NaN
+     */
+    public double quantile(double q) {
+        return quantiles(q)[0];
+    }
+
+    /**
+     * 一次排序计算多个分位数
+     */
+    public double[] quantiles(double... qs) {
+        double[] result = new double[qs.length];
+        if (count == 0) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+        int total = 0;
+        for (int size : sizes) {
+            total += size;
+        }
+        double[] values = new double[total];
+        long[] weights = new long[total];
+        int n = 0;
+        for (int h = 0; h < levels.length; h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                values[n] = levels[h][i];
+                weights[n++] = 1L << h;
+            }
+        }
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        long totalWeight = 0;
+        for (long weight : weights) {
+            totalWeight += weight;
+        }
+        for (int j = 0; j < qs.length; j++) {
+            double q = qs[j];
+            if (q <= 0) {
+                result[j] = min;
+                continue;
+            }
+            if (q >= 1) {
+                result[j] = max;
+                continue;
+            }
+            double target = q * totalWeight;
+            long seen = 0;
+            result[j] = max;
+            for (Integer index : order) {
+                seen += weights[index];
+                if (seen >= target) {
+                    result[j] = values[index];
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void append(int level, double value) {
+        if (level >= levels.length) {
+            levels = Arrays.copyOf(levels, level + 1);
+            sizes = Arrays.copyOf(sizes, level + 1);
+            levels[level] = new double[Math.max(2, k / 2)];
+            updateCapacities();
+        }
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], sizes[level] * 2);
+        }
+        levels[level][sizes[level]++] = value;
+        totalSize++;
+    }
+
+    private void updateCapacities() {
+        capacities = new int[levels.length];
+        totalCapacity = 0;
+        for (int h = 0; h < levels.length; h++) {
+            int depth = levels.length - 1 - h;
+            capacities[h] = Math.max(2, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+            totalCapacity += capacities[h];
+        }
+    }
+
+    /**
+     * 总样本数超过总容量时，从最低的已满层开始压缩
+     */
+    private void compress() {
+        while (totalSize > totalCapacity) {
+            for (int h = 0; h < levels.length; h++) {
+                if (sizes[h] >= capacities[h]) {
+                    compact(h);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void compact(int level) {
+        double[] items = levels[level];
+        int size = sizes[level];
+        Arrays.sort(items, 0, size);
+        int odd = size & 1;
+        int start = random.nextBoolean() ? 1 : 0;
+        for (int i = start; i < size - odd; i += 2) {
+            append(level + 1, items[i]);
+        }
+        // 奇数个样本时最大的一个留在本层
+        if (odd == 1) {
+            items[0] = items[size - 1];
+        }
+        totalSize -= size - odd;
+        sizes[level] = odd;
+    }
+}
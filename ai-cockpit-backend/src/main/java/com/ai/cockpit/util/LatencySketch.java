@@ -0,0 +1,221 @@
+package com.ai.cockpit.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 可合并的延迟分位数草图（对数分桶，DDSketch思路）
+ * <p>
+ * 值v落入下标ceil(log_γ(v))的桶，γ=(1+α)/(1-α)，分位数的相对误差不超过α（1%）。
+ * 只保存最小到最大下标之间的连续计数数组，常见延迟分布只占几十个桶；
+ * 精确保存总数、总和、最小值与最大值。相同α的草图直接按桶相加即可合并，合并结果与先合并样本再构建完全一致。
+ * 非线程安全，由调用方加锁。
+ */
+public class LatencySketch {
+
+    /** 相对误差 */
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    /** 小于该值（毫秒）的样本计入零桶 */
+    public static final double MIN_INDEXABLE = 1e-3;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private int[] counts = new int[0];
+
+    /** counts[0]对应的桶下标 */
+    private int offset;
+
+    private long zeroCount;
+
+    private long count;
+
+    private double sum;
+
+    private double min = Double.NaN;
+
+    private double max = Double.NaN;
+
+    public void add(double value) {
+        if (Double.isNaN(value) || value < 0) {
+            return;
+        }
+        if (value < MIN_INDEXABLE) {
+            zeroCount++;
+        } else {
+            int index = (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+            ensure(index, index);
+            counts[index - offset]++;
+        }
+        count++;
+        sum += value;
+        min = Double.isNaN(min) ? value : Math.min(min, value);
+        max = Double.isNaN(max) ? value : Math.max(max, value);
+    }
+
+    /**
+     * 合并另一个草图
+     */
+    public void merge(LatencySketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (other.counts.length > 0) {
+            ensure(other.offset, other.offset + other.counts.length - 1);
+            for (int k = 0; k < other.counts.length; k++) {
+                counts[other.offset + k - offset] += other.counts[k];
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        min = Double.isNaN(min) ? other.min : Math.min(min, other.min);
+        max = Double.isNaN(max) ? other.max : Math.max(max, other.max);
+    }
+
+    /**
+     * 分位数，q取值[0, 1]，无样本时返回NaN
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q <= 0) {
+            return min;
+        }
+        if (q >= 1) {
+            return max;
+        }
+        long rank = (long) Math.ceil(q * count);
+        long seen = zeroCount;
+        if (seen >= rank) {
+            return min;
+        }
+        for (int k = 0; k < counts.length; k++) {
+            seen += counts[k];
+            if (seen >= rank) {
+                double estimate = 2 * Math.pow(GAMMA, offset + k) / (GAMMA + 1);
+                return Math.max(min, Math.min(max, estimate));
+            }
+        }
+        return max;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double sum() {
+        return sum;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    public double mean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * 序列化：版本、零桶计数、偏移、桶数、各桶计数（变长整数）、总和、最小值、最大值
+     */
+    public byte[] toBytes() {
+        int first = 0;
+        int last = counts.length - 1;
+        while (first <= last && counts[first] == 0) {
+            first++;
+        }
+        while (last >= first && counts[last] == 0) {
+            last--;
+        }
+        int bins = last - first + 1;
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 10 + 5 + 5 + bins * 5 + 24);
+        buffer.put(FORMAT_VERSION);
+        putVarLong(buffer, zeroCount);
+        putVarLong(buffer, zigZag(offset + first));
+        putVarLong(buffer, bins);
+        for (int k = first; k <= last; k++) {
+            putVarLong(buffer, counts[k]);
+        }
+        buffer.putDouble(sum);
+        buffer.putDouble(min);
+        buffer.putDouble(max);
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    public static LatencySketch fromBytes(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("不支持的延迟草图版本: " + version);
+        }
+        LatencySketch sketch = new LatencySketch();
+        sketch.zeroCount = getVarLong(buffer);
+        sketch.offset = (int) unZigZag(getVarLong(buffer));
+        int bins = (int) getVarLong(buffer);
+        sketch.counts = new int[bins];
+        long total = sketch.zeroCount;
+        for (int k = 0; k < bins; k++) {
+            sketch.counts[k] = (int) getVarLong(buffer);
+            total += sketch.counts[k];
+        }
+        sketch.count = total;
+        sketch.sum = buffer.getDouble();
+        sketch.min = buffer.getDouble();
+        sketch.max = buffer.getDouble();
+        return sketch;
+    }
+
+    private void ensure(int lowIndex, int highIndex) {
+        if (counts.length == 0) {
+            offset = lowIndex;
+            counts = new int[highIndex - lowIndex + 1];
+            return;
+        }
+        int newOffset = Math.min(offset, lowIndex);
+        int newEnd = Math.max(offset + counts.length - 1, highIndex);
+        if (newOffset == offset && newEnd == offset + counts.length - 1) {
+            return;
+        }
+        int[] grown = new int[newEnd - newOffset + 1];
+        System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+        counts = grown;
+        offset = newOffset;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,255 @@
+package com.ai.cockpit.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 追加写文本文件的稀疏行偏移索引
+ * <p>
+ * 每stride行记录一次行首字节偏移，定位任意行只需从最近的检查点向后扫描不超过stride行。
+ * 文件只追加时索引可增量扩展（只扫描新增部分）；文件变短时视为被截断或轮转，需要重建。
+ * 读取通过内存映射分窗口进行，单个窗口不超过WINDOW字节，不受2GB映射上限限制。索引可以序列化后随文件保存。
+ * 非线程安全，由调用方加锁。
+ */
+public class LineOffsetIndex {
+
+    /** 内存映射窗口大小 */
+    public static final int WINDOW = 64 * 1024 * 1024;
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final int stride;
+
+    /** checkpoints[k]为第k*stride行（从0开始）的行首偏移 */
+    private long[] checkpoints = new long[16];
+
+    private int checkpointCount = 1;
+
+    /** 已索引的完整行数（以换行符结尾） */
+    private long lines;
+
+    /** 已扫描到的字节位置，即最后一个完整行之后的偏移 */
+    private long indexedBytes;
+
+    public LineOffsetIndex(int stride) {
+        this.stride = stride;
+    }
+
+    public long lines() {
+        return lines;
+    }
+
+    public long indexedBytes() {
+        return indexedBytes;
+    }
+
+    /**
+     * 扫描新增内容扩展索引
+     *
+     * @return 文件是否变短（调用方应丢弃本索引重建）
+     */
+    public boolean extend(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < indexedBytes) {
+            return true;
+        }
+        long position = indexedBytes;
+        while (position < size) {
+            int length = (int) Math.min(WINDOW, size - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(i) == '\n') {
+                    lines++;
+                    indexedBytes = position + i + 1;
+                    if (lines % stride == 0) {
+                        if (checkpointCount == checkpoints.length) {
+                            checkpoints = Arrays.copyOf(checkpoints, checkpointCount * 2);
+                        }
+                        checkpoints[checkpointCount++] = indexedBytes;
+                    }
+                }
+            }
+            position += length;
+        }
+        return false;
+    }
+
+    /**
+     * 序列化：版本、步长、完整行数、已索引字节数、检查点数、各检查点偏移
+     */
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 4 + 8 + 8 + 4 + checkpointCount * 8);
+        buffer.put(FORMAT_VERSION);
+        buffer.putInt(stride);
+        buffer.putLong(lines);
+        buffer.putLong(indexedBytes);
+        buffer.putInt(checkpointCount);
+        for (int k = 0; k < checkpointCount; k++) {
+            buffer.putLong(checkpoints[k]);
+        }
+        return buffer.array();
+    }
+
+    public static LineOffsetIndex fromBytes(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("不支持的行偏移索引版本: " + version);
+        }
+        LineOffsetIndex index = new LineOffsetIndex(buffer.getInt());
+        index.lines = buffer.getLong();
+        index.indexedBytes = buffer.getLong();
+        index.checkpointCount = buffer.getInt();
+        if (index.checkpointCount != index.lines / index.stride + 1) {
+            throw new IllegalArgumentException("行偏移索引已损坏");
+        }
+        index.checkpoints = new long[Math.max(16, index.checkpointCount)];
+        for (int k = 0; k < index.checkpointCount; k++) {
+            index.checkpoints[k] = buffer.getLong();
+        }
+        return index;
+    }
+
+    /**
+     * 第line行（从0开始）的行首偏移；超出已索引的完整行时返回已索引末尾（可能是未完成的最后一行）
+     */
+    public long lineStart(FileChannel channel, long line) throws IOException {
+        if (line >= lines) {
+            return indexedBytes;
+        }
+        int k = (int) (line / stride);
+        long offset = checkpoints[k];
+        long skip = line - (long) k * stride;
+        while (skip > 0) {
+            int length = (int) Math.min(WINDOW, indexedBytes - offset);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            int i = 0;
+            while (i < length && skip > 0) {
+                if (buffer.get(i++) == '\n') {
+                    skip--;
+                }
+            }
+            offset += i;
+        }
+        return offset;
+    }
+
+    /**
+     * 从offset开始读取至多count行，累计字节数不超过maxBytes（至少返回一行，单行超过maxBytes时截断）
+     *
+     * @param includePartial 是否包含文件末尾没有换行符的最后一行
+     */
+    public static Chunk readLines(FileChannel channel, long offset, int count, int maxBytes, boolean includePartial)
+            throws IOException {
+        long size = channel.size();
+        List<String> result = new ArrayList<>();
+        long position = offset;
+        long lineStart = offset;
+        while (result.size() < count && position < size) {
+            int length = (int) Math.min(WINDOW, size - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            int i = 0;
+            for (; i < length && result.size() < count; i++) {
+                if (buffer.get(i) != '\n') {
+                    continue;
+                }
+                long end = position + i;
+                if (!result.isEmpty() && end + 1 - offset > maxBytes) {
+                    return new Chunk(result, offset, lineStart);
+                }
+                result.add(lineStart >= position
+                        ? decode(buffer, (int) (lineStart - position), i, maxBytes)
+                        : decode(channel, lineStart, end, maxBytes));
+                lineStart = end + 1;
+            }
+            position += i;
+        }
+        if (includePartial && result.size() < count && lineStart < size && (result.isEmpty() || size - offset <= maxBytes)) {
+            result.add(decode(channel, lineStart, size, maxBytes));
+            lineStart = size;
+        }
+        return new Chunk(result, offset, lineStart);
+    }
+
+    /**
+     * 读取文件末尾至多count行，从末尾向前只扫描这些行所占的字节（不超过maxBytes），与文件大小无关
+     */
+    public static Chunk tail(FileChannel channel, int count, int maxBytes) throws IOException {
+        long size = channel.size();
+        long end = size;
+        // 忽略文件末尾的换行符
+        if (end > 0 && byteAt(channel, end - 1) == '\n') {
+            end--;
+        }
+        long floor = Math.max(0, end - maxBytes);
+        long start = end;
+        int found = 0;
+        int window = 64 * 1024;
+        scan:
+        while (start > floor) {
+            long from = Math.max(floor, start - window);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, start - from);
+            for (int i = (int) (start - from) - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n' && ++found == count) {
+                    start = from + i + 1;
+                    break scan;
+                }
+            }
+            start = from;
+            window = (int) Math.min(WINDOW, window * 2L);
+        }
+        if (found < count && start > 0 && byteAt(channel, start - 1) != '\n') {
+            // 受maxBytes限制停在某行中间时，从下一个完整行开始
+            Chunk skipped = readLines(channel, start, 1, maxBytes, false);
+            if (!skipped.lines().isEmpty()) {
+                start = skipped.endOffset();
+            }
+        }
+        return readLines(channel, start, count, maxBytes + 1, true);
+    }
+
+    private static byte byteAt(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        channel.read(buffer, position);
+        return buffer.get(0);
+    }
+
+    private static String decode(MappedByteBuffer buffer, int from, int to, int maxBytes) {
+        if (to > from && buffer.get(to - 1) == '\r') {
+            to--;
+        }
+        byte[] bytes = new byte[Math.min(to - from, maxBytes)];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 跨映射窗口的行直接按位置读取
+     */
+    private static String decode(FileChannel channel, long start, long end, int maxBytes) throws IOException {
+        if (end > start && byteAt(channel, end - 1) == '\r') {
+            end--;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(end - start, maxBytes));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 读取结果
+     *
+     * @param startOffset 第一行的行首偏移
+     * @param endOffset   最后一行之后的偏移，即下一次读取的起点
+     */
+    public record Chunk(List<String> lines, long startOffset, long endOffset) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.ai.cockpit.util;
+
+/**
+ * 最大三角形三桶降采样（Largest-Triangle-Three-Buckets）
+ * <p>
+ * 保留首尾点，中间的点均分为threshold-2个桶，每个桶选出与上一个选中点、下一个桶均值点构成三角形面积最大的点，
+ * 在保留曲线形状（峰值、拐点）的同时把点数降到屏幕像素宽度。线性时间，只返回选中点的下标，不复制数据。
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * 从[from, to)区间选出threshold个点的下标，点数不超过threshold时返回全部下标
+     *
+     * @param threshold 目标点数，至少为3
+     */
+    public static int[] select(long[] x, double[] y, int from, int to, int threshold) {
+        int n = to - from;
+        if (n <= threshold) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = from + i;
+            }
+            return all;
+        }
+        if (threshold < 3) {
+            throw new IllegalArgumentException("threshold must be at least 3");
+        }
+        int[] selected = new int[threshold];
+        selected[0] = from;
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = from;
+        for (int i = 0; i < threshold - 2; i++) {
+            // 下一个桶的均值点
+            int avgStart = from + (int) ((i + 1) * every) + 1;
+            int avgEnd = Math.min(from + (int) ((i + 2) * every) + 1, to);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += x[j];
+                avgY += y[j];
+            }
+            int avgLength = avgEnd - avgStart;
+            avgX /= avgLength;
+            avgY /= avgLength;
+
+            int rangeStart = from + (int) (i * every) + 1;
+            int rangeEnd = from + (int) ((i + 1) * every) + 1;
+            double ax = x[a];
+            double ay = y[a];
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((ax - avgX) * (y[j] - ay) - (ax - x[j]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            selected[i + 1] = next;
+            a = next;
+        }
+        selected[threshold - 1] = to - 1;
+        return selected;
+    }
+}
@@ -0,0 +1,150 @@
+package com.ai.cockpit.util;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按行并行扫描大文件
+ * <p>
+ * 文件按字节均分为若干段，段边界对齐到换行符之后，各段可由不同线程独立扫描。
+ * 每段按窗口内存映射，以固定大小的块批量拷贝到堆内数组后逐行回调，
+ * 内存占用只与块大小有关（单行超过块大小时按倍数扩展，不超过maxLineBytes），与文件大小无关。
+ */
+public final class MappedLineScanner {
+
+    /** 内存映射窗口大小 */
+    public static final int WINDOW = 64 * 1024 * 1024;
+
+    private MappedLineScanner() {
+    }
+
+    /**
+     * 把[start, size)均分为至多parts段，每段不小于minSplit字节，边界对齐到行首
+     *
+     * @return 长度为段数+1的边界数组
+     */
+    public static long[] split(FileChannel channel, long start, int parts, long minSplit) throws IOException {
+        long size = channel.size();
+        int count = (int) Math.max(1, Math.min(parts, (size - start) / Math.max(1, minSplit)));
+        long[] bounds = new long[count + 1];
+        bounds[0] = start;
+        bounds[count] = size;
+        for (int i = 1; i < count; i++) {
+            long guess = start + (size - start) * i / count;
+            bounds[i] = Math.max(bounds[i - 1], nextLineStart(channel, guess - 1, size));
+        }
+        return bounds;
+    }
+
+    /**
+     * 扫描[start, end)内的各行，回调的行范围不含换行符；最后一行没有换行符时也会回调
+     *
+     * @param progress 已扫描字节数，可为null
+     */
+    public static void scan(FileChannel channel, long start, long end, int blockSize, int maxLineBytes,
+                            LongAdder progress, LineHandler handler) throws IOException {
+        byte[] block = new byte[blockSize];
+        int carry = 0;
+        long position = start;
+        MappedByteBuffer window = null;
+        long windowStart = 0;
+        while (position < end) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IOException("扫描已取消");
+            }
+            if (carry == block.length) {
+                if (block.length >= maxLineBytes) {
+                    throw new IOException("单行超过" + maxLineBytes + "字节");
+                }
+                block = Arrays.copyOf(block, (int) Math.min((long) block.length * 2, maxLineBytes));
+            }
+            if (window == null || position >= windowStart + window.limit()) {
+                windowStart = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW, end - position));
+            }
+            int n = (int) Math.min(block.length - carry, windowStart + window.limit() - position);
+            window.get((int) (position - windowStart), block, carry, n);
+            position += n;
+            if (progress != null) {
+                progress.add(n);
+            }
+
+            int limit = carry + n;
+            int lineStart = 0;
+            for (int i = carry; i < limit; i++) {
+                if (block[i] == '\n') {
+                    handler.line(block, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+            carry = limit - lineStart;
+            System.arraycopy(block, lineStart, block, 0, carry);
+        }
+        if (carry > 0) {
+            handler.line(block, 0, carry);
+        }
+    }
+
+    /**
+     * 从position开始第一个换行符之后的位置，没有换行符时返回文件末尾
+     */
+    public static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        while (position < size) {
+            int length = (int) Math.min(WINDOW, size - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += length;
+        }
+        return size;
+    }
+
+    /**
+     * 文件开头UTF-8 BOM的长度（0或3）
+     */
+    public static long bomLength(FileChannel channel) throws IOException {
+        if (channel.size() < 3) {
+            return 0;
+        }
+        byte[] head = read(channel, 0, 3);
+        return head[0] == (byte) 0xEF && head[1] == (byte) 0xBB && head[2] == (byte) 0xBF ? 3 : 0;
+    }
+
+    public static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        if (length > 0) {
+            channel.map(FileChannel.MapMode.READ_ONLY, position, length).get(bytes);
+        }
+        return bytes;
+    }
+
+    /**
+     * 去掉行尾的换行与回车
+     */
+    public static int trimLineEnd(byte[] bytes, int start, int end) {
+        while (end > start && (bytes[end - 1] == '\n' || bytes[end - 1] == '\r')) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * 行回调
+     */
+    @FunctionalInterface
+    public interface LineHandler {
+
+        /**
+         * @param bytes 行所在的数组，回调返回后内容会被覆盖
+         * @param start 行首下标
+         * @param end   行尾下标（换行符位置，不含）
+         */
+        void line(byte[] bytes, int start, int end) throws IOException;
+    }
+}
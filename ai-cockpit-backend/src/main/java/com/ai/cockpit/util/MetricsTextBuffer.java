@@ -0,0 +1,147 @@
+package com.ai.cockpit.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 指标文本缓冲区
+ * <p>
+ * 可复用的字节缓冲区，数字直接按位写入，不经过String；非线程安全，由调用方保证独占使用。
+ */
+public class MetricsTextBuffer {
+
+    /** 小于该绝对值的小数按定点（最多9位小数）写出 */
+    private static final double FIXED_POINT_LIMIT = 1e9;
+
+    private static final long FRACTION_SCALE = 1_000_000_000L;
+
+    private static final int FRACTION_DIGITS = 9;
+
+    private static final byte[] NAN = "NaN".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] POSITIVE_INFINITY = "+Inf".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] NEGATIVE_INFINITY = "-Inf".getBytes(StandardCharsets.US_ASCII);
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+            10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+            1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    private byte[] buffer;
+
+    private int size;
+
+    public MetricsTextBuffer(int initialCapacity) {
+        this.buffer = new byte[Math.max(initialCapacity, 64)];
+    }
+
+    /**
+     * 清空内容，保留已分配的容量
+     */
+    public void reset() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    public MetricsTextBuffer write(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+        return this;
+    }
+
+    public MetricsTextBuffer write(byte b) {
+        ensure(1);
+        buffer[size++] = b;
+        return this;
+    }
+
+    public MetricsTextBuffer writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            return write(Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+        }
+        ensure(20);
+        if (value < 0) {
+            buffer[size++] = '-';
+            value = -value;
+        }
+        int digits = digits(value);
+        for (int k = size + digits - 1; k >= size; k--) {
+            buffer[k] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += digits;
+        return this;
+    }
+
+    /**
+     * 写出浮点数：整数值按整数写出，绝对值小于1e9的小数按定点写出并去掉末尾的0，其余回退到Double.toString
+     */
+    public MetricsTextBuffer writeDouble(double value) {
+        if (Double.isNaN(value)) {
+            return write(NAN);
+        }
+        if (Double.isInfinite(value)) {
+            return write(value > 0 ? POSITIVE_INFINITY : NEGATIVE_INFINITY);
+        }
+        if (value == (long) value && Math.abs(value) < 1e18) {
+            return writeLong((long) value);
+        }
+        if (Math.abs(value) >= FIXED_POINT_LIMIT) {
+            return write(Double.toString(value).getBytes(StandardCharsets.US_ASCII));
+        }
+        long scaled = Math.round(Math.abs(value) * FRACTION_SCALE);
+        long integer = scaled / FRACTION_SCALE;
+        long fraction = scaled % FRACTION_SCALE;
+        if (value < 0) {
+            write((byte) '-');
+        }
+        writeLong(integer);
+        if (fraction == 0) {
+            return this;
+        }
+        int digits = FRACTION_DIGITS;
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            digits--;
+        }
+        ensure(digits + 1);
+        buffer[size++] = '.';
+        for (int k = size + digits - 1; k >= size; k--) {
+            buffer[k] = (byte) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        size += digits;
+        return this;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+    }
+
+    private static int digits(long value) {
+        for (int k = 1; k < POWERS_OF_TEN.length; k++) {
+            if (value < POWERS_OF_TEN[k]) {
+                return k;
+            }
+        }
+        return 19;
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(size + extra, buffer.length * 2));
+        }
+    }
+}
@@ -0,0 +1,674 @@
+package com.ai.cockpit.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个数据集文件的MinHash/LSH去重索引
+ * <p>
+ * 每个非空行（CSV/TSV不含表头，可只取某一列或JSON Lines的某个顶层键）保存一个原文哈希与bands个分带键（见MinHashSketcher），
+ * 全部存放在基本类型数组中：原文哈希升序排列，每个分带的键按无符号升序排列并带行号，
+ * 每行约占bands*12+8字节，单个索引最多Integer.MAX_VALUE-8行。
+ * 两个索引之间的完全重复与近似重复都通过有序数组归并求得，耗时与两者行数之和成正比，不需要额外的哈希表。
+ * 行号与数据集预览、切分接口一致（从0开始，CSV/TSV不含表头，空行占行号但不参与索引）。
+ * <p>
+ * 建立时文件按段并行扫描两遍：第一遍只数行确定各段在数组中的位置，第二遍计算签名直接写入最终数组，不需要中间缓冲。
+ * 索引建立后只读，可多线程共享。
+ */
+public class MinHashIndex {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final long MIN_SPLIT = 8L * 1024 * 1024;
+
+    private static final int MAX_ROWS = Integer.MAX_VALUE - 8;
+
+    private static final int INSERTION_SORT_THRESHOLD = 48;
+
+    private static final int IO_BUFFER = 1 << 20;
+
+    private final Params params;
+
+    private final DatasetProfiler.Format format;
+
+    private final String textColumn;
+
+    /** 参与编号的行数（含空行） */
+    private final int rows;
+
+    /** 非空行的原文哈希，升序 */
+    private final long[] exact;
+
+    /** bandKeys[b]为第b个分带的键（无符号升序），bandRows[b]为对应的行号 */
+    private final long[][] bandKeys;
+
+    private final int[][] bandRows;
+
+    private MinHashIndex(Params params, DatasetProfiler.Format format, String textColumn, int rows, long[] exact,
+                         long[][] bandKeys, int[][] bandRows) {
+        this.params = params;
+        this.format = format;
+        this.textColumn = textColumn;
+        this.rows = rows;
+        this.exact = exact;
+        this.bandKeys = bandKeys;
+        this.bandRows = bandRows;
+    }
+
+    public Params params() {
+        return params;
+    }
+
+    public String textColumn() {
+        return textColumn;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * 参与索引的非空行数
+     */
+    public int entries() {
+        return exact.length;
+    }
+
+    /**
+     * 索引数组占用的内存字节数（估算）
+     */
+    public long sizeInBytes() {
+        long size = exact.length * 8L;
+        for (int b = 0; b < bandKeys.length; b++) {
+            size += bandKeys[b].length * 8L + bandRows[b].length * 4L;
+        }
+        return size;
+    }
+
+    /**
+     * 建立索引
+     *
+     * @param format     文件格式，为null时按普通文本逐行处理
+     * @param textColumn 参与比较的列名或JSON顶层键，为null时比较整行；缺少该列的行也按整行比较
+     * @param progress   已扫描字节数（只统计第二遍），可为null
+     */
+    public static MinHashIndex build(FileChannel channel, DatasetProfiler.Format format, String textColumn, Params params,
+                                     ExecutorService executor, int parallelism, int blockSize, int maxLineBytes,
+                                     LongAdder progress) throws IOException, InterruptedException {
+        Layout layout = Layout.of(channel, format, textColumn);
+        if (progress != null) {
+            progress.add(layout.start);
+        }
+        long[] bounds = MappedLineScanner.split(channel, layout.start, parallelism, MIN_SPLIT);
+        int parts = bounds.length - 1;
+
+        List<Callable<long[]>> counting = new ArrayList<>(parts);
+        for (int i = 0; i < parts; i++) {
+            long from = bounds[i];
+            long to = bounds[i + 1];
+            counting.add(() -> {
+                long[] counts = new long[2];
+                MappedLineScanner.scan(channel, from, to, blockSize, maxLineBytes, null, (bytes, start, end) -> {
+                    counts[0]++;
+                    if (MappedLineScanner.trimLineEnd(bytes, start, end) > start) {
+                        counts[1]++;
+                    }
+                });
+                return counts;
+            });
+        }
+        List<long[]> counts = runAll(executor, counting);
+        long[] rowBase = new long[parts + 1];
+        long[] entryBase = new long[parts + 1];
+        for (int i = 0; i < parts; i++) {
+            rowBase[i + 1] = rowBase[i] + counts.get(i)[0];
+            entryBase[i + 1] = entryBase[i] + counts.get(i)[1];
+        }
+        if (rowBase[parts] > MAX_ROWS) {
+            throw new IOException("行数超过单个索引上限" + MAX_ROWS);
+        }
+        int rows = (int) rowBase[parts];
+        int entries = (int) entryBase[parts];
+
+        int bands = params.bands();
+        long[] exact = new long[entries];
+        long[][] bandKeys = new long[bands][entries];
+        int[][] bandRows = new int[bands][entries];
+        List<Callable<Void>> sketching = new ArrayList<>(parts);
+        for (int i = 0; i < parts; i++) {
+            long from = bounds[i];
+            long to = bounds[i + 1];
+            int firstRow = (int) rowBase[i];
+            int firstEntry = (int) entryBase[i];
+            int lastEntry = (int) entryBase[i + 1];
+            sketching.add(() -> {
+                MinHashSketcher sketcher = params.newSketcher();
+                long[] keys = new long[bands];
+                int[] cursor = {firstRow, firstEntry};
+                MappedLineScanner.scan(channel, from, to, blockSize, maxLineBytes, progress, (bytes, start, end) -> {
+                    int row = cursor[0]++;
+                    end = MappedLineScanner.trimLineEnd(bytes, start, end);
+                    if (end == start) {
+                        return;
+                    }
+                    int entry = cursor[1]++;
+                    if (entry >= lastEntry) {
+                        throw new IOException("扫描期间文件内容发生变化");
+                    }
+                    long range = layout.range(bytes, start, end);
+                    int textStart = range < 0 ? start : (int) (range >>> 32);
+                    int textEnd = range < 0 ? end : (int) range;
+                    exact[entry] = MinHashSketcher.exactHash(bytes, textStart, textEnd);
+                    sketcher.bandKeys(bytes, textStart, textEnd, keys);
+                    for (int b = 0; b < bands; b++) {
+                        bandKeys[b][entry] = keys[b];
+                        bandRows[b][entry] = row;
+                    }
+                });
+                if (cursor[1] != lastEntry) {
+                    throw new IOException("扫描期间文件内容发生变化");
+                }
+                return null;
+            });
+        }
+        runAll(executor, sketching);
+
+        List<Callable<Void>> sorting = new ArrayList<>(bands + 1);
+        sorting.add(() -> {
+            Arrays.sort(exact);
+            return null;
+        });
+        for (int b = 0; b < bands; b++) {
+            long[] keys = bandKeys[b];
+            int[] values = bandRows[b];
+            sorting.add(() -> {
+                sortPairs(keys, values, 0, keys.length, 56);
+                return null;
+            });
+        }
+        runAll(executor, sorting);
+        return new MinHashIndex(params, format, textColumn, rows, exact, bandKeys, bandRows);
+    }
+
+    /**
+     * 本数据集内与更早的行完全相同的行数
+     */
+    public long exactDuplicates() {
+        long duplicates = 0;
+        for (int i = 1; i < exact.length; i++) {
+            if (exact[i] == exact[i - 1]) {
+                duplicates++;
+            }
+        }
+        return duplicates;
+    }
+
+    /**
+     * 标记本数据集内的近似重复行：任一分带键相同的一组行中，除行号最小的一行外都标记
+     */
+    public void markInternalNearDuplicates(BitSet marks) {
+        for (int b = 0; b < bandKeys.length; b++) {
+            long[] keys = bandKeys[b];
+            int[] values = bandRows[b];
+            int i = 0;
+            while (i < keys.length) {
+                int j = i + 1;
+                int first = values[i];
+                while (j < keys.length && keys[j] == keys[i]) {
+                    first = Math.min(first, values[j]);
+                    j++;
+                }
+                if (j - i > 1) {
+                    for (int k = i; k < j; k++) {
+                        if (values[k] != first) {
+                            marks.set(values[k]);
+                        }
+                    }
+                }
+                i = j;
+            }
+        }
+    }
+
+    /**
+     * 本数据集中原文哈希出现在other中的行数
+     */
+    public long exactMatches(MinHashIndex other) {
+        long[] a = exact;
+        long[] b = other.exact;
+        long matches = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                long value = a[i];
+                while (i < a.length && a[i] == value) {
+                    i++;
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * 标记本数据集中与other任一行至少有一个分带键相同的行
+     */
+    public void markNearMatches(MinHashIndex other, BitSet marks) {
+        checkCompatible(other);
+        for (int band = 0; band < bandKeys.length; band++) {
+            long[] a = bandKeys[band];
+            long[] b = other.bandKeys[band];
+            int[] values = bandRows[band];
+            int i = 0;
+            int j = 0;
+            while (i < a.length && j < b.length) {
+                int compare = Long.compareUnsigned(a[i], b[j]);
+                if (compare < 0) {
+                    i++;
+                } else if (compare > 0) {
+                    j++;
+                } else {
+                    long key = a[i];
+                    while (i < a.length && a[i] == key) {
+                        marks.set(values[i++]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 按索引过滤文件内容，写出保留的行（CSV/TSV先写表头，空行不保留）
+     *
+     * @param references     参照索引，与其完全重复（near为true时还包括近似重复）的行被删除
+     * @param near           是否按近似重复删除
+     * @param removeInternal 是否删除本数据集内的重复行（保留首次出现的行）
+     * @return 写出的数据行数
+     */
+    public long deduplicate(FileChannel channel, OutputStream out, List<MinHashIndex> references, boolean near,
+                            boolean removeInternal, int blockSize, int maxLineBytes, LongAdder progress)
+            throws IOException {
+        Layout layout = Layout.of(channel, format, textColumn);
+        BitSet drop = new BitSet(rows);
+        if (near) {
+            if (removeInternal) {
+                markInternalNearDuplicates(drop);
+            }
+            for (MinHashIndex reference : references) {
+                markNearMatches(reference, drop);
+            }
+        }
+        BitSet emitted = removeInternal ? new BitSet(exact.length) : null;
+        if (layout.header != null) {
+            out.write(layout.header);
+            out.write('\n');
+        }
+        if (progress != null) {
+            progress.add(layout.start);
+        }
+        long[] state = new long[2];
+        MappedLineScanner.scan(channel, layout.start, channel.size(), blockSize, maxLineBytes, progress,
+                (bytes, start, end) -> {
+                    long row = state[0]++;
+                    end = MappedLineScanner.trimLineEnd(bytes, start, end);
+                    if (end == start || row >= rows || drop.get((int) row)) {
+                        return;
+                    }
+                    long range = layout.range(bytes, start, end);
+                    long hash = range < 0 ? MinHashSketcher.exactHash(bytes, start, end)
+                            : MinHashSketcher.exactHash(bytes, (int) (range >>> 32), (int) range);
+                    for (MinHashIndex reference : references) {
+                        if (Arrays.binarySearch(reference.exact, hash) >= 0) {
+                            return;
+                        }
+                    }
+                    if (emitted != null) {
+                        int position = lowerBound(exact, hash);
+                        if (position == exact.length || exact[position] != hash) {
+                            throw new IOException("文件内容与索引不一致");
+                        }
+                        if (emitted.get(position)) {
+                            return;
+                        }
+                        emitted.set(position);
+                    }
+                    out.write(bytes, start, end - start);
+                    out.write('\n');
+                    state[1]++;
+                });
+        if (state[0] != rows) {
+            throw new IOException("文件内容与索引不一致");
+        }
+        return state[1];
+    }
+
+    /**
+     * 写出到channel的当前位置
+     */
+    public void writeTo(FileChannel channel) throws IOException {
+        byte[] column = textColumn == null ? null : textColumn.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER);
+        buffer.put((byte) FORMAT_VERSION);
+        buffer.putInt(params.bands());
+        buffer.putInt(params.rowsPerBand());
+        buffer.putInt(params.shingleSize());
+        buffer.putLong(params.seed());
+        buffer.put((byte) (format == null ? -1 : format.ordinal()));
+        buffer.putInt(column == null ? -1 : column.length);
+        if (column != null) {
+            buffer.put(column);
+        }
+        buffer.putInt(rows);
+        buffer.putInt(exact.length);
+        buffer.flip();
+        writeFully(channel, buffer);
+        writeLongs(channel, buffer, exact);
+        for (int b = 0; b < bandKeys.length; b++) {
+            writeLongs(channel, buffer, bandKeys[b]);
+            writeInts(channel, buffer, bandRows[b]);
+        }
+    }
+
+    /**
+     * 从channel的当前位置读取
+     */
+    public static MinHashIndex readFrom(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER);
+        readFully(channel, buffer, 1 + 4 * 3 + 8 + 1 + 4);
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("不支持的去重索引版本: " + version);
+        }
+        Params params = new Params(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getLong());
+        byte formatOrdinal = buffer.get();
+        int columnLength = buffer.getInt();
+        if (columnLength > IO_BUFFER - 8) {
+            throw new IOException("去重索引文件已损坏");
+        }
+        readFully(channel, buffer, Math.max(0, columnLength) + 8);
+        String textColumn = null;
+        if (columnLength >= 0) {
+            byte[] column = new byte[columnLength];
+            buffer.get(column);
+            textColumn = new String(column, StandardCharsets.UTF_8);
+        }
+        int rows = buffer.getInt();
+        int entries = buffer.getInt();
+        if (entries < 0 || entries > rows || params.bands() <= 0) {
+            throw new IOException("去重索引文件已损坏");
+        }
+        DatasetProfiler.Format format = formatOrdinal < 0 ? null : DatasetProfiler.Format.values()[formatOrdinal];
+        long[] exact = readLongs(channel, buffer, entries);
+        long[][] bandKeys = new long[params.bands()][];
+        int[][] bandRows = new int[params.bands()][];
+        for (int b = 0; b < params.bands(); b++) {
+            bandKeys[b] = readLongs(channel, buffer, entries);
+            bandRows[b] = readInts(channel, buffer, entries);
+        }
+        return new MinHashIndex(params, format, textColumn, rows, exact, bandKeys, bandRows);
+    }
+
+    private void checkCompatible(MinHashIndex other) {
+        if (!params.equals(other.params)) {
+            throw new IllegalArgumentException("索引参数不一致，无法比较");
+        }
+    }
+
+    private static int lowerBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 按键的无符号值原地排序（MSD基数排序，每轮8位），values随键一起移动；相同键之间的顺序不保证
+     */
+    static void sortPairs(long[] keys, int[] values, int from, int to, int shift) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                long key = keys[i];
+                int value = values[i];
+                int j = i - 1;
+                while (j >= from && Long.compareUnsigned(keys[j], key) > 0) {
+                    keys[j + 1] = keys[j];
+                    values[j + 1] = values[j];
+                    j--;
+                }
+                keys[j + 1] = key;
+                values[j + 1] = value;
+            }
+            return;
+        }
+        int[] ends = new int[257];
+        for (int i = from; i < to; i++) {
+            ends[(int) (keys[i] >>> shift) & 0xFF]++;
+        }
+        int[] next = new int[256];
+        int position = from;
+        for (int d = 0; d < 256; d++) {
+            next[d] = position;
+            position += ends[d];
+            ends[d] = position;
+        }
+        for (int d = 0; d < 256; d++) {
+            while (next[d] < ends[d]) {
+                int i = next[d];
+                long key = keys[i];
+                int value = values[i];
+                int digit = (int) (key >>> shift) & 0xFF;
+                while (digit != d) {
+                    int j = next[digit]++;
+                    long displacedKey = keys[j];
+                    int displacedValue = values[j];
+                    keys[j] = key;
+                    values[j] = value;
+                    key = displacedKey;
+                    value = displacedValue;
+                    digit = (int) (key >>> shift) & 0xFF;
+                }
+                keys[i] = key;
+                values[i] = value;
+                next[d]++;
+            }
+        }
+        if (shift > 0) {
+            int start = from;
+            for (int d = 0; d < 256; d++) {
+                if (ends[d] - start > 1) {
+                    sortPairs(keys, values, start, ends[d], shift - 8);
+                }
+                start = ends[d];
+            }
+        }
+    }
+
+    private static <T> List<T> runAll(ExecutorService executor, List<Callable<T>> tasks)
+            throws IOException, InterruptedException {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submit(task));
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+        return results;
+    }
+
+    private static void writeLongs(FileChannel channel, ByteBuffer buffer, long[] values) throws IOException {
+        for (int i = 0; i < values.length; ) {
+            int n = Math.min(values.length - i, buffer.capacity() / Long.BYTES);
+            buffer.clear();
+            buffer.asLongBuffer().put(values, i, n);
+            buffer.limit(n * Long.BYTES);
+            writeFully(channel, buffer);
+            i += n;
+        }
+    }
+
+    private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+        for (int i = 0; i < values.length; ) {
+            int n = Math.min(values.length - i, buffer.capacity() / Integer.BYTES);
+            buffer.clear();
+            buffer.asIntBuffer().put(values, i, n);
+            buffer.limit(n * Integer.BYTES);
+            writeFully(channel, buffer);
+            i += n;
+        }
+    }
+
+    private static long[] readLongs(FileChannel channel, ByteBuffer buffer, int count) throws IOException {
+        long[] values = new long[count];
+        for (int i = 0; i < count; ) {
+            int n = Math.min(count - i, buffer.capacity() / Long.BYTES);
+            readFully(channel, buffer, n * Long.BYTES);
+            buffer.asLongBuffer().get(values, i, n);
+            i += n;
+        }
+        return values;
+    }
+
+    private static int[] readInts(FileChannel channel, ByteBuffer buffer, int count) throws IOException {
+        int[] values = new int[count];
+        for (int i = 0; i < count; ) {
+            int n = Math.min(count - i, buffer.capacity() / Integer.BYTES);
+            readFully(channel, buffer, n * Integer.BYTES);
+            buffer.asIntBuffer().get(values, i, n);
+            i += n;
+        }
+        return values;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * 读取length字节到buffer并翻转为可读
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, int length) throws IOException {
+        buffer.clear();
+        buffer.limit(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("去重索引文件不完整");
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * 索引参数，只有参数相同的索引之间可以比较
+     *
+     * @param bands       分带数
+     * @param rowsPerBand 每个分带的签名桶数
+     * @param shingleSize 片段长度（字节）
+     * @param seed        哈希种子
+     */
+    public record Params(int bands, int rowsPerBand, int shingleSize, long seed) {
+
+        public MinHashSketcher newSketcher() {
+            return new MinHashSketcher(bands, rowsPerBand, shingleSize, seed);
+        }
+
+        /**
+         * 成为候选的概率为1/2时的Jaccard相似度近似值(1/bands)^(1/rowsPerBand)
+         */
+        public double threshold() {
+            return Math.pow(1.0 / bands, 1.0 / rowsPerBand);
+        }
+    }
+
+    /**
+     * 文件布局：数据起始位置、表头与参与比较的列
+     */
+    private static final class Layout {
+
+        private final long start;
+
+        private final byte[] header;
+
+        private final byte delimiter;
+
+        private final int columnIndex;
+
+        private final byte[] jsonKey;
+
+        private Layout(long start, byte[] header, byte delimiter, int columnIndex, byte[] jsonKey) {
+            this.start = start;
+            this.header = header;
+            this.delimiter = delimiter;
+            this.columnIndex = columnIndex;
+            this.jsonKey = jsonKey;
+        }
+
+        static Layout of(FileChannel channel, DatasetProfiler.Format format, String textColumn) throws IOException {
+            long start = MappedLineScanner.bomLength(channel);
+            if (format == DatasetProfiler.Format.CSV || format == DatasetProfiler.Format.TSV) {
+                byte delimiter = format == DatasetProfiler.Format.TSV ? (byte) '\t' : (byte) ',';
+                long size = channel.size();
+                long lineEnd = MappedLineScanner.nextLineStart(channel, start, size);
+                byte[] line = MappedLineScanner.read(channel, start, (int) (lineEnd - start));
+                byte[] header = Arrays.copyOf(line, MappedLineScanner.trimLineEnd(line, 0, line.length));
+                int columnIndex = -1;
+                if (textColumn != null) {
+                    columnIndex = DatasetSplitter.headerIndex(header, delimiter, textColumn);
+                    if (columnIndex < 0) {
+                        throw new IllegalArgumentException("列不存在: " + textColumn);
+                    }
+                }
+                return new Layout(lineEnd, header, delimiter, columnIndex, null);
+            }
+            byte[] jsonKey = format == DatasetProfiler.Format.JSONL && textColumn != null
+                    ? textColumn.getBytes(StandardCharsets.UTF_8) : null;
+            return new Layout(start, null, (byte) 0, -1, jsonKey);
+        }
+
+        /**
+         * 行中参与比较的范围，打包为(起始 << 32 | 结束)，比较整行时返回-1
+         */
+        long range(byte[] bytes, int start, int end) {
+            return columnIndex >= 0 ? DatasetSplitter.fieldRange(bytes, start, end, delimiter, columnIndex)
+                    : jsonKey != null ? DatasetSplitter.jsonFieldRange(bytes, start, end, jsonKey) : -1;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.ai.cockpit.util;
+
+import java.util.Arrays;
+
+/**
+ * 行文本的MinHash签名与LSH分带键
+ * <p>
+ * 文本先规范化（ASCII字母转小写，连续空白合并为一个空格并去掉首尾空白），再按shingleSize字节的滑动窗口取片段，
+ * 片段哈希用滚动多项式计算，每行只需O(长度 + 签名长度)。
+ * 签名采用单次排列MinHash（One Permutation Hashing）：片段哈希的高32位决定落入的桶，低32位参与取最小值，
+ * 空桶取右侧最近非空桶的值加上距离偏移（旋转致密化），使短文本的签名仍然可比。
+ * 签名分为bands段、每段rowsPerBand个桶，每段哈希为一个64位分带键，两行至少有一段分带键相同即为近似重复候选，
+ * Jaccard相似度为s的两行成为候选的概率为1 - (1 - s^rowsPerBand)^bands。
+ * <p>
+ * 实例持有缓冲区，非线程安全，每个扫描线程使用独立实例。
+ */
+public class MinHashSketcher {
+
+    private static final long ROLL = 0x100000001B3L;
+
+    private static final long EMPTY = Long.MAX_VALUE;
+
+    /** 原始桶值小于2^32，致密化填充的值不小于2^32 */
+    private static final long FILLED = 1L << 32;
+
+    private final int bands;
+
+    private final int rowsPerBand;
+
+    private final int shingleSize;
+
+    private final long seedMix;
+
+    /** ROLL^(shingleSize-1)，滚动时移出窗口首字节用 */
+    private final long rollOut;
+
+    private final long[] signature;
+
+    private byte[] text = new byte[256];
+
+    public MinHashSketcher(int bands, int rowsPerBand, int shingleSize, long seed) {
+        if (bands <= 0 || rowsPerBand <= 0 || shingleSize <= 0) {
+            throw new IllegalArgumentException("分带数、每带行数与片段长度必须大于0");
+        }
+        this.bands = bands;
+        this.rowsPerBand = rowsPerBand;
+        this.shingleSize = shingleSize;
+        this.seedMix = HyperLogLog.mix(seed ^ 0x9E3779B97F4A7C15L);
+        long power = 1;
+        for (int i = 1; i < shingleSize; i++) {
+            power *= ROLL;
+        }
+        this.rollOut = power;
+        this.signature = new long[bands * rowsPerBand];
+    }
+
+    /**
+     * 完全重复判断用的原文哈希
+     */
+    public static long exactHash(byte[] bytes, int start, int end) {
+        return HyperLogLog.hash(bytes, start, end - start);
+    }
+
+    /**
+     * 计算[start, end)的分带键，写入keys[0, bands)
+     */
+    public void bandKeys(byte[] bytes, int start, int end, long[] keys) {
+        int length = normalize(bytes, start, end);
+        Arrays.fill(signature, EMPTY);
+        if (length <= shingleSize) {
+            add(HyperLogLog.hash(text, 0, length));
+        } else {
+            long h = 0;
+            for (int i = 0; i < shingleSize; i++) {
+                h = h * ROLL + (text[i] & 0xFF);
+            }
+            add(h);
+            for (int i = shingleSize; i < length; i++) {
+                h = (h - (text[i - shingleSize] & 0xFF) * rollOut) * ROLL + (text[i] & 0xFF);
+                add(h);
+            }
+        }
+        densify();
+        for (int b = 0; b < bands; b++) {
+            long h = seedMix + b * 0x9E3779B97F4A7C15L;
+            for (int i = b * rowsPerBand, to = i + rowsPerBand; i < to; i++) {
+                h = (h ^ signature[i]) * 0xBF58476D1CE4E5B9L;
+                h ^= h >>> 31;
+            }
+            keys[b] = HyperLogLog.mix(h);
+        }
+    }
+
+    private void add(long shingle) {
+        long x = HyperLogLog.mix(shingle ^ seedMix);
+        int bin = (int) (((x >>> 32) * signature.length) >>> 32);
+        long value = x & 0xFFFFFFFFL;
+        if (value < signature[bin]) {
+            signature[bin] = value;
+        }
+    }
+
+    /**
+     * 从任一非空桶开始向左环绕一圈，空桶取右侧最近非空桶的值，按距离偏移到2^32以上以区别于原始值
+     */
+    private void densify() {
+        int size = signature.length;
+        int next = -1;
+        for (int i = size - 1; i >= 0; i--) {
+            if (signature[i] < FILLED) {
+                next = i;
+                break;
+            }
+        }
+        for (int step = 1, j = next; step < size; step++) {
+            j = j == 0 ? size - 1 : j - 1;
+            if (signature[j] < FILLED) {
+                next = j;
+            } else {
+                int distance = next > j ? next - j : next + size - j;
+                signature[j] = signature[next] + ((long) distance << 32);
+            }
+        }
+    }
+
+    /**
+     * 规范化到text缓冲区，返回长度
+     */
+    private int normalize(byte[] bytes, int start, int end) {
+        if (text.length < end - start) {
+            text = new byte[Math.max(end - start, text.length * 2)];
+        }
+        int length = 0;
+        boolean space = false;
+        for (int i = start; i < end; i++) {
+            byte b = bytes[i];
+            if (b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '\f') {
+                space = length > 0;
+                continue;
+            }
+            if (space) {
+                text[length++] = ' ';
+                space = false;
+            }
+            text[length++] = b >= 'A' && b <= 'Z' ? (byte) (b + 32) : b;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,118 @@
+package com.ai.cockpit.util;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 主动探测目标地址策略
+ * <p>
+ * 回环、链路本地（含云主机元数据地址169.254.169.254）、私有网段、运营商级NAT、IPv6唯一本地、组播与通配地址默认禁止探测，
+ * 只有列入白名单的主机名或落在白名单网段（CIDR）内的地址才允许；公网地址不受限制。
+ * 主机名解析出的全部地址都必须允许，避免同一主机名同时解析到内外网地址绕过检查。
+ */
+public class ProbeAddressPolicy {
+
+    private final Set<String> hosts = new HashSet<>();
+
+    private final List<byte[]> networks = new ArrayList<>();
+
+    private final List<Integer> prefixes = new ArrayList<>();
+
+    /**
+     * @param allowList 逗号分隔的主机名或CIDR（如 10.0.0.0/8、prometheus.internal），为空时禁止全部内网地址
+     */
+    public ProbeAddressPolicy(String allowList) {
+        if (allowList == null) {
+            return;
+        }
+        for (String item : allowList.split(",")) {
+            String entry = item.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            int slash = entry.indexOf('/');
+            if (slash < 0) {
+                hosts.add(entry.toLowerCase(Locale.ROOT));
+                continue;
+            }
+            byte[] network;
+            int prefix;
+            try {
+                network = InetAddress.getByName(entry.substring(0, slash)).getAddress();
+                prefix = Integer.parseInt(entry.substring(slash + 1));
+            } catch (UnknownHostException | NumberFormatException e) {
+                throw new IllegalArgumentException("无效的探测白名单网段: " + entry);
+            }
+            if (prefix < 0 || prefix > network.length * 8) {
+                throw new IllegalArgumentException("无效的探测白名单网段: " + entry);
+            }
+            networks.add(network);
+            prefixes.add(prefix);
+        }
+    }
+
+    /**
+     * 解析主机名并检查全部地址，返回用于连接的地址
+     *
+     * @throws IOException 无法解析或地址不允许探测
+     */
+    public InetAddress resolve(String host) throws IOException {
+        InetAddress[] addresses = InetAddress.getAllByName(host);
+        if (!hosts.contains(host.toLowerCase(Locale.ROOT))) {
+            for (InetAddress address : addresses) {
+                if (isInternal(address) && !inAllowedNetwork(address)) {
+                    throw new IOException("探测目标地址不允许: " + host + " -> " + address.getHostAddress());
+                }
+            }
+        }
+        return addresses[0];
+    }
+
+    private boolean inAllowedNetwork(InetAddress address) {
+        byte[] bytes = address.getAddress();
+        for (int n = 0; n < networks.size(); n++) {
+            byte[] network = networks.get(n);
+            if (network.length == bytes.length && matches(bytes, network, prefixes.get(n))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(byte[] address, byte[] network, int prefix) {
+        int full = prefix / 8;
+        for (int i = 0; i < full; i++) {
+            if (address[i] != network[i]) {
+                return false;
+            }
+        }
+        int rest = prefix % 8;
+        if (rest == 0) {
+            return true;
+        }
+        int mask = 0xFF << (8 - rest) & 0xFF;
+        return (address[full] & mask) == (network[full] & mask);
+    }
+
+    private static boolean isInternal(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return true;
+        }
+        byte[] bytes = address.getAddress();
+        if (bytes.length == 4) {
+            int first = bytes[0] & 0xFF;
+            int second = bytes[1] & 0xFF;
+            // 0.0.0.0/8、100.64.0.0/10（运营商级NAT）
+            return first == 0 || (first == 100 && second >= 64 && second < 128);
+        }
+        // fc00::/7（唯一本地地址）
+        return (bytes[0] & 0xFE) == 0xFC;
+    }
+}
@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Component;
 
 import java.util.Collection;
@@ -163,6 +164,59 @@ public class RedisUtil {
         return redisTemplate.opsForValue().increment(key, -delta);
     }
 
+    // ============================== 租约操作 ==============================
+
+    /** 值等于持有者时续期 */
+    private static final DefaultRedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('expire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    /** 值等于持有者时删除 */
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    /**
+     * 键不存在时放入并设置时间（SET NX EX），用于跨节点互斥的租约
+     * @param key 键
+     * @param owner 持有者标识
+     * @param time 时间(秒) 必须大于0
+     * @return true成功获得 false已被持有或Redis不可用
+     */
+    public boolean tryLease(String key, String owner, long time) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, owner, time, TimeUnit.SECONDS));
+        } catch (Exception e) {
+            log.error("获取租约失败, key: {}", key, e);
+            return false;
+        }
+    }
+
+    /**
+     * 仍由owner持有时把租约续期为time秒
+     * @return true续期成功 false租约已过期或被其他持有者获得
+     */
+    public boolean renewLease(String key, String owner, long time) {
+        try {
+            Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(key), owner, time);
+            return renewed != null && renewed > 0;
+        } catch (Exception e) {
+            log.error("续期租约失败, key: {}", key, e);
+            return false;
+        }
+    }
+
+    /**
+     * 仍由owner持有时释放租约
+     */
+    public void releaseLease(String key, String owner) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(key), owner);
+        } catch (Exception e) {
+            log.error("释放租约失败, key: {}", key, e);
+        }
+    }
+
     // ============================== Hash操作 ==============================
 
     /**
@@ -0,0 +1,382 @@
+package com.ai.cockpit.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 单个监控序列的多级降采样汇总
+ * <p>
+ * 每一级按固定分辨率维护一个环形缓冲区，槽位保存该时间桶的最小值、最大值、总和、样本数与P95。
+ * 原始样本写入最细一级的开放桶，桶关闭后再作为一条汇总输入写入上一级的开放桶，
+ * 各级的环形容量即保留期，超出保留期的桶会被自然覆盖。
+ * 非线程安全，由调用方加锁。
+ */
+public class RollupSeries {
+
+    /** P95分位 */
+    private static final double P95 = 0.95;
+
+    private final Tier[] tiers;
+
+    /**
+     * @param resolutions 各级分辨率（毫秒），从细到粗，且每一级必须是上一级的整数倍
+     * @param capacities  各级保留的桶数量
+     */
+    public RollupSeries(long[] resolutions, int[] capacities) {
+        tiers = new Tier[resolutions.length];
+        for (int i = resolutions.length - 1; i >= 0; i--) {
+            tiers[i] = new Tier(resolutions[i], capacities[i], i + 1 < resolutions.length ? tiers[i + 1] : null);
+        }
+    }
+
+    /**
+     * 写入原始样本
+     */
+    public void add(long timestamp, double value) {
+        tiers[0].add(Math.floorDiv(timestamp, tiers[0].resolution), value, value, value, 1, value);
+    }
+
+    /**
+     * 遍历指定级别在[start, end]区间内的桶（包含尚未关闭的开放桶）
+     */
+    public void forEach(int tier, long start, long end, BucketConsumer consumer) {
+        tiers[tier].forEach(start, end, consumer);
+    }
+
+    /**
+     * 已完整写入汇总的时间上界，重启恢复时从该时间点开始回放原始样本
+     */
+    public long closedUntil() {
+        Tier finest = tiers[0];
+        if (finest.openId != Long.MIN_VALUE) {
+            return finest.openId * finest.resolution;
+        }
+        return finest.lastClosedId == Long.MIN_VALUE ? Long.MIN_VALUE : (finest.lastClosedId + 1) * finest.resolution;
+    }
+
+    /**
+     * 清理超过各级保留期的桶，整级过期时释放内存
+     */
+    public boolean expire(long now) {
+        boolean empty = true;
+        for (Tier tier : tiers) {
+            empty &= tier.expire(now);
+        }
+        return empty;
+    }
+
+    /**
+     * 序列化已关闭的桶
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(tiers.length);
+        for (Tier tier : tiers) {
+            tier.write(out);
+        }
+    }
+
+    /**
+     * 恢复已关闭的桶，并根据下一级的已关闭桶重建上一级的开放桶
+     */
+    public void read(DataInput in) throws IOException {
+        int levels = in.readInt();
+        for (int i = 0; i < levels; i++) {
+            if (i < tiers.length) {
+                tiers[i].read(in);
+            } else {
+                new Tier(1, 0, null).read(in);
+            }
+        }
+        for (int i = 0; i + 1 < tiers.length; i++) {
+            tiers[i].replayIntoParent();
+        }
+    }
+
+    /**
+     * 桶访问器
+     */
+    @FunctionalInterface
+    public interface BucketConsumer {
+        void accept(long bucketStart, double min, double max, double sum, long count, double p95);
+    }
+
+    /**
+     * 单级汇总
+     */
+    private static final class Tier {
+
+        final long resolution;
+
+        final int capacity;
+
+        final Tier parent;
+
+        /** 槽位对应的桶编号（timestamp / resolution），-1表示空槽 */
+        long[] bucketIds;
+        float[] min;
+        float[] max;
+        float[] p95;
+        double[] sum;
+        int[] count;
+
+        long lastClosedId = Long.MIN_VALUE;
+
+        /** 开放桶 */
+        long openId = Long.MIN_VALUE;
+        double openMin;
+        double openMax;
+        double openSum;
+        long openCount;
+        double[] quantileValues = new double[8];
+        long[] quantileWeights = new long[8];
+        int quantileSize;
+
+        Tier(long resolution, int capacity, Tier parent) {
+            this.resolution = resolution;
+            this.capacity = capacity;
+            this.parent = parent;
+        }
+
+        void add(long bucketId, double vMin, double vMax, double vSum, long vCount, double vP95) {
+            if (bucketId < openId || bucketId <= lastClosedId) {
+                return;
+            }
+            if (bucketId != openId) {
+                close();
+                openId = bucketId;
+                openMin = Double.POSITIVE_INFINITY;
+                openMax = Double.NEGATIVE_INFINITY;
+                openSum = 0;
+                openCount = 0;
+                quantileSize = 0;
+            }
+            openMin = Math.min(openMin, vMin);
+            openMax = Math.max(openMax, vMax);
+            openSum += vSum;
+            openCount += vCount;
+            if (quantileSize == quantileValues.length) {
+                quantileValues = Arrays.copyOf(quantileValues, quantileSize * 2);
+                quantileWeights = Arrays.copyOf(quantileWeights, quantileSize * 2);
+            }
+            quantileValues[quantileSize] = vP95;
+            quantileWeights[quantileSize] = vCount;
+            quantileSize++;
+        }
+
+        void close() {
+            if (openId == Long.MIN_VALUE || openCount == 0) {
+                return;
+            }
+            double openP95 = weightedQuantile(quantileValues, quantileWeights, quantileSize, P95);
+            store(openId, openMin, openMax, openSum, openCount, openP95);
+            if (parent != null) {
+                parent.add(Math.floorDiv(openId * resolution, parent.resolution), openMin, openMax, openSum, openCount, openP95);
+            }
+            openId = Long.MIN_VALUE;
+        }
+
+        void store(long bucketId, double bMin, double bMax, double bSum, long bCount, double bP95) {
+            if (capacity == 0) {
+                return;
+            }
+            if (bucketIds == null) {
+                bucketIds = new long[capacity];
+                Arrays.fill(bucketIds, -1L);
+                min = new float[capacity];
+                max = new float[capacity];
+                p95 = new float[capacity];
+                sum = new double[capacity];
+                count = new int[capacity];
+            }
+            int slot = (int) Math.floorMod(bucketId, (long) capacity);
+            bucketIds[slot] = bucketId;
+            min[slot] = (float) bMin;
+            max[slot] = (float) bMax;
+            p95[slot] = (float) bP95;
+            sum[slot] = bSum;
+            count[slot] = (int) Math.min(Integer.MAX_VALUE, bCount);
+            lastClosedId = Math.max(lastClosedId, bucketId);
+        }
+
+        void forEach(long start, long end, BucketConsumer consumer) {
+            long firstId = Math.floorDiv(start, resolution);
+            long lastId = Math.floorDiv(end, resolution);
+            if (bucketIds != null) {
+                long from = Math.max(firstId, lastClosedId - capacity + 1);
+                long to = Math.min(lastId, lastClosedId);
+                for (long id = from; id <= to; id++) {
+                    int slot = (int) Math.floorMod(id, (long) capacity);
+                    if (bucketIds[slot] == id) {
+                        consumer.accept(id * resolution, min[slot], max[slot], sum[slot], count[slot], p95[slot]);
+                    }
+                }
+            }
+            if (openId != Long.MIN_VALUE && openCount > 0 && openId >= firstId && openId <= lastId) {
+                consumer.accept(openId * resolution, openMin, openMax, openSum, openCount,
+                        weightedQuantile(quantileValues, quantileWeights, quantileSize, P95));
+            }
+        }
+
+        boolean expire(long now) {
+            long currentId = Math.floorDiv(now, resolution);
+            long oldestId = currentId - capacity + 1;
+            // 开放桶的时间窗口已过去一个完整周期时关闭，使上一级能及时看到数据
+            if (openId != Long.MIN_VALUE && openId < currentId - 1) {
+                close();
+            }
+            if (bucketIds == null) {
+                return openId == Long.MIN_VALUE;
+            }
+            if (lastClosedId < oldestId && openId == Long.MIN_VALUE) {
+                bucketIds = null;
+                min = max = p95 = null;
+                sum = null;
+                count = null;
+                return true;
+            }
+            for (int i = 0; i < capacity; i++) {
+                if (bucketIds[i] != -1L && bucketIds[i] < oldestId) {
+                    bucketIds[i] = -1L;
+                }
+            }
+            return false;
+        }
+
+        void write(DataOutput out) throws IOException {
+            out.writeLong(resolution);
+            int valid = 0;
+            if (bucketIds != null) {
+                for (long id : bucketIds) {
+                    if (id != -1L) {
+                        valid++;
+                    }
+                }
+            }
+            out.writeInt(valid);
+            if (valid == 0) {
+                return;
+            }
+            for (int i = 0; i < capacity; i++) {
+                if (bucketIds[i] != -1L) {
+                    out.writeLong(bucketIds[i]);
+                    out.writeFloat(min[i]);
+                    out.writeFloat(max[i]);
+                    out.writeFloat(p95[i]);
+                    out.writeDouble(sum[i]);
+                    out.writeInt(count[i]);
+                }
+            }
+        }
+
+        void read(DataInput in) throws IOException {
+            boolean compatible = in.readLong() == resolution;
+            int valid = in.readInt();
+            for (int i = 0; i < valid; i++) {
+                long id = in.readLong();
+                float bMin = in.readFloat();
+                float bMax = in.readFloat();
+                float bP95 = in.readFloat();
+                double bSum = in.readDouble();
+                int bCount = in.readInt();
+                if (compatible) {
+                    store(id, bMin, bMax, bSum, bCount, bP95);
+                }
+            }
+        }
+
+        /**
+         * 将尚未被上一级关闭的桶重新写入上一级的开放桶
+         */
+        void replayIntoParent() {
+            if (bucketIds == null || parent == null) {
+                return;
+            }
+            long parentOpenId = Math.floorDiv(lastClosedId * resolution, parent.resolution);
+            if (parentOpenId <= parent.lastClosedId) {
+                return;
+            }
+            long ratio = parent.resolution / resolution;
+            for (long id = parentOpenId * ratio; id <= lastClosedId; id++) {
+                int slot = (int) Math.floorMod(id, (long) capacity);
+                if (bucketIds[slot] == id) {
+                    parent.add(parentOpenId, min[slot], max[slot], sum[slot], count[slot], p95[slot]);
+                }
+            }
+        }
+    }
+
+    /**
+     * 加权分位数（会对输入数组按值原地排序）
+     */
+    public static double weightedQuantile(double[] values, long[] weights, int size, double quantile) {
+        if (size == 0) {
+            return Double.NaN;
+        }
+        sort(values, weights, 0, size - 1);
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += weights[i];
+        }
+        double threshold = quantile * total;
+        long cumulative = 0;
+        for (int i = 0; i < size; i++) {
+            cumulative += weights[i];
+            if (cumulative >= threshold) {
+                return values[i];
+            }
+        }
+        return values[size - 1];
+    }
+
+    /**
+     * 按值对并行数组排序，小区间使用插入排序
+     */
+    private static void sort(double[] values, long[] weights, int low, int high) {
+        while (high - low > 16) {
+            double pivot = values[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(values, weights, i++, j--);
+                }
+            }
+            if (j - low < high - i) {
+                sort(values, weights, low, j);
+                low = i;
+            } else {
+                sort(values, weights, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            double v = values[i];
+            long w = weights[i];
+            int j = i - 1;
+            while (j >= low && values[j] > v) {
+                values[j + 1] = values[j];
+                weights[j + 1] = weights[j];
+                j--;
+            }
+            values[j + 1] = v;
+            weights[j + 1] = w;
+        }
+    }
+
+    private static void swap(double[] values, long[] weights, int i, int j) {
+        double v = values[i];
+        values[i] = values[j];
+        values[j] = v;
+        long w = weights[i];
+        weights[i] = weights[j];
+        weights[j] = w;
+    }
+}
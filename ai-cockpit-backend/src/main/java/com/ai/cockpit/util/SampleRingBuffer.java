@@ -0,0 +1,118 @@
+package com.ai.cockpit.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 有界无锁样本环形缓冲区（多生产者单消费者）
+ * <p>
+ * 样本以（序列ID，时间戳，数值）三个原始类型数组保存，不为单个样本创建对象。
+ * 生产者通过一次CAS为整批样本预留连续槽位，容量不足时整批拒绝，由调用方向客户端反馈背压；
+ * 每个槽位写完后单独发布序号，消费者按序号顺序读取已发布的槽位。
+ */
+public class SampleRingBuffer {
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final int[] seriesIds;
+
+    private final long[] timestamps;
+
+    private final double[] values;
+
+    /** 槽位已发布的序号 */
+    private final AtomicLongArray published;
+
+    /** 下一个待预留的序号 */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** 下一个待消费的序号 */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity 容量，向上取整为2的幂
+     */
+    public SampleRingBuffer(int capacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = this.capacity - 1;
+        this.seriesIds = new int[this.capacity];
+        this.timestamps = new long[this.capacity];
+        this.values = new double[this.capacity];
+        this.published = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            published.set(i, -1L);
+        }
+    }
+
+    /**
+     * 写入一批样本，剩余容量不足时不写入任何样本并返回false
+     */
+    public boolean offer(int[] batchSeries, long[] batchTimestamps, double[] batchValues, int count) {
+        if (count == 0) {
+            return true;
+        }
+        if (count > capacity) {
+            return false;
+        }
+        long start;
+        do {
+            start = tail.get();
+            if (start + count - head.get() > capacity) {
+                return false;
+            }
+        } while (!tail.compareAndSet(start, start + count));
+        for (int k = 0; k < count; k++) {
+            long sequence = start + k;
+            int slot = (int) (sequence & mask);
+            seriesIds[slot] = batchSeries[k];
+            timestamps[slot] = batchTimestamps[k];
+            values[slot] = batchValues[k];
+            published.set(slot, sequence);
+        }
+        return true;
+    }
+
+    /**
+     * 消费最多max个已发布的样本（仅限单个消费线程调用）
+     *
+     * @return 实际消费的数量
+     */
+    public int drain(SampleConsumer consumer, int max) {
+        long sequence = head.get();
+        int drained = 0;
+        while (drained < max) {
+            int slot = (int) (sequence & mask);
+            if (published.get(slot) != sequence) {
+                break;
+            }
+            consumer.accept(seriesIds[slot], timestamps[slot], values[slot]);
+            sequence++;
+            drained++;
+        }
+        if (drained > 0) {
+            head.set(sequence);
+        }
+        return drained;
+    }
+
+    /**
+     * 已预留但尚未消费的样本数量
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 样本消费者
+     */
+    @FunctionalInterface
+    public interface SampleConsumer {
+        void accept(int seriesId, long timestamp, double value);
+    }
+}
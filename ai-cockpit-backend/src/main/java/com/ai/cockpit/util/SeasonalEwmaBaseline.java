@@ -0,0 +1,160 @@
+package com.ai.cockpit.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * 在线基线（EWMA均值/方差 + 周内小时季节基线）
+ * <p>
+ * 按槽位保存在原始类型数组中：每个槽位固定保存全局EWMA均值、方差与样本数；
+ * 开启季节基线的槽位再按需分配168个小时桶（均值、方差为float，样本数为byte），约1.5KB。
+ * 每个样本常数时间：先用当前基线计算偏离（标准差倍数），再以截尾后的值更新基线，
+ * 避免异常值把基线拉偏。非线程安全，由调用方加锁。
+ */
+public class SeasonalEwmaBaseline {
+
+    /** 一周的小时数 */
+    public static final int HOURS_PER_WEEK = 168;
+
+    private static final long HOUR_MILLIS = 3_600_000L;
+
+    /** 1970-01-01为周四，换算为以周一0点为起点的小时偏移 */
+    private static final int EPOCH_HOUR_OF_WEEK = 3 * 24;
+
+    private static final int MAX_COUNT = Integer.MAX_VALUE;
+
+    private static final int MAX_BUCKET_COUNT = 127;
+
+    private final double[] mean;
+    private final double[] variance;
+    private final int[] count;
+    private final float[][] seasonal;
+    private final byte[][] seasonalCount;
+
+    /** 本地时区偏移，按周内小时分桶时使用（不跟随夏令时切换） */
+    private final long zoneOffsetMillis;
+
+    public SeasonalEwmaBaseline(int slots) {
+        this(slots, ZoneId.systemDefault().getRules().getOffset(Instant.now()).getTotalSeconds() * 1000L);
+    }
+
+    public SeasonalEwmaBaseline(int slots, long zoneOffsetMillis) {
+        this.mean = new double[slots];
+        this.variance = new double[slots];
+        this.count = new int[slots];
+        this.seasonal = new float[slots][];
+        this.seasonalCount = new byte[slots][];
+        this.zoneOffsetMillis = zoneOffsetMillis;
+    }
+
+    /**
+     * 计算样本相对基线的偏离并更新基线
+     *
+     * @return 偏离的标准差倍数（有符号），基线尚未预热时返回NaN
+     */
+    public double score(int slot, long timestamp, double value, Params params) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return Double.NaN;
+        }
+        int n = count[slot];
+        double baseMean = mean[slot];
+        double baseVariance = variance[slot];
+        boolean ready = n >= params.warmup();
+        float[] buckets = null;
+        int bucket = 0;
+        if (params.seasonal()) {
+            buckets = seasonal[slot];
+            if (buckets == null) {
+                buckets = seasonal[slot] = new float[HOURS_PER_WEEK * 2];
+                seasonalCount[slot] = new byte[HOURS_PER_WEEK];
+            }
+            bucket = hourOfWeek(timestamp);
+            if (seasonalCount[slot][bucket] >= params.seasonalWarmup()) {
+                baseMean = buckets[bucket * 2];
+                baseVariance = buckets[bucket * 2 + 1];
+                ready = true;
+            }
+        }
+        double sigma = Math.max(Math.sqrt(baseVariance), params.minSigma());
+        if (sigma == 0) {
+            sigma = 1e-9 * Math.max(1, Math.abs(baseMean));
+        }
+        double z = (value - baseMean) / sigma;
+        double update = value;
+        if (ready && params.clampSigma() > 0) {
+            double limit = params.clampSigma() * sigma;
+            update = Math.max(baseMean - limit, Math.min(baseMean + limit, value));
+        }
+
+        if (n == 0) {
+            mean[slot] = update;
+            variance[slot] = 0;
+        } else {
+            double diff = update - mean[slot];
+            double increment = params.alpha() * diff;
+            mean[slot] += increment;
+            variance[slot] = (1 - params.alpha()) * (variance[slot] + diff * increment);
+        }
+        if (n < MAX_COUNT) {
+            count[slot] = n + 1;
+        }
+        if (buckets != null) {
+            int bucketCount = seasonalCount[slot][bucket];
+            if (bucketCount == 0) {
+                buckets[bucket * 2] = (float) update;
+                buckets[bucket * 2 + 1] = (float) variance[slot];
+            } else {
+                double diff = update - buckets[bucket * 2];
+                double increment = params.seasonalAlpha() * diff;
+                buckets[bucket * 2] += (float) increment;
+                buckets[bucket * 2 + 1] = (float) ((1 - params.seasonalAlpha()) * (buckets[bucket * 2 + 1] + diff * increment));
+            }
+            if (bucketCount < MAX_BUCKET_COUNT) {
+                seasonalCount[slot][bucket] = (byte) (bucketCount + 1);
+            }
+        }
+        return ready ? z : Double.NaN;
+    }
+
+    /**
+     * 清空槽位状态
+     */
+    public void reset(int slot) {
+        mean[slot] = 0;
+        variance[slot] = 0;
+        count[slot] = 0;
+        seasonal[slot] = null;
+        seasonalCount[slot] = null;
+    }
+
+    public double mean(int slot) {
+        return mean[slot];
+    }
+
+    public double standardDeviation(int slot) {
+        return Math.sqrt(variance[slot]);
+    }
+
+    /**
+     * 周内小时（周一0点为0）
+     */
+    public int hourOfWeek(long timestamp) {
+        long hour = Math.floorDiv(timestamp + zoneOffsetMillis, HOUR_MILLIS);
+        return (int) Math.floorMod(hour + EPOCH_HOUR_OF_WEEK, (long) HOURS_PER_WEEK);
+    }
+
+    /**
+     * 基线参数
+     *
+     * @param alpha          全局EWMA平滑系数
+     * @param warmup         全局基线预热样本数，预热前不判定
+     * @param seasonal       是否启用周内小时季节基线
+     * @param seasonalAlpha  季节桶的平滑系数
+     * @param seasonalWarmup 季节桶预热样本数（不超过127），预热后优先使用季节基线
+     * @param minSigma       标准差下限，避免近乎恒定的序列被微小抖动触发
+     * @param clampSigma     更新基线时把样本截尾到均值±clampSigma倍标准差，0表示不截尾
+     */
+    public record Params(double alpha, int warmup, boolean seasonal, double seasonalAlpha,
+                         int seasonalWarmup, double minSigma, double clampSigma) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.ai.cockpit.util;
+
+import java.util.Arrays;
+
+/**
+ * Theil–Sen稳健线性回归
+ * <p>
+ * 斜率取所有点对斜率的中位数，截距取y - 斜率·x的中位数。少数离群点（停顿、评估、检查点保存造成的跳变）
+ * 不会拉偏结果，崩溃点约29%。点对数为n(n-1)/2，只用于最近几十个样本的小窗口。
+ */
+public final class TheilSen {
+
+    private TheilSen() {
+    }
+
+    /**
+     * 拟合前n个点
+     *
+     * @return {斜率, 截距}，点数少于2或x全部相同时返回null
+     */
+    public static double[] fit(double[] x, double[] y, int n) {
+        if (n < 2) {
+            return null;
+        }
+        double[] slopes = new double[n * (n - 1) / 2];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double dx = x[j] - x[i];
+                if (dx != 0) {
+                    slopes[count++] = (y[j] - y[i]) / dx;
+                }
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+        double slope = median(slopes, count);
+        double[] residuals = new double[n];
+        for (int i = 0; i < n; i++) {
+            residuals[i] = y[i] - slope * x[i];
+        }
+        return new double[]{slope, median(residuals, n)};
+    }
+
+    /**
+     * 前n个值的中位数，会对数组排序
+     */
+    public static double median(double[] values, int n) {
+        Arrays.sort(values, 0, n);
+        return n % 2 == 1 ? values[n / 2] : (values[n / 2 - 1] + values[n / 2]) / 2;
+    }
+}
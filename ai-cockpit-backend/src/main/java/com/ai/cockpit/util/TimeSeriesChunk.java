@@ -0,0 +1,324 @@
+package com.ai.cockpit.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 时序数据压缩块
+ * <p>
+ * 采用Gorilla编码：时间戳使用delta-of-delta编码，数值使用与前值XOR后的前导/尾随零压缩。
+ * 块只允许追加，写入由调用方保证单线程，封存后不可变，可被多个线程并发读取。
+ */
+public class TimeSeriesChunk {
+
+    /** 初始位缓冲长度（long个数） */
+    private static final int INITIAL_WORDS = 16;
+
+    /** 位缓冲 */
+    private long[] words;
+
+    /** 已写入的位数 */
+    private int bitLength;
+
+    /** 样本数量 */
+    private int count;
+
+    /** 首个时间戳 */
+    private long minTimestamp;
+
+    /** 最后时间戳 */
+    private long maxTimestamp;
+
+    /** 上一个时间差 */
+    private long lastDelta;
+
+    /** 上一个数值的原始位 */
+    private long lastValueBits;
+
+    /** 上一个XOR块的前导零个数 */
+    private int lastLeading = Integer.MAX_VALUE;
+
+    /** 上一个XOR块的尾随零个数 */
+    private int lastTrailing;
+
+    /** 是否已封存 */
+    private volatile boolean sealed;
+
+    public TimeSeriesChunk() {
+        this.words = new long[INITIAL_WORDS];
+    }
+
+    private TimeSeriesChunk(long[] words, int bitLength, int count, long minTimestamp, long maxTimestamp) {
+        this.words = words;
+        this.bitLength = bitLength;
+        this.count = count;
+        this.minTimestamp = minTimestamp;
+        this.maxTimestamp = maxTimestamp;
+        this.sealed = true;
+    }
+
+    /**
+     * 追加样本，时间戳必须单调不减
+     */
+    public boolean append(long timestamp, double value) {
+        if (sealed) {
+            throw new IllegalStateException("chunk already sealed");
+        }
+        if (count > 0 && timestamp < maxTimestamp) {
+            return false;
+        }
+        long valueBits = Double.doubleToRawLongBits(value);
+        if (count == 0) {
+            writeBits(timestamp, 64);
+            writeBits(valueBits, 64);
+            minTimestamp = timestamp;
+        } else {
+            long delta = timestamp - maxTimestamp;
+            writeTimestampDelta(delta - lastDelta);
+            writeValueXor(valueBits ^ lastValueBits);
+            lastDelta = delta;
+        }
+        maxTimestamp = timestamp;
+        lastValueBits = valueBits;
+        count++;
+        return true;
+    }
+
+    /**
+     * 封存块并收缩缓冲区
+     */
+    public void seal() {
+        if (!sealed) {
+            words = Arrays.copyOf(words, (bitLength + 63) >>> 6);
+            sealed = true;
+        }
+    }
+
+    /**
+     * 顺序解码[start, end]区间内的样本
+     */
+    public void scan(long start, long end, SampleVisitor visitor) {
+        if (count == 0 || end < minTimestamp || start > maxTimestamp) {
+            return;
+        }
+        BitReader reader = new BitReader(words);
+        long timestamp = reader.read(64);
+        long valueBits = reader.read(64);
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                delta += readTimestampDelta(reader);
+                timestamp += delta;
+                if (reader.readBit() != 0) {
+                    if (reader.readBit() != 0) {
+                        leading = (int) reader.read(6);
+                        int significant = (int) reader.read(6) + 1;
+                        trailing = 64 - leading - significant;
+                    }
+                    int significant = 64 - leading - trailing;
+                    valueBits ^= reader.read(significant) << trailing;
+                }
+            }
+            if (timestamp > end) {
+                return;
+            }
+            if (timestamp >= start) {
+                visitor.accept(timestamp, Double.longBitsToDouble(valueBits));
+            }
+        }
+    }
+
+    /**
+     * 序列化为字节数组（仅限已封存的块）
+     */
+    public byte[] toBytes() {
+        if (!sealed) {
+            throw new IllegalStateException("chunk not sealed");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(24 + words.length * 8);
+        buffer.putInt(count);
+        buffer.putInt(bitLength);
+        buffer.putLong(minTimestamp);
+        buffer.putLong(maxTimestamp);
+        for (long word : words) {
+            buffer.putLong(word);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * 从字节数组反序列化为已封存的块
+     */
+    public static TimeSeriesChunk fromBytes(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        int bitLength = buffer.getInt();
+        long minTimestamp = buffer.getLong();
+        long maxTimestamp = buffer.getLong();
+        long[] words = new long[(bitLength + 63) >>> 6];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = buffer.getLong();
+        }
+        return new TimeSeriesChunk(words, bitLength, count, minTimestamp, maxTimestamp);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getMinTimestamp() {
+        return minTimestamp;
+    }
+
+    public long getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    public boolean isSealed() {
+        return sealed;
+    }
+
+    /**
+     * 当前占用的字节数
+     */
+    public int sizeInBytes() {
+        return words.length * 8;
+    }
+
+    private void writeTimestampDelta(long dod) {
+        if (dod == 0) {
+            writeBits(0, 1);
+        } else if (dod >= -64 && dod <= 63) {
+            writeBits(0b10, 2);
+            writeBits(dod, 7);
+        } else if (dod >= -256 && dod <= 255) {
+            writeBits(0b110, 3);
+            writeBits(dod, 9);
+        } else if (dod >= -2048 && dod <= 2047) {
+            writeBits(0b1110, 4);
+            writeBits(dod, 12);
+        } else {
+            writeBits(0b1111, 4);
+            writeBits(dod, 64);
+        }
+    }
+
+    private static long readTimestampDelta(BitReader reader) {
+        if (reader.readBit() == 0) {
+            return 0;
+        }
+        if (reader.readBit() == 0) {
+            return signExtend(reader.read(7), 7);
+        }
+        if (reader.readBit() == 0) {
+            return signExtend(reader.read(9), 9);
+        }
+        if (reader.readBit() == 0) {
+            return signExtend(reader.read(12), 12);
+        }
+        return reader.read(64);
+    }
+
+    private static long signExtend(long value, int bits) {
+        int shift = 64 - bits;
+        return (value << shift) >> shift;
+    }
+
+    private void writeValueXor(long xor) {
+        if (xor == 0) {
+            writeBits(0, 1);
+            return;
+        }
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 63);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (leading >= lastLeading && trailing >= lastTrailing) {
+            // 复用上一个有效位窗口
+            writeBits(0b10, 2);
+            int significant = 64 - lastLeading - lastTrailing;
+            writeBits(xor >>> lastTrailing, significant);
+        } else {
+            int significant = 64 - leading - trailing;
+            writeBits(0b11, 2);
+            writeBits(leading, 6);
+            writeBits(significant - 1, 6);
+            writeBits(xor >>> trailing, significant);
+            lastLeading = leading;
+            lastTrailing = trailing;
+        }
+    }
+
+    private void writeBits(long value, int bits) {
+        if (bits == 0) {
+            return;
+        }
+        ensureCapacity(bitLength + bits);
+        if (bits < 64) {
+            value &= (1L << bits) - 1;
+        }
+        int index = bitLength >>> 6;
+        int offset = bitLength & 63;
+        int free = 64 - offset;
+        if (bits <= free) {
+            words[index] |= value << (free - bits);
+        } else {
+            int overflow = bits - free;
+            words[index] |= value >>> overflow;
+            words[index + 1] |= value << (64 - overflow);
+        }
+        bitLength += bits;
+    }
+
+    private void ensureCapacity(int bits) {
+        int required = (bits + 63) >>> 6;
+        if (required > words.length) {
+            words = Arrays.copyOf(words, Math.max(required, words.length * 2));
+        }
+    }
+
+    /**
+     * 样本访问器
+     */
+    @FunctionalInterface
+    public interface SampleVisitor {
+        void accept(long timestamp, double value);
+    }
+
+    /**
+     * 位读取器
+     */
+    private static final class BitReader {
+
+        private final long[] words;
+
+        private int position;
+
+        BitReader(long[] words) {
+            this.words = words;
+        }
+
+        int readBit() {
+            int bit = (int) (words[position >>> 6] >>> (63 - (position & 63))) & 1;
+            position++;
+            return bit;
+        }
+
+        long read(int bits) {
+            if (bits == 0) {
+                return 0;
+            }
+            int index = position >>> 6;
+            int offset = position & 63;
+            int available = 64 - offset;
+            long result;
+            if (bits <= available) {
+                result = words[index] >>> (available - bits);
+            } else {
+                int overflow = bits - available;
+                result = (words[index] << overflow) | (words[index + 1] >>> (64 - overflow));
+            }
+            position += bits;
+            return bits == 64 ? result : result & ((1L << bits) - 1);
+        }
+    }
+}
@@ -55,6 +55,7 @@ CREATE TABLE IF NOT EXISTS `dataset` (
     `type` VARCHAR(50) NOT NULL COMMENT '数据类型：TEXT, IMAGE, AUDIO, VIDEO',
     `file_path` VARCHAR(500) COMMENT '数据集文件路径',
     `file_size` BIGINT DEFAULT 0 COMMENT '文件大小',
+    `file_checksum` VARCHAR(100) COMMENT '文件校验和：sha256:{hex}或sha256-parts:{hex}-{分片数}',
     `data_count` INT DEFAULT 0 COMMENT '数据条数',
     `status` TINYINT DEFAULT 1 COMMENT '状态：0-禁用 1-启用',
     `created_by` BIGINT NOT NULL COMMENT '创建者ID',
@@ -73,7 +74,7 @@ CREATE TABLE IF NOT EXISTS `training_task` (
     `name` VARCHAR(100) NOT NULL COMMENT '任务名称',
     `model_id` BIGINT NOT NULL COMMENT '模型ID',
     `dataset_id` BIGINT NOT NULL COMMENT '数据集ID',
-    `status` TINYINT DEFAULT 0 COMMENT '状态：0-等待中 1-运行中 2-已完成 3-失败 4-取消',
+    `status` TINYINT DEFAULT 0 COMMENT '状态：0-等待中 1-运行中 2-已完成 3-失败 4-取消 5-排队中',
     `progress` DECIMAL(5,2) DEFAULT 0.00 COMMENT '进度百分比',
     `epochs` INT DEFAULT 10 COMMENT '训练轮数',
     `batch_size` INT DEFAULT 32 COMMENT '批次大小',
@@ -82,6 +83,11 @@ CREATE TABLE IF NOT EXISTS `training_task` (
     `accuracy` DECIMAL(5,4) DEFAULT 0.0000 COMMENT '准确率',
     `start_time` DATETIME COMMENT '开始时间',
     `end_time` DATETIME COMMENT '结束时间',
+    `priority` INT DEFAULT 0 COMMENT '调度优先级，数值越大越先执行',
+    `queued_time` DATETIME COMMENT '进入执行队列的时间',
+    `queue_wait` BIGINT COMMENT '排队时长（秒）',
+    `executor_node` VARCHAR(64) COMMENT '启动训练进程的节点标识',
+    `version` BIGINT NOT NULL DEFAULT 0 COMMENT '乐观锁版本',
     `created_by` BIGINT NOT NULL COMMENT '创建者ID',
     `created_time` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `updated_time` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
@@ -90,6 +96,7 @@ CREATE TABLE IF NOT EXISTS `training_task` (
     FOREIGN KEY (`dataset_id`) REFERENCES `dataset`(`id`) ON DELETE CASCADE,
     FOREIGN KEY (`created_by`) REFERENCES `user`(`id`) ON DELETE CASCADE,
     INDEX `idx_status` (`status`),
+    INDEX `idx_training_task_status_priority` (`status`, `priority`),
     INDEX `idx_model_id` (`model_id`),
     INDEX `idx_created_by` (`created_by`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='训练任务表';
@@ -178,6 +185,49 @@ CREATE TABLE IF NOT EXISTS `agent_config` (
     INDEX `idx_created_by` (`created_by`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Agent配置表';
 
+-- 创建监控可用性桶表
+CREATE TABLE IF NOT EXISTS `monitor_sla_bucket` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `monitor_id` BIGINT NOT NULL COMMENT '监控项ID',
+    `node_id` VARCHAR(64) NOT NULL COMMENT '写入节点标识',
+    `bucket_start` BIGINT NOT NULL COMMENT '桶起始时间（Unix纪元分钟数）',
+    `bucket_minutes` INT NOT NULL COMMENT '桶长度（分钟）',
+    `payload` BLOB NOT NULL COMMENT '分钟级检查/失败位图与延迟草图',
+    `updated_time` DATETIME NOT NULL COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_monitor_node_bucket` (`monitor_id`, `node_id`, `bucket_start`, `bucket_minutes`),
+    INDEX `idx_bucket_start` (`bucket_start`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='监控可用性桶表';
+
+-- 创建数据集分片上传表
+CREATE TABLE IF NOT EXISTS `dataset_upload` (
+    `upload_id` VARCHAR(36) NOT NULL COMMENT '上传ID',
+    `dataset_id` BIGINT NOT NULL COMMENT '数据集ID',
+    `file_name` VARCHAR(255) NOT NULL COMMENT '文件名',
+    `file_size` BIGINT NOT NULL COMMENT '文件大小',
+    `part_size` BIGINT NOT NULL COMMENT '分片大小',
+    `part_count` INT NOT NULL COMMENT '分片数',
+    `backend` VARCHAR(20) NOT NULL COMMENT '存储后端',
+    `status` TINYINT NOT NULL DEFAULT 0 COMMENT '状态：0-上传中 1-合并中 2-已完成 3-已取消',
+    `create_time` DATETIME NOT NULL COMMENT '创建时间',
+    `expire_time` DATETIME NOT NULL COMMENT '过期时间',
+    PRIMARY KEY (`upload_id`),
+    INDEX `idx_dataset_upload_dataset` (`dataset_id`),
+    INDEX `idx_dataset_upload_expire` (`status`, `expire_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='数据集分片上传表';
+
+-- 创建数据集上传分片表
+CREATE TABLE IF NOT EXISTS `dataset_upload_part` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT 'ID',
+    `upload_id` VARCHAR(36) NOT NULL COMMENT '上传ID',
+    `part_number` INT NOT NULL COMMENT '分片序号',
+    `size` BIGINT NOT NULL COMMENT '分片大小',
+    `sha256` CHAR(64) NOT NULL COMMENT '分片SHA-256',
+    `upload_time` DATETIME NOT NULL COMMENT '上传时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_upload_part` (`upload_id`, `part_number`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='数据集上传分片表';
+
 -- 插入初始数据
 -- 插入默认管理员用户（密码：admin123，使用BCrypt加密）
 INSERT IGNORE INTO `user` (`id`, `username`, `email`, `password`, `nickname`, `role`, `status`) VALUES 